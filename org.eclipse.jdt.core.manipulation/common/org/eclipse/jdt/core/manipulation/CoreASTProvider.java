@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 IBM Corporation and others.
+ * Copyright (c) 2018, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,8 @@
 package org.eclipse.jdt.core.manipulation;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.ISafeRunnable;
@@ -31,12 +33,17 @@ import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+import org.eclipse.jdt.internal.core.manipulation.SharedASTCache;
 import org.eclipse.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 
 /**
  * The {@link CoreASTProvider} provides access to the {@link CompilationUnit AST root} used by
  * the current active Java editor.
+ * <p>
+ * ASTs created or reconciled for other elements are kept in a small cache shared by all clients,
+ * so that an element that was parsed for its current contents is not parsed again.
+ * </p>
  *
  * The {@link CoreASTProvider} contains all methods/functionality that are
  * not dependent on the UI, from org.eclipse.jdt.internal.ui.javaeditor.ASTProvider
@@ -63,6 +70,8 @@ public final class CoreASTProvider {
 	private Object fWaitLock= new Object();
 	private volatile boolean fIsReconciling;
 	private volatile Runnable fFinishReconciling;
+	/** Modification stamps of the elements being reconciled, see {@link SharedASTCache} */
+	private final Map<ITypeRoot, Long> fReconcileStamps= new ConcurrentHashMap<>();
 
 	/**
 	 * Wait flag class.
@@ -191,12 +200,18 @@ public final class CoreASTProvider {
 				return null; // thread has been interrupted don't compute AST
 			}
 		} else if (canReturnNull)
-			return null;
+			return isActiveElement ? null : SharedASTCache.getInstance().get(input);
 
 
 		CompilationUnit ast= null;
 		try {
-			ast= createAST(input, progressMonitor);
+			ast= SharedASTCache.getInstance().get(input);
+			if (ast == null) {
+				long stamp= SharedASTCache.getModificationStamp(input);
+				ast= createAST(input, progressMonitor);
+				if (progressMonitor == null || !progressMonitor.isCanceled())
+					SharedASTCache.getInstance().put(input, stamp, ast);
+			}
 			if (progressMonitor != null && progressMonitor.isCanceled()) {
 				ast= null;
 				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
@@ -255,6 +270,7 @@ public final class CoreASTProvider {
 			fIsReconciling= true;
 			this.fFinishReconciling = finishReconciling;
 		}
+		fReconcileStamps.put(javaElement, Long.valueOf(SharedASTCache.getModificationStamp(javaElement)));
 		cache(null, javaElement);
 	}
 
@@ -322,6 +338,10 @@ public final class CoreASTProvider {
 		if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
 			System.out.println(getThreadName() + " - " + DEBUG_PREFIX + "reconciled: " + toString(javaElement) + ", AST: " + toString(ast)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 
+		Long stamp= javaElement != null ? fReconcileStamps.remove(javaElement) : null;
+		if (stamp != null && ast != null && (progressMonitor == null || !progressMonitor.isCanceled()))
+			SharedASTCache.getInstance().put(javaElement, stamp.longValue(), ast);
+
 		synchronized (fReconcileLock) {
 			fIsReconciling= false;
 			fFinishReconciling= null;
@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.manipulation;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.filebuffers.FileBuffers;
+import org.eclipse.core.filebuffers.ITextFileBuffer;
+import org.eclipse.core.filebuffers.LocationKind;
+
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentExtension4;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+
+/**
+ * Keeps the most recently used shared ASTs, so that {@link CoreASTProvider} does not parse a unit
+ * again that the editor or another client already parsed.
+ * <p>
+ * An AST is returned for a Java element only while the element's buffer has the modification stamp
+ * the AST was created from. For a compilation unit open in an editor this is the stamp of the
+ * editor's document, otherwise the stamp of the file. Working copies with another owner are not
+ * cached.
+ * </p>
+ * <p>
+ * Since the bindings of an AST depend on other units, each entry remembers the top-level types it
+ * resolved bindings from, including their super types. A structural change to one of these types
+ * evicts the entry, and so does a classpath change. The types are only collected on the first
+ * structural change after the AST was cached, since most ASTs are replaced by the next reconcile
+ * before that happens. Entries with compile errors are evicted by any
+ * structural change, since a new type may resolve a missing reference.
+ * </p>
+ * <p>
+ * The size can be set with the system property
+ * <code>org.eclipse.jdt.core.manipulation.sharedASTCacheSize</code>, <code>0</code> disables the cache.
+ * </p>
+ *
+ * @since 1.16
+ */
+public final class SharedASTCache implements IElementChangedListener {
+
+	/**
+	 * Stamp of an element whose buffer state is not known.
+	 */
+	public static final long UNKNOWN_STAMP= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+
+	private static final int DEFAULT_SIZE= Integer.getInteger("org.eclipse.jdt.core.manipulation.sharedASTCacheSize", 4).intValue(); //$NON-NLS-1$
+
+	private static final SharedASTCache fgInstance= new SharedASTCache();
+
+	private static final class Entry {
+
+		final long fStamp;
+		final CompilationUnit fAST;
+		final boolean fHasErrors;
+		/** Qualified names of the top-level types the bindings of the AST were resolved from */
+		private Set<String> fDependencies;
+
+		Entry(long stamp, CompilationUnit ast, boolean hasErrors) {
+			fStamp= stamp;
+			fAST= ast;
+			fHasErrors= hasErrors;
+		}
+
+		synchronized boolean dependsOn(Set<String> changedTypes) {
+			if (fDependencies == null)
+				fDependencies= collectDependencies(fAST);
+			for (String changedType : changedTypes) {
+				if (fDependencies.contains(changedType))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	private final LinkedHashMap<ITypeRoot, Entry> fEntries= new LinkedHashMap<>(16, 0.75f, true);
+
+	private int fSize= DEFAULT_SIZE;
+
+	private boolean fListening;
+
+	private long fHits;
+
+	private long fMisses;
+
+	private long fEvictions;
+
+	private SharedASTCache() {
+	}
+
+	/**
+	 * @return The singleton instance of this class.
+	 */
+	public static SharedASTCache getInstance() {
+		return fgInstance;
+	}
+
+	/**
+	 * Returns the cached AST of the given element if it is still valid.
+	 *
+	 * @param element the Java element
+	 * @return the AST, or <code>null</code> if none is cached for the current buffer state
+	 */
+	public CompilationUnit get(ITypeRoot element) {
+		long stamp= getModificationStamp(element);
+		synchronized (this) {
+			Entry entry= fEntries.get(element);
+			if (entry != null && stamp != UNKNOWN_STAMP && entry.fStamp == stamp) {
+				fHits++;
+				if (JavaManipulationPlugin.DEBUG_AST_PROVIDER)
+					System.out.println(CoreASTProvider.getThreadName() + " - " + CoreASTProvider.DEBUG_PREFIX + "shared AST cache hit for: " + element.getElementName()); //$NON-NLS-1$ //$NON-NLS-2$
+				return entry.fAST;
+			}
+			if (entry != null)
+				fEntries.remove(element);
+			fMisses++;
+			return null;
+		}
+	}
+
+	/**
+	 * Caches the given AST.
+	 *
+	 * @param element the Java element the AST was created for
+	 * @param stamp the modification stamp the AST was created from, see
+	 *            {@link #getModificationStamp(ITypeRoot)}
+	 * @param ast the AST, must not be modified by clients
+	 */
+	public void put(ITypeRoot element, long stamp, CompilationUnit ast) {
+		if (element == null || ast == null || stamp == UNKNOWN_STAMP || getSize() <= 0 || !ast.getAST().hasResolvedBindings())
+			return;
+
+		synchronized (this) {
+			Entry entry= fEntries.get(element);
+			if (entry != null && entry.fAST == ast && entry.fStamp == stamp)
+				return;
+		}
+
+		Entry entry= new Entry(stamp, ast, hasErrors(ast));
+		synchronized (this) {
+			if (!fListening) {
+				JavaCore.addElementChangedListener(this, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+				fListening= true;
+			}
+			fEntries.put(element, entry);
+			for (Iterator<Entry> iter= fEntries.values().iterator(); fEntries.size() > fSize && iter.hasNext();) {
+				iter.next();
+				iter.remove();
+				fEvictions++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the modification stamp of the buffer of the given element.
+	 *
+	 * @param element the Java element
+	 * @return the modification stamp or {@link #UNKNOWN_STAMP} if the element cannot be cached
+	 */
+	public static long getModificationStamp(ITypeRoot element) {
+		if (element instanceof IClassFile)
+			return element.exists() ? 0 : UNKNOWN_STAMP; // class files only change with the classpath
+		if (!(element instanceof ICompilationUnit) || ((ICompilationUnit) element).getOwner() != null)
+			return UNKNOWN_STAMP;
+
+		IResource resource= element.getResource();
+		if (resource == null || resource.getType() != IResource.FILE)
+			return UNKNOWN_STAMP;
+
+		ITextFileBuffer buffer= FileBuffers.getTextFileBufferManager().getTextFileBuffer(resource.getFullPath(), LocationKind.IFILE);
+		if (buffer != null) {
+			IDocument document= buffer.getDocument();
+			if (document instanceof IDocumentExtension4)
+				return ((IDocumentExtension4) document).getModificationStamp();
+			return UNKNOWN_STAMP;
+		}
+		if (((ICompilationUnit) element).isWorkingCopy())
+			return UNKNOWN_STAMP; // the buffer is not backed by a document
+		return resource.getModificationStamp();
+	}
+
+	/**
+	 * Sets the maximum number of cached ASTs.
+	 *
+	 * @param size the size, <code>0</code> disables the cache
+	 */
+	public synchronized void setSize(int size) {
+		fSize= size;
+		for (Iterator<Entry> iter= fEntries.values().iterator(); fEntries.size() > fSize && iter.hasNext();) {
+			iter.next();
+			iter.remove();
+		}
+	}
+
+	/**
+	 * @return The maximum number of cached ASTs.
+	 */
+	public synchronized int getSize() {
+		return fSize;
+	}
+
+	/**
+	 * @return The number of lookups that returned a cached AST.
+	 */
+	public synchronized long getHitCount() {
+		return fHits;
+	}
+
+	/**
+	 * @return The number of lookups that did not find a valid AST.
+	 */
+	public synchronized long getMissCount() {
+		return fMisses;
+	}
+
+	/**
+	 * @return The number of ASTs evicted to respect the cache size.
+	 */
+	public synchronized long getEvictionCount() {
+		return fEvictions;
+	}
+
+	/**
+	 * Removes all cached ASTs.
+	 */
+	public synchronized void clear() {
+		fEntries.clear();
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (this) {
+			if (fEntries.isEmpty())
+				return;
+		}
+		Set<String> changedTypes= new HashSet<>();
+		if (!collectChangedTypes(event.getDelta(), changedTypes)) {
+			clear();
+			return;
+		}
+		if (changedTypes.isEmpty())
+			return;
+
+		Map<ITypeRoot, Entry> entries;
+		synchronized (this) {
+			entries= new HashMap<>(fEntries);
+		}
+		// collect the dependencies without holding the lock, lookups must not wait for the AST walk
+		for (Iterator<Entry> iter= entries.values().iterator(); iter.hasNext();) {
+			Entry entry= iter.next();
+			if (!entry.fHasErrors && !entry.dependsOn(changedTypes))
+				iter.remove();
+		}
+		synchronized (this) {
+			for (Map.Entry<ITypeRoot, Entry> stale : entries.entrySet())
+				fEntries.remove(stale.getKey(), stale.getValue()); // unless a new AST was cached meanwhile
+		}
+	}
+
+	/**
+	 * Collects the qualified names of the top-level types whose structure may have changed.
+	 *
+	 * @param delta the Java element delta
+	 * @param changedTypes the set to add to
+	 * @return <code>false</code> if the delta may affect any binding, e.g. because the classpath changed
+	 */
+	private static boolean collectChangedTypes(IJavaElementDelta delta, Set<String> changedTypes) {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED)
+					return false;
+				int flags= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+						| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+						| IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+				if ((delta.getFlags() & flags) != 0)
+					return false;
+				for (IJavaElementDelta child : delta.getAffectedChildren()) {
+					if (!collectChangedTypes(child, changedTypes))
+						return false;
+				}
+				return true;
+			case IJavaElement.COMPILATION_UNIT:
+				ICompilationUnit cu= (ICompilationUnit) element;
+				if (delta.getKind() == IJavaElementDelta.CHANGED) {
+					int cuFlags= delta.getFlags() & ~(IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED);
+					if (cuFlags == 0)
+						return true; // an editor was opened or closed, or the unit was reconciled without changes
+					if ((cuFlags & IJavaElementDelta.F_FINE_GRAINED) != 0 && (cuFlags & IJavaElementDelta.F_CHILDREN) == 0)
+						return true; // only bodies changed
+				}
+				String packageName= cu.getParent().getElementName();
+				String mainTypeName= JavaCore.removeJavaLikeExtension(cu.getElementName());
+				changedTypes.add(packageName.length() == 0 ? mainTypeName : packageName + '.' + mainTypeName);
+				if (cu.exists()) {
+					try {
+						for (IType type : cu.getTypes())
+							changedTypes.add(type.getFullyQualifiedName('.'));
+					} catch (JavaModelException e) {
+						return false;
+					}
+				}
+				for (IJavaElementDelta child : delta.getAffectedChildren()) {
+					if (child.getElement() instanceof IType)
+						changedTypes.add(((IType) child.getElement()).getFullyQualifiedName('.'));
+				}
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean hasErrors(CompilationUnit ast) {
+		for (IProblem problem : ast.getProblems()) {
+			if (problem.isError())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Collects the top-level types the bindings of the given AST were resolved from, including
+	 * their super types.
+	 *
+	 * @param ast the AST
+	 * @return the qualified names of the types
+	 */
+	private static Set<String> collectDependencies(CompilationUnit ast) {
+		final Set<String> dependencies= new HashSet<>();
+		final Set<String> visited= new HashSet<>();
+		ast.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(SimpleName node) {
+				IBinding binding= node.resolveBinding();
+				if (binding instanceof ITypeBinding) {
+					addType((ITypeBinding) binding);
+				} else if (binding instanceof IVariableBinding) {
+					IVariableBinding variable= (IVariableBinding) binding;
+					addType(variable.getDeclaringClass());
+					addType(variable.getType());
+				} else if (binding instanceof IMethodBinding) {
+					IMethodBinding method= (IMethodBinding) binding;
+					addType(method.getDeclaringClass());
+					addType(method.getReturnType());
+					for (ITypeBinding parameterType : method.getParameterTypes())
+						addType(parameterType);
+				}
+				return false;
+			}
+
+			private void addType(ITypeBinding type) {
+				if (type == null)
+					return;
+				if (type.isArray())
+					type= type.getElementType();
+				if (type.isPrimitive() || type.isTypeVariable() || type.isWildcardType() || type.isCapture() || type.isRecovered())
+					return;
+				type= type.getErasure();
+				if (!visited.add(type.getKey()))
+					return;
+
+				ITypeBinding topLevel= type;
+				while (topLevel.getDeclaringClass() != null)
+					topLevel= topLevel.getDeclaringClass();
+				dependencies.add(topLevel.getQualifiedName());
+
+				addType(type.getSuperclass());
+				for (ITypeBinding superInterface : type.getInterfaces())
+					addType(superInterface);
+			}
+		});
+		return dependencies;
+	}
+}
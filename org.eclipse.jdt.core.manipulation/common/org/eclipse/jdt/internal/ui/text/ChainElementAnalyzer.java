@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2011, 2019 Stefan Henss and others.
+ * Copyright (c) 2011, 2022 Stefan Henss and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -10,9 +10,9 @@
  */
 package org.eclipse.jdt.internal.ui.text;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,6 +24,7 @@ import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaModelException;
@@ -34,8 +35,6 @@ import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
 
 public final class ChainElementAnalyzer {
 
-	private static final Map<String, IType> typeCache= new HashMap<>();
-
 	private static final Predicate<IField> NON_STATIC_FIELDS_ONLY_FILTER = t -> {
 		try {
 			return !Flags.isStatic(t.getFlags());
@@ -94,35 +93,54 @@ public final class ChainElementAnalyzer {
     private static Collection<IJavaElement> findFieldsAndMethods(final ChainType type, final ChainType receiverType,
             final Predicate<IField> fieldFilter, final Predicate<IMethod> methodFilter) {
         final Map<String, IJavaElement> tmp = new LinkedHashMap<>();
-        for (final IType cur : findAllSupertypesIncludingArgument(type)) {
+        if (type.getPrimitiveType() != null || type.getType() == null) {
+            return tmp.values();
+        }
+        for (final IMember member : ChainTypeCache.getDefault().getMembers(type.getType(), ChainElementAnalyzer::findAllMembers)) {
+            final String key;
+            if (member instanceof IMethod) {
+                final IMethod method = (IMethod) member;
+                if (!methodFilter.test(method) || !methodCanBeSeenBy(method, receiverType.getType())) {
+                    continue;
+                }
+                key = method.getKey();
+            } else {
+                final IField field = (IField) member;
+                if (!fieldFilter.test(field) || !fieldCanBeSeenBy(field, receiverType.getType())) {
+                    continue;
+                }
+                key = field.getKey();
+            }
+            if (!tmp.containsKey(key)) {
+                tmp.put(key, member);
+            }
+        }
+        return tmp.values();
+    }
+
+    /**
+     * Returns the methods and fields of the given type and all its super types, the methods of a
+     * type before its fields. The result does not depend on the receiver and is cached by the
+     * {@link ChainTypeCache}.
+     *
+     * @param type the type
+     * @return the methods and fields of the type and its super types
+     */
+    private static List<IMember> findAllMembers(final IType type) {
+        final List<IMember> members = new ArrayList<>();
+        for (final IType cur : findAllSupertypesIncludingArgument(new ChainType(type))) {
             try {
-				for (final IMethod method : cur.getMethods()) {
-				    if (!methodFilter.test(method) || !methodCanBeSeenBy(method, receiverType.getType())) {
-				        continue;
-				    }
-				    final String key = method.getKey();
-				    if (!tmp.containsKey(key)) {
-				        tmp.put(key, method);
-				    }
-				}
-			} catch (JavaModelException e) {
-				// ignore
-			}
+                Collections.addAll(members, cur.getMethods());
+            } catch (JavaModelException e) {
+                // ignore
+            }
             try {
-				for (final IField field : cur.getFields()) {
-				    if (!fieldFilter.test(field) || !fieldCanBeSeenBy(field, receiverType.getType())) {
-				        continue;
-				    }
-				    final String key = field.getKey();
-				    if (!tmp.containsKey(key)) {
-				        tmp.put(key, field);
-				    }
-				}
-			} catch (JavaModelException e) {
-				// ignore
-			}
+                Collections.addAll(members, cur.getFields());
+            } catch (JavaModelException e) {
+                // ignore
+            }
         }
-        return tmp.values();
+        return members;
     }
 
     private static List<IType> findAllSupertypesIncludingArgument(final ChainType type) {
@@ -268,7 +286,8 @@ public final class ChainElementAnalyzer {
 	}
 
 	public static IType getTypeFromSignature (IJavaProject proj, String typeSig, IType declType) {
-		IType cType= typeCache.get(typeSig);
+		ChainTypeCache typeCache= ChainTypeCache.getDefault();
+		IType cType= typeCache.getType(proj, typeSig);
 		if (cType != null) {
 			return cType;
 		}
@@ -285,7 +304,7 @@ public final class ChainElementAnalyzer {
 			res= proj.findType(type);
 			if (res != null) {
 				if (isResolved) {
-					typeCache.put(typeSig, res);
+					typeCache.putType(proj, typeSig, res);
 				}
 				return res;
 			}
@@ -293,8 +312,8 @@ public final class ChainElementAnalyzer {
 			if (resType != null) {
 				String fqExpectedType= JavaModelUtil.concatenateName(resType[0][0], resType[0][1]);
 				res= proj.findType(fqExpectedType);
-				if (isResolved) {
-					typeCache.put(typeSig, res);
+				if (res != null && isResolved) {
+					typeCache.putType(proj, typeSig, res);
 				}
 				return res;
 			}
@@ -1,5 +1,5 @@
 /**
- * Copyright (c) 2010, 2020 Darmstadt University of Technology and others.
+ * Copyright (c) 2010, 2022 Darmstadt University of Technology and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,11 +11,15 @@
  */
 package org.eclipse.jdt.internal.ui.text;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IType;
@@ -30,13 +34,17 @@ public class ChainFinder {
 
 	private final IType receiverType;
 
-	private final List<Chain> chains= new LinkedList<>();
+	/**
+	 * The chains found per search, in the order of the entry points the searches start from. A
+	 * search adds to its own list only, the lists are merged by {@link #getChains()}.
+	 */
+	private final List<List<Chain>> chains= new ArrayList<>();
 
-	private final Map<IJavaElement, ChainElement> edgeCache= new HashMap<>();
+	private int maxChains= Integer.MAX_VALUE;
 
-	private final Map<String, List<IJavaElement>> fieldsAndMethodsCache= new HashMap<>();
+	private final Map<String, List<IJavaElement>> fieldsAndMethodsCache= new ConcurrentHashMap<>();
 
-	private final Map<String, Boolean> assignableCache= new HashMap<>();
+	private final Map<String, Boolean> assignableCache= new ConcurrentHashMap<>();
 
 	private volatile boolean isCanceled;
 
@@ -49,6 +57,8 @@ public class ChainFinder {
 
 	public void startChainSearch(final List<ChainElement> entrypoints, final int maxChains, final int minDepth,
 			final int maxDepth) {
+		this.maxChains= maxChains;
+		final List<Chain> found= addSearch();
 		for (final ChainType expected : expectedTypes) {
 			if (expected != null && !ChainFinder.isFromExcludedType(excludedTypes, expected)) {
 				ChainType expectedType= expected;
@@ -57,17 +67,57 @@ public class ChainFinder {
 					expectedDimension= expectedType.getDimension();
 				}
 				searchChainsForExpectedType(expectedType, expectedDimension, entrypoints, maxChains, minDepth,
-						maxDepth);
+						maxDepth, found);
 			}
 		}
 	}
 
+	/**
+	 * Starts one search per entry point on the given executor. The chains of all searches are
+	 * merged as if a single search had been started from all entry points: shorter chains come
+	 * first, chains of the same length are ordered by their entry point.
+	 *
+	 * @param entrypoints the entry points
+	 * @param maxChains the maximum number of chains
+	 * @param minDepth the minimum length of a chain
+	 * @param maxDepth the maximum length of a chain
+	 * @param executor the executor that runs the searches
+	 * @return a future that completes when all searches have completed
+	 */
+	public CompletableFuture<Void> startChainSearch(final List<ChainElement> entrypoints, final int maxChains, final int minDepth,
+			final int maxDepth, final Executor executor) {
+		this.maxChains= maxChains;
+		final List<CompletableFuture<Void>> searches= new ArrayList<>(entrypoints.size());
+		for (final ChainElement entrypoint : entrypoints) {
+			final List<ChainElement> singleEntrypoint= List.of(entrypoint);
+			final List<Chain> found= addSearch();
+			searches.add(CompletableFuture.runAsync(() -> {
+				for (final ChainType expected : expectedTypes) {
+					if (expected != null && !ChainFinder.isFromExcludedType(excludedTypes, expected) && !isCanceled) {
+						searchChainsForExpectedType(expected, Math.max(0, expected.getDimension()), singleEntrypoint, maxChains,
+								minDepth, maxDepth, found);
+					}
+				}
+			}, executor));
+		}
+		return CompletableFuture.allOf(searches.toArray(new CompletableFuture[searches.size()]));
+	}
+
+	private List<Chain> addSearch() {
+		final List<Chain> found= new ArrayList<>();
+		synchronized (chains) {
+			chains.add(found);
+		}
+		return found;
+	}
+
 	public void cancel() {
 		isCanceled= true;
 	}
 
 	private void searchChainsForExpectedType(final ChainType expectedType, final int expectedDimensions,
-			final List<ChainElement> entrypoints, final int maxChains, final int minDepth, final int maxDepth) {
+			final List<ChainElement> entrypoints, final int maxChains, final int minDepth, final int maxDepth,
+			final List<Chain> found) {
 		final LinkedList<LinkedList<ChainElement>> incompleteChains= prepareQueue(entrypoints);
 
 		while (!incompleteChains.isEmpty() && !isCanceled) {
@@ -75,9 +125,11 @@ public class ChainFinder {
 			final ChainElement edge= chain.getLast();
 			if (isValidEndOfChain(edge, expectedType, expectedDimensions)) {
 				if (chain.size() >= minDepth) {
-					chains.add(new Chain(chain, expectedDimensions));
-					if (chains.size() == maxChains) {
-						break;
+					synchronized (found) {
+						found.add(new Chain(chain, expectedDimensions));
+						if (found.size() == maxChains) {
+							break;
+						}
 					}
 				}
 				continue;
@@ -90,12 +142,26 @@ public class ChainFinder {
 
 	/**
 	 * Returns the potentially incomplete list of call chains that could be found before a time out
-	 * happened. The contents of this list are mutable and may change as the search makes progress.
+	 * happened. The list is a snapshot, the searches may still make progress.
 	 *
 	 * @return The list of call chains
 	 */
 	public List<Chain> getChains() {
-		return chains;
+		final List<Chain> result= new ArrayList<>();
+		final List<List<Chain>> searches;
+		synchronized (chains) {
+			searches= new ArrayList<>(chains);
+		}
+		for (final List<Chain> found : searches) {
+			synchronized (found) {
+				result.addAll(found);
+			}
+		}
+		if (searches.size() > 1) {
+			// a single breadth-first search over all entry points would have found the shorter chains first
+			result.sort(Comparator.comparingInt(chain -> chain.getElements().size()));
+		}
+		return result.size() > maxChains ? new ArrayList<>(result.subList(0, maxChains)) : result;
 	}
 
 	private static LinkedList<LinkedList<ChainElement>> prepareQueue(final List<ChainElement> entrypoints) {
@@ -174,13 +240,8 @@ public class ChainFinder {
 		return cached;
 	}
 
-	private ChainElement createEdge(final IJavaElement member) {
-		ChainElement cached= edgeCache.get(member);
-		if (cached == null) {
-			cached= new ChainElement(member, false);
-			edgeCache.put(member, cached);
-		}
-		return cached;
+	private static ChainElement createEdge(final IJavaElement member) {
+		return ChainTypeCache.getDefault().getEdge(member);
 	}
 
 	private static LinkedList<ChainElement> cloneChainAndAppendEdge(final LinkedList<ChainElement> chain,
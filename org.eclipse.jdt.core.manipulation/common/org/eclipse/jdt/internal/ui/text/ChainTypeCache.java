@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Caches the type graph walked by the {@link ChainFinder}, per Java project: the types referenced
+ * by signatures, the members of a type and its super types, and the chain element (and so the
+ * return type) of a member. The cache survives content assist invocations and is cleared by Java
+ * element deltas that may change the structure of a type. Edits inside method bodies do not
+ * clear it.
+ *
+ * @since 1.16
+ */
+public final class ChainTypeCache implements IElementChangedListener {
+
+	/** Maximum number of cached entries per project, the entries of a project are cleared when exceeded */
+	private static final int MAX_SIZE= 50000;
+
+	private static ChainTypeCache fgDefault;
+
+	private static final class ProjectCache {
+		final Map<String, IType> fTypes= new ConcurrentHashMap<>();
+		final Map<IType, List<IMember>> fMembers= new ConcurrentHashMap<>();
+		final Map<IJavaElement, ChainElement> fEdges= new ConcurrentHashMap<>();
+
+		int size() {
+			return fTypes.size() + fMembers.size() + fEdges.size();
+		}
+	}
+
+	private final Map<IJavaProject, ProjectCache> fProjects= new ConcurrentHashMap<>();
+
+	private ChainTypeCache() {
+	}
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the shared cache
+	 */
+	public static synchronized ChainTypeCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault= new ChainTypeCache();
+			JavaCore.addElementChangedListener(fgDefault, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return fgDefault;
+	}
+
+	private ProjectCache getProjectCache(IJavaProject project) {
+		ProjectCache cache= fProjects.computeIfAbsent(project, p -> new ProjectCache());
+		if (cache.size() > MAX_SIZE) {
+			fProjects.remove(project, cache);
+			cache= fProjects.computeIfAbsent(project, p -> new ProjectCache());
+		}
+		return cache;
+	}
+
+	/**
+	 * Returns the cached type for the given resolved type signature.
+	 *
+	 * @param project the project the signature is resolved in
+	 * @param typeSignature the resolved type signature
+	 * @return the type, or <code>null</code> if not cached
+	 */
+	IType getType(IJavaProject project, String typeSignature) {
+		return getProjectCache(project).fTypes.get(typeSignature);
+	}
+
+	/**
+	 * Caches the type of a resolved type signature.
+	 *
+	 * @param project the project the signature is resolved in
+	 * @param typeSignature the resolved type signature
+	 * @param type the type
+	 */
+	void putType(IJavaProject project, String typeSignature, IType type) {
+		getProjectCache(project).fTypes.put(typeSignature, type);
+	}
+
+	/**
+	 * Returns the methods and fields of the given type and all its super types, computing them
+	 * if they are not cached.
+	 *
+	 * @param type the type
+	 * @param computer computes the members if they are not cached
+	 * @return the members, in the order of the computed list
+	 */
+	List<IMember> getMembers(IType type, Function<IType, List<IMember>> computer) {
+		return getProjectCache(type.getJavaProject()).fMembers.computeIfAbsent(type, computer);
+	}
+
+	/**
+	 * Returns the chain element that represents a transition through the given member.
+	 *
+	 * @param member the member
+	 * @return the chain element
+	 */
+	ChainElement getEdge(IJavaElement member) {
+		return getProjectCache(member.getJavaProject()).fEdges.computeIfAbsent(member, m -> new ChainElement(m, false));
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!fProjects.isEmpty()) {
+			processDelta(event.getDelta());
+		}
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() == IJavaElementDelta.REMOVED || (delta.getFlags() & IJavaElementDelta.F_CLOSED) != 0) {
+					fProjects.remove(element);
+					return;
+				}
+				if ((delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					// classpath changes also affect the projects that depend on this one
+					fProjects.clear();
+					return;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+				if (affectsStructure(delta)) {
+					fProjects.clear();
+				}
+				return;
+			default:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					fProjects.clear();
+					return;
+				}
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+			if (fProjects.isEmpty()) {
+				return;
+			}
+		}
+	}
+
+	private static boolean affectsStructure(IJavaElementDelta delta) {
+		if (delta.getKind() != IJavaElementDelta.CHANGED) {
+			return true;
+		}
+		int flags= delta.getFlags() & ~(IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED);
+		if ((flags & IJavaElementDelta.F_FINE_GRAINED) == 0) {
+			// a coarse delta, e.g. when saving or replacing the file, may change anything
+			return flags != 0;
+		}
+		// a reconcile delta only reports changed members as children, body changes are not reported
+		return delta.getAffectedChildren().length > 0 || (flags & ~(IJavaElementDelta.F_FINE_GRAINED | IJavaElementDelta.F_CONTENT)) != 0;
+	}
+}
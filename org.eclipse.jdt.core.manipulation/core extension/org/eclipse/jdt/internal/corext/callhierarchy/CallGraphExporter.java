@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IInitializer;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+import org.eclipse.jdt.internal.corext.util.SearchUtils;
+
+/**
+ * Computes the call graph of many methods in one batch and streams it as an edge list.
+ * <p>
+ * The callers of all methods are found by a few searches with combined patterns instead of one
+ * search per method. The calls of the methods and of their callers are then found by a
+ * {@link CalleeAnalyzerVisitor}, parsing each compilation unit only once for all its members and
+ * parsing the compilation units of a project in batches that share one binding environment.
+ * Methods without source contribute their callers, but no callees.
+ * </p>
+ * <p>
+ * The output is text with one tab separated record per line:
+ * </p>
+ * <ul>
+ * <li><code>v &lt;version&gt;</code>: the format version, the first line</li>
+ * <li><code>n &lt;id&gt; &lt;handle identifier&gt;</code>: a node, written before its first edge</li>
+ * <li><code>e &lt;caller id&gt; &lt;callee id&gt; &lt;line numbers&gt;</code>: a call, the comma
+ * separated line numbers are those of the call sites. A trailing <code>p</code> marks a potential
+ * call of an implementation of an abstract method.</li>
+ * </ul>
+ *
+ * @since 1.16
+ */
+final class CallGraphExporter {
+
+	/** The version of the output format */
+	static final int VERSION= 1;
+
+	/** Maximum number of methods searched with one combined pattern */
+	private static final int SEARCH_BATCH_SIZE= 500;
+
+	/** Maximum number of compilation units parsed in one batch */
+	private static final int PARSE_BATCH_SIZE= 200;
+
+	private final boolean fCallers;
+	private final boolean fCallees;
+	private final Writer fWriter;
+
+	private final Map<String, Integer> fNodeIds= new HashMap<>();
+	private final Set<Long> fEdges= new HashSet<>();
+
+	/**
+	 * Creates an exporter.
+	 *
+	 * @param callers whether the callers of the methods are exported
+	 * @param callees whether the callees of the methods are exported
+	 * @param writer the writer the edge list is written to
+	 */
+	CallGraphExporter(boolean callers, boolean callees, Writer writer) {
+		fCallers= callers;
+		fCallees= callees;
+		fWriter= writer;
+	}
+
+	/**
+	 * Computes the call graph of the given elements and writes it.
+	 *
+	 * @param elements the methods, types, compilation units, packages, package fragment roots or
+	 *            projects whose methods are exported
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @throws CoreException if the search fails
+	 * @throws IOException if writing fails
+	 */
+	void export(IJavaElement[] elements, IProgressMonitor monitor) throws CoreException, IOException {
+		SubMonitor progress= SubMonitor.convert(monitor, CallHierarchyMessages.CallGraphExporter_taskname, 100);
+		fWriter.write("v\t" + VERSION + '\n'); //$NON-NLS-1$
+
+		List<IMember> methods= new ArrayList<>();
+		for (IJavaElement element : elements) {
+			collectMethods(element, methods);
+		}
+		progress.worked(5);
+
+		// the members whose calls are analyzed, with whether all their calls are exported or only
+		// the calls of the exported methods
+		Map<ICompilationUnit, Map<IMember, Boolean>> analyzed= new LinkedHashMap<>();
+		Set<String> methodKeys= new HashSet<>();
+		for (IMember method : methods) {
+			methodKeys.add(method.getHandleIdentifier());
+			ICompilationUnit cu= method.getCompilationUnit();
+			if (fCallees && cu != null) {
+				analyzed.computeIfAbsent(cu, k -> new LinkedHashMap<>()).put(method, Boolean.TRUE);
+			}
+		}
+		if (fCallers) {
+			searchCallers(methods, analyzed, progress.split(45));
+		}
+		analyze(analyzed, methodKeys, progress.split(50));
+		fWriter.flush();
+	}
+
+	private static void collectMethods(IJavaElement element, List<IMember> methods) throws CoreException {
+		switch (element.getElementType()) {
+			case IJavaElement.METHOD:
+			case IJavaElement.INITIALIZER:
+				methods.add((IMember) element);
+				// local and anonymous types
+				collectChildren((IParent) element, methods);
+				break;
+			case IJavaElement.TYPE:
+			case IJavaElement.COMPILATION_UNIT:
+			case IJavaElement.CLASS_FILE:
+				collectChildren((IParent) element, methods);
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				IPackageFragment pack= (IPackageFragment) element;
+				for (ICompilationUnit cu : pack.getCompilationUnits()) {
+					collectChildren(cu, methods);
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+			case IJavaElement.JAVA_PROJECT:
+				for (IJavaElement child : ((IParent) element).getChildren()) {
+					if (child instanceof IPackageFragment || child instanceof IPackageFragmentRoot && ((IPackageFragmentRoot) child).getKind() == IPackageFragmentRoot.K_SOURCE) {
+						collectMethods(child, methods);
+					}
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static void collectChildren(IParent parent, List<IMember> methods) throws CoreException {
+		for (IJavaElement child : parent.getChildren()) {
+			if (child instanceof IMethod || child instanceof IInitializer || child instanceof IType) {
+				collectMethods(child, methods);
+			} else if (child instanceof IParent && child.getElementType() == IJavaElement.FIELD) {
+				// anonymous types in field initializers
+				collectChildren((IParent) child, methods);
+			}
+		}
+	}
+
+	private void searchCallers(List<IMember> methods, Map<ICompilationUnit, Map<IMember, Boolean>> analyzed, IProgressMonitor monitor) throws CoreException {
+		List<SearchPattern> patterns= new ArrayList<>();
+		for (IMember method : methods) {
+			if (method instanceof IMethod) {
+				SearchPattern pattern= SearchPattern.createPattern(method, IJavaSearchConstants.REFERENCES, SearchUtils.GENERICS_AGNOSTIC_MATCH_RULE);
+				if (pattern != null) {
+					patterns.add(pattern);
+				}
+			}
+		}
+		int batches= (patterns.size() + SEARCH_BATCH_SIZE - 1) / SEARCH_BATCH_SIZE;
+		SubMonitor progress= SubMonitor.convert(monitor, batches);
+		SearchRequestor requestor= new SearchRequestor() {
+			@Override
+			public void acceptSearchMatch(SearchMatch match) {
+				if (match.getAccuracy() != SearchMatch.A_ACCURATE || match.isInsideDocComment() || !(match.getElement() instanceof IMember)) {
+					return;
+				}
+				IMember caller= (IMember) match.getElement();
+				ICompilationUnit cu= caller.getCompilationUnit();
+				if (cu != null) {
+					// callers in binaries have no source that could be analyzed
+					analyzed.computeIfAbsent(cu, k -> new LinkedHashMap<>()).putIfAbsent(caller, Boolean.FALSE);
+				}
+			}
+		};
+		IJavaSearchScope scope= CallHierarchyCore.getDefault().getSearchScope();
+		for (int i= 0; i < patterns.size(); i+= SEARCH_BATCH_SIZE) {
+			List<SearchPattern> batch= patterns.subList(i, Math.min(i + SEARCH_BATCH_SIZE, patterns.size()));
+			SearchPattern pattern= batch.get(0);
+			for (int j= 1; j < batch.size(); j++) {
+				pattern= SearchPattern.createOrPattern(pattern, batch.get(j));
+			}
+			new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope, requestor, progress.split(1));
+		}
+	}
+
+	private void analyze(Map<ICompilationUnit, Map<IMember, Boolean>> analyzed, Set<String> methodKeys, IProgressMonitor monitor) throws IOException {
+		Map<IJavaProject, List<ICompilationUnit>> byProject= new LinkedHashMap<>();
+		for (ICompilationUnit cu : analyzed.keySet()) {
+			byProject.computeIfAbsent(cu.getJavaProject(), k -> new ArrayList<>()).add(cu);
+		}
+		SubMonitor progress= SubMonitor.convert(monitor, analyzed.size());
+		// the visitor only asks for cancellation, the progress is reported per compilation unit
+		IProgressMonitor visitorMonitor= new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return progress.isCanceled();
+			}
+		};
+		ASTRequestor requestor= new ASTRequestor() {
+			@Override
+			public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+				for (Map.Entry<IMember, Boolean> entry : analyzed.get(source).entrySet()) {
+					IMember member= entry.getKey();
+					CalleeAnalyzerVisitor visitor= new CalleeAnalyzerVisitor(null, member, ast, visitorMonitor);
+					ast.accept(visitor);
+					for (MethodCall call : visitor.getCallees().values()) {
+						if (entry.getValue().booleanValue() || methodKeys.contains(call.getKey())) {
+							writeEdge(member, call);
+						}
+					}
+				}
+				progress.split(1);
+			}
+		};
+		try {
+			for (Map.Entry<IJavaProject, List<ICompilationUnit>> entry : byProject.entrySet()) {
+				List<ICompilationUnit> units= entry.getValue();
+				for (int i= 0; i < units.size(); i+= PARSE_BATCH_SIZE) {
+					List<ICompilationUnit> batch= units.subList(i, Math.min(i + PARSE_BATCH_SIZE, units.size()));
+					ASTParser parser= ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+					parser.setProject(entry.getKey());
+					parser.setResolveBindings(true);
+					parser.createASTs(batch.toArray(new ICompilationUnit[batch.size()]), new String[0], requestor, visitorMonitor);
+					if (progress.isCanceled()) {
+						throw new OperationCanceledException();
+					}
+				}
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void writeEdge(IMember caller, MethodCall call) {
+		try {
+			int from= getNodeId(caller.getHandleIdentifier());
+			int to= getNodeId(call.getKey());
+			if (!fEdges.add(Long.valueOf(((long) from << 32) | to))) {
+				return;
+			}
+			StringBuilder line= new StringBuilder();
+			line.append("e\t").append(from).append('\t').append(to).append('\t'); //$NON-NLS-1$
+			boolean first= true;
+			for (CallLocation location : call.getCallLocations()) {
+				if (!first) {
+					line.append(',');
+				}
+				line.append(location.getLineNumber());
+				first= false;
+			}
+			if (call.isPotential()) {
+				line.append("\tp"); //$NON-NLS-1$
+			}
+			line.append('\n');
+			fWriter.write(line.toString());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private int getNodeId(String handle) throws IOException {
+		Integer id= fNodeIds.get(handle);
+		if (id == null) {
+			id= Integer.valueOf(fNodeIds.size() + 1);
+			fNodeIds.put(handle, id);
+			fWriter.write("n\t" + id + '\t' + handle + '\n'); //$NON-NLS-1$
+		}
+		return id.intValue();
+	}
+}
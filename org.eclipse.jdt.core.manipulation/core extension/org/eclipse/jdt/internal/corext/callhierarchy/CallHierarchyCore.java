@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019, 2021 IBM Corporation and others.
+ * Copyright (c) 2019, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,13 +17,27 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.callhierarchy;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.StringTokenizer;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.SubMonitor;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
@@ -53,6 +67,21 @@ public class CallHierarchyCore {
 
     private String defaultIgnoreFilters= "java.*,javax.*"; //$NON-NLS-1$
 
+    /**
+     * Searches the calls of several method wrappers in parallel.
+     */
+    private static final ExecutorService EXECUTOR;
+    static {
+        int threads= Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+        ThreadPoolExecutor executor= new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread= new Thread(runnable, "Call Hierarchy Search Worker"); //$NON-NLS-1$
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR= executor;
+    }
+
     private static CallHierarchyCore fgInstance;
     private IJavaSearchScope fSearchScope;
     private StringMatcher[] fFilters;
@@ -151,6 +180,97 @@ public class CallHierarchyCore {
 		roots.add(root);
 	}
 
+    /**
+     * Computes the calls of all given method wrappers, searching them in parallel. This is used to
+     * expand a whole level of a call hierarchy at once: the calls of one level are the input for
+     * the next one.
+     *
+     * @param wrappers the method wrappers
+     * @param monitor the progress monitor, may be <code>null</code>
+     * @return the calls of each method wrapper, in the order of the given wrappers
+     * @throws OperationCanceledException if the monitor has been canceled
+     * @since 1.16
+     */
+    public MethodWrapper[][] getCalls(MethodWrapper[] wrappers, IProgressMonitor monitor) {
+        SubMonitor progress= SubMonitor.convert(monitor, wrappers.length);
+        MethodWrapper[][] result= new MethodWrapper[wrappers.length][];
+        if (wrappers.length == 1) {
+            result[0]= wrappers[0].getCalls(progress.split(1));
+            return result;
+        }
+        // progress monitors are not thread safe, the workers only ask for cancellation
+        IProgressMonitor workerMonitor= new NullProgressMonitor() {
+            @Override
+            public boolean isCanceled() {
+                return progress.isCanceled();
+            }
+        };
+        // wrappers of the same member are computed once, the others find the calls in the cache
+        List<Future<MethodWrapper[]>> futures= new ArrayList<>(wrappers.length);
+        Set<String> submitted= new HashSet<>();
+        for (MethodWrapper wrapper : wrappers) {
+            boolean first= submitted.add(wrapper.getMethodCall().getKey());
+            futures.add(first ? EXECUTOR.submit(() -> wrapper.getCalls(workerMonitor)) : null);
+        }
+        try {
+            for (int i= 0; i < wrappers.length; i++) {
+                if (futures.get(i) != null) {
+                    result[i]= futures.get(i).get();
+                    progress.split(1);
+                }
+            }
+            for (int i= 0; i < wrappers.length; i++) {
+                if (futures.get(i) == null) {
+                    result[i]= wrappers[i].getCalls(progress.split(1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<MethodWrapper[]> future : futures) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears the session-wide cache of callers, so that the next expansion searches again.
+     *
+     * @since 1.16
+     */
+    public void clearCache() {
+        CallerCache.getDefault().clear();
+    }
+
+    /**
+     * Computes the call graph of the methods of the given elements in one batch and writes it as
+     * an edge list. All callers are found with a few combined searches, and each compilation unit
+     * is parsed once for all the calls it contains. See {@link CallGraphExporter} for the format.
+     *
+     * @param elements the methods, types, compilation units, packages, package fragment roots or
+     *            projects whose methods are exported
+     * @param callers whether the callers of the methods are exported
+     * @param callees whether the callees of the methods are exported
+     * @param writer the writer the edge list is written to, it is flushed but not closed
+     * @param monitor the progress monitor, may be <code>null</code>
+     * @throws CoreException if the search fails
+     * @throws IOException if writing fails
+     * @throws OperationCanceledException if the monitor has been canceled
+     * @since 1.16
+     */
+    public void exportCallGraph(IJavaElement[] elements, boolean callers, boolean callees, Writer writer, IProgressMonitor monitor) throws CoreException, IOException {
+        new CallGraphExporter(callers, callees, writer).export(elements, monitor);
+    }
+
     public static CallLocation getCallLocation(Object element) {
         CallLocation callLocation= null;
 
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.callhierarchy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+
+import org.eclipse.jdt.internal.ui.util.StringMatcher;
+
+/**
+ * Caches the callers found by {@link CallerMethodWrapper} for the whole session, so that they are
+ * shared by all call hierarchies and survive a new input of the view. Any Java element delta that
+ * may add or remove a call clears the cache, as does a change of the search scope or of the
+ * filters.
+ *
+ * @since 1.16
+ */
+final class CallerCache implements IElementChangedListener {
+
+	/**
+	 * Searches the callers of a member.
+	 */
+	@FunctionalInterface
+	interface ICallerSearch {
+
+		/**
+		 * Searches the callers.
+		 *
+		 * @return a map from handle identifier to {@link MethodCall}
+		 * @throws CoreException if the search fails
+		 */
+		Map<String, MethodCall> search() throws CoreException;
+	}
+
+	/** Maximum number of cached members, the cache is cleared when exceeded */
+	private static final int MAX_SIZE= 5000;
+
+	private static final int IGNORED_FLAGS= IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED;
+
+	private static CallerCache fgDefault;
+
+	private final Map<String, Map<String, MethodCall>> fCallers= new ConcurrentHashMap<>();
+
+	/** Incremented whenever the cache is cleared, so that results of searches running concurrently are dropped */
+	private int fGeneration;
+
+	private IJavaSearchScope fScope;
+	private StringMatcher[] fFilters;
+	private boolean fFilterTestCode;
+
+	private CallerCache() {
+	}
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the shared cache
+	 */
+	static synchronized CallerCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault= new CallerCache();
+			JavaCore.addElementChangedListener(fgDefault, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Returns the callers of the given member, searching them if they are not cached.
+	 *
+	 * @param member the member
+	 * @param limitTo the search limit, see {@link org.eclipse.jdt.core.search.IJavaSearchConstants}
+	 * @param scope the search scope
+	 * @param search searches the callers
+	 * @return a new map from handle identifier to {@link MethodCall}
+	 * @throws CoreException if the search fails
+	 */
+	Map<String, MethodCall> getCallers(IMember member, int limitTo, IJavaSearchScope scope, ICallerSearch search) throws CoreException {
+		int generation= checkConfiguration(scope);
+		String key= getKey(member, limitTo);
+		Map<String, MethodCall> callers= fCallers.get(key);
+		if (callers == null) {
+			callers= search.search();
+			synchronized (this) {
+				if (generation == fGeneration) {
+					if (fCallers.size() >= MAX_SIZE) {
+						clear();
+					}
+					fCallers.put(key, callers);
+				}
+			}
+		}
+		return new HashMap<>(callers);
+	}
+
+	private static String getKey(IMember member, int limitTo) {
+		return member.getHandleIdentifier() + '|' + limitTo;
+	}
+
+	private synchronized int checkConfiguration(IJavaSearchScope scope) {
+		CallHierarchyCore core= CallHierarchyCore.getDefault();
+		StringMatcher[] filters= core.getIgnoreFilters();
+		boolean filterTestCode= core.isFilterTestCode();
+		if (!scope.equals(fScope) || filters != fFilters || filterTestCode != fFilterTestCode) {
+			clear();
+			fScope= scope;
+			fFilters= filters;
+			fFilterTestCode= filterTestCode;
+		}
+		return fGeneration;
+	}
+
+	/**
+	 * Removes the callers of the given member from the cache.
+	 *
+	 * @param member the member
+	 */
+	synchronized void remove(IMember member) {
+		String prefix= member.getHandleIdentifier() + '|';
+		fCallers.keySet().removeIf(key -> key.startsWith(prefix));
+		fGeneration++;
+	}
+
+	/**
+	 * Removes all callers from the cache.
+	 */
+	synchronized void clear() {
+		fCallers.clear();
+		fGeneration++;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (!fCallers.isEmpty() && affectsCalls(event.getDelta())) {
+			clear();
+		}
+	}
+
+	private static boolean affectsCalls(IJavaElementDelta delta) {
+		switch (delta.getElement().getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+			case IJavaElement.CLASS_FILE:
+				// any change, also inside a method body, may add or remove a call
+				return delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IGNORED_FLAGS) != 0;
+			default:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					return true;
+				}
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsCalls(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -26,6 +26,11 @@ import org.eclipse.jdt.core.JavaModelException;
 
 /**
  * A thread-safe cache for super type hierarchies.
+ * <p>
+ * The cache has two levels: the most recently used hierarchies are kept in memory, and all
+ * computed hierarchies are stored on disk by a {@link SuperTypeHierarchyStore} so that they
+ * survive evictions and restarts.
+ * </p>
  */
 // @see JDTUIHelperClasses
 public class SuperTypeHierarchyCache {
@@ -33,12 +38,10 @@ public class SuperTypeHierarchyCache {
 	private static class HierarchyCacheEntry implements ITypeHierarchyChangedListener {
 
 		private ITypeHierarchy fTypeHierarchy;
-		private long fLastAccess;
 
 		public HierarchyCacheEntry(ITypeHierarchy hierarchy) {
 			fTypeHierarchy= hierarchy;
 			fTypeHierarchy.addTypeHierarchyChangedListener(this);
-			markAsAccessed();
 		}
 
 		@Override
@@ -50,14 +53,6 @@ public class SuperTypeHierarchyCache {
 			return fTypeHierarchy;
 		}
 
-		public void markAsAccessed() {
-			fLastAccess= System.currentTimeMillis();
-		}
-
-		public long getLastAccess() {
-			return fLastAccess;
-		}
-
 		public void dispose() {
 			if (fTypeHierarchy != null) {
 				fTypeHierarchy.removeTypeHierarchyChangedListener(this);
@@ -75,11 +70,28 @@ public class SuperTypeHierarchyCache {
 
 	private static final int CACHE_SIZE= 8;
 
-	private static ArrayList<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<>(CACHE_SIZE);
+	/**
+	 * The number of hierarchies kept in memory if not set through {@link #setCacheSize(int)}. Can
+	 * be changed with the system property <code>org.eclipse.jdt.ui.superTypeHierarchyCacheSize</code>.
+	 */
+	private static final int DEFAULT_CACHE_SIZE= Math.max(1, Integer.getInteger("org.eclipse.jdt.ui.superTypeHierarchyCacheSize", CACHE_SIZE).intValue()); //$NON-NLS-1$
+
+	private static int fgCacheSize= DEFAULT_CACHE_SIZE;
+
+	/**
+	 * The hierarchies kept in memory, ordered from the least to the most recently used.
+	 */
+	private static ArrayList<HierarchyCacheEntry> fgHierarchyCache= new ArrayList<>(DEFAULT_CACHE_SIZE);
 	private static Map<IType, MethodOverrideTester> fgMethodOverrideTesterCache= new LRUMap<>(CACHE_SIZE);
 
+	private static boolean fgPersistentCacheEnabled= true;
+	private static SuperTypeHierarchyStore fgStore;
+	private static boolean fgStoreInitialized;
+
 	private static int fgCacheHits= 0;
 	private static int fgCacheMisses= 0;
+	private static int fgPersistentCacheHits= 0;
+	private static int fgCacheEvictions= 0;
 
 	/**
 	 * Returns a super type hierarchy that contains the given type.
@@ -140,8 +152,19 @@ public class SuperTypeHierarchyCache {
 	public static ITypeHierarchy getTypeHierarchy(IType type, IProgressMonitor progressMonitor) throws JavaModelException {
 		ITypeHierarchy hierarchy= findTypeHierarchyInCache(type);
 		if (hierarchy == null) {
-			fgCacheMisses++;
-			hierarchy= type.newSupertypeHierarchy(progressMonitor);
+			SuperTypeHierarchyStore store= getStore();
+			if (store != null) {
+				hierarchy= store.load(type);
+			}
+			if (hierarchy != null) {
+				fgPersistentCacheHits++;
+			} else {
+				fgCacheMisses++;
+				hierarchy= type.newSupertypeHierarchy(progressMonitor);
+				if (store != null) {
+					store.store(hierarchy);
+				}
+			}
 			addTypeHierarchyToCache(hierarchy);
 		} else {
 			fgCacheHits++;
@@ -151,34 +174,103 @@ public class SuperTypeHierarchyCache {
 
 	private static void addTypeHierarchyToCache(ITypeHierarchy hierarchy) {
 		synchronized (fgHierarchyCache) {
-			int nEntries= fgHierarchyCache.size();
-			if (nEntries >= CACHE_SIZE) {
-				// find obsolete entries or remove entry that was least recently accessed
-				HierarchyCacheEntry oldest= null;
-				ArrayList<HierarchyCacheEntry> obsoleteHierarchies= new ArrayList<>(CACHE_SIZE);
-				for (HierarchyCacheEntry entry : fgHierarchyCache) {
-					ITypeHierarchy curr= entry.getTypeHierarchy();
-					if (!curr.exists() || hierarchy.contains(curr.getType())) {
-						obsoleteHierarchies.add(entry);
-					} else {
-						if (oldest == null || entry.getLastAccess() < oldest.getLastAccess()) {
-							oldest= entry;
-						}
-					}
-				}
-				if (!obsoleteHierarchies.isEmpty()) {
-					for (HierarchyCacheEntry obsoleteHierarchie : obsoleteHierarchies) {
-						removeHierarchyEntryFromCache(obsoleteHierarchie);
-					}
-				} else if (oldest != null) {
-					removeHierarchyEntryFromCache(oldest);
+			// remove the hierarchies that are obsolete or that are covered by the new one
+			for (int i= fgHierarchyCache.size() - 1; i >= 0; i--) {
+				HierarchyCacheEntry entry= fgHierarchyCache.get(i);
+				ITypeHierarchy curr= entry.getTypeHierarchy();
+				if (!curr.exists() || hierarchy.contains(curr.getType())) {
+					removeHierarchyEntryFromCache(entry);
 				}
 			}
+			// remove the least recently used hierarchies
+			while (fgHierarchyCache.size() >= fgCacheSize) {
+				removeHierarchyEntryFromCache(fgHierarchyCache.get(0));
+				fgCacheEvictions++;
+			}
 			HierarchyCacheEntry newEntry= new HierarchyCacheEntry(hierarchy);
 			fgHierarchyCache.add(newEntry);
 		}
 	}
 
+	private static SuperTypeHierarchyStore getStore() {
+		synchronized (fgHierarchyCache) {
+			if (!fgPersistentCacheEnabled)
+				return null;
+			if (!fgStoreInitialized) {
+				fgStore= SuperTypeHierarchyStore.create();
+				fgStoreInitialized= true;
+			}
+			return fgStore;
+		}
+	}
+
+	/**
+	 * Sets the number of super type hierarchies kept in memory. The least recently used
+	 * hierarchies are removed first if the cache contains more hierarchies.
+	 *
+	 * @param size the maximal number of hierarchies kept in memory, at least <code>1</code>
+	 */
+	public static void setCacheSize(int size) {
+		synchronized (fgHierarchyCache) {
+			fgCacheSize= Math.max(1, size);
+			while (fgHierarchyCache.size() > fgCacheSize) {
+				removeHierarchyEntryFromCache(fgHierarchyCache.get(0));
+				fgCacheEvictions++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of super type hierarchies kept in memory.
+	 *
+	 * @return the maximal number of hierarchies kept in memory
+	 */
+	public static int getCacheSize() {
+		return fgCacheSize;
+	}
+
+	/**
+	 * Enables or disables the second level of the cache that keeps the hierarchies on disk.
+	 *
+	 * @param enabled <code>true</code> to look up and store hierarchies on disk
+	 */
+	public static void setPersistentCacheEnabled(boolean enabled) {
+		synchronized (fgHierarchyCache) {
+			fgPersistentCacheEnabled= enabled;
+		}
+	}
+
+	/**
+	 * Disposes the second level of the cache. It is not created again afterwards. Called when the
+	 * plug-in stops.
+	 */
+	public static void dispose() {
+		SuperTypeHierarchyStore store;
+		synchronized (fgHierarchyCache) {
+			store= fgStore;
+			fgStore= null;
+			fgStoreInitialized= true;
+		}
+		if (store != null) {
+			store.dispose();
+		}
+	}
+
+	/**
+	 * Waits until the hierarchies computed so far are stored on disk. Used for testing.
+	 *
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public static void joinPersistentCacheWrites() throws InterruptedException {
+		SuperTypeHierarchyStore store;
+		synchronized (fgHierarchyCache) {
+			store= fgStore;
+		}
+		if (store != null) {
+			store.join();
+		}
+	}
+
 
 	/**
 	 * Check if the given type is in the hierarchy cache.
@@ -199,7 +291,9 @@ public class SuperTypeHierarchyCache {
 					removeHierarchyEntryFromCache(curr);
 				} else {
 					if (hierarchy.contains(type)) {
-						curr.markAsAccessed();
+						// move to the end as the most recently used entry
+						fgHierarchyCache.remove(i);
+						fgHierarchyCache.add(curr);
 						return hierarchy;
 					}
 				}
@@ -233,6 +327,27 @@ public class SuperTypeHierarchyCache {
 		return fgCacheMisses;
 	}
 
+	/**
+	 * Gets the number of times the hierarchy was not in memory but could be loaded from disk.
+	 * @return Returns a int
+	 */
+	public static int getPersistentCacheHits() {
+		return fgPersistentCacheHits;
+	}
+
+	/**
+	 * Gets the number of hierarchies removed from memory and from disk to keep the cache within
+	 * its size limits.
+	 * @return Returns a int
+	 */
+	public static int getCacheEvictions() {
+		SuperTypeHierarchyStore store;
+		synchronized (fgHierarchyCache) {
+			store= fgStore;
+		}
+		return fgCacheEvictions + (store != null ? store.getEvictions() : 0);
+	}
+
 	private SuperTypeHierarchyCache() {
 	}
 }
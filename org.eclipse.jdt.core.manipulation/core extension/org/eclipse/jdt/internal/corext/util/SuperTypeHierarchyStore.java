@@ -0,0 +1,671 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.corext.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.core.manipulation.JavaManipulationPlugin;
+import org.eclipse.jdt.internal.corext.CorextMessages;
+
+/**
+ * Second level of the {@link SuperTypeHierarchyCache} that keeps super type hierarchies
+ * across sessions in the state location of the plug-in.
+ * <p>
+ * An entry is keyed by the handle of the focus type and the classpath stamp of its project. It
+ * also records the stamps of the workspace resources and external archives that contribute
+ * types to the hierarchy and is discarded when one of them changed. An entry is not used while
+ * one of these resources has a working copy with unsaved changes. Java element deltas discard
+ * the entries of a project whose classpath changed and the entries that depend on a changed
+ * compilation unit.
+ * </p>
+ * <p>
+ * A new compilation unit can change how a simple super type name resolves in the units of its
+ * package and in the units that import its package on demand. Entries that depend on such a unit
+ * are discarded, entries written in an earlier session are checked when they are loaded.
+ * </p>
+ * <p>
+ * Hierarchies are written by a single background job, which collects the hierarchies computed
+ * within {@link #WRITE_DELAY} milliseconds.
+ * </p>
+ */
+final class SuperTypeHierarchyStore {
+
+	private static final int FORMAT_VERSION= 2;
+
+	private static final String FILE_EXTENSION= ".hierarchy"; //$NON-NLS-1$
+
+	/**
+	 * The maximal number of hierarchies kept per project. The least recently written ones are
+	 * removed first.
+	 */
+	private static final int MAX_ENTRIES_PER_PROJECT= 500;
+
+	/**
+	 * Delay in milliseconds before the write job runs.
+	 */
+	private static final long WRITE_DELAY= 500;
+
+	/**
+	 * A workspace resource or an external archive a stored hierarchy depends on.
+	 */
+	private static final class Dependency {
+
+		final IPath fPath;
+
+		final boolean fExternal;
+
+		final long fStamp;
+
+		Dependency(IPath path, boolean external, long stamp) {
+			fPath= path;
+			fExternal= external;
+			fStamp= stamp;
+		}
+
+		boolean isStale() {
+			if (fExternal)
+				return getExternalStamp(fPath) != fStamp;
+			IResource resource= ResourcesPlugin.getWorkspace().getRoot().findMember(fPath);
+			return resource == null || resource.getModificationStamp() != fStamp;
+		}
+	}
+
+	private final File fLocation;
+
+	/**
+	 * Classpath stamp per project, computed on first use and reset by classpath deltas.
+	 */
+	private final Map<IJavaProject, Long> fClasspathStamps= new HashMap<>();
+
+	/**
+	 * Entries read or written in this session, by the workspace resources they depend on.
+	 */
+	private final Map<IPath, Set<File>> fDependentEntries= new HashMap<>();
+
+	/**
+	 * Entries read or written in this session. The others are checked against
+	 * {@link #fAddedTypes} when they are loaded.
+	 */
+	private final Set<File> fSessionEntries= new HashSet<>();
+
+	/**
+	 * Qualified names of the primary types of the compilation units added in this session, or
+	 * <code>pkg.*</code> for an added package.
+	 */
+	private final Set<String> fAddedTypes= new HashSet<>();
+
+	/**
+	 * Hierarchies waiting to be written, by their file. Only the last hierarchy stored for a
+	 * file is written.
+	 */
+	private final Map<File, ITypeHierarchy> fPendingWrites= new LinkedHashMap<>();
+
+	private final Map<File, Map<IPath, Dependency>> fPendingDependencies= new HashMap<>();
+
+	private final Job fWriteJob;
+
+	private final IElementChangedListener fDeltaListener= this::elementChanged;
+
+	private int fEvictions;
+
+	private SuperTypeHierarchyStore(File location) {
+		fLocation= location;
+		fWriteJob= new Job(CorextMessages.SuperTypeHierarchyStore_job_name) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				writePending(monitor);
+				return Status.OK_STATUS;
+			}
+		};
+		fWriteJob.setSystem(true);
+		fWriteJob.setPriority(Job.DECORATE);
+		JavaCore.addElementChangedListener(fDeltaListener, ElementChangedEvent.POST_CHANGE);
+	}
+
+	/**
+	 * Creates the store in the state location of the plug-in.
+	 *
+	 * @return the store or <code>null</code> if the plug-in is not running
+	 */
+	static SuperTypeHierarchyStore create() {
+		JavaManipulationPlugin plugin= JavaManipulationPlugin.getDefault();
+		if (plugin == null)
+			return null;
+		try {
+			return new SuperTypeHierarchyStore(plugin.getStateLocation().append("superTypeHierarchies").toFile()); //$NON-NLS-1$
+		} catch (IllegalStateException e) {
+			// no state location, e.g. in a read-only configuration
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the stored super type hierarchy of the given type.
+	 *
+	 * @param type the focus type
+	 * @return the hierarchy or <code>null</code> if none is stored, if the stored one is stale or
+	 *         if it depends on a working copy with unsaved changes
+	 */
+	ITypeHierarchy load(IType type) {
+		IJavaProject project= type.getJavaProject();
+		File file= getFile(type);
+		if (!file.isFile())
+			return null;
+
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION || !type.getHandleIdentifier().equals(in.readUTF()) || in.readLong() != getClasspathStamp(project)) {
+				delete(file);
+				return null;
+			}
+			int dependencyCount= in.readInt();
+			List<IPath> dependencies= new ArrayList<>(dependencyCount);
+			Set<IPath> unsavedWorkingCopies= getUnsavedWorkingCopies();
+			boolean unsaved= false;
+			for (int i= 0; i < dependencyCount; i++) {
+				boolean external= in.readBoolean();
+				IPath path= Path.fromPortableString(in.readUTF());
+				long stamp= in.readLong();
+				if (new Dependency(path, external, stamp).isStale()) {
+					delete(file);
+					return null;
+				}
+				// keep the entry, it is valid again when the working copy is discarded
+				unsaved|= unsavedWorkingCopies.contains(path);
+				dependencies.add(path);
+			}
+			if (isAffectedByAddedTypes(file, dependencies)) {
+				delete(file);
+				return null;
+			}
+			if (unsaved)
+				return null;
+			ITypeHierarchy hierarchy= type.loadTypeHierachy(in, null);
+			if (hierarchy == null || !hierarchy.contains(type)) {
+				delete(file);
+				return null;
+			}
+			registerDependencies(file, dependencies);
+			return hierarchy;
+		} catch (IOException | JavaModelException e) {
+			delete(file);
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the given super type hierarchy in the background. Hierarchies that contain types
+	 * from working copies with unsaved changes are not stored.
+	 *
+	 * @param hierarchy the super type hierarchy to store
+	 */
+	void store(ITypeHierarchy hierarchy) {
+		IType type= hierarchy.getType();
+		if (type == null)
+			return;
+
+		Map<IPath, Dependency> dependencies= new LinkedHashMap<>();
+		for (IType curr : hierarchy.getAllTypes()) {
+			ICompilationUnit cu= curr.getCompilationUnit();
+			if (cu != null && cu.isWorkingCopy()) {
+				try {
+					if (cu.hasUnsavedChanges())
+						return;
+				} catch (JavaModelException e) {
+					return;
+				}
+			}
+			IResource resource= curr.getResource();
+			if (resource != null) {
+				if (!dependencies.containsKey(resource.getFullPath())) {
+					dependencies.put(resource.getFullPath(), new Dependency(resource.getFullPath(), false, resource.getModificationStamp()));
+				}
+			} else {
+				IPackageFragmentRoot root= (IPackageFragmentRoot) curr.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+				if (root != null && root.isExternal() && !dependencies.containsKey(root.getPath())) {
+					dependencies.put(root.getPath(), new Dependency(root.getPath(), true, getExternalStamp(root.getPath())));
+				}
+			}
+		}
+
+		File file= getFile(type);
+		synchronized (fPendingWrites) {
+			fPendingWrites.remove(file);
+			fPendingWrites.put(file, hierarchy);
+			fPendingDependencies.put(file, dependencies);
+		}
+		fWriteJob.schedule(WRITE_DELAY);
+	}
+
+	/**
+	 * Stops listening to Java element changes and cancels the pending writes.
+	 */
+	void dispose() {
+		JavaCore.removeElementChangedListener(fDeltaListener);
+		synchronized (fPendingWrites) {
+			fPendingWrites.clear();
+			fPendingDependencies.clear();
+		}
+		fWriteJob.cancel();
+		try {
+			fWriteJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits until the pending hierarchies are written.
+	 *
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	void join() throws InterruptedException {
+		fWriteJob.wakeUp();
+		fWriteJob.join();
+	}
+
+	private void writePending(IProgressMonitor monitor) {
+		while (!monitor.isCanceled()) {
+			File file;
+			ITypeHierarchy hierarchy;
+			Map<IPath, Dependency> dependencies;
+			synchronized (fPendingWrites) {
+				if (fPendingWrites.isEmpty())
+					return;
+				file= fPendingWrites.keySet().iterator().next();
+				hierarchy= fPendingWrites.remove(file);
+				dependencies= fPendingDependencies.remove(file);
+			}
+			write(file, hierarchy, dependencies, monitor);
+		}
+	}
+
+	private void write(File file, ITypeHierarchy hierarchy, Map<IPath, Dependency> dependencies, IProgressMonitor monitor) {
+		IType type= hierarchy.getType();
+		File directory= file.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs())
+			return;
+
+		File tempFile= new File(directory, file.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeUTF(type.getHandleIdentifier());
+				out.writeLong(getClasspathStamp(type.getJavaProject()));
+				out.writeInt(dependencies.size());
+				for (Dependency dependency : dependencies.values()) {
+					out.writeBoolean(dependency.fExternal);
+					out.writeUTF(dependency.fPath.toPortableString());
+					out.writeLong(dependency.fStamp);
+				}
+				hierarchy.store(out, monitor);
+			}
+			delete(file);
+			if (!tempFile.renameTo(file)) {
+				delete(tempFile);
+				return;
+			}
+		} catch (IOException | JavaModelException e) {
+			delete(tempFile);
+			return;
+		}
+		registerDependencies(file, dependencies.keySet());
+		trim(directory);
+	}
+
+	private void trim(File directory) {
+		File[] files= directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null || files.length <= MAX_ENTRIES_PER_PROJECT)
+			return;
+
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (int i= 0; i < files.length - MAX_ENTRIES_PER_PROJECT; i++) {
+			delete(files[i]);
+			synchronized (this) {
+				fEvictions++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of stored hierarchies that have been removed to keep the store within
+	 * its size limit.
+	 *
+	 * @return the number of evictions
+	 */
+	synchronized int getEvictions() {
+		return fEvictions;
+	}
+
+	private File getFile(IType type) {
+		IJavaProject project= type.getJavaProject();
+		File directory= new File(fLocation, toFileName(project.getHandleIdentifier()));
+		return new File(directory, toFileName(type.getHandleIdentifier()) + FILE_EXTENSION);
+	}
+
+	private static String toFileName(String handle) {
+		// combine two different hashes to make collisions unlikely; the handle in the file is compared anyway
+		long hash= 1125899906842597L;
+		for (int i= 0; i < handle.length(); i++) {
+			hash= 31 * hash + handle.charAt(i);
+		}
+		return Long.toHexString(hash) + Integer.toHexString(handle.hashCode());
+	}
+
+	private static long getExternalStamp(IPath path) {
+		File file= path.toFile();
+		return 31 * file.lastModified() + file.length();
+	}
+
+	private static Set<IPath> getUnsavedWorkingCopies() {
+		Set<IPath> paths= new HashSet<>();
+		for (ICompilationUnit workingCopy : JavaCore.getWorkingCopies(null)) {
+			IResource resource= workingCopy.getResource();
+			if (resource == null)
+				continue;
+			try {
+				if (!workingCopy.hasUnsavedChanges())
+					continue;
+			} catch (JavaModelException e) {
+				// treat it as changed
+			}
+			paths.add(resource.getFullPath());
+		}
+		return paths;
+	}
+
+	private synchronized void registerDependencies(File file, Iterable<IPath> dependencies) {
+		fSessionEntries.add(file);
+		for (IPath path : dependencies) {
+			Set<File> files= fDependentEntries.get(path);
+			if (files == null) {
+				files= new HashSet<>();
+				fDependentEntries.put(path, files);
+			}
+			files.add(file);
+		}
+	}
+
+	private long getClasspathStamp(IJavaProject project) throws JavaModelException {
+		synchronized (this) {
+			Long stamp= fClasspathStamps.get(project);
+			if (stamp != null)
+				return stamp.longValue();
+		}
+
+		long stamp= 17;
+		for (IClasspathEntry entry : project.getResolvedClasspath(true)) {
+			stamp= 31 * stamp + entry.getEntryKind();
+			stamp= 31 * stamp + entry.getPath().toPortableString().hashCode();
+			if (entry.getEntryKind() == IClasspathEntry.CPE_LIBRARY) {
+				IResource resource= ResourcesPlugin.getWorkspace().getRoot().findMember(entry.getPath());
+				if (resource != null) {
+					stamp= 31 * stamp + resource.getModificationStamp();
+				} else {
+					stamp= 31 * stamp + entry.getPath().toFile().lastModified();
+				}
+			}
+		}
+
+		synchronized (this) {
+			fClasspathStamps.put(project, Long.valueOf(stamp));
+		}
+		return stamp;
+	}
+
+	private void elementChanged(ElementChangedEvent event) {
+		Set<String> addedTypes= new HashSet<>();
+		processDelta(event.getDelta(), addedTypes);
+		if (!addedTypes.isEmpty())
+			typesAdded(addedTypes);
+	}
+
+	private void processDelta(IJavaElementDelta delta, Set<String> addedTypes) {
+		IJavaElement element= delta.getElement();
+		int flags= delta.getFlags();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED)) != 0) {
+					discardProject((IJavaProject) element);
+					return;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED
+						|| (flags & (IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH)) != 0) {
+					discardProject(element.getJavaProject());
+					return;
+				}
+				break;
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() == IJavaElementDelta.ADDED) {
+					addedTypes.add(qualify(element.getElementName(), "*")); //$NON-NLS-1$
+					return;
+				}
+				break;
+			case IJavaElement.COMPILATION_UNIT:
+			case IJavaElement.CLASS_FILE:
+				if (delta.getKind() == IJavaElementDelta.ADDED && element.getElementType() == IJavaElement.COMPILATION_UNIT && element.getResource() != null)
+					addedTypes.add(qualify(element.getParent().getElementName(), JavaCore.removeJavaLikeExtension(element.getElementName())));
+				// a working copy that is created or discarded does not change the file
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_PRIMARY_RESOURCE)) != 0) {
+					IResource resource= element.getResource();
+					if (resource != null)
+						discardDependents(resource.getFullPath());
+				}
+				return;
+			default:
+				return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child, addedTypes);
+		}
+	}
+
+	private void discardProject(IJavaProject project) {
+		synchronized (this) {
+			fClasspathStamps.remove(project);
+		}
+		File directory= new File(fLocation, toFileName(project.getHandleIdentifier()));
+		File[] files= directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				delete(file);
+			}
+		}
+	}
+
+	/**
+	 * Discards the entries that depend on a compilation unit in which a super type name may now
+	 * resolve to one of the given types.
+	 *
+	 * @param qualifiedNames the qualified names of the added types
+	 */
+	private void typesAdded(Set<String> qualifiedNames) {
+		List<IPath> paths;
+		synchronized (this) {
+			fAddedTypes.addAll(qualifiedNames);
+			paths= new ArrayList<>(fDependentEntries.keySet());
+		}
+		// the pending hierarchies have been computed before the types were added
+		synchronized (fPendingWrites) {
+			fPendingWrites.clear();
+			fPendingDependencies.clear();
+		}
+		for (IPath path : paths) {
+			if (seesTypes(path, qualifiedNames))
+				discardDependents(path);
+		}
+	}
+
+	private boolean isAffectedByAddedTypes(File file, List<IPath> dependencies) {
+		Set<String> qualifiedNames;
+		synchronized (this) {
+			if (fAddedTypes.isEmpty() || fSessionEntries.contains(file))
+				return false;
+			qualifiedNames= new HashSet<>(fAddedTypes);
+		}
+		for (IPath path : dependencies) {
+			if (seesTypes(path, qualifiedNames))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tells whether a super type name in the compilation unit at the given path may resolve to
+	 * one of the given types, i.e. whether the unit lies in or imports on demand the package of a
+	 * type and names it in a <code>extends</code> or <code>implements</code> clause.
+	 *
+	 * @param path the full path of a workspace resource
+	 * @param qualifiedNames the qualified names of the types, <code>pkg.*</code> for any type in
+	 *            a package
+	 * @return <code>true</code> if the resource is such a compilation unit or if that cannot be
+	 *         determined
+	 */
+	private static boolean seesTypes(IPath path, Set<String> qualifiedNames) {
+		if (path.segmentCount() < 2 || !JavaCore.isJavaLikeFileName(path.lastSegment()))
+			return false;
+		IJavaElement element= JavaCore.create(ResourcesPlugin.getWorkspace().getRoot().getFile(path));
+		if (!(element instanceof ICompilationUnit))
+			return false;
+		ICompilationUnit cu= (ICompilationUnit) element;
+		String packageName= cu.getParent().getElementName();
+		try {
+			IImportDeclaration[] imports= cu.getImports();
+			Set<String> superTypeNames= null;
+			for (String qualifiedName : qualifiedNames) {
+				int index= qualifiedName.lastIndexOf('.');
+				String typePackage= index == -1 ? "" : qualifiedName.substring(0, index); //$NON-NLS-1$
+				if (!typePackage.equals(packageName) && !importsOnDemand(imports, typePackage))
+					continue;
+				String simpleName= qualifiedName.substring(index + 1);
+				if ("*".equals(simpleName)) //$NON-NLS-1$
+					return true;
+				if (superTypeNames == null)
+					superTypeNames= getSuperTypeNames(cu);
+				if (superTypeNames.contains(simpleName))
+					return true;
+			}
+		} catch (JavaModelException e) {
+			return true;
+		}
+		return false;
+	}
+
+	private static boolean importsOnDemand(IImportDeclaration[] imports, String packageName) {
+		for (IImportDeclaration declaration : imports) {
+			String name= declaration.getElementName();
+			if (declaration.isOnDemand() && name.length() == packageName.length() + 2 && name.startsWith(packageName))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the first segments of the super type names of the types declared in the given
+	 * compilation unit, as written in the source.
+	 *
+	 * @param cu the compilation unit
+	 * @return the simple names that are resolved to find the super types
+	 * @throws JavaModelException if the compilation unit cannot be read
+	 */
+	private static Set<String> getSuperTypeNames(ICompilationUnit cu) throws JavaModelException {
+		Set<String> names= new HashSet<>();
+		for (IType type : cu.getAllTypes()) {
+			String superclassName= type.getSuperclassName();
+			if (superclassName != null)
+				names.add(getFirstSegment(superclassName));
+			for (String superInterfaceName : type.getSuperInterfaceNames()) {
+				names.add(getFirstSegment(superInterfaceName));
+			}
+		}
+		return names;
+	}
+
+	private static String getFirstSegment(String typeName) {
+		int end= typeName.length();
+		int index= typeName.indexOf('<');
+		if (index != -1)
+			end= index;
+		index= typeName.indexOf('.');
+		if (index != -1 && index < end)
+			end= index;
+		return typeName.substring(0, end).trim();
+	}
+
+	private static String qualify(String packageName, String simpleName) {
+		return packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+	}
+
+	private void discardDependents(IPath path) {
+		Set<File> files;
+		synchronized (this) {
+			files= fDependentEntries.remove(path);
+		}
+		if (files != null) {
+			for (File file : files) {
+				delete(file);
+			}
+		}
+	}
+
+	private static void delete(File file) {
+		if (file.exists() && !file.delete()) {
+			file.deleteOnExit();
+		}
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact encoding of the failure traces and expected and actual results
+ * held by test elements.
+ * <p>
+ * Texts are stored as UTF-8. Longer texts, which are usually stack traces
+ * with many repeated package names, are deflated. The first byte of an
+ * encoded text tells how the rest is stored.
+ * </p>
+ */
+public final class CompactText {
+
+	private static final byte UTF8= 0;
+
+	private static final byte DEFLATED= 1;
+
+	/**
+	 * Minimum number of UTF-8 bytes to try compression.
+	 */
+	private static final int COMPRESSION_THRESHOLD= 256;
+
+	private CompactText() {
+	}
+
+	/**
+	 * @param text the text, or <code>null</code>
+	 * @return the encoded text, or <code>null</code> if <code>text</code> is
+	 *         <code>null</code>
+	 */
+	public static byte[] encode(String text) {
+		if (text == null)
+			return null;
+		byte[] bytes= text.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length >= COMPRESSION_THRESHOLD) {
+			Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+			try {
+				deflater.setInput(bytes);
+				deflater.finish();
+				byte[] compressed= new byte[bytes.length];
+				compressed[0]= DEFLATED;
+				int length= 1;
+				while (!deflater.finished() && length < compressed.length)
+					length+= deflater.deflate(compressed, length, compressed.length - length);
+				if (deflater.finished() && length < bytes.length)
+					return Arrays.copyOf(compressed, length);
+			} finally {
+				deflater.end();
+			}
+		}
+		byte[] encoded= new byte[bytes.length + 1];
+		encoded[0]= UTF8;
+		System.arraycopy(bytes, 0, encoded, 1, bytes.length);
+		return encoded;
+	}
+
+	/**
+	 * @param encoded the encoded text, or <code>null</code>
+	 * @return the text, or <code>null</code> if <code>encoded</code> is
+	 *         <code>null</code>
+	 */
+	public static String decode(byte[] encoded) {
+		if (encoded == null)
+			return null;
+		if (encoded[0] == UTF8)
+			return new String(encoded, 1, encoded.length - 1, StandardCharsets.UTF_8);
+
+		Inflater inflater= new Inflater();
+		try {
+			inflater.setInput(encoded, 1, encoded.length - 1);
+			ByteArrayOutputStream out= new ByteArrayOutputStream(encoded.length * 4);
+			byte[] buffer= new byte[4096];
+			while (!inflater.finished()) {
+				int count= inflater.inflate(buffer);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+					break;
+				out.write(buffer, 0, count);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			// cannot happen, the text has been deflated by encode(String)
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,8 +15,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.junit.model;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -30,6 +32,7 @@ import org.eclipse.core.runtime.ISafeRunnable;
 import org.eclipse.core.runtime.SafeRunner;
 
 import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageReader;
 import org.eclipse.jdt.internal.junit.runner.MessageIds;
 import org.eclipse.jdt.internal.junit.runner.RemoteTestRunner;
 
@@ -228,6 +231,10 @@ public class RemoteTestRunnerClient {
 	private int fPort= -1;
 	private PrintWriter fWriter;
 	private PushbackReader fPushbackReader;
+	/**
+	 * The reader if the RemoteTestRunner reports with the binary protocol
+	 */
+	private BinaryMessageReader fBinaryReader;
 	private String fLastLineDelimiter;
 	/**
 	 * The protocol version
@@ -266,11 +273,20 @@ public class RemoteTestRunnerClient {
 					System.out.println("Creating server socket "+fServerPort); //$NON-NLS-1$
 				fServerSocket= new ServerSocket(fServerPort);
 				fSocket= fServerSocket.accept();
-				fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(fSocket.getInputStream(), StandardCharsets.UTF_8)));
+				InputStream input= new BufferedInputStream(fSocket.getInputStream(), 64 * 1024);
 				fWriter= new PrintWriter(new OutputStreamWriter(fSocket.getOutputStream(), StandardCharsets.UTF_8), true);
-				String message;
-				while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
-					receiveMessage(message);
+				if (BinaryMessageReader.isBinaryProtocol(input)) {
+					BinaryMessageReader reader= new BinaryMessageReader(input);
+					fBinaryReader= reader;
+					int kind;
+					while (fBinaryReader != null && (kind= reader.read()) != -1)
+						receiveBinaryMessage(kind, reader);
+				} else {
+					fPushbackReader= new PushbackReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+					String message;
+					while(fPushbackReader != null && (message= readMessage(fPushbackReader)) != null)
+						receiveMessage(message);
+				}
 			} catch (SocketException e) {
 				notifyTestRunTerminated();
 			} catch (IOException e) {
@@ -326,6 +342,13 @@ public class RemoteTestRunnerClient {
 			}
 		} catch(IOException e) {
 		}
+		try {
+			if (fBinaryReader != null) {
+				fBinaryReader.close();
+				fBinaryReader= null;
+			}
+		} catch(IOException e) {
+		}
 		try {
 			if (fSocket != null) {
 				fSocket.close();
@@ -378,6 +401,62 @@ public class RemoteTestRunnerClient {
 	    fCurrentState= fCurrentState.readMessage(message);
 	}
 
+	private void receiveBinaryMessage(int kind, BinaryMessageReader reader) throws IOException {
+		switch (kind) {
+			case MessageIds.BINARY_MESSAGE:
+				fLastLineDelimiter= null;
+				receiveMessage(reader.readString());
+				break;
+			case MessageIds.BINARY_TEST_START: {
+				String testId= Integer.toString(reader.readNumber());
+				notifyTestStarted(testId, reader.readString());
+				break;
+			}
+			case MessageIds.BINARY_TEST_END: {
+				String testId= Integer.toString(reader.readNumber());
+				notifyTestEnded(testId, reader.readString());
+				break;
+			}
+			case MessageIds.BINARY_TEST_ERROR:
+				fFailedTestId= Integer.toString(reader.readNumber());
+				fFailedTest= reader.readString();
+				fFailureKind= ITestRunListener2.STATUS_ERROR;
+				break;
+			case MessageIds.BINARY_TEST_FAILED:
+				fFailedTestId= Integer.toString(reader.readNumber());
+				fFailedTest= reader.readString();
+				fFailureKind= ITestRunListener2.STATUS_FAILURE;
+				break;
+			case MessageIds.BINARY_TEST_TREE: {
+				String testId= Integer.toString(reader.readNumber());
+				notifyTestTreeEntry(testId + ',' + reader.readString());
+				break;
+			}
+			case MessageIds.BINARY_TRACE:
+				fFailedTrace.setLength(0);
+				fFailedTrace.append(reader.readString());
+				notifyTestFailed();
+				fFailedTrace.setLength(0);
+				fActualResult.setLength(0);
+				fExpectedResult.setLength(0);
+				break;
+			case MessageIds.BINARY_EXPECTED:
+				fExpectedResult.setLength(0);
+				fExpectedResult.append(reader.readString());
+				break;
+			case MessageIds.BINARY_ACTUAL:
+				fActualResult.setLength(0);
+				fActualResult.append(reader.readString());
+				break;
+			case MessageIds.BINARY_RTRACE:
+				fFailedRerunTrace.setLength(0);
+				fFailedRerunTrace.append(reader.readString());
+				break;
+			default:
+				throw new IOException("Unknown record in test run stream: " + kind); //$NON-NLS-1$
+		}
+	}
+
 	private void scanOldReranMessage(String arg) {
 		// OLD V1 format
 		// format: className" "testName" "status
@@ -513,28 +592,36 @@ public class RemoteTestRunnerClient {
 	}
 
 	private void notifyTestEnded(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestEnded(s[0], s[1]);
+	}
+
+	private void notifyTestEnded(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testEnded(s[0], s[1]);
+					listener.testEnded(testId, testName);
 				}
 			});
 		}
 	}
 
 	private void notifyTestStarted(final String test) {
+		String s[]= extractTestId(test);
+		notifyTestStarted(s[0], s[1]);
+	}
+
+	private void notifyTestStarted(final String testId, final String testName) {
 		if (JUnitCorePlugin.isStopped())
 			return;
 		for (ITestRunListener2 listener : fListeners) {
 			SafeRunner.run(new ListenerSafeRunnable() {
 				@Override
 				public void run() {
-					String s[]= extractTestId(test);
-					listener.testStarted(s[0], s[1]);
+					listener.testStarted(testId, testName);
 				}
 			});
 		}
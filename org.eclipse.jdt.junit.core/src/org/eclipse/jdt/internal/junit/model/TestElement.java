@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -167,12 +167,28 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	private final TestSuiteElement fParent;
-	private final String fId;
+
+	/**
+	 * The test id if it is a non-negative number, otherwise <code>-1</code>.
+	 */
+	private final int fIntId;
+
+	/**
+	 * The test id, or <code>null</code> if it is {@link #fIntId} and {@link #getId()} has not
+	 * been called yet.
+	 */
+	private String fId;
+
+	/**
+	 * The test name, the same instance as the name of the parent if they are equal, e.g. for the
+	 * invocations of a parameterized test.
+	 */
 	private String fTestName;
 
 	/**
 	 * The display name of the test element, can be <code>null</code>. In that case, use
-	 * {@link TestElement#fTestName fTestName}.
+	 * {@link TestElement#fTestName fTestName}. The same instance as the test name or as the
+	 * display name of the parent if it is equal to one of them.
 	 */
 	private String fDisplayName;
 
@@ -185,14 +201,20 @@ public abstract class TestElement implements ITestElement {
 
 	/**
 	 * The unique ID of the test element which can be <code>null</code> as it is applicable to JUnit 5
-	 * and above.
+	 * and above. Only the part after the unique ID of the parent if {@link #fUniqueIdRelative}.
 	 */
 	private String fUniqueId;
 
+	private boolean fUniqueIdRelative;
+
 	private Status fStatus;
-	private String fTrace;
-	private String fExpected;
-	private String fActual;
+
+	/*
+	 * Failure trace, expected and actual result, encoded with CompactText.
+	 */
+	private byte[] fTrace;
+	private byte[] fExpected;
+	private byte[] fActual;
 
 	private boolean fAssumptionFailed;
 
@@ -222,11 +244,21 @@ public abstract class TestElement implements ITestElement {
 		Assert.isNotNull(id);
 		Assert.isNotNull(testName);
 		fParent= parent;
-		fId= id;
-		fTestName= testName;
-		fDisplayName= displayName;
+		fIntId= TestIdMap.toIntId(id);
+		fId= fIntId < 0 ? id : null;
+		// share equal names with the parent
+		TestElement parentElement= parent;
+		fTestName= parentElement != null && testName.equals(parentElement.fTestName) ? parentElement.fTestName : testName;
+		if (displayName == null || displayName.equals(fTestName)) {
+			fDisplayName= displayName == null ? null : fTestName;
+		} else {
+			fDisplayName= parentElement != null && displayName.equals(parentElement.fDisplayName) ? parentElement.fDisplayName : displayName;
+		}
 		fParameterTypes= parameterTypes;
-		fUniqueId= uniqueId;
+		// the unique IDs of JUnit 5 extend the unique ID of the parent
+		int parentEnd= parentElement != null && uniqueId != null ? parentElement.matchUniqueId(uniqueId) : -1;
+		fUniqueIdRelative= parentEnd > 0;
+		fUniqueId= fUniqueIdRelative ? uniqueId.substring(parentEnd) : uniqueId;
 		fStatus= Status.NOT_RUN;
 		if (parent != null)
 			parent.addChild(this);
@@ -263,7 +295,7 @@ public abstract class TestElement implements ITestElement {
 		Result testResult= getTestResult(false);
 		if (testResult == Result.ERROR || testResult == Result.FAILURE
 				|| (testResult == Result.IGNORED && fTrace != null)) {
-			return new FailureTrace(fTrace, fExpected, fActual);
+			return new FailureTrace(getTrace(), getExpected(), getActual());
 		}
 		return null;
 	}
@@ -276,6 +308,8 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public String getId() {
+		if (fId == null)
+			fId= Integer.toString(fIntId);
 		return fId;
 	}
 
@@ -306,11 +340,11 @@ public abstract class TestElement implements ITestElement {
 	public void setStatus(Status status, String trace, String expected, String actual) {
 		if (trace != null && fTrace != null) {
 			//don't overwrite first trace if same test run logs multiple errors
-			fTrace= fTrace + trace;
+			fTrace= CompactText.encode(getTrace() + trace);
 		} else {
-			fTrace= trace;
-			fExpected= expected;
-			fActual= actual;
+			fTrace= CompactText.encode(trace);
+			fExpected= CompactText.encode(expected);
+			fActual= CompactText.encode(actual);
 		}
 		setStatus(status);
 	}
@@ -320,15 +354,15 @@ public abstract class TestElement implements ITestElement {
 	}
 
 	public String getTrace() {
-		return fTrace;
+		return CompactText.decode(fTrace);
 	}
 
 	public String getExpected() {
-		return fExpected;
+		return CompactText.decode(fExpected);
 	}
 
 	public String getActual() {
-		return fActual;
+		return CompactText.decode(fActual);
 	}
 
 	public boolean isComparisonFailure() {
@@ -419,7 +453,27 @@ public abstract class TestElement implements ITestElement {
 	 * @return the unique ID of the test, can be <code>null</code>
 	 */
 	public String getUniqueId() {
-		return fUniqueId;
+		return fUniqueIdRelative ? fParent.getUniqueId() + fUniqueId : fUniqueId;
+	}
+
+	/**
+	 * Matches the unique ID of this element against the start of the given unique ID without
+	 * building it.
+	 *
+	 * @param uniqueId a unique ID
+	 * @return the length of the unique ID of this element if the given one starts with it,
+	 *         otherwise <code>-1</code>
+	 */
+	private int matchUniqueId(String uniqueId) {
+		if (fUniqueId == null)
+			return -1;
+		int start= 0;
+		if (fUniqueIdRelative) {
+			start= ((TestElement) fParent).matchUniqueId(uniqueId);
+			if (start < 0)
+				return -1;
+		}
+		return uniqueId.startsWith(fUniqueId, start) ? start + fUniqueId.length() : -1;
 	}
 
 }
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Map from test ID to test element.
+ * <p>
+ * The test runners number their tests, so IDs are stored as <code>int</code>
+ * keys in an open addressing table without boxing or string keys. IDs that
+ * are not the canonical decimal representation of a non-negative
+ * <code>int</code> (e.g. IDs of imported or unrooted tests) go to a regular
+ * {@link HashMap}.
+ * </p>
+ */
+public final class TestIdMap {
+
+	private static final int INITIAL_CAPACITY= 64;
+
+	/**
+	 * Keys of the table, <code>-1</code> for a free slot
+	 */
+	private int[] fKeys;
+
+	private TestElement[] fValues;
+
+	private int fSize= 0;
+
+	private HashMap<String, TestElement> fOtherIds;
+
+	public TestIdMap() {
+		fKeys= newKeys(INITIAL_CAPACITY);
+		fValues= new TestElement[INITIAL_CAPACITY];
+	}
+
+	/**
+	 * Returns the numeric value of the given test ID.
+	 *
+	 * @param id the test ID
+	 * @return the non-negative value of the ID, or <code>-1</code> if the ID
+	 *         is not the decimal representation of a non-negative
+	 *         <code>int</code> without leading zeros
+	 */
+	public static int toIntId(String id) {
+		int length= id.length();
+		if (length == 0 || length > 10 || length > 1 && id.charAt(0) == '0')
+			return -1;
+		long value= 0;
+		for (int i= 0; i < length; i++) {
+			char c= id.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+			value= value * 10 + (c - '0');
+		}
+		return value > Integer.MAX_VALUE ? -1 : (int) value;
+	}
+
+	public TestElement get(String id) {
+		int intId= toIntId(id);
+		if (intId < 0)
+			return fOtherIds == null ? null : fOtherIds.get(id);
+		int mask= fKeys.length - 1;
+		for (int i= hash(intId) & mask; fKeys[i] != -1; i= (i + 1) & mask) {
+			if (fKeys[i] == intId)
+				return fValues[i];
+		}
+		return null;
+	}
+
+	public void put(String id, TestElement element) {
+		int intId= toIntId(id);
+		if (intId < 0) {
+			if (fOtherIds == null)
+				fOtherIds= new HashMap<>();
+			fOtherIds.put(id, element);
+			return;
+		}
+		if (insert(fKeys, fValues, intId, element))
+			fSize++;
+		if (fSize * 4 > fKeys.length * 3)
+			rehash();
+	}
+
+	private void rehash() {
+		int[] keys= newKeys(fKeys.length * 2);
+		TestElement[] values= new TestElement[keys.length];
+		for (int i= 0; i < fKeys.length; i++) {
+			if (fKeys[i] != -1)
+				insert(keys, values, fKeys[i], fValues[i]);
+		}
+		fKeys= keys;
+		fValues= values;
+	}
+
+	/**
+	 * @return <code>true</code> if a new key was added, <code>false</code> if
+	 *         the value of an existing key was replaced
+	 */
+	private static boolean insert(int[] keys, TestElement[] values, int key, TestElement value) {
+		int mask= keys.length - 1;
+		int i= hash(key) & mask;
+		while (keys[i] != -1) {
+			if (keys[i] == key) {
+				values[i]= value;
+				return false;
+			}
+			i= (i + 1) & mask;
+		}
+		keys[i]= key;
+		values[i]= value;
+		return true;
+	}
+
+	private static int hash(int key) {
+		// test IDs are consecutive, spread them over the table
+		int h= key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static int[] newKeys(int capacity) {
+		int[] keys= new int[capacity];
+		Arrays.fill(keys, -1);
+		return keys;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -86,7 +86,19 @@ public class TestRunSession implements ITestRunSession {
 	/**
 	 * Map from testId to testElement.
 	 */
-	private HashMap<String, TestElement> fIdToTest;
+	private TestIdMap fIdToTest;
+
+	/**
+	 * Shared arrays of method parameter types, to avoid keeping a copy of the
+	 * same types for every test.
+	 */
+	private HashMap<List<String>, String[]> fParameterTypes;
+
+	/**
+	 * <code>true</code> if the swap file is up to date with this session, so
+	 * that {@link #swapOut()} does not need to write it again.
+	 */
+	private boolean fSwapFileValid;
 
 	/**
 	 * The TestSuites for which additional children are expected.
@@ -167,7 +179,8 @@ public class TestRunSession implements ITestRunSession {
 		fTestRunnerKind= ITestKind.NULL; //TODO
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestIdMap();
+		fParameterTypes= new HashMap<>();
 
 		fTestRunnerClient= null;
 
@@ -191,7 +204,8 @@ public class TestRunSession implements ITestRunSession {
 		}
 
 		fTestRoot= new TestRoot(this);
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestIdMap();
+		fParameterTypes= new HashMap<>();
 
 		fTestRunnerClient= new RemoteTestRunnerClient();
 		fTestRunnerClient.startListening(new ITestRunListener2[] { new TestSessionNotifier() }, port);
@@ -238,7 +252,9 @@ public class TestRunSession implements ITestRunSession {
 
 		fTestRoot= new TestRoot(this);
 		fTestResult= null;
-		fIdToTest= new HashMap<>();
+		fIdToTest= new TestIdMap();
+		fParameterTypes= new HashMap<>();
+		fSwapFileValid= false;
 	}
 
 	@Override
@@ -370,11 +386,15 @@ public class TestRunSession implements ITestRunSession {
 		try {
 			File swapFile= getSwapFile();
 
-			JUnitModel.exportTestRunSession(this, swapFile);
+			if (!fSwapFileValid || !swapFile.exists()) {
+				JUnitModel.exportTestRunSession(this, swapFile);
+				fSwapFileValid= true;
+			}
 			fTestResult= fTestRoot.getTestResult(true);
 			fTestRoot= null;
 			fTestRunnerClient= null;
-			fIdToTest= new HashMap<>();
+			fIdToTest= new TestIdMap();
+			fParameterTypes= new HashMap<>();
 			fIncompleteTestSuites= null;
 			fFactoryTestSuites= null;
 			fUnrootedSuite= null;
@@ -393,6 +413,7 @@ public class TestRunSession implements ITestRunSession {
 		File swapFile= getSwapFile();
 		if (swapFile.exists())
 			swapFile.delete();
+		fSwapFileValid= false;
 	}
 
 	private File getSwapFile() throws IllegalStateException {
@@ -409,6 +430,7 @@ public class TestRunSession implements ITestRunSession {
 
 		try {
 			JUnitModel.importIntoTestRunSession(getSwapFile(), this);
+			fSwapFileValid= true;
 		} catch (IllegalStateException | CoreException e) {
 			JUnitCorePlugin.log(e);
 			fTestRoot= new TestRoot(this);
@@ -568,6 +590,12 @@ public class TestRunSession implements ITestRunSession {
 		if (parameterTypes != null && parameterTypes.length > 1) {
 			parameterTypes= Arrays.stream(parameterTypes).map(String::trim).toArray(String[]::new);
 		}
+		if (parameterTypes != null) {
+			String[] shared= fParameterTypes.putIfAbsent(Arrays.asList(parameterTypes), parameterTypes);
+			if (shared != null)
+				parameterTypes= shared;
+		}
+		fSwapFileValid= false;
 		if (isSuite) {
 			TestSuiteElement testSuiteElement= new TestSuiteElement(parent, id, testName, testCount, displayName, parameterTypes, uniqueId);
 			testElement= testSuiteElement;
@@ -813,6 +841,7 @@ public class TestRunSession implements ITestRunSession {
 	}
 
 	public void registerTestFailureStatus(TestElement testElement, Status status, String trace, String expected, String actual) {
+		fSwapFileValid= false;
 		testElement.setStatus(status, trace, expected, actual);
 		if (!testElement.isAssumptionFailure()) {
 			if (status.isError()) {
@@ -824,6 +853,7 @@ public class TestRunSession implements ITestRunSession {
 	}
 
 	public void registerTestEnded(TestElement testElement, boolean completed) {
+		fSwapFileValid= false;
 		if (testElement instanceof TestCaseElement) {
 			fTotalCount++;
 			if (! completed) {
@@ -843,6 +873,7 @@ public class TestRunSession implements ITestRunSession {
 	}
 
 	private void setStatus(TestElement testElement, Status status) {
+		fSwapFileValid= false;
 		testElement.setStatus(status);
 	}
 
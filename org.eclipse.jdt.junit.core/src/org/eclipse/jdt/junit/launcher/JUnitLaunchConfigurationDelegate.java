@@ -71,6 +71,7 @@ import org.eclipse.jdt.internal.junit.launcher.ITestKind;
 import org.eclipse.jdt.internal.junit.launcher.JUnitLaunchConfigurationConstants;
 import org.eclipse.jdt.internal.junit.launcher.JUnitRuntimeClasspathEntry;
 import org.eclipse.jdt.internal.junit.launcher.TestKindRegistry;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
 import org.eclipse.jdt.internal.junit.util.CoreTestSearchEngine;
 import org.eclipse.jdt.internal.junit.util.IJUnitStatusConstants;
 
@@ -99,6 +100,14 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 
 	private static final String DEFAULT= "<default>"; //$NON-NLS-1$
 
+	private static final String REMOTE_TEST_RUNNER= "org.eclipse.jdt.internal.junit.runner.RemoteTestRunner"; //$NON-NLS-1$
+
+	/**
+	 * Should test runs report with the binary protocol? Can be disabled with
+	 * <code>-Dorg.eclipse.jdt.junit.binaryProtocol=false</code>.
+	 */
+	private static final boolean BINARY_PROTOCOL= !"false".equals(System.getProperty("org.eclipse.jdt.junit.binaryProtocol")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	@Override
 	public String showCommandLine(ILaunchConfiguration configuration, String mode, ILaunch launch, IProgressMonitor monitor) throws CoreException {
 		if (monitor == null) {
@@ -350,7 +359,7 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 
 	@Override
 	public String verifyMainTypeName(ILaunchConfiguration configuration) throws CoreException {
-		return "org.eclipse.jdt.internal.junit.runner.RemoteTestRunner"; //$NON-NLS-1$
+		return REMOTE_TEST_RUNNER;
 	}
 
 	/**
@@ -439,6 +448,10 @@ public class JUnitLaunchConfigurationDelegate extends AbstractJavaLaunchConfigur
 		programArguments.add("-port"); //$NON-NLS-1$
 		programArguments.add(String.valueOf(fPort));
 
+		// only our own runner is known to understand the binary protocol, the client falls back to text otherwise
+		if (BINARY_PROTOCOL && REMOTE_TEST_RUNNER.equals(verifyMainTypeName(configuration)))
+			programArguments.add(MessageIds.BINARY_PROTOCOL_ARGUMENT);
+
 		if (fKeepAlive)
 			programArguments.add(0, "-keepalive"); //$NON-NLS-1$
 
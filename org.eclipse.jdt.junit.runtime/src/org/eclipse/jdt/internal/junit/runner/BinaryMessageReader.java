@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads the records written by a {@link BinaryMessageSender}.
+ * <p>
+ * Clients call {@link #read()} to get the kind of the next record and then
+ * read the values of the record with {@link #readNumber()} and
+ * {@link #readString()}.
+ * </p>
+ */
+public class BinaryMessageReader {
+
+	private final DataInputStream fInput;
+
+	private final Inflater fInflater= new Inflater();
+
+	private byte[] fPayload= new byte[16 * 1024];
+
+	private byte[] fCompressed= new byte[0];
+
+	private int fPosition= 0;
+
+	private int fLength= 0;
+
+	/**
+	 * Tells whether the given stream starts with the header of the binary
+	 * protocol. The stream must support mark and reset; it is reset to its
+	 * current position.
+	 *
+	 * @param input the stream to check
+	 * @return <code>true</code> if the stream uses the binary protocol
+	 * @throws IOException if the stream cannot be read
+	 */
+	public static boolean isBinaryProtocol(InputStream input) throws IOException {
+		input.mark(4);
+		try {
+			int magic= 0;
+			for (int i= 0; i < 4; i++) {
+				int b= input.read();
+				if (b == -1)
+					return false;
+				magic= magic << 8 | b;
+			}
+			return magic == MessageIds.BINARY_PROTOCOL_MAGIC;
+		} finally {
+			input.reset();
+		}
+	}
+
+	/**
+	 * Creates a reader and reads the protocol header.
+	 *
+	 * @param input the stream to read from
+	 * @throws IOException if the header cannot be read or the protocol version
+	 *             is not supported
+	 */
+	public BinaryMessageReader(InputStream input) throws IOException {
+		fInput= new DataInputStream(input);
+		if (fInput.readInt() != MessageIds.BINARY_PROTOCOL_MAGIC)
+			throw new IOException("Not a binary test run stream"); //$NON-NLS-1$
+		int version= fInput.readUnsignedByte();
+		if (version != MessageIds.BINARY_PROTOCOL_VERSION)
+			throw new IOException("Unsupported binary protocol version: " + version); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the kind of the next record, reading the next frame if
+	 * necessary.
+	 *
+	 * @return one of the <code>BINARY_*</code> record kinds of
+	 *         {@link MessageIds}, or <code>-1</code> at the end of the stream
+	 * @throws IOException if the stream cannot be read
+	 */
+	public int read() throws IOException {
+		while (fPosition >= fLength) {
+			if (!readFrame())
+				return -1;
+		}
+		return fPayload[fPosition++] & 0xFF;
+	}
+
+	/**
+	 * Reads a number of the current record.
+	 *
+	 * @return the number
+	 * @throws IOException if the record is malformed
+	 */
+	public int readNumber() throws IOException {
+		int value= 0;
+		for (int shift= 0; shift < 32; shift+= 7) {
+			if (fPosition >= fLength)
+				throw new EOFException();
+			int b= fPayload[fPosition++];
+			value|= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed number"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Reads a string of the current record.
+	 *
+	 * @return the string
+	 * @throws IOException if the record is malformed
+	 */
+	public String readString() throws IOException {
+		int length= readNumber();
+		if (length < 0 || fPosition + length > fLength)
+			throw new EOFException();
+		String value= new String(fPayload, fPosition, length, StandardCharsets.UTF_8);
+		fPosition+= length;
+		return value;
+	}
+
+	/**
+	 * Closes the underlying stream.
+	 *
+	 * @throws IOException if the stream cannot be closed
+	 */
+	public void close() throws IOException {
+		fInflater.end();
+		fInput.close();
+	}
+
+	private boolean readFrame() throws IOException {
+		int length;
+		try {
+			length= fInput.readInt();
+		} catch (EOFException e) {
+			return false;
+		}
+		int rawLength= fInput.readInt();
+		if (length < 0 || rawLength < length)
+			throw new IOException("Malformed frame"); //$NON-NLS-1$
+		if (fPayload.length < rawLength)
+			fPayload= new byte[rawLength];
+		if (length == rawLength) {
+			fInput.readFully(fPayload, 0, rawLength);
+		} else {
+			if (fCompressed.length < length)
+				fCompressed= new byte[length];
+			fInput.readFully(fCompressed, 0, length);
+			fInflater.reset();
+			fInflater.setInput(fCompressed, 0, length);
+			try {
+				int read= 0;
+				while (read < rawLength && !fInflater.finished()) {
+					int count= fInflater.inflate(fPayload, read, rawLength - read);
+					if (count == 0 && (fInflater.needsInput() || fInflater.needsDictionary()))
+						break;
+					read+= count;
+				}
+				if (read != rawLength)
+					throw new IOException("Malformed frame"); //$NON-NLS-1$
+			} catch (DataFormatException e) {
+				throw new IOException(e.getMessage());
+			}
+		}
+		fPosition= 0;
+		fLength= rawLength;
+		return true;
+	}
+}
@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.junit.runner;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.zip.Deflater;
+
+/**
+ * A MessageSender that encodes the text messages of the RemoteTestRunner
+ * with the binary protocol.
+ * <p>
+ * The stream starts with {@link MessageIds#BINARY_PROTOCOL_MAGIC} and
+ * {@link MessageIds#BINARY_PROTOCOL_VERSION}, followed by frames. A frame is
+ * the length of its payload, the uncompressed length of its payload and the
+ * payload itself. The payload is deflated if it is shorter than the
+ * uncompressed length. An uncompressed payload is a sequence of records, each
+ * starting with one of the <code>BINARY_*</code> record kinds of
+ * {@link MessageIds}. Numbers in records are unsigned variable length
+ * integers, strings are UTF-8 encoded and prefixed with their length.
+ * </p>
+ * <p>
+ * Test messages are sent with the test ID as a number, and the lines between
+ * the start and end message of a trace, expected or actual result are sent as
+ * a single record. Records are collected into frames that are written when
+ * they are full or when a frame has been pending for too long.
+ * </p>
+ * <p>
+ * The listeners flush after every test, so {@link #flush()} does not write a
+ * frame before it has been pending for {@link #FRAME_DELAY} milliseconds, but
+ * makes sure that a timer writes it then. {@link #flushNow()} writes the
+ * pending frame right away.
+ * </p>
+ *
+ * @see BinaryMessageReader
+ */
+public class BinaryMessageSender implements MessageSender {
+
+	/**
+	 * Size of the uncompressed payload at which a frame is written.
+	 */
+	private static final int FRAME_SIZE= 16 * 1024;
+
+	/**
+	 * Time in milliseconds after which a pending frame is written with the
+	 * next message or by the flush timer.
+	 */
+	private static final long FRAME_DELAY= 200;
+
+	/**
+	 * Minimum size of the uncompressed payload to try compression.
+	 */
+	private static final int COMPRESSION_THRESHOLD= 1024;
+
+	private final DataOutputStream fOutput;
+
+	private final Deflater fDeflater= new Deflater(Deflater.BEST_SPEED);
+
+	private final String fLineSeparator= System.getProperty("line.separator"); //$NON-NLS-1$
+
+	/**
+	 * The uncompressed payload of the pending frame
+	 */
+	private byte[] fPayload= new byte[FRAME_SIZE + 1024];
+
+	private int fLength= 0;
+
+	private byte[] fCompressed= new byte[0];
+
+	private long fFrameStart= 0;
+
+	/**
+	 * The record kind of the block being collected, or <code>-1</code>
+	 */
+	private int fBlockKind= -1;
+
+	private String fBlockEnd;
+
+	private final StringBuilder fBlock= new StringBuilder();
+
+	private boolean fFailed= false;
+
+	/**
+	 * The timer that writes flushed frames, or <code>null</code> if none
+	 * has been needed yet
+	 */
+	private Timer fFlushTimer;
+
+	/**
+	 * The scheduled write of the pending frame, or <code>null</code>
+	 */
+	private TimerTask fFlushTask;
+
+	/**
+	 * Creates a sender that writes to the given stream and writes the
+	 * protocol header.
+	 *
+	 * @param output the stream to write to
+	 * @throws IOException if the header cannot be written
+	 */
+	public BinaryMessageSender(OutputStream output) throws IOException {
+		fOutput= new DataOutputStream(output);
+		fOutput.writeInt(MessageIds.BINARY_PROTOCOL_MAGIC);
+		fOutput.writeByte(MessageIds.BINARY_PROTOCOL_VERSION);
+	}
+
+	@Override
+	public synchronized void sendMessage(String msg) {
+		if (fFailed)
+			return;
+		if (fLength == 0)
+			fFrameStart= System.currentTimeMillis();
+		if (fBlockKind != -1) {
+			if (msg.startsWith(fBlockEnd)) {
+				writeByte(fBlockKind);
+				writeString(fBlock.toString());
+				fBlock.setLength(0);
+				fBlockKind= -1;
+			} else {
+				fBlock.append(msg).append(fLineSeparator);
+			}
+		} else if (msg.startsWith(MessageIds.TRACE_START)) {
+			beginBlock(MessageIds.BINARY_TRACE, MessageIds.TRACE_END);
+		} else if (msg.startsWith(MessageIds.EXPECTED_START)) {
+			beginBlock(MessageIds.BINARY_EXPECTED, MessageIds.EXPECTED_END);
+		} else if (msg.startsWith(MessageIds.ACTUAL_START)) {
+			beginBlock(MessageIds.BINARY_ACTUAL, MessageIds.ACTUAL_END);
+		} else if (msg.startsWith(MessageIds.RTRACE_START)) {
+			beginBlock(MessageIds.BINARY_RTRACE, MessageIds.RTRACE_END);
+		} else if (!(msg.startsWith(MessageIds.TEST_START) && writeTestMessage(MessageIds.BINARY_TEST_START, msg)
+				|| msg.startsWith(MessageIds.TEST_END) && writeTestMessage(MessageIds.BINARY_TEST_END, msg)
+				|| msg.startsWith(MessageIds.TEST_ERROR) && writeTestMessage(MessageIds.BINARY_TEST_ERROR, msg)
+				|| msg.startsWith(MessageIds.TEST_FAILED) && writeTestMessage(MessageIds.BINARY_TEST_FAILED, msg)
+				|| msg.startsWith(MessageIds.TEST_TREE) && writeTestMessage(MessageIds.BINARY_TEST_TREE, msg))) {
+			writeByte(MessageIds.BINARY_MESSAGE);
+			writeString(msg);
+		}
+		if (fBlockKind == -1 && (fLength >= FRAME_SIZE || System.currentTimeMillis() - fFrameStart >= FRAME_DELAY))
+			writeFrame();
+	}
+
+	/**
+	 * Makes sure that the pending frame is written once it has been pending
+	 * for {@link #FRAME_DELAY} milliseconds, so that the messages of several
+	 * flushes share a frame.
+	 */
+	@Override
+	public synchronized void flush() {
+		if (fFailed)
+			return;
+		long delay= fFrameStart + FRAME_DELAY - System.currentTimeMillis();
+		if (fLength == 0 || fBlockKind != -1 || delay <= 0) {
+			flushNow();
+		} else if (fFlushTask == null) {
+			if (fFlushTimer == null)
+				fFlushTimer= new Timer("JUnit Binary Message Sender", true); //$NON-NLS-1$
+			fFlushTask= new TimerTask() {
+				@Override
+				public void run() {
+					synchronized (BinaryMessageSender.this) {
+						if (fFlushTask == this)
+							flushNow();
+					}
+				}
+			};
+			fFlushTimer.schedule(fFlushTask, delay);
+		}
+	}
+
+	/**
+	 * Writes the pending frame and flushes the underlying stream.
+	 */
+	public synchronized void flushNow() {
+		if (fFlushTask != null) {
+			fFlushTask.cancel();
+			fFlushTask= null;
+		}
+		writeFrame();
+		try {
+			fOutput.flush();
+		} catch (IOException e) {
+			fFailed= true;
+		}
+	}
+
+	/**
+	 * Writes the pending frame and closes the underlying stream.
+	 */
+	public synchronized void close() {
+		flushNow();
+		if (fFlushTimer != null) {
+			fFlushTimer.cancel();
+			fFlushTimer= null;
+		}
+		fDeflater.end();
+		try {
+			fOutput.close();
+		} catch (IOException e) {
+			// ignore
+		}
+	}
+
+	private void beginBlock(int kind, String end) {
+		fBlockKind= kind;
+		fBlockEnd= end;
+		fBlock.setLength(0);
+	}
+
+	/**
+	 * Writes a message of the form header + testId + "," + rest.
+	 *
+	 * @param kind the record kind
+	 * @param msg the message
+	 * @return <code>true</code> if the message has been written,
+	 *         <code>false</code> if it does not start with a test ID
+	 */
+	private boolean writeTestMessage(int kind, String msg) {
+		int start= MessageIds.MSG_HEADER_LENGTH;
+		int comma= msg.indexOf(',', start);
+		if (comma <= start || comma - start > 9)
+			return false;
+		int id= 0;
+		for (int i= start; i < comma; i++) {
+			char c= msg.charAt(i);
+			if (c < '0' || c > '9')
+				return false;
+			id= id * 10 + (c - '0');
+		}
+		writeByte(kind);
+		writeNumber(id);
+		writeString(msg.substring(comma + 1));
+		return true;
+	}
+
+	private void ensureCapacity(int length) {
+		if (fLength + length > fPayload.length) {
+			byte[] payload= new byte[Math.max(fPayload.length * 2, fLength + length)];
+			System.arraycopy(fPayload, 0, payload, 0, fLength);
+			fPayload= payload;
+		}
+	}
+
+	private void writeByte(int value) {
+		ensureCapacity(1);
+		fPayload[fLength++]= (byte) value;
+	}
+
+	private void writeNumber(int value) {
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0) {
+			fPayload[fLength++]= (byte) ((value & 0x7F) | 0x80);
+			value>>>= 7;
+		}
+		fPayload[fLength++]= (byte) value;
+	}
+
+	private void writeString(String value) {
+		byte[] bytes= value.getBytes(StandardCharsets.UTF_8);
+		writeNumber(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, fPayload, fLength, bytes.length);
+		fLength+= bytes.length;
+	}
+
+	private void writeFrame() {
+		if (fLength == 0 || fFailed)
+			return;
+		try {
+			int compressedLength= fLength;
+			if (fLength >= COMPRESSION_THRESHOLD) {
+				if (fCompressed.length < fLength)
+					fCompressed= new byte[fLength];
+				fDeflater.reset();
+				fDeflater.setInput(fPayload, 0, fLength);
+				fDeflater.finish();
+				int length= 0;
+				while (!fDeflater.finished() && length < fCompressed.length)
+					length+= fDeflater.deflate(fCompressed, length, fCompressed.length - length);
+				if (fDeflater.finished() && length < fLength)
+					compressedLength= length;
+			}
+			fOutput.writeInt(compressedLength);
+			fOutput.writeInt(fLength);
+			if (compressedLength < fLength)
+				fOutput.write(fCompressed, 0, compressedLength);
+			else
+				fOutput.write(fPayload, 0, fLength);
+		} catch (IOException e) {
+			fFailed= true;
+		} finally {
+			fLength= 0;
+		}
+	}
+}
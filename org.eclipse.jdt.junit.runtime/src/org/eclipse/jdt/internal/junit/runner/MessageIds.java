@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -134,6 +134,69 @@ public class MessageIds {
 	 */
 	public static final String TEST_RERUN=	">RERUN  "; //$NON-NLS-1$
 
+	/**
+	 * Program argument which requests the RemoteTestRunner to report
+	 * with the binary protocol instead of text messages.
+	 *
+	 * @see BinaryMessageSender
+	 */
+	public static final String BINARY_PROTOCOL_ARGUMENT= "-binaryprotocol"; //$NON-NLS-1$
+
+	/**
+	 * Magic number at the start of a stream that uses the binary protocol.
+	 * Its first byte can never start a text message.
+	 */
+	public static final int BINARY_PROTOCOL_MAGIC= 0x004A5542;
+
+	/**
+	 * Version of the binary protocol, sent after the magic number.
+	 */
+	public static final int BINARY_PROTOCOL_VERSION= 1;
+
+	/**
+	 * Binary record for a text message that has no dedicated record.
+	 * The record is followed by the message.
+	 */
+	public static final int BINARY_MESSAGE= 0;
+	/**
+	 * Binary record for TEST_START, followed by testId and testName.
+	 */
+	public static final int BINARY_TEST_START= 1;
+	/**
+	 * Binary record for TEST_END, followed by testId and testName.
+	 */
+	public static final int BINARY_TEST_END= 2;
+	/**
+	 * Binary record for TEST_ERROR, followed by testId and testName.
+	 */
+	public static final int BINARY_TEST_ERROR= 3;
+	/**
+	 * Binary record for TEST_FAILED, followed by testId and testName.
+	 */
+	public static final int BINARY_TEST_FAILED= 4;
+	/**
+	 * Binary record for TEST_TREE, followed by testId and the rest
+	 * of the tree entry after the testId.
+	 */
+	public static final int BINARY_TEST_TREE= 5;
+	/**
+	 * Binary record for a complete trace, i.e. everything between
+	 * TRACE_START and TRACE_END, followed by the trace text.
+	 */
+	public static final int BINARY_TRACE= 6;
+	/**
+	 * Binary record for a complete expected result, followed by the text.
+	 */
+	public static final int BINARY_EXPECTED= 7;
+	/**
+	 * Binary record for a complete actual result, followed by the text.
+	 */
+	public static final int BINARY_ACTUAL= 8;
+	/**
+	 * Binary record for a complete trace of a reran test, followed by the text.
+	 */
+	public static final int BINARY_RTRACE= 9;
+
 	/**
 	 * MessageFormat to encode test method identifiers:
 	 * testMethod(testClass)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -37,6 +37,15 @@ public class CounterPanel extends Composite {
 	protected int fIgnoredCount;
 	protected int fAssumptionFailedCount;
 
+	/*
+	 * The values currently shown, used to skip updates that do not change anything.
+	 * -1 if nothing has been shown yet.
+	 */
+	private int fShownRunCount= -1;
+	private int fShownTotal= -1;
+	private int fShownErrorCount= -1;
+	private int fShownFailureCount= -1;
+
 	private final Image fErrorIcon= JUnitPlugin.createImage("ovr16/error_ovr.png"); //$NON-NLS-1$
 	private final Image fFailureIcon= JUnitPlugin.createImage("ovr16/failed_ovr.png"); //$NON-NLS-1$
 
@@ -97,6 +106,10 @@ public class CounterPanel extends Composite {
 	}
 
 	public void setRunValue(int value, int ignoredCount, int assumptionFailureCount) {
+		if (value == fShownRunCount && fTotal == fShownTotal && ignoredCount == fIgnoredCount && assumptionFailureCount == fAssumptionFailedCount)
+			return;
+		fShownRunCount= value;
+		fShownTotal= fTotal;
 		String runString;
 		String runStringTooltip;
 		if (ignoredCount == 0 && assumptionFailureCount == 0) {
@@ -128,11 +141,17 @@ public class CounterPanel extends Composite {
 	}
 
 	public void setErrorValue(int value) {
+		if (value == fShownErrorCount)
+			return;
+		fShownErrorCount= value;
 		fNumberOfErrors.setText(Integer.toString(value));
 		redraw();
 	}
 
 	public void setFailureValue(int value) {
+		if (value == fShownFailureCount)
+			return;
+		fShownFailureCount= value;
 		fNumberOfFailures.setText(Integer.toString(value));
 		redraw();
 	}
@@ -168,6 +168,12 @@ public class TestRunnerViewPart extends ViewPart {
 
 	static final int REFRESH_INTERVAL= 200;
 
+	/**
+	 * Interval between two refreshes while changes keep coming in, so that the
+	 * view is refreshed at most once per frame.
+	 */
+	static final int FRAME_INTERVAL= 16;
+
 	public static final int LAYOUT_FLAT= 0;
 	public static final int LAYOUT_HIERARCHICAL= 1;
 
@@ -199,6 +205,11 @@ public class TestRunnerViewPart extends ViewPart {
 	protected boolean fShowOnErrorOnly= false;
 	protected Clipboard fClipboard;
 	protected volatile String fInfoMessage;
+	/**
+	 * The test case that was started last, or <code>null</code>. The message
+	 * for it is only created when it is shown.
+	 */
+	private volatile TestCaseElement fStartedTestCase;
 
 	private FailureTrace fFailureTrace;
 
@@ -815,10 +826,8 @@ public class TestRunnerViewPart extends ViewPart {
 			fTestViewer.registerAutoScrollTarget(testCaseElement);
 			fTestViewer.registerViewerUpdate(testCaseElement);
 
-			String className= BasicElementLabels.getJavaElementName(testCaseElement.getClassName());
-			String method= BasicElementLabels.getJavaElementName(testCaseElement.getTestMethodName());
-			String status= Messages.format(JUnitMessages.TestRunnerViewPart_message_started, new String[] { className, method });
-			registerInfoMessage(status);
+			fInfoMessage= null;
+			fStartedTestCase= testCaseElement;
 		}
 
 		@Override
@@ -874,10 +883,13 @@ public class TestRunnerViewPart extends ViewPart {
 		}
 		@Override
 		public IStatus runInUIThread(IProgressMonitor monitor) {
+			boolean hadChanges= false;
 			if (!isDisposed()) {
+				hadChanges= fTestViewer.hasPendingChanges();
 				processChangesInUI();
 			}
-			schedule(REFRESH_INTERVAL);
+			// refresh with the frame rate while tests are reporting, otherwise poll less often
+			schedule(hadChanges ? FRAME_INTERVAL : REFRESH_INTERVAL);
 			return Status.OK_STATUS;
 		}
 
@@ -1549,13 +1561,17 @@ public class TestRunnerViewPart extends ViewPart {
 	}
 
 	private void updateViewIcon() {
+		Image viewImage;
 		if (fTestRunSession == null || fTestRunSession.isStopped() || fTestRunSession.isRunning() || fTestRunSession.getStartedCount() == 0)
-			fViewImage= fOriginalViewImage;
+			viewImage= fOriginalViewImage;
 		else if (hasErrorsOrFailures())
-			fViewImage= fTestRunFailIcon;
+			viewImage= fTestRunFailIcon;
 		else
-			fViewImage= fTestRunOKIcon;
-		firePropertyChange(IWorkbenchPart.PROP_TITLE);
+			viewImage= fTestRunOKIcon;
+		if (viewImage != fViewImage) {
+			fViewImage= viewImage;
+			firePropertyChange(IWorkbenchPart.PROP_TITLE);
+		}
 	}
 
 	private void updateViewTitleProgress() {
@@ -1820,10 +1836,19 @@ action enablement
 		if (fInfoMessage != null) {
 			setContentDescription(fInfoMessage);
 			fInfoMessage= null;
+		} else {
+			TestCaseElement testCaseElement= fStartedTestCase;
+			if (testCaseElement != null) {
+				fStartedTestCase= null;
+				String className= BasicElementLabels.getJavaElementName(testCaseElement.getClassName());
+				String method= BasicElementLabels.getJavaElementName(testCaseElement.getTestMethodName());
+				setContentDescription(Messages.format(JUnitMessages.TestRunnerViewPart_message_started, new String[] { className, method }));
+			}
 		}
 	}
 
 	protected void registerInfoMessage(String message) {
+		fStartedTestCase= null;
 		fInfoMessage= message;
 	}
 
@@ -21,9 +21,11 @@
 package org.eclipse.jdt.internal.junit.ui;
 
 import java.util.AbstractList;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -41,6 +43,9 @@ import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Menu;
 import org.eclipse.swt.widgets.TableItem;
+import org.eclipse.swt.widgets.Tree;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
 
 import org.eclipse.core.runtime.CoreException;
 
@@ -195,6 +200,13 @@ public class TestViewer {
 		}
 	}
 
+	/**
+	 * Without a comparator, {@link TreeViewer#add(Object, Object[])} compares each added element
+	 * with all existing children. Above this number of comparisons, the parent is refreshed
+	 * instead.
+	 */
+	private static final int MAX_ADD_COMPARISONS= 10000;
+
 	private final FailuresOnlyFilter fFailuresOnlyFilter= new FailuresOnlyFilter();
 	private final IgnoredOnlyFilter fIgnoredOnlyFilter= new IgnoredOnlyFilter();
 
@@ -219,6 +231,7 @@ public class TestViewer {
 	private boolean fTreeNeedsRefresh;
 	private boolean fTableNeedsRefresh;
 	private HashSet<TestElement> fNeedUpdate;
+	private LinkedHashSet<TestElement> fNeedAdd;
 	private TestCaseElement fAutoScrollTarget;
 
 	private LinkedList<TestSuiteElement> fAutoClose;
@@ -581,11 +594,11 @@ public class TestViewer {
 				selection= (IStructuredSelection) fSelectionProvider.getSelection();
 				if (layoutMode == TestRunnerViewPart.LAYOUT_HIERARCHICAL) {
 					if (fTreeNeedsRefresh) {
-						clearUpdateAndExpansion();
+						clearUpdateAndExpansion(fTreeViewer);
 					}
 				} else {
 					if (fTableNeedsRefresh) {
-						clearUpdateAndExpansion();
+						clearUpdateAndExpansion(fTableViewer);
 					}
 				}
 				fLayoutMode= layoutMode;
@@ -685,16 +698,23 @@ public class TestViewer {
 
 		StructuredViewer viewer= getActiveViewer();
 		if (getActiveViewerNeedsRefresh()) {
-			clearUpdateAndExpansion();
+			clearUpdateAndExpansion(viewer);
 			setActiveViewerNeedsRefresh(false);
 			viewer.setInput(testRoot);
 
 		} else {
+			Object[] toAdd;
 			Object[] toUpdate;
 			synchronized (this) {
+				toAdd= fNeedAdd.toArray();
+				fNeedAdd.clear();
 				toUpdate= fNeedUpdate.toArray();
 				fNeedUpdate.clear();
 			}
+			if (! fTreeNeedsRefresh && toAdd.length > 0)
+				addElementsToTree(toAdd);
+			if (! fTableNeedsRefresh && toAdd.length > 0)
+				addElementsToTable(toAdd);
 			if (! fTreeNeedsRefresh && toUpdate.length > 0) {
 				if (fTreeHasFilter)
 					for (Object element : toUpdate)
@@ -722,6 +742,58 @@ public class TestViewer {
 		autoScrollInUI();
 	}
 
+	/**
+	 * @return <code>true</code> iff changes have been registered that have not been processed yet
+	 */
+	public synchronized boolean hasPendingChanges() {
+		return ! fNeedUpdate.isEmpty() || ! fNeedAdd.isEmpty() || getActiveViewerNeedsRefresh();
+	}
+
+	private void addElementsToTree(Object[] toAdd) {
+		if (fTreeHasFilter) {
+			for (Object element : toAdd)
+				updateElementInTree((TestElement) element);
+			return;
+		}
+		// add the new children of each parent at once, parents are added before their children
+		LinkedHashMap<TestSuiteElement, List<TestElement>> byParent= new LinkedHashMap<>();
+		for (Object element : toAdd) {
+			TestElement testElement= (TestElement) element;
+			TestSuiteElement parent= testElement.getParent();
+			if (parent != null)
+				byParent.computeIfAbsent(parent, p -> new ArrayList<>()).add(testElement);
+		}
+		boolean sorted= fTreeViewer.getComparator() != null;
+		byParent.forEach((parent, children) -> {
+			if (! sorted && (long) getItemCount(fTreeViewer.testFindItem(parent)) * children.size() > MAX_ADD_COMPARISONS)
+				fTreeViewer.refresh(parent, false);
+			else
+				fTreeViewer.add(parent, children.toArray());
+		});
+	}
+
+	private static int getItemCount(Widget widget) {
+		if (widget instanceof TreeItem)
+			return ((TreeItem) widget).getItemCount();
+		if (widget instanceof Tree)
+			return ((Tree) widget).getItemCount();
+		return 0;
+	}
+
+	private void addElementsToTable(Object[] toAdd) {
+		ArrayList<TestElement> added= new ArrayList<>();
+		for (Object element : toAdd) {
+			if (element instanceof TestCaseElement) {
+				if (fTableHasFilter)
+					updateElementInTable((TestElement) element);
+				else if (fTableViewer.testFindItem(element) == null)
+					added.add((TestElement) element);
+			}
+		}
+		if (! added.isEmpty())
+			fTableViewer.add(added.toArray());
+	}
+
 	private void updateElementInTree(final TestElement testElement) {
 		if (isShown(testElement)) {
 			updateShownElementInTree(testElement);
@@ -919,8 +991,23 @@ public class TestViewer {
 		clearUpdateAndExpansion();
 	}
 
+	/*
+	 * Drops the pending changes before the given viewer is refreshed. The other viewer then has
+	 * to be refreshed as well if it has not received them yet.
+	 */
+	private synchronized void clearUpdateAndExpansion(StructuredViewer refreshedViewer) {
+		if (!fNeedAdd.isEmpty() || !fNeedUpdate.isEmpty()) {
+			if (refreshedViewer == fTreeViewer)
+				fTableNeedsRefresh= true;
+			else
+				fTreeNeedsRefresh= true;
+		}
+		clearUpdateAndExpansion();
+	}
+
 	private void clearUpdateAndExpansion() {
 		fNeedUpdate= new LinkedHashSet<>();
+		fNeedAdd= new LinkedHashSet<>();
 		fAutoClose= new LinkedList<>();
 		fAutoExpand= new HashSet<>();
 	}
@@ -929,9 +1016,7 @@ public class TestViewer {
 	 * @param testElement the added test
 	 */
 	public synchronized void registerTestAdded(TestElement testElement) {
-		//TODO: performance: would only need to refresh parent of added element
-		fTreeNeedsRefresh= true;
-		fTableNeedsRefresh= true;
+		fNeedAdd.add(testElement);
 	}
 
 	public synchronized void registerViewerUpdate(final TestElement testElement) {
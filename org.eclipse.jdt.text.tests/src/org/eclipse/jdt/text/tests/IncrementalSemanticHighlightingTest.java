@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.eclipse.jdt.text.tests.performance.EditorTestHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.Position;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
+
+import org.eclipse.jdt.ui.JavaUI;
+
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingReconciler;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+
+/**
+ * Tests that reconciling only the changed method body gives the same semantic highlighting
+ * positions as reconciling the whole AST.
+ */
+public class IncrementalSemanticHighlightingTest extends AbstractSemanticHighlightingTest {
+	@Rule
+	public SemanticHighlightingTestSetup shts= new SemanticHighlightingTestSetup( "/SHTest/src/SHTest.java");
+
+	private static final String[] HIGHLIGHTINGS= {
+			SemanticHighlightings.LOCAL_VARIABLE_DECLARATION,
+			SemanticHighlightings.LOCAL_VARIABLE,
+			SemanticHighlightings.PARAMETER_VARIABLE,
+			SemanticHighlightings.FIELD,
+			SemanticHighlightings.STATIC_FIELD,
+			SemanticHighlightings.METHOD_DECLARATION,
+			SemanticHighlightings.STATIC_METHOD_INVOCATION,
+			SemanticHighlightings.ABSTRACT_METHOD_INVOCATION,
+			SemanticHighlightings.METHOD,
+	};
+
+	@Before
+	public void setUpHighlightings() throws Exception {
+		for (String highlighting : HIGHLIGHTINGS)
+			setUpSemanticHighlighting(highlighting);
+	}
+
+	private SemanticHighlightingReconciler getReconciler() {
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(getEditor(), JavaEditor.class).get("fSemanticManager");
+		return manager.getReconciler();
+	}
+
+	/*
+	 * Replaces text in the document without waiting for the editor to reconcile.
+	 */
+	private void replace(String oldText, String newText) throws Exception {
+		IDocument document= getSourceViewer().getDocument();
+		int offset= document.get().indexOf(oldText);
+		assertTrue(oldText, offset >= 0);
+		document.replace(offset, oldText.length(), newText);
+	}
+
+	private void joinReconciler() {
+		assertTrue(EditorTestHelper.joinReconciler(getSourceViewer(), 0, 10000, 100));
+		EditorTestHelper.runEventQueue(100);
+	}
+
+	/*
+	 * Replaces text in the document and waits for the editor to reconcile.
+	 */
+	private void edit(String oldText, String newText) throws Exception {
+		replace(oldText, newText);
+		joinReconciler();
+	}
+
+	/*
+	 * Recomputes all positions from the current AST and checks that they equal the given ones,
+	 * which are copied first as the reconcile reuses unchanged positions.
+	 */
+	private void assertEqualToFullReconcile(Position[] positions) throws Exception {
+		Position[] expected= new Position[positions.length];
+		for (int i= 0; i < positions.length; i++)
+			expected[i]= new Position(positions[i].getOffset(), positions[i].getLength());
+		ICompilationUnit unit= JavaUI.getWorkingCopyManager().getWorkingCopy(getEditor().getEditorInput());
+		CompilationUnit ast= SharedASTProviderCore.getAST(unit, SharedASTProviderCore.WAIT_YES, null);
+		SemanticHighlightingReconciler reconciler= getReconciler();
+		assertTrue(reconciler.reconcile(ast, null, new NullProgressMonitor()));
+		EditorTestHelper.runEventQueue(100);
+		assertFalse(reconciler.isLastReconcileIncremental());
+		assertEqualPositions(expected, getSemanticHighlightingPositions());
+	}
+
+	@Test
+	public void insertInMethodBody() throws Exception {
+		edit("\t\tlocal++;\n", "\t\tlocal++;\n\t\tint added= local + field + staticField;\n\t\tadded++;\n");
+		assertTrue(getReconciler().isLastReconcileIncremental());
+		Position[] positions= getSemanticHighlightingPositions();
+		assertTrue(Arrays.asList(positions).contains(createPosition(10, 6, 5)));
+		assertEqualToFullReconcile(positions);
+	}
+
+	@Test
+	public void renameLocalInMethodBody() throws Exception {
+		edit("\t\tlocal++;\n", "\t\tlocal++;\n\t\tint added= local;\n");
+		assertTrue(getReconciler().isLastReconcileIncremental());
+		// the references to the old name no longer resolve to a local variable
+		edit("int local= param + 1;", "int other= param + 1;");
+		assertTrue(getReconciler().isLastReconcileIncremental());
+		Position[] positions= getSemanticHighlightingPositions();
+		assertFalse(Arrays.asList(positions).contains(createPosition(9, 2, 5)));
+		assertEqualToFullReconcile(positions);
+	}
+
+	@Test
+	public void deleteInMethodBody() throws Exception {
+		edit("\t\tstaticMethod();\n\t\tabstractMethod();\n", "");
+		assertTrue(getReconciler().isLastReconcileIncremental());
+		assertEqualToFullReconcile(getSemanticHighlightingPositions());
+	}
+
+	@Test
+	public void insertOutsideMethodBody() throws Exception {
+		edit("\tint field;\n", "\tint field;\n\tint otherField= staticField;\n");
+		assertFalse(getReconciler().isLastReconcileIncremental());
+		assertEqualToFullReconcile(getSemanticHighlightingPositions());
+	}
+
+	@Test
+	public void unbalancedBraceInMethodBody() throws Exception {
+		// the members after the open brace are recovered as statements of the method body
+		edit("\t\tlocal++;\n", "\t\tlocal++;\n\t\tif (local > 0) {\n");
+		assertFalse(getReconciler().isLastReconcileIncremental());
+		// the closing brace lies within the body, but the following members must be reconciled as well
+		edit("\t\tif (local > 0) {\n", "\t\tif (local > 0) {\n\t\t}\n");
+		assertFalse(getReconciler().isLastReconcileIncremental());
+		assertEqualToFullReconcile(getSemanticHighlightingPositions());
+
+		edit("\t\tlocal++;\n", "\t\tlocal++;\n\t\tint added= local;\n");
+		assertTrue(getReconciler().isLastReconcileIncremental());
+		assertEqualToFullReconcile(getSemanticHighlightingPositions());
+	}
+
+	@Test
+	public void editsInTwoMethodsBeforeReconcile() throws Exception {
+		// both edits are reconciled together, the second one lies outside the first method
+		replace("\t\tlocal++;\n", "\t\tlocal++;\n\t\tint added= local;\n\t\tadded++;\n");
+		replace("\t\tdeprecatedField++;\n", "\t\tint second= field;\n\t\tdeprecatedField++;\n");
+		joinReconciler();
+		assertFalse(getReconciler().isLastReconcileIncremental());
+		Position[] positions= getSemanticHighlightingPositions();
+		assertTrue(Arrays.asList(positions).contains(createPosition(10, 6, 5)));
+		assertTrue(Arrays.asList(positions).contains(createPosition(27, 6, 6)));
+		assertEqualToFullReconcile(positions);
+	}
+
+	@Test
+	public void editInMethodAndFieldRenameBeforeReconcile() throws Exception {
+		replace("\t\tlocal++;\n", "\t\tlocal++;\n\t\tint added= local;\n");
+		replace("\tint field;\n", "\tint renamed;\n");
+		joinReconciler();
+		assertFalse(getReconciler().isLastReconcileIncremental());
+		Position[] positions= getSemanticHighlightingPositions();
+		assertTrue(Arrays.asList(positions).contains(createPosition(3, 5, 7)));
+		assertFalse(Arrays.asList(positions).contains(createPosition(3, 5, 5)));
+		assertEqualToFullReconcile(positions);
+	}
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.codemining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
+
+import org.eclipse.jdt.internal.ui.javaeditor.codemining.CodeMiningResolver;
+
+/**
+ * Tests that {@link CodeMiningResolver} resolves the code minings in the visible region first.
+ */
+public class CodeMiningResolverTest {
+
+	private static final long TIMEOUT= 10000;
+
+	private CodeMiningResolver fResolver;
+
+	/** Blocks the thread resolving the queued code minings */
+	private CountDownLatch fBlocker;
+
+	private CompletableFuture<Void> fBlocking;
+
+	private final List<Integer> fResolved= Collections.synchronizedList(new ArrayList<>());
+
+	@Before
+	public void setUp() throws Exception {
+		fResolver= new CodeMiningResolver();
+		fResolver.setVisibleRegion(new Region(0, 100));
+		fBlocker= new CountDownLatch(1);
+		CountDownLatch started= new CountDownLatch(1);
+		fBlocking= fResolver.resolve(new Position(10000, 1), new NullProgressMonitor(), () -> {
+			started.countDown();
+			try {
+				fBlocker.await(TIMEOUT, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue("resolver thread not started", started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fBlocker.countDown();
+		fResolver.dispose();
+	}
+
+	private CompletableFuture<Void> resolve(int offset, NullProgressMonitor monitor) {
+		return fResolver.resolve(new Position(offset, 5), monitor, () -> fResolved.add(Integer.valueOf(offset)));
+	}
+
+	private CompletableFuture<Void> resolve(int offset) {
+		return resolve(offset, new NullProgressMonitor());
+	}
+
+	private static void await(CompletableFuture<?> future) throws Exception {
+		future.get(TIMEOUT, TimeUnit.MILLISECONDS);
+	}
+
+	private void unblock() throws Exception {
+		fBlocker.countDown();
+		await(fBlocking);
+	}
+
+	@Test
+	public void testVisibleMiningsAreNotQueued() throws Exception {
+		// resolved while the queue is blocked
+		await(resolve(50));
+		await(resolve(98));
+		assertEquals(Arrays.asList(Integer.valueOf(50), Integer.valueOf(98)), fResolved);
+	}
+
+	@Test
+	public void testClosestMiningsFirst() throws Exception {
+		CompletableFuture<Void> far= resolve(900);
+		CompletableFuture<Void> near= resolve(200);
+		CompletableFuture<Void> middle= resolve(500);
+		assertTrue(fResolved.isEmpty());
+		unblock();
+		CompletableFuture.allOf(far, near, middle).get(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertEquals(Arrays.asList(Integer.valueOf(200), Integer.valueOf(500), Integer.valueOf(900)), fResolved);
+	}
+
+	@Test
+	public void testScrolling() throws Exception {
+		CompletableFuture<Void> top= resolve(200);
+		CompletableFuture<Void> bottom= resolve(900);
+		CompletableFuture<Void> middle= resolve(600);
+
+		// the mining scrolled into view is resolved right away
+		fResolver.setVisibleRegion(new Region(850, 100));
+		await(bottom);
+		assertEquals(Collections.singletonList(Integer.valueOf(900)), fResolved);
+
+		// the others are now resolved closest first
+		unblock();
+		CompletableFuture.allOf(top, middle).get(TIMEOUT, TimeUnit.MILLISECONDS);
+		assertEquals(Arrays.asList(Integer.valueOf(900), Integer.valueOf(600), Integer.valueOf(200)), fResolved);
+	}
+
+	@Test
+	public void testCanceledRun() throws Exception {
+		NullProgressMonitor monitor= new NullProgressMonitor();
+		CompletableFuture<Void> canceled= resolve(200, monitor);
+		CompletableFuture<Void> next= resolve(300);
+		monitor.setCanceled(true);
+		unblock();
+		await(next);
+		assertTrue(canceled.isCancelled());
+		assertEquals(Collections.singletonList(Integer.valueOf(300)), fResolved);
+	}
+
+	@Test
+	public void testDispose() throws Exception {
+		CompletableFuture<Void> queued= resolve(200);
+		fResolver.dispose();
+		assertTrue(queued.isCancelled());
+		assertTrue(resolve(300).isCancelled());
+		unblock();
+		assertTrue(fResolved.isEmpty());
+		assertFalse(fBlocking.isCancelled());
+	}
+}
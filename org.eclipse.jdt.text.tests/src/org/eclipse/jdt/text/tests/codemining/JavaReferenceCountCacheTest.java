@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.codemining;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import org.eclipse.jdt.internal.ui.javaeditor.codemining.JavaReferenceCountCache;
+
+/**
+ * Tests which changes invalidate the counts of {@link JavaReferenceCountCache}.
+ */
+public class JavaReferenceCountCacheTest {
+
+	private IJavaProject fProject;
+
+	private IPackageFragment fPackage;
+
+	private JavaReferenceCountCache fCache;
+
+	private ICompilationUnit fA;
+
+	private ICompilationUnit fB;
+
+	private ICompilationUnit fUser;
+
+	private IMethod fFoo;
+
+	private IMethod fBar;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject(getClass().getName(), "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fPackage= root.createPackageFragment("p", true, null);
+		fA= fPackage.createCompilationUnit("A.java", "package p;\npublic class A {\n\tpublic static void foo() {}\n}\n", true, null);
+		fB= fPackage.createCompilationUnit("B.java", "package p;\npublic class B {\n\tpublic static void bar() {}\n}\n", true, null);
+		fUser= fPackage.createCompilationUnit("User.java",
+				"package p;\npublic class User {\n\tvoid use() {\n\t\tA.foo();\n\t\tB.bar();\n\t}\n}\n", true, null);
+		fFoo= fA.getType("A").getMethod("foo", new String[0]);
+		fBar= fB.getType("B").getMethod("bar", new String[0]);
+		JavaProjectHelper.performDummySearch();
+
+		fCache= new JavaReferenceCountCache(100);
+		JavaCore.addElementChangedListener(fCache, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaCore.removeElementChangedListener(fCache);
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private long count(IJavaElement element) throws Exception {
+		return fCache.getReferenceCount(element, new NullProgressMonitor());
+	}
+
+	/*
+	 * Replaces text in the primary working copy of the given unit and reconciles it.
+	 */
+	private void edit(ICompilationUnit unit, String oldText, String newText) throws Exception {
+		String source= unit.getBuffer().getContents();
+		int offset= source.indexOf(oldText);
+		assertTrue(oldText, offset >= 0);
+		unit.getBuffer().replace(offset, oldText.length(), newText);
+		unit.reconcile(ICompilationUnit.NO_AST, false, null, null);
+	}
+
+	@Test
+	public void testCount() throws Exception {
+		fPackage.createCompilationUnit("Other.java", "package p;\nclass Other {\n\tint i= 0;\n\tvoid m() {\n\t\tA.foo();\n\t\tA.foo();\n\t}\n}\n", true, null);
+		assertEquals(3, count(fFoo));
+		assertEquals(1, count(fBar));
+		assertTrue(fCache.isCached(fFoo));
+		assertFalse(fCache.isStale(fFoo));
+	}
+
+	@Test
+	public void testOpenWorkingCopyKeepsCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		fUser.becomeWorkingCopy(null);
+		try {
+			assertTrue(fCache.isCached(fFoo));
+			assertFalse(fCache.isStale(fFoo));
+		} finally {
+			fUser.discardWorkingCopy();
+		}
+		assertTrue(fCache.isCached(fFoo));
+		assertFalse(fCache.isStale(fFoo));
+	}
+
+	@Test
+	public void testBodyChangeRecountsChangedUnit() throws Exception {
+		assertEquals(1, count(fFoo));
+		assertEquals(1, count(fBar));
+		fUser.becomeWorkingCopy(null);
+		try {
+			edit(fUser, "B.bar();", "B.bar();\n\t\tA.foo();\n\t\tA.foo();");
+			assertTrue(fCache.isCached(fFoo));
+			assertTrue(fCache.isCached(fBar));
+			assertTrue(fCache.isStale(fFoo));
+			assertEquals(3, count(fFoo));
+			assertFalse(fCache.isStale(fFoo));
+			assertEquals(1, count(fBar));
+
+			edit(fUser, "A.foo();", "");
+			assertEquals(2, count(fFoo));
+
+			// saving does not change the references of the working copy
+			fUser.commitWorkingCopy(true, null);
+			assertTrue(fCache.isCached(fFoo));
+			assertEquals(2, count(fFoo));
+		} finally {
+			fUser.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testBodyChangeOfOtherUnitKeepsCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		fB.becomeWorkingCopy(null);
+		try {
+			edit(fB, "bar() {}", "bar() {\n\t\tint i= 0;\n\t}");
+			assertTrue(fCache.isCached(fFoo));
+			assertEquals(1, count(fFoo));
+		} finally {
+			fB.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testDeclarationChangeClearsCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		assertEquals(1, count(fBar));
+		fB.becomeWorkingCopy(null);
+		try {
+			// a new overload may change what other units reference
+			edit(fB, "}\n}", "}\n\tpublic static void bar(int i) {}\n}");
+			assertFalse(fCache.isCached(fFoo));
+			assertFalse(fCache.isCached(fBar));
+			assertEquals(1, count(fFoo));
+		} finally {
+			fB.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testModifierChangeClearsCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		fA.becomeWorkingCopy(null);
+		try {
+			edit(fA, "public static void foo", "static void foo");
+			assertFalse(fCache.isCached(fFoo));
+		} finally {
+			fA.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testLocalTypeKeepsOtherCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		assertEquals(1, count(fBar));
+		fUser.becomeWorkingCopy(null);
+		try {
+			edit(fUser, "B.bar();", "new Runnable() {\n\t\t\tpublic void run() {\n\t\t\t\tB.bar();\n\t\t\t}\n\t\t}.run();\n\t\tB.bar();");
+			assertTrue(fCache.isCached(fFoo));
+			assertEquals(1, count(fFoo));
+			assertEquals(2, count(fBar));
+		} finally {
+			fUser.discardWorkingCopy();
+		}
+	}
+
+	@Test
+	public void testNewUnitClearsCounts() throws Exception {
+		assertEquals(1, count(fFoo));
+		fPackage.createCompilationUnit("Other.java", "package p;\nclass Other {\n\tvoid m() {\n\t\tA.foo();\n\t}\n}\n", true, null);
+		assertFalse(fCache.isCached(fFoo));
+		assertEquals(2, count(fFoo));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedCountsAreRemoved() throws Exception {
+		JavaCore.removeElementChangedListener(fCache);
+		fCache= new JavaReferenceCountCache(4);
+		IMethod[] methods= new IMethod[5];
+		StringBuilder source= new StringBuilder("package p;\npublic class C {\n");
+		for (int i= 0; i < methods.length; i++) {
+			source.append("\tvoid m").append(i).append("() {}\n");
+		}
+		source.append("}\n");
+		ICompilationUnit unit= fPackage.createCompilationUnit("C.java", source.toString(), true, null);
+		for (int i= 0; i < methods.length; i++) {
+			methods[i]= unit.getType("C").getMethod("m" + i, new String[0]);
+		}
+
+		for (int i= 0; i < 4; i++) {
+			count(methods[i]);
+		}
+		count(methods[0]);
+		count(methods[4]);
+		// exceeds the maximum size, removes the least recently used counts
+		count(methods[0]);
+		assertTrue(fCache.isCached(methods[0]));
+		assertFalse(fCache.isCached(methods[1]));
+		assertFalse(fCache.isCached(methods[2]));
+		assertTrue(fCache.isCached(methods[3]));
+		assertTrue(fCache.isCached(methods[4]));
+	}
+}
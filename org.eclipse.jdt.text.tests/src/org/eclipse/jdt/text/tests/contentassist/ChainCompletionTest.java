@@ -121,6 +121,46 @@ public class ChainCompletionTest {
 		assertEquals("getBar().getBaz() - 2 elements", proposals.get(0).getDisplayString());
 	}
 
+	@Test
+	public void testMemberAddedAfterCompletion() throws Exception {
+		String contents= "package test;\n" +
+				"public class Foo {\n" +
+				"  public Bar getBar() {\n" +
+				"    return new Bar();\n" +
+				"  }\n" +
+				"  \n" +
+				"  public class Bar {\n" +
+				"    Baz getBaz () {\n" +
+				"      return new Baz();\n" +
+				"    }\n" +
+				"  }\n" +
+				"  \n" +
+				"  public class Baz {\n" +
+				"  }\n" +
+				"\n" +
+				"  public static void mainMethod () {\n" +
+				"    Foo f = new Foo();\n" +
+				"    Baz b = f.$\n" +
+				"  }\n" +
+				"\n" +
+				"}";
+		StringBuffer buf= new StringBuffer(contents);
+
+		int completionIndex= getCompletionIndex(buf);
+		ICompilationUnit cu= getCompilationUnit(pkg, buf, "Foo.java");
+
+		List<ICompletionProposal> proposals= computeCompletionProposals(cu, completionIndex);
+		assertEquals(1, proposals.size());
+
+		// the type graph cached by the first completion must not hide the new member
+		buf= new StringBuffer(contents.replace("    Baz getBaz () {\n", "    Baz getOtherBaz () {\n      return new Baz();\n    }\n    Baz getBaz () {\n"));
+		completionIndex= getCompletionIndex(buf);
+		cu= pkg.createCompilationUnit("Foo.java", buf.toString().replace("$", ""), true, null);
+
+		proposals= computeCompletionProposals(cu, completionIndex);
+		assertProposalsExist(Arrays.asList("getBar().getBaz() - 2 elements", "getBar().getOtherBaz() - 2 elements"), proposals);
+	}
+
 	@Test
 	public void testPrimitiveCompletion() throws Exception {
 		StringBuffer buf= new StringBuffer();
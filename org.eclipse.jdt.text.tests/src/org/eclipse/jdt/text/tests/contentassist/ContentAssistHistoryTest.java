@@ -17,6 +17,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -243,6 +244,39 @@ public class ContentAssistHistoryTest {
 		assertEqualMap(map(LIST, list(ARRAY_LIST), COLLECTION, list(ARRAY_LIST), ITERABLE, list(ARRAY_LIST), CHAR_SEQUENCE, list(STRING)), loaded.getEntireHistory());
 	}
 
+	@Test
+	public void testLoadStoreBinary() throws Exception {
+		ContentAssistHistory history= new ContentAssistHistory();
+
+		history.remember(fgListT, fgArrayListT);
+		history.remember(fgCharSequenceT, fgStringT);
+		history.remember(fgListT, fgLinkedListT);
+
+		File file= File.createTempFile("history", ".bin");
+		try {
+			ContentAssistHistory.store(history, file);
+			ContentAssistHistory loaded= ContentAssistHistory.load(file);
+
+			assertEqualMap(map(LIST, list(ARRAY_LIST, LINKED_LIST), COLLECTION, list(ARRAY_LIST, LINKED_LIST), ITERABLE, list(ARRAY_LIST, LINKED_LIST), CHAR_SEQUENCE, list(STRING)), loaded.getEntireHistory());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testGetRank() throws Exception {
+		ContentAssistHistory history= new ContentAssistHistory();
+
+		history.remember(fgListT, fgArrayListT);
+		history.remember(fgListT, fgLinkedListT);
+
+		assertEquals(0.5F, history.getRank(LIST, ARRAY_LIST), 0.0F);
+		assertEquals(1.0F, history.getRank(LIST, LINKED_LIST), 0.0F);
+		assertEquals(0.0F, history.getRank(LIST, STRING), 0.0F);
+		assertEquals(0.0F, history.getRank(STRING, ARRAY_LIST), 0.0F);
+		assertEquals(history.getHistory(LIST).getRank(ARRAY_LIST), history.getRank(LIST, ARRAY_LIST), 0.0F);
+	}
+
 	private static void assertEqualMap(Map<String, List<String>> expected, Map<String, RHSHistory> actual) {
 		assertEqualMap("", expected, actual);
 	}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.text.tests.contentassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.contentassist.ContentAssistant;
+import org.eclipse.jface.text.contentassist.ICompletionProposal;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaUI;
+import org.eclipse.jdt.ui.PreferenceConstants;
+import org.eclipse.jdt.ui.text.IJavaPartitions;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.text.java.JavaCompletionProcessor;
+
+/**
+ * Tests the parallel computation of content assist categories in
+ * {@link org.eclipse.jdt.internal.ui.text.java.ContentAssistProcessor}.
+ */
+public class ParallelContentAssistTest {
+
+	private IJavaProject fProject;
+
+	private JavaEditor fEditor;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("ParallelContentAssist", "bin");
+		JavaProjectHelper.addRTJar(fProject);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		JavaPlugin.getDefault().getPreferenceStore().setToDefault(PreferenceConstants.CODEASSIST_NONUITHREAD_COMPUTATION);
+		if (fEditor != null) {
+			fEditor.close(false);
+			fEditor= null;
+		}
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private JavaCompletionProcessor openEditor(String contents) throws Exception {
+		IPackageFragmentRoot sourceFolder= JavaProjectHelper.addSourceContainer(fProject, "src");
+		IPackageFragment pack= sourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit cu= pack.createCompilationUnit("Blah.java", contents, true, new NullProgressMonitor());
+		fEditor= (JavaEditor) JavaUI.openInEditor(cu);
+		ContentAssistant assistant= new ContentAssistant();
+		assistant.setDocumentPartitioning(IJavaPartitions.JAVA_PARTITIONING);
+		return new JavaCompletionProcessor(fEditor, assistant, IDocument.DEFAULT_CONTENT_TYPE);
+	}
+
+	private static void setParallel(boolean parallel) {
+		JavaPlugin.getDefault().getPreferenceStore().setValue(PreferenceConstants.CODEASSIST_NONUITHREAD_COMPUTATION, parallel);
+	}
+
+	/*
+	 * Categories are only computed in parallel outside of the UI thread. The display keeps running
+	 * while waiting, in case a computer needs it.
+	 */
+	private ICompletionProposal[] computeInBackground(JavaCompletionProcessor processor, int offset) throws InterruptedException {
+		AtomicReference<ICompletionProposal[]> result= new AtomicReference<>();
+		AtomicReference<Throwable> exception= new AtomicReference<>();
+		Thread thread= new Thread(() -> {
+			try {
+				result.set(processor.computeCompletionProposals(fEditor.getViewer(), offset));
+			} catch (Throwable e) {
+				exception.set(e);
+			}
+		});
+		thread.start();
+		Display display= Display.getCurrent();
+		while (thread.isAlive()) {
+			if (display == null || !display.readAndDispatch()) {
+				thread.join(10);
+			}
+		}
+		assertNull(exception.get());
+		return result.get();
+	}
+
+	private static List<String> getDisplayStrings(ICompletionProposal[] proposals) {
+		List<String> strings= new ArrayList<>();
+		for (ICompletionProposal proposal : proposals) {
+			strings.add(proposal.getDisplayString());
+		}
+		return strings;
+	}
+
+	private static boolean containsLongCompletion(ICompletionProposal[] proposals) {
+		return getDisplayStrings(proposals).contains(LongCompletionProposalComputer.CONTENT_TRIGGER_STRING);
+	}
+
+	@Test
+	public void testParallelMatchesSequential() throws Exception {
+		String contents= "package test1;\npublic class Blah {\n\tvoid m(String s) {\n\t\ts.\n\t}\n}\n";
+		JavaCompletionProcessor processor= openEditor(contents);
+		int offset= contents.indexOf("s.\n") + 2;
+
+		setParallel(false);
+		List<String> sequential= getDisplayStrings(processor.computeCompletionProposals(fEditor.getViewer(), offset));
+
+		setParallel(true);
+		List<String> parallel= getDisplayStrings(computeInBackground(processor, offset));
+
+		assertFalse(sequential.isEmpty());
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void testSlowCategoryIsWaitedFor() throws Exception {
+		String contents= "package test1;\n// " + LongCompletionProposalComputer.CONTENT_TRIGGER_STRING + "\npublic class Blah {\n}\n";
+		JavaCompletionProcessor processor= openEditor(contents);
+		int offset= contents.indexOf("}");
+		setParallel(true);
+
+		// the slow category is not dropped, it is merged with the others once it has completed
+		ICompletionProposal[] proposals= computeInBackground(processor, offset);
+		assertTrue(containsLongCompletion(proposals));
+		assertTrue(proposals.length > 1);
+	}
+}
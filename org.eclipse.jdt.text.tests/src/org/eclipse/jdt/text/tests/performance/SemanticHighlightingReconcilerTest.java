@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.text.tests.performance;
+
+import junit.framework.Test;
+import junit.framework.TestSuite;
+
+import org.eclipse.test.performance.PerformanceMeter;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+
+import org.eclipse.text.tests.Accessor;
+
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
+
+import org.eclipse.jdt.ui.JavaUI;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaEditor;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlighting;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingManager;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightingReconciler;
+import org.eclipse.jdt.internal.ui.javaeditor.SemanticHighlightings;
+
+/**
+ * Measures the time to reconcile the semantic highlighting of a large file in
+ * the Java editor, once for the whole file and once for a change inside a
+ * method body.
+ *
+ * @since 3.26
+ */
+public class SemanticHighlightingReconcilerTest extends TextPerformanceTestCase {
+
+	private static final Class<SemanticHighlightingReconcilerTest> THIS= SemanticHighlightingReconcilerTest.class;
+
+	private static final String FILE= PerformanceTestSetup.STYLED_TEXT;
+
+	private static final int WARM_UP_RUNS= 5;
+
+	private static final int MEASURED_RUNS= 10;
+
+	private JavaEditor fEditor;
+
+	private SemanticHighlightingReconciler fReconciler;
+
+	private CompilationUnit fAST;
+
+	private boolean[] fWasEnabled;
+
+	public static Test suite() {
+		return new PerformanceTestSetup(new TestSuite(THIS));
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		setSemanticHighlightingsEnabled();
+		fEditor= (JavaEditor) EditorTestHelper.openInEditor(ResourceTestHelper.findFile(FILE), true);
+		EditorTestHelper.joinBackgroundActivities(fEditor);
+		SemanticHighlightingManager manager= (SemanticHighlightingManager) new Accessor(fEditor, JavaEditor.class).get("fSemanticManager");
+		fReconciler= manager.getReconciler();
+		fAST= SharedASTProviderCore.getAST(JavaUI.getEditorInputTypeRoot(fEditor.getEditorInput()), SharedASTProviderCore.WAIT_YES, null);
+		assertNotNull(fAST);
+		setWarmUpRuns(WARM_UP_RUNS);
+		setMeasuredRuns(MEASURED_RUNS);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		super.tearDown();
+		EditorTestHelper.closeAllEditors();
+		restoreSemanticHighlightingsEnabled();
+	}
+
+	/**
+	 * Measures the time to reconcile the semantic highlighting of the whole file.
+	 *
+	 * @throws Exception if something goes wrong
+	 */
+	public void testFullReconcile() throws Exception {
+		measure(getNullPerformanceMeter(), null, getWarmUpRuns());
+		measure(createPerformanceMeter(), null, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	/**
+	 * Measures the time to reconcile the semantic highlighting after a change inside a
+	 * method body.
+	 *
+	 * @throws Exception if something goes wrong
+	 */
+	public void testIncrementalReconcile() throws Exception {
+		IRegion changedRegion= getLargestMethodBodyRegion();
+		measure(getNullPerformanceMeter(), changedRegion, getWarmUpRuns());
+		measure(createPerformanceMeter(), changedRegion, getMeasuredRuns());
+		commitAllMeasurements();
+		assertAllPerformance();
+	}
+
+	private void measure(PerformanceMeter performanceMeter, IRegion changedRegion, int runs) {
+		for (int i= 0; i < runs; i++) {
+			performanceMeter.start();
+			assertTrue(fReconciler.reconcile(fAST, changedRegion, new NullProgressMonitor()));
+			performanceMeter.stop();
+			assertEquals(changedRegion != null, fReconciler.isLastReconcileIncremental());
+			EditorTestHelper.runEventQueue();
+		}
+	}
+
+	/*
+	 * Returns a region in the middle of the largest method body, so that the incremental
+	 * reconcile revisits as much as a change inside a method body can.
+	 */
+	private IRegion getLargestMethodBodyRegion() {
+		Block[] largest= new Block[1];
+		fAST.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(MethodDeclaration node) {
+				Block body= node.getBody();
+				if (body != null && (largest[0] == null || body.getLength() > largest[0].getLength()))
+					largest[0]= body;
+				return true;
+			}
+		});
+		assertNotNull(largest[0]);
+		return new Region(largest[0].getStartPosition() + largest[0].getLength() / 2, 1);
+	}
+
+	private void setSemanticHighlightingsEnabled() {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		SemanticHighlighting[] highlightings= SemanticHighlightings.getSemanticHighlightings();
+		fWasEnabled= new boolean[highlightings.length];
+		for (int i= 0; i < highlightings.length; i++) {
+			String key= SemanticHighlightings.getEnabledPreferenceKey(highlightings[i]);
+			fWasEnabled[i]= store.getBoolean(key);
+			store.setValue(key, true);
+		}
+	}
+
+	private void restoreSemanticHighlightingsEnabled() {
+		IPreferenceStore store= JavaPlugin.getDefault().getPreferenceStore();
+		SemanticHighlighting[] highlightings= SemanticHighlightings.getSemanticHighlightings();
+		for (int i= 0; i < highlightings.length; i++)
+			store.setValue(SemanticHighlightings.getEnabledPreferenceKey(highlightings[i]), fWasEnabled[i]);
+	}
+}
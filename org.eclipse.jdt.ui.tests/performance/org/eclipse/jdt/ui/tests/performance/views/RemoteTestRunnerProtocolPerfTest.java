@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.performance.views;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import org.eclipse.test.performance.Dimension;
+
+import org.eclipse.jdt.junit.tests.RemoteTestRunnerProtocolTest;
+
+import org.eclipse.jdt.ui.tests.performance.JdtPerformanceTestCaseCommon;
+
+/**
+ * Measures how long the JUnit view client takes to receive a large test run over the text and
+ * over the binary protocol of the RemoteTestRunner.
+ */
+public class RemoteTestRunnerProtocolPerfTest extends JdtPerformanceTestCaseCommon {
+
+	private static final int TESTS= 100000;
+
+	private static final int WARM_UP_RUNS= 2;
+
+	private static final int MEASURED_RUNS= 5;
+
+	@Test
+	public void testTextProtocol() throws Exception {
+		tagAsSummary("JUnit view - 100000 tests over the text protocol", Dimension.ELAPSED_PROCESS);
+		measure(false);
+	}
+
+	@Test
+	public void testBinaryProtocol() throws Exception {
+		tagAsSummary("JUnit view - 100000 tests over the binary protocol", Dimension.ELAPSED_PROCESS);
+		measure(true);
+	}
+
+	private void measure(boolean binary) throws Exception {
+		for (int i= 0; i < WARM_UP_RUNS; i++)
+			RemoteTestRunnerProtocolTest.sendTestRun(binary, TESTS);
+
+		for (int i= 0; i < MEASURED_RUNS; i++) {
+			System.gc();
+			startMeasuring();
+			int events= RemoteTestRunnerProtocolTest.sendTestRun(binary, TESTS);
+			stopMeasuring();
+			assertTrue(events > 2 * TESTS);
+		}
+		commitMeasurements();
+		assertPerformance();
+	}
+}
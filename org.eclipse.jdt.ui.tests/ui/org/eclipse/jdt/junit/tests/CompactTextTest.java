@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.CompactText;
+
+/**
+ * Tests {@link CompactText}.
+ */
+public class CompactTextTest {
+
+	/**
+	 * The number of UTF-8 bytes from which texts are compressed.
+	 */
+	private static final int THRESHOLD= 256;
+
+	private static String repeat(String text, int count) {
+		StringBuilder builder= new StringBuilder();
+		for (int i= 0; i < count; i++) {
+			builder.append(text);
+		}
+		return builder.toString();
+	}
+
+	private static byte[] assertRoundTrip(String text) {
+		byte[] encoded= CompactText.encode(text);
+		assertEquals(text, CompactText.decode(encoded));
+		return encoded;
+	}
+
+	private static boolean isCompressed(String text, byte[] encoded) {
+		return encoded.length <= text.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	@Test
+	public void testNull() throws Exception {
+		assertNull(CompactText.encode(null));
+		assertNull(CompactText.decode(null));
+	}
+
+	@Test
+	public void testShortTexts() throws Exception {
+		assertRoundTrip("");
+		assertRoundTrip("expected:<1> but was:<2>");
+		assertRoundTrip("äöü € 😀\r\n\t");
+		String belowThreshold= repeat("a", THRESHOLD - 1);
+		byte[] encoded= assertRoundTrip(belowThreshold);
+		assertEquals(THRESHOLD, encoded.length);
+	}
+
+	@Test
+	public void testLongTexts() throws Exception {
+		String atThreshold= repeat("a", THRESHOLD);
+		assertTrue(isCompressed(atThreshold, assertRoundTrip(atThreshold)));
+
+		// multi-byte characters count with their UTF-8 length
+		String umlauts= repeat("ä", THRESHOLD / 2);
+		assertTrue(isCompressed(umlauts, assertRoundTrip(umlauts)));
+
+		StringBuilder trace= new StringBuilder("java.lang.AssertionError: expected:<[ä]> but was:<[a]>\n");
+		for (int i= 0; i < 200; i++) {
+			trace.append("\tat org.junit.runners.ParentRunner$").append(i % 7).append(".run(ParentRunner.java:").append(i).append(")\n");
+		}
+		String text= trace.toString();
+		byte[] encoded= assertRoundTrip(text);
+		assertTrue(encoded.length * 4 < text.length());
+	}
+
+	@Test
+	public void testRandomText() throws Exception {
+		Random random= new Random(4711);
+		StringBuilder builder= new StringBuilder();
+		for (int i= 0; i < 4 * THRESHOLD; i++) {
+			builder.append((char) (0x4e00 + random.nextInt(0x5000)));
+		}
+		String text= builder.toString();
+		byte[] encoded= assertRoundTrip(text);
+		// never stored with more than a single byte of overhead
+		assertTrue(encoded.length <= text.getBytes(StandardCharsets.UTF_8).length + 1);
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.Text;
+
+import org.eclipse.jdt.internal.junit.ui.CounterPanel;
+
+/**
+ * Tests that {@link CounterPanel} only updates counters whose values changed.
+ */
+public class CounterPanelTest {
+
+	private static class CountingCounterPanel extends CounterPanel {
+		int fRunUpdates;
+		int fErrorUpdates;
+		int fFailureUpdates;
+
+		CountingCounterPanel(Composite parent) {
+			super(parent);
+			fNumberOfRuns.addModifyListener(e -> fRunUpdates++);
+			fNumberOfErrors.addModifyListener(e -> fErrorUpdates++);
+			fNumberOfFailures.addModifyListener(e -> fFailureUpdates++);
+		}
+
+		Text getRuns() {
+			return fNumberOfRuns;
+		}
+
+		Text getErrors() {
+			return fNumberOfErrors;
+		}
+	}
+
+	private Shell fShell;
+
+	private CountingCounterPanel fPanel;
+
+	@Before
+	public void setUp() {
+		fShell= new Shell(Display.getCurrent());
+		fPanel= new CountingCounterPanel(fShell);
+		fPanel.reset();
+		fPanel.fRunUpdates= 0;
+		fPanel.fErrorUpdates= 0;
+		fPanel.fFailureUpdates= 0;
+	}
+
+	@After
+	public void tearDown() {
+		fShell.dispose();
+	}
+
+	@Test
+	public void testUnchangedValuesAreSkipped() {
+		fPanel.setTotal(10);
+		fPanel.setRunValue(1, 0, 0);
+		fPanel.setErrorValue(1);
+		fPanel.setFailureValue(0);
+		assertEquals(1, fPanel.fRunUpdates);
+		assertEquals(1, fPanel.fErrorUpdates);
+		assertEquals(0, fPanel.fFailureUpdates);
+
+		fPanel.setRunValue(1, 0, 0);
+		fPanel.setErrorValue(1);
+		fPanel.setFailureValue(0);
+		assertEquals(1, fPanel.fRunUpdates);
+		assertEquals(1, fPanel.fErrorUpdates);
+		assertEquals(0, fPanel.fFailureUpdates);
+		assertEquals("1", fPanel.getErrors().getText());
+	}
+
+	@Test
+	public void testChangedValuesAreShown() {
+		fPanel.setTotal(10);
+		fPanel.setRunValue(1, 0, 0);
+		String runs= fPanel.getRuns().getText();
+
+		// a changed total with the same run count
+		fPanel.setTotal(20);
+		fPanel.setRunValue(1, 0, 0);
+		assertEquals(2, fPanel.fRunUpdates);
+		assertTrue(fPanel.getRuns().getText(), fPanel.getRuns().getText().contains("20"));
+
+		// a changed ignored count with the same run count
+		fPanel.setRunValue(1, 1, 0);
+		assertEquals(3, fPanel.fRunUpdates);
+		assertNotEquals(runs, fPanel.getRuns().getText());
+	}
+
+	@Test
+	public void testResetShowsZero() {
+		fPanel.setErrorValue(3);
+		fPanel.reset();
+		assertEquals("0", fPanel.getErrors().getText());
+	}
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.ITestRunListener2;
+import org.eclipse.jdt.internal.junit.model.RemoteTestRunnerClient;
+import org.eclipse.jdt.internal.junit.runner.BinaryMessageSender;
+import org.eclipse.jdt.internal.junit.runner.MessageIds;
+import org.eclipse.jdt.internal.junit.runner.MessageSender;
+
+/**
+ * Sends the same test run over the text and the binary protocol of the
+ * RemoteTestRunner and compares what the client reports.
+ */
+public class RemoteTestRunnerProtocolTest {
+
+	private static final int LARGE_RUN_TESTS= 2000;
+
+	private static class TextMessageSender implements MessageSender {
+		private final PrintWriter fWriter;
+
+		TextMessageSender(Socket socket) throws IOException {
+			fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)), false);
+		}
+
+		@Override
+		public void sendMessage(String msg) {
+			fWriter.println(msg);
+		}
+
+		@Override
+		public void flush() {
+			fWriter.flush();
+		}
+	}
+
+	private static class RecordingListener implements ITestRunListener2 {
+		final List<String> fEvents= new ArrayList<>();
+		final boolean fRecord;
+		int fCount;
+		boolean fEnded;
+
+		RecordingListener(boolean record) {
+			fRecord= record;
+		}
+
+		private synchronized void record(String event) {
+			fCount++;
+			if (fRecord)
+				fEvents.add(event);
+		}
+
+		@Override
+		public void testRunStarted(int testCount) {
+			record("started " + testCount);
+		}
+
+		@Override
+		public synchronized void testRunEnded(long elapsedTime) {
+			record("ended " + elapsedTime);
+			fEnded= true;
+			notifyAll();
+		}
+
+		@Override
+		public synchronized void testRunStopped(long elapsedTime) {
+			record("stopped " + elapsedTime);
+			fEnded= true;
+			notifyAll();
+		}
+
+		@Override
+		public void testStarted(String testId, String testName) {
+			record("start " + testId + " " + testName);
+		}
+
+		@Override
+		public void testEnded(String testId, String testName) {
+			record("end " + testId + " " + testName);
+		}
+
+		@Override
+		public synchronized void testRunTerminated() {
+			record("terminated");
+			fEnded= true;
+			notifyAll();
+		}
+
+		@Override
+		public void testTreeEntry(String description) {
+			record("tree " + description);
+		}
+
+		@Override
+		public void testFailed(int status, String testId, String testName, String trace, String expected, String actual) {
+			record("failed " + status + " " + testId + " " + testName + " [" + trace + "] [" + expected + "] [" + actual + "]");
+		}
+
+		@Override
+		public void testReran(String testId, String testClass, String testName, int status, String trace, String expected, String actual) {
+			record("reran " + testId + " " + testClass + " " + testName + " " + status + " [" + trace + "]");
+		}
+
+		synchronized void waitForEnd() throws InterruptedException {
+			long end= System.currentTimeMillis() + 60000;
+			while (!fEnded && System.currentTimeMillis() < end)
+				wait(1000);
+			assertTrue("test run did not end", fEnded);
+		}
+	}
+
+	/*
+	 * Sends a test run and flushes after each start, failure and end of a test like
+	 * FirstRunExecutionListener.
+	 */
+	private static void sendRun(MessageSender sender, int tests) {
+		sender.sendMessage(MessageIds.TEST_RUN_START + tests + " v2");
+		sender.sendMessage(MessageIds.TEST_TREE + "1,pack.AllTests,true," + tests + ",false,-1,AllTests,,[engine:junit-jupiter]/[class:pack.AllTests]");
+		for (int i= 0; i < tests; i++) {
+			int id= i + 2;
+			String name= "test" + i + "(pack.AllTests)";
+			sender.sendMessage(MessageIds.TEST_TREE + id + "," + name + ",false,1,false,1,test" + i + "\\, with comma,int\\,long,");
+		}
+		for (int i= 0; i < tests; i++) {
+			int id= i + 2;
+			String name= "test" + i + "(pack.AllTests)";
+			sender.sendMessage(MessageIds.TEST_START + id + "," + name);
+			sender.flush();
+			if (i % 10 == 3) {
+				sender.sendMessage(MessageIds.TEST_FAILED + id + "," + name);
+				sender.sendMessage(MessageIds.EXPECTED_START);
+				sender.sendMessage("expected\nvalue " + i);
+				sender.sendMessage(MessageIds.EXPECTED_END);
+				sender.sendMessage(MessageIds.ACTUAL_START);
+				sender.sendMessage("actual value ä " + i);
+				sender.sendMessage(MessageIds.ACTUAL_END);
+				sender.sendMessage(MessageIds.TRACE_START);
+				sender.sendMessage("org.junit.ComparisonFailure: expected:<[expected]> but was:<[actual]>\n\tat pack.AllTests.test" + i + "(AllTests.java:" + i + ")\n\tat java.base/jdk.internal.reflect.NativeMethodAccessorImpl.invoke0(Native Method)");
+				sender.sendMessage(MessageIds.TRACE_END);
+				sender.flush();
+			} else if (i % 10 == 7) {
+				sender.sendMessage(MessageIds.TEST_ERROR + id + "," + name);
+				sender.sendMessage(MessageIds.TRACE_START);
+				sender.sendMessage("java.lang.IllegalStateException\n\tat pack.AllTests.test" + i + "(AllTests.java:" + i + ")");
+				sender.sendMessage(MessageIds.TRACE_END);
+				sender.flush();
+			}
+			sender.sendMessage(MessageIds.TEST_END + id + "," + name);
+			sender.flush();
+		}
+		sender.sendMessage(MessageIds.TEST_RUN_END + 42);
+		if (sender instanceof BinaryMessageSender)
+			((BinaryMessageSender) sender).flushNow();
+		else
+			sender.flush();
+	}
+
+	/*
+	 * Returns the number of complete frames in the given output of a BinaryMessageSender,
+	 * which may still be written.
+	 */
+	private static int countFrames(ByteArrayOutputStream output) throws IOException {
+		DataInputStream input= new DataInputStream(new ByteArrayInputStream(output.toByteArray()));
+		assertEquals(MessageIds.BINARY_PROTOCOL_MAGIC, input.readInt());
+		assertEquals(MessageIds.BINARY_PROTOCOL_VERSION, input.readByte());
+		int frames= 0;
+		while (input.available() >= 8) {
+			int length= input.readInt();
+			input.readInt();
+			if (input.skip(length) < length)
+				break;
+			frames++;
+		}
+		return frames;
+	}
+
+	private static RecordingListener run(boolean binary, int tests, boolean record) throws Exception {
+		int port;
+		try (ServerSocket socket= new ServerSocket(0)) {
+			port= socket.getLocalPort();
+		}
+		RecordingListener listener= new RecordingListener(record);
+		RemoteTestRunnerClient client= new RemoteTestRunnerClient();
+		client.startListening(new ITestRunListener2[] { listener }, port);
+		Socket socket= null;
+		for (int i= 0; socket == null && i < 50; i++) {
+			try {
+				socket= new Socket("localhost", port);
+			} catch (IOException e) {
+				Thread.sleep(100);
+			}
+		}
+		assertTrue("could not connect to client", socket != null);
+		try {
+			MessageSender sender= binary ? new BinaryMessageSender(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024)) : new TextMessageSender(socket);
+			sendRun(sender, tests);
+			listener.waitForEnd();
+		} finally {
+			socket.close();
+		}
+		return listener;
+	}
+
+	/**
+	 * Sends a test run to a client without recording the events.
+	 *
+	 * @param binary <code>true</code> to use the binary protocol, <code>false</code> for the
+	 *            text protocol
+	 * @param tests the number of tests of the run
+	 * @return the number of events reported by the client
+	 * @throws Exception if the run fails
+	 */
+	public static int sendTestRun(boolean binary, int tests) throws Exception {
+		return run(binary, tests, false).fCount;
+	}
+
+	@Test
+	public void testBinaryProtocolMatchesTextProtocol() throws Exception {
+		RecordingListener text= run(false, 100, true);
+		RecordingListener binary= run(true, 100, true);
+		assertEquals(String.join("\n", text.fEvents), String.join("\n", binary.fEvents));
+	}
+
+	@Test
+	public void testLargeRun() throws Exception {
+		// the throughput of both protocols is measured by RemoteTestRunnerProtocolPerfTest
+		assertEquals(sendTestRun(false, LARGE_RUN_TESTS), sendTestRun(true, LARGE_RUN_TESTS));
+	}
+
+	@Test
+	public void testFlushedMessagesShareFrames() throws Exception {
+		ByteArrayOutputStream output= new ByteArrayOutputStream();
+		BinaryMessageSender sender= new BinaryMessageSender(output);
+		sendRun(sender, 1000);
+		sender.close();
+		// 1000 tests are flushed at least 2000 times
+		int frames= countFrames(output);
+		assertTrue("flushed " + frames + " frames", frames < 100);
+	}
+
+	@Test
+	public void testFlushedFrameIsWrittenByTimer() throws Exception {
+		ByteArrayOutputStream output= new ByteArrayOutputStream();
+		BinaryMessageSender sender= new BinaryMessageSender(output);
+		try {
+			sender.sendMessage(MessageIds.TEST_START + "2,test(pack.AllTests)");
+			sender.flush();
+			long end= System.currentTimeMillis() + 5000;
+			while (countFrames(output) == 0 && System.currentTimeMillis() < end)
+				Thread.sleep(50);
+			assertEquals(1, countFrames(output));
+		} finally {
+			sender.close();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement;
+import org.eclipse.jdt.internal.junit.model.TestIdMap;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+/**
+ * Tests {@link TestIdMap}.
+ */
+public class TestIdMapTest {
+
+	private final TestSuiteElement fSuite= new TestSuiteElement(null, "suite", "pack.AllTests", 0, null, null, null);
+
+	private TestElement createTest(String id) {
+		return new TestCaseElement(fSuite, id, "test" + id + "(pack.AllTests)", null, false, null, null);
+	}
+
+	@Test
+	public void testToIntId() throws Exception {
+		assertEquals(0, TestIdMap.toIntId("0"));
+		assertEquals(42, TestIdMap.toIntId("42"));
+		assertEquals(Integer.MAX_VALUE, TestIdMap.toIntId("2147483647"));
+		assertEquals(-1, TestIdMap.toIntId("2147483648"));
+		assertEquals(-1, TestIdMap.toIntId("99999999999"));
+		assertEquals(-1, TestIdMap.toIntId("007"));
+		assertEquals(-1, TestIdMap.toIntId("-1"));
+		assertEquals(-1, TestIdMap.toIntId(""));
+		assertEquals(-1, TestIdMap.toIntId("1a"));
+	}
+
+	@Test
+	public void testNumericIds() throws Exception {
+		TestIdMap map= new TestIdMap();
+		TestElement[] elements= new TestElement[10000];
+		for (int i= 0; i < elements.length; i++) {
+			elements[i]= createTest(Integer.toString(i));
+			map.put(Integer.toString(i), elements[i]);
+		}
+		// the table has been rehashed several times
+		for (int i= 0; i < elements.length; i++) {
+			assertSame(elements[i], map.get(Integer.toString(i)));
+		}
+		assertNull(map.get("10000"));
+		assertNull(map.get(Integer.toString(Integer.MAX_VALUE)));
+	}
+
+	@Test
+	public void testSparseNumericIds() throws Exception {
+		TestIdMap map= new TestIdMap();
+		TestElement small= createTest("1");
+		TestElement large= createTest("2147483647");
+		map.put("1", small);
+		map.put("2147483647", large);
+		for (int i= 0; i < 1000; i++) {
+			map.put(Integer.toString(i * 65536 + 3), createTest(Integer.toString(i * 65536 + 3)));
+		}
+		assertSame(small, map.get("1"));
+		assertSame(large, map.get("2147483647"));
+		assertEquals("65539", map.get("65539").getId());
+	}
+
+	@Test
+	public void testNonNumericIds() throws Exception {
+		TestIdMap map= new TestIdMap();
+		TestElement numeric= createTest("7");
+		TestElement leadingZero= createTest("007");
+		TestElement name= createTest("pack.AllTests.test1");
+		TestElement overflow= createTest("2147483648");
+		map.put("7", numeric);
+		map.put("007", leadingZero);
+		map.put("pack.AllTests.test1", name);
+		map.put("2147483648", overflow);
+
+		assertSame(numeric, map.get("7"));
+		assertSame(leadingZero, map.get("007"));
+		assertSame(name, map.get("pack.AllTests.test1"));
+		assertSame(overflow, map.get("2147483648"));
+		assertNull(map.get("07"));
+		assertNull(map.get("pack.AllTests.test2"));
+
+		assertEquals("007", leadingZero.getId());
+		assertEquals("7", numeric.getId());
+	}
+
+	@Test
+	public void testReplace() throws Exception {
+		TestIdMap map= new TestIdMap();
+		TestElement first= createTest("3");
+		TestElement second= createTest("3");
+		map.put("3", first);
+		map.put("3", second);
+		assertSame(second, map.get("3"));
+
+		TestElement firstName= createTest("a");
+		TestElement secondName= createTest("a");
+		map.put("a", firstName);
+		map.put("a", secondName);
+		assertSame(secondName, map.get("a"));
+	}
+
+	@Test
+	public void testGetIdIsCached() throws Exception {
+		TestElement test= createTest("12");
+		assertEquals("12", test.getId());
+		assertSame(test.getId(), test.getId());
+	}
+
+	@Test
+	public void testSharedNames() throws Exception {
+		String engine= "[engine:junit-jupiter]";
+		String clazz= engine + "/[class:pack.FooTest]";
+		String method= clazz + "/[test-template:test(int)]";
+		TestSuiteElement root= new TestSuiteElement(null, "1", "engine", 1, null, null, engine);
+		TestSuiteElement suite= new TestSuiteElement(root, "2", "pack.FooTest", 1, "FooTest", null, clazz);
+		TestSuiteElement template= new TestSuiteElement(suite, "3", "test(pack.FooTest)", 2, "test(int)", null, method);
+		TestElement first= new TestCaseElement(template, "4", new String("test(pack.FooTest)"), "[1] 1", true, null, method + "/[test-template-invocation:#1]");
+		TestElement second= new TestCaseElement(template, "5", new String("test(pack.FooTest)"), new String("test(pack.FooTest)"), true, null, "[engine:other]/[test:x]");
+
+		assertEquals(clazz, suite.getUniqueId());
+		assertEquals(method, template.getUniqueId());
+		assertEquals(method + "/[test-template-invocation:#1]", first.getUniqueId());
+		assertEquals("[engine:other]/[test:x]", second.getUniqueId());
+
+		assertSame(template.getTestName(), first.getTestName());
+		assertSame(template.getTestName(), second.getDisplayName());
+		assertEquals("[1] 1", first.getDisplayName());
+		assertNull(root.getDisplayName());
+	}
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.junit.model.ITestElement;
+
+import org.eclipse.jdt.internal.junit.JUnitCorePlugin;
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestElement.Status;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+
+/**
+ * Tests that {@link TestRunSession#swapOut()} only writes the swap file when the session changed.
+ */
+public class TestRunSessionSwapTest {
+
+	private TestRunSession fSession;
+
+	private File fSwapFile;
+
+	@Before
+	public void setUp() throws Exception {
+		fSession= new TestRunSession("TestRunSessionSwapTest", null);
+		TestSuiteElement suite= (TestSuiteElement) fSession.createTestElement(fSession.getTestRoot(), "1", "pack.AllTests", true, 2, false, null, null, null);
+		fSession.createTestElement(suite, "2", "test1(pack.AllTests)", false, 0, false, null, null, null);
+		fSession.createTestElement(suite, "3", "test2(pack.AllTests)", false, 0, false, null, null, null);
+
+		Set<File> before= new HashSet<>(Arrays.asList(JUnitCorePlugin.getHistoryDirectory().listFiles()));
+		fSession.swapOut();
+		Set<File> after= new HashSet<>(Arrays.asList(JUnitCorePlugin.getHistoryDirectory().listFiles()));
+		after.removeAll(before);
+		assertEquals("swap file not written", 1, after.size());
+		fSwapFile= after.iterator().next();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fSession.removeSwapFile();
+	}
+
+	private TestCaseElement getFirstTest() {
+		TestSuiteElement suite= (TestSuiteElement) fSession.getTestRoot().getChildren()[0];
+		return (TestCaseElement) suite.getChildren()[0];
+	}
+
+	/*
+	 * Marks the swap file, so that a rewrite can be told apart from a skipped one.
+	 */
+	private void markSwapFile() {
+		assertTrue(fSwapFile.setLastModified(0));
+	}
+
+	@Test
+	public void testUnchangedSessionIsNotWritten() throws Exception {
+		markSwapFile();
+		fSession.swapIn();
+		fSession.swapOut();
+		assertEquals("swap file rewritten", 0, fSwapFile.lastModified());
+		assertEquals(2, ((TestSuiteElement) fSession.getTestRoot().getChildren()[0]).getChildren().length);
+	}
+
+	@Test
+	public void testChangedSessionIsWritten() throws Exception {
+		fSession.swapIn();
+		fSession.registerTestEnded(getFirstTest(), true);
+		markSwapFile();
+		fSession.swapOut();
+		assertNotEquals("swap file not rewritten", 0, fSwapFile.lastModified());
+		assertEquals(Status.OK, getFirstTest().getStatus());
+	}
+
+	@Test
+	public void testFailureIsWritten() throws Exception {
+		fSession.swapIn();
+		fSession.registerTestFailureStatus(getFirstTest(), Status.FAILURE, "java.lang.AssertionError\n\tat pack.AllTests.test1(AllTests.java:5)\n", "1", "2");
+		markSwapFile();
+		fSession.swapOut();
+		assertNotEquals("swap file not rewritten", 0, fSwapFile.lastModified());
+		TestCaseElement test= getFirstTest();
+		assertEquals(ITestElement.Result.FAILURE, test.getTestResult(false));
+		assertEquals("1", test.getExpected());
+		assertEquals("2", test.getActual());
+	}
+
+	@Test
+	public void testDeletedSwapFileIsWritten() throws Exception {
+		fSession.swapIn();
+		assertTrue(fSwapFile.delete());
+		fSession.swapOut();
+		assertTrue("swap file not written", fSwapFile.isFile());
+		assertEquals(2, ((TestSuiteElement) fSession.getTestRoot().getChildren()[0]).getChildren().length);
+	}
+}
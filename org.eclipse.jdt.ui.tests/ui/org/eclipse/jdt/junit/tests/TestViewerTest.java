@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.junit.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.dnd.Clipboard;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
+
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.TreeViewer;
+
+import org.eclipse.ui.IWorkbenchPage;
+
+import org.eclipse.jdt.internal.junit.model.TestCaseElement;
+import org.eclipse.jdt.internal.junit.model.TestRunSession;
+import org.eclipse.jdt.internal.junit.model.TestSuiteElement;
+import org.eclipse.jdt.internal.junit.ui.JUnitPlugin;
+import org.eclipse.jdt.internal.junit.ui.TestRunnerViewPart;
+import org.eclipse.jdt.internal.junit.ui.TestViewer;
+
+/**
+ * Tests how {@link TestViewer} adds the tests reported during a run to its tree.
+ */
+public class TestViewerTest {
+
+	private IWorkbenchPage fPage;
+
+	private TestRunnerViewPart fViewPart;
+
+	private Shell fShell;
+
+	private Clipboard fClipboard;
+
+	private TestViewer fTestViewer;
+
+	private TreeViewer fTreeViewer;
+
+	private TestSuiteElement fSuite;
+
+	private int fNextId= 2;
+
+	@Before
+	public void setUp() throws Exception {
+		fPage= JUnitPlugin.getActivePage();
+		fViewPart= (TestRunnerViewPart) fPage.showView(TestRunnerViewPart.NAME);
+		fShell= new Shell(Display.getCurrent());
+		fClipboard= new Clipboard(fShell.getDisplay());
+		fTestViewer= new TestViewer(fShell, fClipboard, fViewPart);
+		fTreeViewer= (TreeViewer) fTestViewer.getActiveViewer();
+
+		TestRunSession session= new TestRunSession("TestViewerTest", null);
+		fSuite= new TestSuiteElement(session.getTestRoot(), "1", "pack.AllTests", 0, null, null, null);
+		fTestViewer.registerActiveSession(session);
+		fTestViewer.processChangesInUI();
+		fTreeViewer.expandAll();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fShell.dispose();
+		fClipboard.dispose();
+		fPage.hideView(fViewPart);
+	}
+
+	private void addTests(int count) {
+		for (int i= 0; i < count; i++) {
+			int id= fNextId++;
+			fTestViewer.registerTestAdded(new TestCaseElement(fSuite, Integer.toString(id), "test" + id + "(pack.AllTests)", null, false, null, null));
+		}
+	}
+
+	private TreeItem getSuiteItem() {
+		return (TreeItem) fTreeViewer.testFindItem(fSuite);
+	}
+
+	private List<Object> getChildData() {
+		List<Object> data= new ArrayList<>();
+		for (TreeItem item : getSuiteItem().getItems()) {
+			data.add(item.getData());
+		}
+		return data;
+	}
+
+	private void assertIncrementalAdd(int existing, int added) {
+		addTests(existing);
+		fTestViewer.processChangesInUI();
+		assertEquals(Arrays.asList(fSuite.getChildren()), getChildData());
+		TreeItem suiteItem= getSuiteItem();
+		TreeItem firstItem= suiteItem.getItem(0);
+
+		addTests(added);
+		fTestViewer.processChangesInUI();
+		assertEquals(Arrays.asList(fSuite.getChildren()), getChildData());
+		// the tree has not been rebuilt
+		assertSame(suiteItem, getSuiteItem());
+		assertSame(firstItem, getSuiteItem().getItem(0));
+	}
+
+	@Test
+	public void testAddFewChildren() throws Exception {
+		assertIncrementalAdd(3, 4);
+	}
+
+	@Test
+	public void testAddManyChildren() throws Exception {
+		// more comparisons than the viewer does with TreeViewer#add(Object, Object[])
+		assertIncrementalAdd(500, 500);
+	}
+
+	@Test
+	public void testAddTwice() throws Exception {
+		addTests(3);
+		fTestViewer.processChangesInUI();
+		fTestViewer.registerTestAdded((TestCaseElement) fSuite.getChildren()[1]);
+		fTestViewer.processChangesInUI();
+		assertEquals(Arrays.asList(fSuite.getChildren()), getChildData());
+	}
+
+	@Test
+	public void testAddBeforeLayoutSwitch() throws Exception {
+		// both viewers are up to date
+		fTestViewer.setShowFailuresOrIgnoredOnly(false, false, TestRunnerViewPart.LAYOUT_FLAT);
+		TableViewer tableViewer= (TableViewer) fTestViewer.getActiveViewer();
+
+		addTests(3);
+		// refreshes the tree, which drops the tests not yet added to the table
+		fTestViewer.setShowFailuresOrIgnoredOnly(true, false, TestRunnerViewPart.LAYOUT_HIERARCHICAL);
+		fTestViewer.setShowFailuresOrIgnoredOnly(false, false, TestRunnerViewPart.LAYOUT_FLAT);
+		assertSame(tableViewer, fTestViewer.getActiveViewer());
+		assertEquals(3, tableViewer.getTable().getItemCount());
+
+		addTests(2);
+		fTestViewer.setShowFailuresOrIgnoredOnly(false, false, TestRunnerViewPart.LAYOUT_HIERARCHICAL);
+		fTestViewer.processChangesInUI();
+		fTreeViewer.expandAll();
+		assertEquals(Arrays.asList(fSuite.getChildren()), getChildData());
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2020 IBM Corporation and others.
+ * Copyright (c) 2007, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,9 @@ package org.eclipse.jdt.ui.tests.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -40,10 +43,13 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.manipulation.SharedASTProviderCore;
 import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 
+import org.eclipse.jdt.internal.core.manipulation.SharedASTCache;
+
 import org.eclipse.jdt.ui.JavaUI;
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 
@@ -141,6 +147,50 @@ public class ASTProviderTest extends CoreTests {
 		cu.getBuffer().save(null, true);
 	}
 
+	@Test
+	public void testSharedASTCache() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class A {\n");
+		buf.append("}\n");
+		ICompilationUnit cuA= pack1.createCompilationUnit("A.java", buf.toString(), false, null);
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class B extends A {\n");
+		buf.append("}\n");
+		ICompilationUnit cuB= pack1.createCompilationUnit("B.java", buf.toString(), false, null);
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class C {\n");
+		buf.append("}\n");
+		ICompilationUnit cuC= pack1.createCompilationUnit("C.java", buf.toString(), false, null);
+
+		SharedASTCache cache= SharedASTCache.getInstance();
+		long hits= cache.getHitCount();
+
+		CompilationUnit astB= SharedASTProviderCore.getAST(cuB, SharedASTProviderCore.WAIT_YES, null);
+		CompilationUnit astC= SharedASTProviderCore.getAST(cuC, SharedASTProviderCore.WAIT_YES, null);
+		assertNotNull(astB);
+		assertNotNull(astC);
+		assertSame(astB, SharedASTProviderCore.getAST(cuB, SharedASTProviderCore.WAIT_YES, null));
+		assertSame(astC, SharedASTProviderCore.getAST(cuC, SharedASTProviderCore.WAIT_YES, null));
+		assertTrue(cache.getHitCount() >= hits + 2);
+
+		// a structural change of the super type evicts B only
+		IType typeA= cuA.getType("A");
+		typeA.createField("int fField;", null, false, null);
+		assertNotSame(astB, SharedASTProviderCore.getAST(cuB, SharedASTProviderCore.WAIT_YES, null));
+		assertSame(astC, SharedASTProviderCore.getAST(cuC, SharedASTProviderCore.WAIT_YES, null));
+
+		// a change of the unit itself is detected by its modification stamp
+		cuC.getBuffer().append("\n");
+		cuC.getBuffer().save(null, true);
+		assertNotSame(astC, SharedASTProviderCore.getAST(cuC, SharedASTProviderCore.WAIT_YES, null));
+	}
+
 	private static String getNormalizeNumber(int number) {
 		if (number < 10) {
 			return "000" + number;
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,10 +19,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.After;
 import org.junit.Before;
@@ -31,6 +36,7 @@ import org.junit.Test;
 import org.eclipse.core.runtime.NullProgressMonitor;
 
 import org.eclipse.jdt.core.IInitializer;
+import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMember;
 import org.eclipse.jdt.core.IMethod;
 import org.eclipse.jdt.core.IType;
@@ -113,6 +119,80 @@ public class CallHierarchyTest {
         helper.assertCalls(expectedMethods, cachedCalls);
     }
 
+	@Test
+	public void callersOfSeveralWrappers() throws Exception {
+        helper.createSimpleClasses();
+
+        MethodWrapper[] roots= CallHierarchy.getDefault().getCallerRoots(new IMember[] { helper.getMethod1(), helper.getMethod3(), helper.getMethod4() });
+        assertEquals(3, roots.length);
+
+        MethodWrapper[][] calls= CallHierarchy.getDefault().getCalls(roots, new NullProgressMonitor());
+        assertEquals(3, calls.length);
+        helper.assertCalls(new IMember[] { helper.getMethod2(), helper.getMethod3() }, calls[0]);
+        helper.assertCalls(new IMember[] { helper.getMethod4() }, calls[1]);
+        helper.assertCalls(new IMember[0], calls[2]);
+
+        for (MethodWrapper root : roots) {
+            assertNotNull(root.getCachedCalls());
+        }
+        MethodWrapper[][] secondLevel= CallHierarchy.getDefault().getCalls(calls[1], new NullProgressMonitor());
+        helper.assertCalls(new IMember[0], secondLevel[0]);
+    }
+
+	@Test
+	public void callersCacheClearedOnChange() throws Exception {
+        helper.createSimpleClasses();
+
+        MethodWrapper wrapper= getSingleCallerRoot(helper.getMethod4());
+        helper.assertCalls(new IMember[0], wrapper.getCalls(new NullProgressMonitor()));
+
+        IMethod method5= helper.getType2().createMethod("public void method5() { method4(); }\n", null, true, null);
+
+        wrapper= getSingleCallerRoot(helper.getMethod4());
+        helper.assertCalls(new IMember[] { method5 }, wrapper.getCalls(new NullProgressMonitor()));
+    }
+
+	@Test
+	public void exportCallGraph() throws Exception {
+        helper.createSimpleClasses();
+
+        StringWriter writer= new StringWriter();
+        CallHierarchy.getDefault().exportCallGraph(new IJavaElement[] { helper.getType2() }, true, true, writer, new NullProgressMonitor());
+        Set<String> expected= new HashSet<>();
+        expected.add(getEdge(helper.getMethod3(), helper.getMethod1()));
+        expected.add(getEdge(helper.getMethod3(), helper.getMethod2()));
+        expected.add(getEdge(helper.getMethod4(), helper.getMethod3()));
+        assertEquals(expected, parseEdges(writer.toString()));
+
+        writer= new StringWriter();
+        CallHierarchy.getDefault().exportCallGraph(new IJavaElement[] { helper.getMethod1() }, true, false, writer, new NullProgressMonitor());
+        expected.clear();
+        expected.add(getEdge(helper.getMethod2(), helper.getMethod1()));
+        expected.add(getEdge(helper.getMethod3(), helper.getMethod1()));
+        assertEquals(expected, parseEdges(writer.toString()));
+    }
+
+    private static String getEdge(IMember from, IMember to) {
+        return from.getHandleIdentifier() + " -> " + to.getHandleIdentifier();
+    }
+
+    private static Set<String> parseEdges(String graph) {
+        String[] lines= graph.split("\n");
+        assertEquals("v\t1", lines[0]);
+        Map<String, String> nodes= new HashMap<>();
+        Set<String> edges= new HashSet<>();
+        for (String line : lines) {
+            String[] fields= line.split("\t");
+            if ("n".equals(fields[0])) {
+                nodes.put(fields[1], fields[2]);
+            } else if ("e".equals(fields[0])) {
+                assertTrue(line, nodes.containsKey(fields[1]) && nodes.containsKey(fields[2]));
+                edges.add(nodes.get(fields[1]) + " -> " + nodes.get(fields[2]));
+            }
+        }
+        return edges;
+    }
+
 	@Test
 	public void callees() throws Exception {
         helper.createSimpleClasses();
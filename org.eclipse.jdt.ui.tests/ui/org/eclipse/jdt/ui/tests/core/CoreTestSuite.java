@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 IBM Corporation and others.
+ * Copyright (c) 2020, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -47,7 +47,10 @@ OverrideTest.class,
 PartialASTTest.class,
 ScopeAnalyzerTest.class,
 TemplateStoreTest.class,
+SuperTypeHierarchyCacheTest.class,
 TypeHierarchyTest.class,
+TypeHierarchyLifeCycleTest.class,
+TypeHierarchyPagingTest.class,
 TypeHierarchyViewPartTest.class,
 TypeRulesTest.class,
 TypeInfoTest.class,
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+
+import org.eclipse.jdt.internal.corext.util.SuperTypeHierarchyCache;
+
+/**
+ * Tests the hierarchies that {@link SuperTypeHierarchyCache} keeps on disk.
+ */
+public class SuperTypeHierarchyCacheTest {
+
+	private IJavaProject fProject;
+
+	private IPackageFragment fPackage;
+
+	private int fCacheSize;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("SuperTypeHierarchyCacheTest", "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fPackage= root.createPackageFragment("pack", true, null);
+		fCacheSize= SuperTypeHierarchyCache.getCacheSize();
+		SuperTypeHierarchyCache.setCacheSize(1);
+		SuperTypeHierarchyCache.setPersistentCacheEnabled(true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		SuperTypeHierarchyCache.setCacheSize(fCacheSize);
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private IType createType(String name, String source) throws Exception {
+		ICompilationUnit cu= fPackage.createCompilationUnit(name + ".java", "package pack;\n" + source, true, null);
+		return cu.getType(name);
+	}
+
+	/*
+	 * Computes the hierarchy of an unrelated type so that the memory cache of size 1 no longer
+	 * holds the previous hierarchy.
+	 */
+	private void evictFromMemory() throws Exception {
+		IType other= fPackage.getCompilationUnit("Other.java").getType("Other");
+		if (!other.exists())
+			other= createType("Other", "public class Other {\n}\n");
+		SuperTypeHierarchyCache.getTypeHierarchy(other);
+		SuperTypeHierarchyCache.joinPersistentCacheWrites();
+	}
+
+	private static int getPersistentHits() {
+		return SuperTypeHierarchyCache.getPersistentCacheHits();
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		IType a= createType("A", "public class A {\n}\n");
+		IType b= createType("B", "public class B extends A {\n}\n");
+
+		SuperTypeHierarchyCache.getTypeHierarchy(b);
+		SuperTypeHierarchyCache.joinPersistentCacheWrites();
+		evictFromMemory();
+
+		int hits= getPersistentHits();
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertEquals(hits + 1, getPersistentHits());
+		assertEquals(a, hierarchy.getSuperclass(b));
+		assertEquals("Object", hierarchy.getSuperclass(a).getElementName());
+	}
+
+	@Test
+	public void testStaleDependency() throws Exception {
+		IType a= createType("A", "public class A {\n}\n");
+		IType b= createType("B", "public class B extends A {\n}\n");
+		IType c= createType("C", "public class C {\n}\n");
+
+		SuperTypeHierarchyCache.getTypeHierarchy(b);
+		SuperTypeHierarchyCache.joinPersistentCacheWrites();
+		evictFromMemory();
+
+		IFile file= (IFile) a.getCompilationUnit().getResource();
+		file.setContents(new ByteArrayInputStream("package pack;\npublic class A extends C {\n}\n".getBytes()), true, false, null);
+
+		int hits= getPersistentHits();
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertEquals(hits, getPersistentHits());
+		assertEquals(c, hierarchy.getSuperclass(a));
+	}
+
+	@Test
+	public void testAddedType() throws Exception {
+		IPackageFragment other= ((IPackageFragmentRoot) fPackage.getParent()).createPackageFragment("other", true, null);
+		other.createCompilationUnit("X.java", "package other;\npublic class X {\n}\n", true, null);
+		IType b= createType("B", "import other.*;\npublic class B extends X {\n}\n");
+
+		SuperTypeHierarchyCache.getTypeHierarchy(b);
+		SuperTypeHierarchyCache.joinPersistentCacheWrites();
+		evictFromMemory();
+
+		// a type in the package of B shadows the one imported on demand
+		IType x= createType("X", "public class X {\n}\n");
+
+		int hits= getPersistentHits();
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertEquals(hits, getPersistentHits());
+		assertEquals(x, hierarchy.getSuperclass(b));
+	}
+
+	@Test
+	public void testUnsavedWorkingCopy() throws Exception {
+		IType a= createType("A", "public class A {\n}\n");
+		IType b= createType("B", "public class B extends A {\n}\n");
+		IType c= createType("C", "public class C {\n}\n");
+
+		SuperTypeHierarchyCache.getTypeHierarchy(b);
+		SuperTypeHierarchyCache.joinPersistentCacheWrites();
+		evictFromMemory();
+
+		ICompilationUnit cu= a.getCompilationUnit();
+		cu.becomeWorkingCopy(null);
+		try {
+			cu.getBuffer().setContents("package pack;\npublic class A extends C {\n}\n");
+			cu.reconcile(ICompilationUnit.NO_AST, false, null, null);
+
+			// the stored hierarchy is not used and the new one is not stored
+			int hits= getPersistentHits();
+			ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+			assertEquals(hits, getPersistentHits());
+			assertEquals(c, hierarchy.getSuperclass(a));
+
+			SuperTypeHierarchyCache.joinPersistentCacheWrites();
+			evictFromMemory();
+			hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+			assertEquals(hits, getPersistentHits());
+			assertEquals(c, hierarchy.getSuperclass(a));
+		} finally {
+			cu.discardWorkingCopy();
+		}
+
+		// the hierarchy stored before the working copy was changed is valid again
+		evictFromMemory();
+		int hits= getPersistentHits();
+		ITypeHierarchy hierarchy= SuperTypeHierarchyCache.getTypeHierarchy(b);
+		assertEquals(hits + 1, getPersistentHits());
+		assertEquals("Object", hierarchy.getSuperclass(a).getElementName());
+	}
+}
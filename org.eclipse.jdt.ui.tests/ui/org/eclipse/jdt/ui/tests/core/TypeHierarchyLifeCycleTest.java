@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.typehierarchy.ITypeHierarchyLifeCycleListener;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+
+/**
+ * Tests which changes make {@link TypeHierarchyLifeCycle} compute its hierarchy again.
+ */
+public class TypeHierarchyLifeCycleTest {
+
+	/**
+	 * Longer than the quiet period after which the life cycle reports the changes.
+	 */
+	private static final long NOTIFICATION_TIMEOUT= 5000;
+
+	private IJavaProject fProject;
+
+	private IPackageFragmentRoot fSourceFolder;
+
+	private TypeHierarchyLifeCycle fLifeCycle;
+
+	/**
+	 * The reported changes, <code>null</code> for a change of the whole hierarchy.
+	 */
+	private final List<IType[]> fChanges= new ArrayList<>();
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("TypeHierarchyLifeCycle", "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		fSourceFolder= JavaProjectHelper.addSourceContainer(fProject, "src");
+		fLifeCycle= new TypeHierarchyLifeCycle(false);
+		fLifeCycle.addChangedListener(new ITypeHierarchyLifeCycleListener() {
+			@Override
+			public void typeHierarchyChanged(TypeHierarchyLifeCycle typeHierarchyProvider, IType[] changedTypes) {
+				synchronized (fChanges) {
+					fChanges.add(changedTypes);
+					fChanges.notifyAll();
+				}
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fLifeCycle.freeHierarchy();
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private ICompilationUnit createCU(String packageName, String name, String contents) throws Exception {
+		return fSourceFolder.createPackageFragment(packageName, true, null).createCompilationUnit(name, contents, true, null);
+	}
+
+	private static void setContents(ICompilationUnit cu, String contents) throws Exception {
+		((IFile) cu.getResource()).setContents(new ByteArrayInputStream(contents.getBytes()), true, false, null);
+	}
+
+	/*
+	 * Waits for the first notification and returns whether it reported a change of the whole hierarchy.
+	 */
+	private boolean waitForHierarchyChange() throws InterruptedException {
+		long end= System.currentTimeMillis() + NOTIFICATION_TIMEOUT;
+		synchronized (fChanges) {
+			while (fChanges.isEmpty()) {
+				long remaining= end - System.currentTimeMillis();
+				assertTrue("no change reported", remaining > 0);
+				fChanges.wait(remaining);
+			}
+			return fChanges.contains(null);
+		}
+	}
+
+	@Test
+	public void testChangedBody() throws Exception {
+		ICompilationUnit a= createCU("p", "A.java", "package p;\npublic class A {\n\tvoid m() {\n\t}\n}\n");
+		ICompilationUnit b= createCU("p", "B.java", "package p;\npublic class B extends A {\n}\n");
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { b.getType("B") }, null);
+
+		setContents(a, "package p;\npublic class A {\n\tvoid m() {\n\t\tSystem.out.println();\n\t}\n}\n");
+		assertFalse("hierarchy recomputed for a changed body", waitForHierarchyChange());
+	}
+
+	@Test
+	public void testChangedSupertype() throws Exception {
+		ICompilationUnit a= createCU("p", "A.java", "package p;\npublic class A {\n}\n");
+		createCU("p", "C.java", "package p;\npublic class C {\n}\n");
+		ICompilationUnit b= createCU("p", "B.java", "package p;\npublic class B extends A {\n}\n");
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { b.getType("B") }, null);
+
+		setContents(a, "package p;\npublic class A extends C {\n}\n");
+		assertTrue("hierarchy not recomputed for a changed supertype", waitForHierarchyChange());
+	}
+
+	@Test
+	public void testChangedImport() throws Exception {
+		createCU("p1", "Base.java", "package p1;\npublic class Base {\n}\n");
+		createCU("p2", "Base.java", "package p2;\npublic class Base {\n}\n");
+		ICompilationUnit b= createCU("p", "B.java", "package p;\nimport p1.Base;\npublic class B extends Base {\n}\n");
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { b.getType("B") }, null);
+
+		// the supertype is still named Base, but it is another type
+		setContents(b, "package p;\nimport p2.Base;\npublic class B extends Base {\n}\n");
+		assertTrue("hierarchy not recomputed for a changed import", waitForHierarchyChange());
+	}
+}
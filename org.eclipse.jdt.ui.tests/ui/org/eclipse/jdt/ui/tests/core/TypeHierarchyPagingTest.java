@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.StructuredSelection;
+
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+
+import org.eclipse.jdt.internal.ui.typehierarchy.MoreChildrenNode;
+import org.eclipse.jdt.internal.ui.typehierarchy.SubTypeHierarchyViewer;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyContentProvider;
+import org.eclipse.jdt.internal.ui.typehierarchy.TypeHierarchyLifeCycle;
+
+/**
+ * Tests that type hierarchy viewers show wide hierarchies page by page, and filter them for
+ * members with precomputed types.
+ */
+public class TypeHierarchyPagingTest {
+
+	private static final int SUBTYPES= 25;
+
+	private static final int PAGE_SIZE= 10;
+
+	private IJavaProject fProject;
+
+	private IType fBase;
+
+	private ICompilationUnit fUnit;
+
+	private TypeHierarchyLifeCycle fLifeCycle;
+
+	private Shell fShell;
+
+	private SubTypeHierarchyViewer fViewer;
+
+	private TypeHierarchyContentProvider fContentProvider;
+
+	@Before
+	public void setUp() throws Exception {
+		fProject= JavaProjectHelper.createJavaProject("TypeHierarchyPaging", "bin");
+		JavaProjectHelper.addRTJar(fProject);
+		IPackageFragmentRoot root= JavaProjectHelper.addSourceContainer(fProject, "src");
+		IPackageFragment pack= root.createPackageFragment("p", true, null);
+		StringBuilder source= new StringBuilder("package p;\npublic class Base {\n}\n");
+		for (int i= 0; i < SUBTYPES; i++) {
+			source.append("class S").append(getSuffix(i)).append(" extends Base {\n");
+			if (i == 3 || i == 17) {
+				source.append("\tvoid m() {}\n");
+			}
+			source.append("}\n");
+		}
+		fUnit= pack.createCompilationUnit("Base.java", source.toString(), true, null);
+		fBase= fUnit.getType("Base");
+
+		fLifeCycle= new TypeHierarchyLifeCycle(false);
+		fLifeCycle.doHierarchyRefresh(new IJavaElement[] { fBase }, null);
+		fShell= new Shell(Display.getCurrent());
+		fViewer= new SubTypeHierarchyViewer(fShell, fLifeCycle);
+		fContentProvider= (TypeHierarchyContentProvider) fViewer.getContentProvider();
+		fContentProvider.setPageSize(PAGE_SIZE);
+		fViewer.setInput(fViewer);
+		fViewer.updateContent(true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fShell.dispose();
+		fLifeCycle.freeHierarchy();
+		JavaProjectHelper.delete(fProject);
+	}
+
+	private static String getSuffix(int i) {
+		return i < 10 ? "0" + i : Integer.toString(i);
+	}
+
+	private IType getSubtype(int i) {
+		return fUnit.getType("S" + getSuffix(i));
+	}
+
+	private IMethod getMethod(int i) {
+		return getSubtype(i).getMethod("m", new String[0]);
+	}
+
+	private List<Object> getChildren(Object parent) {
+		return Arrays.asList(fContentProvider.getChildren(parent));
+	}
+
+	private void assertPage(int shown) {
+		List<Object> children= getChildren(fBase);
+		int more= shown < SUBTYPES ? 1 : 0;
+		assertEquals(shown + more, children.size());
+		Set<Object> types= new HashSet<>(children.subList(0, shown));
+		assertEquals(shown, types.size());
+		if (more == 1) {
+			MoreChildrenNode node= (MoreChildrenNode) children.get(shown);
+			assertEquals(fBase, node.getParent());
+			assertEquals(SUBTYPES - shown, node.getRemaining());
+		}
+	}
+
+	private MoreChildrenNode getMoreChildrenNode() {
+		List<Object> children= getChildren(fBase);
+		return (MoreChildrenNode) children.get(children.size() - 1);
+	}
+
+	@Test
+	public void testPages() throws Exception {
+		assertPage(PAGE_SIZE);
+		// in the order of the comparator
+		assertEquals(getSubtype(0), getChildren(fBase).get(0));
+		assertEquals(getSubtype(PAGE_SIZE - 1), getChildren(fBase).get(PAGE_SIZE - 1));
+		assertTrue(fViewer.isElementShown(getSubtype(PAGE_SIZE - 1)));
+		assertFalse(fViewer.isElementShown(getSubtype(PAGE_SIZE)));
+
+		fContentProvider.showMoreChildren(getMoreChildrenNode());
+		assertPage(2 * PAGE_SIZE);
+		assertTrue(fViewer.isElementShown(getSubtype(2 * PAGE_SIZE - 1)));
+
+		fContentProvider.showMoreChildren(getMoreChildrenNode());
+		assertPage(SUBTYPES);
+		assertTrue(fViewer.isElementShown(getSubtype(SUBTYPES - 1)));
+	}
+
+	@Test
+	public void testSelectTypeOnLaterPage() throws Exception {
+		IType type= getSubtype(SUBTYPES - 2);
+		fViewer.setSelection(new StructuredSelection(type), true);
+		assertEquals(type, ((IStructuredSelection) fViewer.getSelection()).getFirstElement());
+		assertPage(SUBTYPES);
+	}
+
+	@Test
+	public void testRevealTypeOnLaterPage() throws Exception {
+		IType type= getSubtype(PAGE_SIZE + 1);
+		fViewer.reveal(type);
+		assertTrue(fViewer.isElementShown(type));
+		assertPage(2 * PAGE_SIZE);
+	}
+
+	@Test
+	public void testMemberFilter() throws Exception {
+		IMember[] filter= new IMember[] { getMethod(3), getMethod(17) };
+		Set<IType> types= fContentProvider.computeMemberFilterTypes(filter, null);
+		assertEquals(new HashSet<>(Arrays.asList(getSubtype(3), getSubtype(17))), types);
+
+		fViewer.setMemberFilter(filter);
+		fViewer.updateContent(true);
+		List<Object> children= getChildren(fBase);
+		assertEquals(types, new HashSet<>(children));
+		assertEquals(Collections.singletonList(getMethod(17)), getChildren(getSubtype(17)));
+
+		// the types computed in the background give the same tree
+		fViewer.setMemberFilter(filter, types);
+		fViewer.updateContent(true);
+		assertEquals(children, getChildren(fBase));
+		assertEquals(Collections.singletonList(getMethod(17)), getChildren(getSubtype(17)));
+		assertTrue(fViewer.isElementShown(getMethod(17)));
+
+		fViewer.setMemberFilter(null, null);
+		fViewer.updateContent(true);
+		assertPage(PAGE_SIZE);
+	}
+
+	@Test
+	public void testMemberFilterTypesAreUsed() throws Exception {
+		IMember[] filter= new IMember[] { getMethod(3) };
+		// only the given types are shown, the members are not checked again
+		fViewer.setMemberFilter(filter, Collections.singleton(getSubtype(5)));
+		fViewer.updateContent(true);
+		assertEquals(Collections.singletonList(getSubtype(5)), getChildren(fBase));
+	}
+}
@@ -14,6 +14,7 @@
 package org.eclipse.jdt.ui.tests.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -278,6 +279,45 @@ public class TypeInfoTest {
 		// "- waiting to re-lock in wait() <0x00000007005919b0> (a java.lang.ref.ReferenceQueue$Lock)"
 	}
 
+	@Test
+	public void testMatchesCachedResult() throws Exception {
+		IPackageFragmentRoot root1= JavaProjectHelper.addSourceContainer(fJProject1, "src");
+		IPackageFragment pack1= root1.createPackageFragment("com.oti", true, null);
+		ICompilationUnit cu1= pack1.getCompilationUnit("V.java");
+		IType type= cu1.createType("public class V {\n static class VInner {\n}\n}\n", null, true, null);
+		TypeNameMatch v= SearchEngine.createTypeNameMatch(type, type.getFlags());
+		TypeNameMatch vInner= SearchEngine.createTypeNameMatch(type.getType("VInner"), type.getType("VInner").getFlags());
+		IJavaSearchScope scope= SearchEngine.createJavaSearchScope(new IJavaElement[] { fJProject1 });
+
+		TypeInfoFilter filter= new TypeInfoFilter("V", scope, IJavaSearchConstants.TYPE, null);
+		assertTrue(filter.matchesCachedResult(v));
+		assertTrue(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("v", scope, IJavaSearchConstants.TYPE, null);
+		assertTrue(filter.matchesCachedResult(v));
+		assertTrue(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("VI", scope, IJavaSearchConstants.TYPE, null);
+		assertFalse(filter.matchesCachedResult(v));
+		assertTrue(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("X", scope, IJavaSearchConstants.TYPE, null);
+		assertFalse(filter.matchesCachedResult(v));
+		assertFalse(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("*Inner", scope, IJavaSearchConstants.TYPE, null);
+		assertFalse(filter.matchesCachedResult(v));
+		assertTrue(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("com.oti.V", scope, IJavaSearchConstants.TYPE, null);
+		assertTrue(filter.matchesCachedResult(v));
+		assertTrue(filter.matchesCachedResult(vInner));
+
+		filter= new TypeInfoFilter("java.V", scope, IJavaSearchConstants.TYPE, null);
+		assertFalse(filter.matchesCachedResult(v));
+		assertFalse(filter.matchesCachedResult(vInner));
+	}
+
     @Test
     public void testBug578547() {
     	IJavaElement[] elements= new IJavaElement[] { fJProject1 };
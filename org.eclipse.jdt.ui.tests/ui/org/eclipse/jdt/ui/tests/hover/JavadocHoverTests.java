@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2020 GK Software SE and others.
+ * Copyright (c) 2020, 2022 GK Software SE and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,6 +14,7 @@
 package org.eclipse.jdt.ui.tests.hover;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
@@ -35,6 +36,9 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IField;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.IType;
@@ -47,6 +51,7 @@ import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 
 import org.eclipse.jdt.internal.ui.text.java.hover.JavadocBrowserInformationControlInput;
 import org.eclipse.jdt.internal.ui.text.java.hover.JavadocHover;
+import org.eclipse.jdt.internal.ui.text.javadoc.JavadocContentAccess2;
 
 public class JavadocHoverTests extends CoreTests {
 
@@ -140,4 +145,30 @@ public class JavadocHoverTests extends CoreTests {
 		// Should not throw ClassCastException
 		JavadocHover.getHoverInfo(elements, myEnumCu, new Region(range.getOffset(), range.getLength()), null);
 	}
+
+	@Test
+	public void testCachedContentUpdatedOnSave() throws Exception {
+		IPackageFragmentRoot sourceFolder= fJProject1.findPackageFragmentRoot(new Path("/TestSetupProject/src"));
+		IPackageFragment pack= sourceFolder.createPackageFragment("p", true, null);
+		String source=
+				"package p;\n" +
+				"public class Documented {\n" +
+				"  /**\n" +
+				"   * First version.\n" +
+				"   */\n" +
+				"  public void foo() {\n" +
+				"  }\n" +
+				"}\n";
+		ICompilationUnit cu= pack.createCompilationUnit("Documented.java", source, true, null);
+		IMethod method= cu.getType("Documented").getMethod("foo", new String[0]);
+
+		String content= JavadocContentAccess2.getHTMLContent(method, true);
+		assertTrue(content, content.contains("First version."));
+		assertSame(content, JavadocContentAccess2.getHTMLContent(method, true));
+
+		cu= pack.createCompilationUnit("Documented.java", source.replace("First", "Second"), true, null);
+		method= cu.getType("Documented").getMethod("foo", new String[0]);
+		content= JavadocContentAccess2.getHTMLContent(method, true);
+		assertTrue(content, content.contains("Second version."));
+	}
 }
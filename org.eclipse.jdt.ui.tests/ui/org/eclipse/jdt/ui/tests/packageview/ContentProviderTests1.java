@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,6 +19,8 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.Arrays;
+
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -53,6 +55,7 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerContentProvider;
 import org.eclipse.jdt.internal.ui.util.CoreUtility;
 import org.eclipse.jdt.internal.ui.wizards.buildpaths.CPListElement;
 
@@ -273,6 +276,30 @@ public class ContentProviderTests1 {
 		assertEquals("No refreshes", 0, fMyPart.getRefreshedObject().size()); //$NON-NLS-1$
 	}
 
+	@Test
+	public void testCoalesceRefreshes() throws Exception {
+		IElementChangedListener listener= (IElementChangedListener) fProvider;
+		IJavaElementDelta refreshDelta= TestDelta.createCUDelta(new ICompilationUnit[] { fCU2, fCU3 }, fPack6, IJavaElementDelta.REMOVED);
+		IJavaElementDelta removeDelta= TestDelta.createCUDelta(new ICompilationUnit[] { fCU2 }, fPack6, IJavaElementDelta.REMOVED);
+
+		// queue the updates while the viewer is busy
+		fMyPart.setViewerBusy(true);
+		try {
+			listener.elementChanged(new ElementChangedEvent(refreshDelta, ElementChangedEvent.POST_CHANGE));
+			listener.elementChanged(new ElementChangedEvent(refreshDelta, ElementChangedEvent.POST_CHANGE));
+			listener.elementChanged(new ElementChangedEvent(removeDelta, ElementChangedEvent.POST_CHANGE));
+			listener.elementChanged(new ElementChangedEvent(refreshDelta, ElementChangedEvent.POST_CHANGE));
+		} finally {
+			fMyPart.setViewerBusy(false);
+		}
+		((PackageExplorerContentProvider) fProvider).runPendingUpdates();
+
+		// the first two refreshes are merged, the last one stays behind the remove
+		assertEquals(Arrays.asList("refresh", "remove", "refresh"), fMyPart.getOperations());
+		assertEquals(Arrays.asList(fPack6, fPack6), fMyPart.getRefreshedObject());
+		assertEquals(Arrays.asList(fCU2), fMyPart.getRemovedObjects());
+	}
+
 	@Test
 	public void testBug65240() throws Exception {
 		IClasspathEntry[] rawClasspath= fJProject2.getRawClasspath();
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -47,6 +47,9 @@ public class MockPluginView extends PackageExplorerPart {
 
 	private final List<Object> fRefreshedObjects;
 	private final List<Object> fRemovedObjects;
+	private final List<String> fOperations;
+
+	private boolean fBusy;
 
 	private Object fAddedObject;
 	private Object fAddedParentObject;
@@ -58,6 +61,7 @@ public class MockPluginView extends PackageExplorerPart {
 		super();
 		fRefreshedObjects= new ArrayList<>();
 		fRemovedObjects= new ArrayList<>();
+		fOperations= new ArrayList<>();
 	}
 
 	/**
@@ -117,27 +121,36 @@ public class MockPluginView extends PackageExplorerPart {
 		public void refresh(Object object){
 			fRefreshHappened= true;
 			fRefreshedObjects.add(object);
+			fOperations.add("refresh");
 		}
 
 		@Override
 		public void refresh(final Object element, final boolean updateLabels) {
 			fRefreshHappened= true;
 			fRefreshedObjects.add(element);
+			fOperations.add("refresh");
 		}
 
 		@Override
 		public void remove(Object object) {
 			fRemoveHappened= true;
 			fRemovedObjects.add(object);
+			fOperations.add("remove");
 		}
 
 		@Override
 		public void add(Object parentObject, Object object){
+			fOperations.add("add");
 			fAddHappened= true;
 			fAddedObject= object;
 			fAddedParentObject= parentObject;
 		}
 
+		@Override
+		public boolean isBusy() {
+			return fBusy || super.isBusy();
+		}
+
 		@Override
 		public Widget[] testFindItems(Object element) {
 			return new Widget[1]; // for https://bugs.eclipse.org/311212
@@ -158,6 +171,24 @@ public class MockPluginView extends PackageExplorerPart {
 		return fRefreshedObjects;
 	}
 
+	/**
+	 * Returns the operations on the viewer in the order in which they happened.
+	 *
+	 * @return "refresh", "add" or "remove" for each operation
+	 */
+	public List<String> getOperations() {
+		return fOperations;
+	}
+
+	/**
+	 * Makes the viewer report that it is busy, so that updates are queued.
+	 *
+	 * @param busy <code>true</code> if the viewer is busy
+	 */
+	public void setViewerBusy(boolean busy) {
+		fBusy= busy;
+	}
+
 	/**
 	 * Returns the object added to the tree viewer
 	 * @return Object
@@ -220,6 +251,7 @@ public class MockPluginView extends PackageExplorerPart {
 	public void clear() {
 		fRefreshedObjects.clear();
 		fRemovedObjects.clear();
+		fOperations.clear();
 		fAddHappened= false;
 		fRemoveHappened= false;
 		fRefreshHappened= false;
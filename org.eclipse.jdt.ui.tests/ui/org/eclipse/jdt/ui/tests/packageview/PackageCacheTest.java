@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017, 2020 Simeon Andreev and others.
+ * Copyright (c) 2017, 2022 Simeon Andreev and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,12 +15,18 @@ package org.eclipse.jdt.ui.tests.packageview;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.After;
 import org.junit.Before;
@@ -28,13 +34,21 @@ import org.junit.Test;
 
 import org.eclipse.jdt.testplugin.JavaProjectHelper;
 
+import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
 
+import org.eclipse.core.resources.IFile;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IElementChangedListener;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
 
 import org.eclipse.jdt.internal.ui.packageview.PackageCache;
 
@@ -59,6 +73,10 @@ public class PackageCacheTest {
 
 	private PackageCache packageCache;
 
+	private PackageCache.PerRootCache perRootCache;
+
+	private IElementChangedListener deltaListener;
+
 
 	@Before
 	public void setUp() throws Exception {
@@ -80,10 +98,16 @@ public class PackageCacheTest {
 		package_f_g= src.createPackageFragment("f.g", force, monitor);
 
 		packageCache= new PackageCache(src);
+
+		// feed the deltas to the cache like the package explorer does
+		perRootCache= new PackageCache.PerRootCache();
+		deltaListener= event -> perRootCache.processDelta(event.getDelta());
+		JavaCore.addElementChangedListener(deltaListener, ElementChangedEvent.POST_CHANGE);
 	}
 
 	@After
 	public void tearDown() throws Exception {
+		JavaCore.removeElementChangedListener(deltaListener);
 		testProject.getProject().delete(true, false, new NullProgressMonitor());
 	}
 
@@ -112,6 +136,101 @@ public class PackageCacheTest {
 				expectedChildren, actualChildren);
 	}
 
+	@Test
+	public void testGetTopLevelPackages() throws Exception {
+		assertEquals("method returned wrong results",
+				Arrays.asList(package_a, package_f), packageCache.getTopLevelPackages());
+	}
+
+	@Test
+	public void testPackageAddedAndRemoved() throws Exception {
+		IProgressMonitor monitor= new NullProgressMonitor();
+		assertEquals("method returned wrong results",
+				Arrays.asList(package_a_b_c, package_a_b_e), packageCache.getDirectChildren(package_a_b));
+
+		IPackageFragment package_a_b_h= src.createPackageFragment("a.b.h", true, monitor);
+		packageCache.packageAdded(package_a_b_h);
+		assertEquals("wrong children after add",
+				Arrays.asList(package_a_b_c, package_a_b_e, package_a_b_h), packageCache.getDirectChildren(package_a_b));
+		assertEquals("wrong single child after add",
+				null, packageCache.getSingleChild(package_a_b));
+
+		package_a_b_c_d1.delete(true, monitor);
+		packageCache.packageRemoved(package_a_b_c_d1);
+		package_a_b_c_d2.delete(true, monitor);
+		packageCache.packageRemoved(package_a_b_c_d2);
+		assertEquals("wrong children after remove",
+				Collections.emptyList(), packageCache.getDirectChildren(package_a_b_c));
+	}
+
+	@Test
+	public void testDeltaPackageCreatedAndDeleted() throws Exception {
+		IProgressMonitor monitor= new NullProgressMonitor();
+		assertEquals("wrong top-level packages",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+		assertEquals("wrong children",
+				Arrays.asList(package_a_b_c, package_a_b_e), perRootCache.getDirectChildren(package_a_b));
+
+		IPackageFragment package_a_b_h= src.createPackageFragment("a.b.h", true, monitor);
+		IPackageFragment package_x= src.createPackageFragment("x", true, monitor);
+		assertEquals("wrong children after create",
+				Arrays.asList(package_a_b_c, package_a_b_e, package_a_b_h), perRootCache.getDirectChildren(package_a_b));
+		assertEquals("wrong top-level packages after create",
+				Arrays.asList(package_a, package_f, package_x), perRootCache.getTopLevelPackages(src));
+
+		package_a_b_c_d1.delete(true, monitor);
+		package_a_b_c_d2.delete(true, monitor);
+		package_x.delete(true, monitor);
+		assertEquals("wrong children after delete",
+				Collections.emptyList(), perRootCache.getDirectChildren(package_a_b_c));
+		assertEquals("wrong top-level packages after delete",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+	}
+
+	@Test
+	public void testDeltaClasspathChanged() throws Exception {
+		assertEquals("wrong top-level packages",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+		assertEquals("wrong children",
+				Arrays.asList(package_f_g), perRootCache.getDirectChildren(package_f));
+
+		setExclusionFilters(new IPath[] { new Path("f/") });
+		assertEquals("wrong top-level packages after excluding a package",
+				Arrays.asList(package_a), perRootCache.getTopLevelPackages(src));
+		assertEquals("wrong children after excluding a package",
+				Collections.emptyList(), perRootCache.getDirectChildren(package_f));
+
+		setExclusionFilters(new IPath[0]);
+		assertEquals("wrong top-level packages after including a package",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+		assertEquals("wrong children after including a package",
+				Arrays.asList(package_f_g), perRootCache.getDirectChildren(package_f));
+	}
+
+	@Test
+	public void testDeltaArchiveChanged() throws Exception {
+		IFile archive= testProject.getProject().getFile("lib.jar");
+		archive.create(new ByteArrayInputStream(createArchive("lib1/sub/A.class")), true, null);
+		IPackageFragmentRoot libRoot= JavaProjectHelper.addLibrary(testProject, archive.getFullPath());
+
+		List<IPackageFragment> topLevelPackages= perRootCache.getTopLevelPackages(libRoot);
+		assertEquals("wrong top-level packages",
+				Arrays.asList(libRoot.getPackageFragment("lib1")), topLevelPackages);
+		assertEquals("wrong children",
+				Arrays.asList(libRoot.getPackageFragment("lib1.sub")), perRootCache.getDirectChildren(topLevelPackages.get(0)));
+		// the packages of the source folder are not affected by the archive
+		assertEquals("wrong top-level packages of source folder",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+
+		archive.setContents(new ByteArrayInputStream(createArchive("lib1/other/B.class", "lib2/C.class")), true, false, null);
+		assertEquals("wrong top-level packages after archive change",
+				new HashSet<>(Arrays.asList(libRoot.getPackageFragment("lib1"), libRoot.getPackageFragment("lib2"))), new HashSet<>(perRootCache.getTopLevelPackages(libRoot)));
+		assertEquals("wrong children after archive change",
+				Arrays.asList(libRoot.getPackageFragment("lib1.other")), perRootCache.getDirectChildren(libRoot.getPackageFragment("lib1")));
+		assertEquals("wrong top-level packages of source folder after archive change",
+				Arrays.asList(package_a, package_f), perRootCache.getTopLevelPackages(src));
+	}
+
 	@Test
 	public void testGetSingleChild() throws Exception {
 		Map<IPackageFragment, IPackageFragment> actualSingleChildren= actualSingleChildren();
@@ -199,6 +318,27 @@ public class PackageCacheTest {
 		return new ArrayList<>(expectedSingleChildren.keySet());
 	}
 
+	private void setExclusionFilters(IPath[] exclusionFilters) throws Exception {
+		IClasspathEntry[] entries= testProject.getRawClasspath();
+		for (int i= 0; i < entries.length; i++) {
+			if (entries[i].getPath().equals(src.getPath())) {
+				entries[i]= JavaCore.newSourceEntry(src.getPath(), exclusionFilters);
+			}
+		}
+		testProject.setRawClasspath(entries, new NullProgressMonitor());
+	}
+
+	private static byte[] createArchive(String... entryNames) throws IOException {
+		ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		try (ZipOutputStream zip= new ZipOutputStream(bytes)) {
+			for (String entryName : entryNames) {
+				zip.putNextEntry(new ZipEntry(entryName));
+				zip.closeEntry();
+			}
+		}
+		return bytes.toByteArray();
+	}
+
 	private List<IPackageFragment> allPackages() {
 		return Arrays.asList(
 				package_a,
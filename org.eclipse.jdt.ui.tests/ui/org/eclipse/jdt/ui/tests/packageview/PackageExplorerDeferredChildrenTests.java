@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.ui.tests.packageview;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.jdt.testplugin.JavaProjectHelper;
+import org.eclipse.jdt.testplugin.util.DisplayHelper;
+
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.TreeItem;
+import org.eclipse.swt.widgets.Widget;
+
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.viewers.StructuredSelection;
+import org.eclipse.jface.viewers.TreeViewer;
+
+import org.eclipse.ui.IWorkbenchPage;
+import org.eclipse.ui.PlatformUI;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
+
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+
+import org.eclipse.jdt.ui.JavaUI;
+
+import org.eclipse.jdt.internal.ui.packageview.LibraryContainer;
+import org.eclipse.jdt.internal.ui.packageview.PackageExplorerPart;
+
+/**
+ * Tests the children of libraries that the Package Explorer computes in the background.
+ */
+public class PackageExplorerDeferredChildrenTests {
+
+	private IJavaProject fJProject;
+
+	private IPackageFragmentRoot fJarRoot;
+
+	private IWorkbenchPage fPage;
+
+	private PackageExplorerPart fPackageExplorer;
+
+	private TreeViewer fViewer;
+
+	@Before
+	public void setUp() throws Exception {
+		fJProject= JavaProjectHelper.createJavaProject("DeferredChildren", "bin");
+		fJarRoot= JavaProjectHelper.addRTJar(fJProject);
+		fPage= PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage();
+		fPackageExplorer= (PackageExplorerPart) fPage.showView(JavaUI.ID_PACKAGES);
+		fPackageExplorer.selectAndReveal(new StructuredSelection());
+		fViewer= fPackageExplorer.getTreeViewer();
+		fViewer.expandToLevel(fJProject, 1);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		fPage.hideView(fPackageExplorer);
+		JavaProjectHelper.delete(fJProject);
+	}
+
+	private List<Object> getItemData(Object parent) {
+		List<Object> data= new ArrayList<>();
+		Widget widget= fViewer.testFindItem(parent);
+		if (widget instanceof TreeItem) {
+			for (TreeItem item : ((TreeItem) widget).getItems()) {
+				data.add(item.getData());
+			}
+		}
+		return data;
+	}
+
+	private boolean waitForChildren(Object parent) {
+		return new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				List<Object> children= getItemData(parent);
+				return !children.isEmpty() && !(children.get(0) instanceof PendingUpdateAdapter);
+			}
+		}.waitForCondition(Display.getCurrent(), 10000);
+	}
+
+	@Test
+	public void testPlaceholderReplacedByChildren() throws Exception {
+		LibraryContainer container= new LibraryContainer(fJProject);
+		fViewer.setExpandedState(container, true);
+
+		List<Object> children= getItemData(container);
+		assertEquals(1, children.size());
+		assertTrue(children.get(0) instanceof PendingUpdateAdapter);
+
+		assertTrue("children not computed", waitForChildren(container));
+		assertEquals(Arrays.asList(fJarRoot), getItemData(container));
+	}
+
+	@Test
+	public void testRevealInDeferredContainer() throws Exception {
+		IPackageFragment pack= fJarRoot.getPackageFragment("java.lang");
+
+		// reveals through a container and an archive that have not been expanded yet
+		fPackageExplorer.selectAndReveal(new StructuredSelection(pack));
+		assertEquals(pack, ((IStructuredSelection) fViewer.getSelection()).getFirstElement());
+	}
+
+	@Test
+	public void testRevealWhilePending() throws Exception {
+		LibraryContainer container= new LibraryContainer(fJProject);
+		fViewer.setExpandedState(container, true);
+		assertTrue(getItemData(container).get(0) instanceof PendingUpdateAdapter);
+
+		// the placeholder is replaced right away
+		fPackageExplorer.selectAndReveal(new StructuredSelection(fJarRoot));
+		assertEquals(fJarRoot, ((IStructuredSelection) fViewer.getSelection()).getFirstElement());
+		assertEquals(Arrays.asList(fJarRoot), getItemData(container));
+
+		// the background computation does not bring the placeholder back
+		DisplayHelper.sleep(Display.getCurrent(), 500);
+		assertEquals(Arrays.asList(fJarRoot), getItemData(container));
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -52,6 +52,8 @@ import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.IProblem;
+import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 
 import org.eclipse.jdt.internal.core.manipulation.CodeTemplateContextType;
@@ -163,6 +165,98 @@ public class AssistQuickFixTest extends QuickFixTest {
 
 	}
 
+	@Test
+	public void testAssignToLocalTimeBudgetUsedUp() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    public void foo() {\n");
+		buf.append("        getClass();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		int offset= buf.toString().indexOf("getClass()");
+		AssistContext context= getCorrectionContext(cu, offset, 0);
+		context.getASTRoot();
+		context.setTimeBudget(1);
+		Thread.sleep(10);
+		List<IJavaCompletionProposal> proposals= collectAssists(context, false);
+
+		assertNumberOfProposals(proposals, 0);
+	}
+
+	/**
+	 * Creates a context whose first access to the AST takes the given time, like a wait for the
+	 * shared AST of a large file.
+	 */
+	private static AssistContext getSlowASTContext(ICompilationUnit cu, int offset, int length, long astTime) {
+		return new AssistContext(cu, offset, length) {
+			private boolean fWaited;
+
+			@Override
+			public CompilationUnit getASTRoot() {
+				if (!fWaited) {
+					fWaited= true;
+					try {
+						Thread.sleep(astTime);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return super.getASTRoot();
+			}
+		};
+	}
+
+	@Test
+	public void testAssignToLocalTimeBudgetStartsAfterAST() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    public void foo() {\n");
+		buf.append("        getClass();\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		int offset= buf.toString().indexOf("getClass()");
+		AssistContext context= getSlowASTContext(cu, offset, 0, 1500);
+		context.setTimeBudget(1000);
+		List<IJavaCompletionProposal> proposals= collectAssists(context, false);
+
+		assertNumberOfProposals(proposals, 2);
+	}
+
+	@Test
+	public void testQuickFixesIgnoreTimeBudget() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    public void foo() {\n");
+		buf.append("        Vector v= null;\n");
+		buf.append("    }\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		CompilationUnit astRoot= getASTRoot(cu);
+		IProblem[] problems= astRoot.getProblems();
+		assertNumberOfProblems(1, problems);
+		int offset= problems[0].getSourceStart();
+		int length= problems[0].getSourceEnd() + 1 - offset;
+		List<IJavaCompletionProposal> expected= collectCorrections(cu, astRoot, 1, getCorrectionContext(cu, offset, length));
+
+		AssistContext context= getSlowASTContext(cu, offset, length, 100);
+		context.setTimeBudget(1);
+		List<IJavaCompletionProposal> proposals= collectCorrections(cu, astRoot, 1, context);
+
+		assertFalse(expected.isEmpty());
+		assertNumberOfProposals(proposals, expected.size());
+	}
+
 	@Test
 	public void testAssignToLocal2() throws Exception {
 		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
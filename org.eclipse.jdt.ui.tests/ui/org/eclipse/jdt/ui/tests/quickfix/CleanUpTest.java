@@ -26,10 +26,12 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Map;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -42,6 +44,8 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 
+import org.eclipse.ltk.core.refactoring.Change;
+import org.eclipse.ltk.core.refactoring.CompositeChange;
 import org.eclipse.ltk.core.refactoring.RefactoringStatus;
 import org.eclipse.ltk.core.refactoring.RefactoringStatusEntry;
 
@@ -58,9 +62,11 @@ import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.formatter.DefaultCodeFormatterConstants;
 import org.eclipse.jdt.core.manipulation.CleanUpOptionsCore;
+import org.eclipse.jdt.core.refactoring.CompilationUnitChange;
 
 import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
 import org.eclipse.jdt.internal.corext.fix.CleanUpConstants;
+import org.eclipse.jdt.internal.corext.fix.CleanUpRefactoring;
 import org.eclipse.jdt.internal.corext.fix.FixMessages;
 import org.eclipse.jdt.internal.corext.fix.UpdateProperty;
 import org.eclipse.jdt.internal.corext.refactoring.util.RefactoringASTParser;
@@ -68,6 +74,7 @@ import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.cleanup.CleanUpOptions;
+import org.eclipse.jdt.ui.cleanup.ICleanUp;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 import org.eclipse.jdt.ui.tests.core.rules.Java13ProjectTestSetup;
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
@@ -80,6 +87,7 @@ import org.eclipse.jdt.internal.ui.fix.PlainReplacementCleanUpCore;
 import org.eclipse.jdt.internal.ui.fix.PrimitiveRatherThanWrapperCleanUpCore;
 import org.eclipse.jdt.internal.ui.fix.RedundantModifiersCleanUp;
 import org.eclipse.jdt.internal.ui.fix.UnimplementedCodeCleanUp;
+import org.eclipse.jdt.internal.ui.fix.UnusedCodeCleanUp;
 import org.eclipse.jdt.internal.ui.text.correction.ProblemLocation;
 
 public class CleanUpTest extends CleanUpTestCase {
@@ -374,6 +382,115 @@ public class CleanUpTest extends CleanUpTestCase {
 		assertRefactoringResultAsExpected(new ICompilationUnit[] {cu1, cu2, cu3}, new String[] {expected1, expected2, expected3}, null);
 	}
 
+	/**
+	 * Records the threads in which it creates its fixes.
+	 */
+	private static class ThreadRecordingCleanUp extends UnusedCodeCleanUp {
+
+		private final boolean fThreadSafe;
+
+		final Set<Thread> fThreads= Collections.synchronizedSet(new HashSet<>());
+
+		ThreadRecordingCleanUp(boolean threadSafe) {
+			fThreadSafe= threadSafe;
+		}
+
+		@Override
+		protected ICleanUpFix createFix(CompilationUnit compilationUnit) throws CoreException {
+			fThreads.add(Thread.currentThread());
+			return super.createFix(compilationUnit);
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return fThreadSafe;
+		}
+	}
+
+	private ICompilationUnit[] createUnusedImportsUnits(String[] expected) throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		ICompilationUnit[] cus= new ICompilationUnit[expected.length];
+		for (int i= 0; i < cus.length; i++) {
+			String sample= "" //
+					+ "package test1;\n" //
+					+ "import java.util.ArrayList;\n" //
+					+ "import java.util.HashMap;\n" //
+					+ "public class E" + i + " {\n" //
+					+ "}\n";
+			cus[i]= pack1.createCompilationUnit("E" + i + ".java", sample, false, null);
+
+			sample= "" //
+					+ "package test1;\n" //
+					+ "public class E" + i + " {\n" //
+					+ "}\n";
+			expected[i]= sample;
+		}
+		return cus;
+	}
+
+	@Test
+	public void testUnusedCodeInParallel() throws Exception {
+		String[] expected= new String[8];
+		ICompilationUnit[] cus= createUnusedImportsUnits(expected);
+
+		enable(CleanUpConstants.REMOVE_UNUSED_CODE_IMPORTS);
+
+		CleanUpRefactoring ref= new CleanUpRefactoring();
+		ref.setUseOptionsFromProfile(true);
+		ref.setParallelism(4);
+		ThreadRecordingCleanUp cleanUp= new ThreadRecordingCleanUp(true);
+		performRefactoring(ref, cus, new ICleanUp[] { cleanUp }, null);
+
+		for (int i= 0; i < cus.length; i++) {
+			assertEquals(expected[i], cus[i].getBuffer().getContents());
+		}
+		assertFalse(cleanUp.fThreads.contains(Thread.currentThread()));
+
+		Change[] children= ((CompositeChange) ref.createChange(null)).getChildren();
+		assertEquals(cus.length, children.length);
+		for (int i= 0; i < cus.length; i++) {
+			assertEquals(cus[i], ((CompilationUnitChange) children[i]).getCompilationUnit());
+		}
+	}
+
+	@Test
+	public void testNotThreadSafeCleanUpNotInParallel() throws Exception {
+		String[] expected= new String[8];
+		ICompilationUnit[] cus= createUnusedImportsUnits(expected);
+
+		enable(CleanUpConstants.REMOVE_UNUSED_CODE_IMPORTS);
+
+		CleanUpRefactoring ref= new CleanUpRefactoring();
+		ref.setUseOptionsFromProfile(true);
+		ref.setParallelism(4);
+		ThreadRecordingCleanUp cleanUp= new ThreadRecordingCleanUp(false);
+		performRefactoring(ref, cus, new ICleanUp[] { new ThreadRecordingCleanUp(true), cleanUp }, null);
+
+		for (int i= 0; i < cus.length; i++) {
+			assertEquals(expected[i], cus[i].getBuffer().getContents());
+		}
+		assertEquals(Collections.singleton(Thread.currentThread()), cleanUp.fThreads);
+	}
+
+	@Test
+	public void testDisabledCleanUpInParallel() throws Exception {
+		String[] expected= new String[8];
+		ICompilationUnit[] cus= createUnusedImportsUnits(expected);
+
+		enable(CleanUpConstants.REMOVE_UNUSED_CODE_IMPORTS);
+
+		CleanUpRefactoring ref= new CleanUpRefactoring();
+		ref.setUseOptionsFromProfile(true);
+		ref.setParallelism(4);
+		ThreadRecordingCleanUp cleanUp= new ThreadRecordingCleanUp(true);
+		performRefactoring(ref, cus, new ICleanUp[] { cleanUp, new RedundantModifiersCleanUp() }, null);
+
+		for (int i= 0; i < cus.length; i++) {
+			assertEquals(expected[i], cus[i].getBuffer().getContents());
+		}
+		assertFalse(cleanUp.fThreads.contains(Thread.currentThread()));
+	}
+
 	@Test
 	public void testUnusedCode02() throws Exception {
 		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,6 +16,10 @@
  *******************************************************************************/
 package org.eclipse.jdt.ui.tests.quickfix;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
 import java.util.ArrayList;
 import java.util.Hashtable;
 
@@ -43,9 +47,11 @@ import org.eclipse.jdt.internal.core.manipulation.StubUtility;
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.tests.core.rules.ProjectTestSetup;
 import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
+import org.eclipse.jdt.ui.text.java.correction.ASTRewriteCorrectionProposal;
 import org.eclipse.jdt.ui.text.java.correction.CUCorrectionProposal;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.correction.IProposalRelevance;
 
 public class UnresolvedMethodsQuickFixTest extends QuickFixTest {
 
@@ -5635,6 +5641,72 @@ public class UnresolvedMethodsQuickFixTest extends QuickFixTest {
 		}
 	}
 
+	@Test
+	public void testStaticImportFavoriteCreatedOnPreview() throws Exception {
+		IPreferenceStore preferenceStore= PreferenceConstants.getPreferenceStore();
+		preferenceStore.setValue(PreferenceConstants.CODEASSIST_FAVORITE_STATIC_MEMBERS, "java.lang.Math.max;java.lang.StrictMath.max");
+		try {
+			IPackageFragment pack1= fSourceFolder.createPackageFragment("pack", false, null);
+			StringBuilder buf= new StringBuilder();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("public class E {\n");
+			buf.append("    private int foo() {\n");
+			buf.append("        return max(1, 2);\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+			CompilationUnit astRoot= getASTRoot(cu);
+			ArrayList<IJavaCompletionProposal> proposals= collectCorrections(cu, astRoot);
+
+			assertCorrectLabels(proposals);
+
+			ArrayList<ASTRewriteCorrectionProposal> importProposals= new ArrayList<>();
+			for (IJavaCompletionProposal curr : proposals) {
+				if (curr instanceof ASTRewriteCorrectionProposal && curr.getRelevance() == IProposalRelevance.ADD_STATIC_IMPORT) {
+					importProposals.add((ASTRewriteCorrectionProposal) curr);
+				}
+			}
+			assertEquals(2, importProposals.size());
+			for (ASTRewriteCorrectionProposal proposal : importProposals) {
+				assertNull(proposal.getImportRewrite());
+			}
+
+			String[] expected= new String[2];
+			buf= new StringBuilder();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("import static java.lang.Math.max;\n");
+			buf.append("\n");
+			buf.append("public class E {\n");
+			buf.append("    private int foo() {\n");
+			buf.append("        return max(1, 2);\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			expected[0]= buf.toString();
+
+			buf= new StringBuilder();
+			buf.append("package pack;\n");
+			buf.append("\n");
+			buf.append("import static java.lang.StrictMath.max;\n");
+			buf.append("\n");
+			buf.append("public class E {\n");
+			buf.append("    private int foo() {\n");
+			buf.append("        return max(1, 2);\n");
+			buf.append("    }\n");
+			buf.append("}\n");
+			expected[1]= buf.toString();
+
+			assertExpectedExistInProposals(proposals, expected);
+			for (ASTRewriteCorrectionProposal proposal : importProposals) {
+				assertNotNull(proposal.getImportRewrite());
+			}
+		} finally {
+			preferenceStore.setValue(PreferenceConstants.CODEASSIST_FAVORITE_STATIC_MEMBERS, "");
+		}
+	}
+
 
 	/**
 	 * Visibility: fix for public or protected not appropriate.
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -15,6 +15,9 @@
 package org.eclipse.jdt.ui.tests.quickfix;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import java.util.ArrayList;
 import java.util.Hashtable;
@@ -50,6 +53,7 @@ import org.eclipse.jdt.ui.text.java.IJavaCompletionProposal;
 import org.eclipse.jdt.ui.text.java.correction.CUCorrectionProposal;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.text.correction.proposals.AddImportCorrectionProposal;
 
 public class UnresolvedTypesQuickFixTest extends QuickFixTest {
 
@@ -144,6 +148,42 @@ public class UnresolvedTypesQuickFixTest extends QuickFixTest {
 
 	}
 
+	@Test
+	public void testTypeImportCreatedOnPreview() throws Exception {
+		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
+		StringBuilder buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("public class E {\n");
+		buf.append("    Vector vec;\n");
+		buf.append("}\n");
+		ICompilationUnit cu= pack1.createCompilationUnit("E.java", buf.toString(), false, null);
+
+		CompilationUnit astRoot= getASTRoot(cu);
+		ArrayList<IJavaCompletionProposal> proposals= collectCorrections(cu, astRoot);
+		assertCorrectLabels(proposals);
+
+		AddImportCorrectionProposal proposal= null;
+		for (IJavaCompletionProposal curr : proposals) {
+			if (curr instanceof AddImportCorrectionProposal && "java.util.Vector".equals(((AddImportCorrectionProposal) curr).getQualifiedTypeName())) {
+				proposal= (AddImportCorrectionProposal) curr;
+			}
+		}
+		assertNotNull(proposal);
+		assertNull(proposal.getImportRewrite());
+
+		buf= new StringBuilder();
+		buf.append("package test1;\n");
+		buf.append("\n");
+		buf.append("import java.util.Vector;\n");
+		buf.append("\n");
+		buf.append("public class E {\n");
+		buf.append("    Vector vec;\n");
+		buf.append("}\n");
+		assertEqualString(getPreviewContent(proposal), buf.toString());
+		assertNotNull(proposal.getImportRewrite());
+		assertSame(proposal.getChange(), proposal.getChange());
+	}
+
 	@Test
 	public void testTypeInMethodArguments() throws Exception {
 		IPackageFragment pack1= fSourceFolder.createPackageFragment("test1", false, null);
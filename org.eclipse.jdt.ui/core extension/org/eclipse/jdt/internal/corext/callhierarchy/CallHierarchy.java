@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -17,9 +17,14 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.callhierarchy;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
 import org.eclipse.jface.preference.IPreferenceStore;
 
 import org.eclipse.jdt.core.IJavaElement;
@@ -102,6 +107,43 @@ public class CallHierarchy {
         return CallHierarchyCore.getCallLocation(element);
     }
 
+    /**
+     * Computes the calls of all given method wrappers, searching them in parallel.
+     *
+     * @param wrappers the method wrappers
+     * @param monitor the progress monitor, may be <code>null</code>
+     * @return the calls of each method wrapper, in the order of the given wrappers
+     * @see CallHierarchyCore#getCalls(MethodWrapper[], org.eclipse.core.runtime.IProgressMonitor)
+     */
+    public MethodWrapper[][] getCalls(MethodWrapper[] wrappers, IProgressMonitor monitor) {
+        return fgCallHierarchyCore.getCalls(wrappers, monitor);
+    }
+
+    /**
+     * Clears the session-wide cache of callers.
+     */
+    public void clearCache() {
+        fgCallHierarchyCore.clearCache();
+    }
+
+    /**
+     * Computes the call graph of the methods of the given elements in one batch and writes it as
+     * an edge list.
+     *
+     * @param elements the methods, types, compilation units, packages, package fragment roots or
+     *            projects whose methods are exported
+     * @param callers whether the callers of the methods are exported
+     * @param callees whether the callees of the methods are exported
+     * @param writer the writer the edge list is written to
+     * @param monitor the progress monitor, may be <code>null</code>
+     * @throws CoreException if the search fails
+     * @throws IOException if writing fails
+     * @see CallHierarchyCore#exportCallGraph(IJavaElement[], boolean, boolean, Writer, IProgressMonitor)
+     */
+    public void exportCallGraph(IJavaElement[] elements, boolean callers, boolean callees, Writer writer, IProgressMonitor monitor) throws CoreException, IOException {
+        fgCallHierarchyCore.exportCallGraph(elements, callers, callees, writer, monitor);
+    }
+
     public IJavaSearchScope getSearchScope() {
         return fgCallHierarchyCore.getSearchScope();
     }
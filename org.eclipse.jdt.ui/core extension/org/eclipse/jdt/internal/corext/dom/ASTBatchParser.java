@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2016 IBM Corporation and others.
+ * Copyright (c) 2007, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,41 +13,73 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.dom;
 
+import java.net.URI;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Hashtable;
-import java.util.List;
 
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
+import org.eclipse.core.resources.IResource;
+
+import org.eclipse.jdt.core.IBuffer;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.IBinding;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 /**
  * Creates AST from a set of compilation units. Uses the
  * batch parser. Splits the set of compilation units in subsets
  * such that it is unlikely that a out of memory exception will occur.
+ * <p>
+ * The size of each subset is computed right before it is parsed, from the
+ * length of the sources in the subset and the heap that is currently
+ * available. Parsers that run concurrently share the available heap: the
+ * heap estimated for a subset is reserved while it is parsed and is not
+ * offered to other parsers.
+ * </p>
  *
  * @since 3.4
  */
 public class ASTBatchParser {
 
-	private static final int MAX_AT_ONCE;
-	static {
-		long maxMemory= Runtime.getRuntime().maxMemory() / (1 << 20); // in MiB
+	/**
+	 * The maximal number of compilation units parsed in one batch.
+	 */
+	private static final int MAX_AT_ONCE= 400;
 
-		if      (maxMemory >= 2000) MAX_AT_ONCE= 400;
-		else if (maxMemory >= 1500) MAX_AT_ONCE= 300;
-		else if (maxMemory >= 1000) MAX_AT_ONCE= 200;
-		else if (maxMemory >=  500) MAX_AT_ONCE= 100;
-		else                        MAX_AT_ONCE=  25;
-	}
+	/**
+	 * Estimated number of heap bytes needed per byte of source while an AST with
+	 * bindings is created and held by the requestor.
+	 */
+	private static final int HEAP_BYTES_PER_SOURCE_BYTE= 100;
+
+	/**
+	 * Part of the heap headroom that a batch may use.
+	 */
+	private static final double HEAP_SHARE= 0.5;
+
+	/**
+	 * Source length assumed for compilation units whose length cannot be determined.
+	 */
+	private static final long DEFAULT_SOURCE_LENGTH= 16 * 1024;
+
+	/**
+	 * Heap bytes reserved by the batches that are currently parsed, by all parsers.
+	 * Guarded by <code>ASTBatchParser.class</code>.
+	 */
+	private static long fgReservedHeap= 0;
 
 	/**
 	 * Creates ASTs for each compilation unit in <code>units</code>.
@@ -76,22 +108,25 @@ public class ASTBatchParser {
 
 		monitor.beginTask("", compilationUnits.length); //$NON-NLS-1$
 		try {
-
 			for (ICompilationUnit[] units : splitByProject(compilationUnits)) {
-				if (units.length <= MAX_AT_ONCE) {
-					createParser(units[0].getJavaProject()).createASTs(units, bindingKeys, requestor, new SubProgressMonitor(monitor, units.length));
-				} else {
-					List<ICompilationUnit> list= Arrays.asList(units);
-					int end= 0;
-					int cursor= 0;
-					while (cursor < units.length) {
-						end= Math.min(end + MAX_AT_ONCE, units.length);
-						List<ICompilationUnit> toParse= list.subList(cursor, end);
-
-						createParser(units[0].getJavaProject()).createASTs(toParse.toArray(new ICompilationUnit[toParse.size()]), bindingKeys, requestor,
-							new SubProgressMonitor(monitor, toParse.size()));
-						cursor= end;
+				long[] sourceLengths= getSourceLengths(units);
+				int cursor= 0;
+				while (cursor < units.length) {
+					int end;
+					long reserved;
+					synchronized (ASTBatchParser.class) {
+						end= nextBatchEnd(sourceLengths, cursor);
+						reserved= getSourceLength(sourceLengths, cursor, end) * HEAP_BYTES_PER_SOURCE_BYTE;
+						fgReservedHeap+= reserved;
 					}
+					try {
+						parseBatch(units, sourceLengths, cursor, end, bindingKeys, requestor, new SubProgressMonitor(monitor, end - cursor));
+					} finally {
+						synchronized (ASTBatchParser.class) {
+							fgReservedHeap-= reserved;
+						}
+					}
+					cursor= end;
 				}
 			}
 		} finally {
@@ -99,6 +134,115 @@ public class ASTBatchParser {
 		}
 	}
 
+	private void parseBatch(ICompilationUnit[] units, long[] sourceLengths, int start, int end, String[] bindingKeys, ASTRequestor requestor, IProgressMonitor monitor) {
+		ICompilationUnit[] toParse= new ICompilationUnit[end - start];
+		System.arraycopy(units, start, toParse, 0, toParse.length);
+		long sourceLength= getSourceLength(sourceLengths, start, end);
+
+		long startTime= System.nanoTime();
+		createParser(units[0].getJavaProject()).createASTs(toParse, bindingKeys, requestor, monitor);
+		batchParsed(units[0].getJavaProject(), toParse.length, sourceLength, (System.nanoTime() - startTime) / 1000000);
+	}
+
+	/**
+	 * Returns the index after the last unit of the batch starting at <code>start</code>.
+	 * The batch contains at least one unit, and as many units as the current heap
+	 * headroom allows for their source length. Heap that is reserved by batches of
+	 * other parsers is not part of the headroom.
+	 * <p>
+	 * Must be called while holding the lock on <code>ASTBatchParser.class</code>.
+	 * </p>
+	 *
+	 * @param sourceLengths the source lengths of the units of one project
+	 * @param start the index of the first unit in the batch
+	 * @return the exclusive end index of the batch
+	 */
+	private static int nextBatchEnd(long[] sourceLengths, int start) {
+		long headroom= Math.max(0, getHeapHeadroom() - fgReservedHeap);
+		long budget= (long) (headroom * HEAP_SHARE) / HEAP_BYTES_PER_SOURCE_BYTE;
+		int end= start + 1;
+		long sourceLength= sourceLengths[start];
+		while (end < sourceLengths.length && end - start < MAX_AT_ONCE) {
+			sourceLength+= sourceLengths[end];
+			if (sourceLength > budget)
+				break;
+			end++;
+		}
+		return end;
+	}
+
+	private static long getHeapHeadroom() {
+		Runtime runtime= Runtime.getRuntime();
+		long used= runtime.totalMemory() - runtime.freeMemory();
+		return Math.max(0, runtime.maxMemory() - used);
+	}
+
+	private static long getSourceLength(long[] sourceLengths, int start, int end) {
+		long result= 0;
+		for (int i= start; i < end; i++) {
+			result+= sourceLengths[i];
+		}
+		return result;
+	}
+
+	private static long[] getSourceLengths(ICompilationUnit[] units) {
+		long[] result= new long[units.length];
+		for (int i= 0; i < units.length; i++) {
+			result[i]= getSourceLength(units[i]);
+		}
+		return result;
+	}
+
+	private static long getSourceLength(ICompilationUnit unit) {
+		if (unit.isWorkingCopy()) {
+			// the contents may differ from the file, and the buffer is open already
+			try {
+				IBuffer buffer= unit.getBuffer();
+				if (buffer != null)
+					return buffer.getLength();
+			} catch (JavaModelException e) {
+				// use the default length
+			}
+			return DEFAULT_SOURCE_LENGTH;
+		}
+		IResource resource= unit.getResource();
+		if (resource != null) {
+			URI location= resource.getLocationURI();
+			if (location != null) {
+				try {
+					IFileInfo info= EFS.getStore(location).fetchInfo();
+					if (info.exists())
+						return info.getLength();
+				} catch (CoreException e) {
+					// use the default length
+				}
+			}
+		}
+		return DEFAULT_SOURCE_LENGTH;
+	}
+
+	/**
+	 * Called after a batch of compilation units has been parsed and the ASTs have been
+	 * passed to the requestor. Reports the batch if the <code>org.eclipse.jdt.ui/debug/ASTBatchParser</code>
+	 * debug option is set.
+	 * <p>
+	 * Subclasses may extend.
+	 * </p>
+	 *
+	 * @param project the project of the compilation units in the batch
+	 * @param unitCount the number of compilation units in the batch
+	 * @param sourceLength the total length of the sources in the batch, in bytes
+	 * @param elapsedMillis the time spent to parse the batch and to process its ASTs
+	 * @since 3.26
+	 */
+	protected void batchParsed(IJavaProject project, int unitCount, long sourceLength, long elapsedMillis) {
+		if (JavaPlugin.DEBUG_AST_BATCH_PARSER) {
+			long unitsPerSecond= elapsedMillis == 0 ? unitCount * 1000L : unitCount * 1000L / elapsedMillis;
+			System.out.println("ASTBatchParser - " + project.getElementName() + ": " + unitCount + " units, " + sourceLength / 1024 + " KiB in " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+					+ elapsedMillis + " ms (" + unitsPerSecond + " units/s), heap headroom " + getHeapHeadroom() / (1 << 20) + " MiB"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
 	/**
 	 * Creates a new parser which can be used to create ASTs
 	 * for compilation units in <code>project</code>
@@ -153,4 +297,4 @@ public class ASTBatchParser {
 
 		return true;
 	}
-}
\ No newline at end of file
+}
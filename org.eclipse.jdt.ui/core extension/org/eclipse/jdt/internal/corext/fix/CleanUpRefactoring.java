@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,9 +16,15 @@ package org.eclipse.jdt.internal.corext.fix;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -27,6 +33,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
@@ -88,6 +95,7 @@ import org.eclipse.jdt.ui.text.java.IProblemLocation;
 
 import org.eclipse.jdt.internal.ui.IJavaStatusConstants;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
+import org.eclipse.jdt.internal.ui.fix.AbstractCleanUp;
 import org.eclipse.jdt.internal.ui.fix.IMultiFix.MultiFixContext;
 import org.eclipse.jdt.internal.ui.fix.MapCleanUpOptions;
 import org.eclipse.jdt.internal.ui.refactoring.IScheduledRefactoring;
@@ -205,13 +213,21 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	private final static class CleanUpRefactoringProgressMonitor extends SubProgressMonitor {
 
 		private double fRealWork;
-		private int fFlushCount;
+		private final AtomicInteger fFlushCount;
 		private final int fSize;
 		private final int fIndex;
 
 		private CleanUpRefactoringProgressMonitor(IProgressMonitor monitor, int ticks, int size, int index) {
+			this(monitor, ticks, size, index, new AtomicInteger());
+		}
+
+		/*
+		 * Monitors of parallel workers share the flush count so that the
+		 * reported index covers the units processed by all workers.
+		 */
+		private CleanUpRefactoringProgressMonitor(IProgressMonitor monitor, int ticks, int size, int index, AtomicInteger flushCount) {
 			super(monitor, ticks);
-			fFlushCount= 0;
+			fFlushCount= flushCount;
 			fSize= size;
 			fIndex= index;
 		}
@@ -224,7 +240,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		public void flush() {
 			super.internalWorked(fRealWork);
 			reset();
-			fFlushCount++;
+			fFlushCount.incrementAndGet();
 		}
 
 		public void reset() {
@@ -235,7 +251,7 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		public void done() {}
 
 		public int getIndex() {
-			return fIndex + fFlushCount;
+			return fIndex + fFlushCount.get();
 		}
 
 		public String getSubTaskMessage(ICompilationUnit source) {
@@ -244,6 +260,46 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		}
 	}
 
+	/**
+	 * Serializes the access of parallel workers to the progress monitor of the refactoring.
+	 */
+	private static final class SynchronizedProgressMonitor extends ProgressMonitorWrapper {
+
+		private SynchronizedProgressMonitor(IProgressMonitor monitor) {
+			super(monitor);
+		}
+
+		@Override
+		public synchronized void beginTask(String name, int totalWork) {
+			super.beginTask(name, totalWork);
+		}
+
+		@Override
+		public synchronized void done() {
+			super.done();
+		}
+
+		@Override
+		public synchronized void internalWorked(double work) {
+			super.internalWorked(work);
+		}
+
+		@Override
+		public synchronized void setTaskName(String name) {
+			super.setTaskName(name);
+		}
+
+		@Override
+		public synchronized void subTask(String name) {
+			super.subTask(name);
+		}
+
+		@Override
+		public synchronized void worked(int work) {
+			super.worked(work);
+		}
+	}
+
 	private static class CleanUpASTRequestor extends ASTRequestor {
 
 		private final List<ParseListElement> fUndoneElements;
@@ -327,17 +383,22 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		private List<ParseListElement> fParseList;
 		private final Hashtable<ICompilationUnit, List<CleanUpChange>> fSolutions;
 		private final Hashtable<ICompilationUnit, ICompilationUnit> fWorkingCopies; // map from primary to working copy
+		private final LinkedHashSet<ICompilationUnit> fTargetOrder;
 		private final Map<String, String> fCleanUpOptions;
+		private final ExecutorService fExecutor;
 		private final int fSize;
 		private int fIndex;
 
-		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps) {
+		public CleanUpFixpointIterator(CleanUpTarget[] targets, ICleanUp[] cleanUps, ExecutorService executor) {
 			fSolutions= new Hashtable<>(targets.length);
 			fWorkingCopies= new Hashtable<>();
+			fTargetOrder= new LinkedHashSet<>(targets.length);
+			fExecutor= executor;
 
 			fParseList= new ArrayList<>(targets.length);
 			for (CleanUpTarget target : targets) {
 				fParseList.add(new ParseListElement(target, cleanUps));
+				fTargetOrder.add(target.getCompilationUnit().getPrimary());
 			}
 
 			fCleanUpOptions= new Hashtable<>();
@@ -379,24 +440,17 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 					}
 				}
 
+				if (fExecutor != null && parseList.size() > 1) {
+					nextParallel(parseList, sourceList, monitor);
+					return;
+				}
+
 				CleanUpRefactoringProgressMonitor cuMonitor= new CleanUpRefactoringProgressMonitor(monitor, parseList.size() + sourceList.size(), fSize, fIndex);
 				CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, cuMonitor);
 				if (parseList.size() > 0) {
-					ASTBatchParser parser= new ASTBatchParser() {
-						@Override
-						protected ASTParser createParser(IJavaProject project) {
-							ASTParser result= createCleanUpASTParser();
-							result.setProject(project);
-
-							Map<String, String> options= RefactoringASTParser.getCompilerOptions(project);
-							options.putAll(fCleanUpOptions);
-							result.setCompilerOptions(options);
-							return result;
-						}
-					};
 					try {
 						ICompilationUnit[] units= parseList.toArray(new ICompilationUnit[parseList.size()]);
-						parser.createASTs(units, new String[0], requestor, cuMonitor);
+						createBatchParser().createASTs(units, new String[0], requestor, cuMonitor);
 					} catch (FixCalculationException e) {
 						throw e.getException();
 					}
@@ -417,6 +471,91 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 			}
 		}
 
+		/*
+		 * Splits the units to parse into one slice per worker. Each slice is parsed and fixed
+		 * by its own batch parser and requestor; the undone elements are collected in slice
+		 * order so that the next iteration sees the same order as a sequential run.
+		 */
+		private void nextParallel(List<ICompilationUnit> parseList, List<ICompilationUnit> sourceList, IProgressMonitor monitor) throws CoreException {
+			int sliceCount= Math.min(fParallelism, parseList.size());
+			int ticks= parseList.size() + sourceList.size();
+
+			IProgressMonitor synchronizedMonitor= new SynchronizedProgressMonitor(monitor);
+			AtomicInteger flushCount= new AtomicInteger();
+
+			List<CleanUpASTRequestor> requestors= new ArrayList<>(sliceCount);
+			List<Future<?>> futures= new ArrayList<>(sliceCount);
+			int cursor= 0;
+			for (int i= 0; i < sliceCount; i++) {
+				int end= cursor + (parseList.size() - cursor) / (sliceCount - i);
+				List<ICompilationUnit> slice= parseList.subList(cursor, end);
+				cursor= end;
+
+				CleanUpRefactoringProgressMonitor sliceMonitor= new CleanUpRefactoringProgressMonitor(synchronizedMonitor, slice.size(), fSize, fIndex, flushCount);
+				CleanUpASTRequestor requestor= new CleanUpASTRequestor(fParseList, fSolutions, sliceMonitor);
+				requestors.add(requestor);
+
+				ICompilationUnit[] units= slice.toArray(new ICompilationUnit[slice.size()]);
+				futures.add(fExecutor.submit(() -> createBatchParser().createASTs(units, new String[0], requestor, sliceMonitor)));
+			}
+
+			try {
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			} catch (InterruptedException e) {
+				throw new OperationCanceledException();
+			} catch (ExecutionException e) {
+				Throwable cause= e.getCause();
+				if (cause instanceof FixCalculationException)
+					throw ((FixCalculationException) cause).getException();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new CoreException(new Status(IStatus.ERROR, JavaPlugin.getPluginId(), IJavaStatusConstants.INTERNAL_ERROR, cause.getMessage(), cause));
+			} finally {
+				for (Future<?> future : futures) {
+					future.cancel(true);
+				}
+			}
+
+			CleanUpRefactoringProgressMonitor sourceMonitor= new CleanUpRefactoringProgressMonitor(synchronizedMonitor, ticks - parseList.size(), fSize, fIndex, flushCount);
+			CleanUpASTRequestor sourceRequestor= new CleanUpASTRequestor(fParseList, fSolutions, sourceMonitor);
+			for (ICompilationUnit cu : sourceList) {
+				monitor.worked(1);
+
+				sourceRequestor.acceptSource(cu);
+
+				if (monitor.isCanceled())
+					throw new OperationCanceledException();
+			}
+
+			List<ParseListElement> undoneElements= new ArrayList<>();
+			for (CleanUpASTRequestor requestor : requestors) {
+				undoneElements.addAll(requestor.getUndoneElements());
+			}
+			undoneElements.addAll(sourceRequestor.getUndoneElements());
+
+			fParseList= undoneElements;
+			fIndex= sourceMonitor.getIndex();
+		}
+
+		private ASTBatchParser createBatchParser() {
+			return new ASTBatchParser() {
+				@Override
+				protected ASTParser createParser(IJavaProject project) {
+					ASTParser result= createCleanUpASTParser();
+					result.setProject(project);
+
+					Map<String, String> options= RefactoringASTParser.getCompilerOptions(project);
+					options.putAll(fCleanUpOptions);
+					result.setCompilerOptions(options);
+					return result;
+				}
+			};
+		}
+
 		public void dispose() {
 			for (ICompilationUnit cu : fWorkingCopies.values()) {
 				try {
@@ -441,9 +580,11 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 
 			Change[] result= new Change[fSolutions.size()];
 			int i=0;
-			for (Entry<ICompilationUnit, List<CleanUpChange>> entry : fSolutions.entrySet()) {
-				List<CleanUpChange> changes= entry.getValue();
-				ICompilationUnit unit= entry.getKey();
+			// report the changes in the order of the targets, independent of the order in which the units were processed
+			for (ICompilationUnit unit : fTargetOrder) {
+				List<CleanUpChange> changes= fSolutions.get(unit);
+				if (changes == null)
+					continue;
 
 				int saveMode;
 				if (fLeaveFilesDirty) {
@@ -501,6 +642,15 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	 */
 	private static final int SLOW_CLEAN_UP_THRESHOLD= 2000;
 
+	/**
+	 * The number of workers used to parse and fix compilation units if not set
+	 * through {@link #setParallelism(int)}. Can be changed with the system property
+	 * <code>org.eclipse.jdt.ui.cleanup.parallelism</code>; defaults to the number of
+	 * available processors, but at most <code>4</code>.
+	 */
+	private static final int DEFAULT_PARALLELISM= Math.max(1, Integer.getInteger("org.eclipse.jdt.ui.cleanup.parallelism", //$NON-NLS-1$
+			Math.min(Runtime.getRuntime().availableProcessors(), 4)).intValue());
+
 	private final List<ICleanUp> fCleanUps;
 	private final Hashtable<IJavaProject, List<CleanUpTarget>> fProjects;
 	private Change fChange;
@@ -509,6 +659,8 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 
 	private boolean fUseOptionsFromProfile;
 
+	private int fParallelism;
+
 	public CleanUpRefactoring() {
 		this(FixMessages.CleanUpRefactoring_Refactoring_name);
 	}
@@ -518,12 +670,36 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 		fCleanUps= new ArrayList<>();
 		fProjects= new Hashtable<>();
 		fUseOptionsFromProfile= false;
+		fParallelism= DEFAULT_PARALLELISM;
 	}
 
 	public void setUseOptionsFromProfile(boolean enabled) {
 		fUseOptionsFromProfile= enabled;
 	}
 
+	/**
+	 * Sets the number of workers used to parse compilation units and to calculate
+	 * their changes. With a value greater than <code>1</code>, independent compilation
+	 * units are processed concurrently on a bounded pool of that size. The resulting
+	 * change lists the compilation units in the order in which they were added, whatever
+	 * the parallelism.
+	 * <p>
+	 * The units are only processed concurrently if all enabled clean ups of this
+	 * refactoring are thread safe, see {@link AbstractCleanUp#isThreadSafe()}. Otherwise,
+	 * and in particular with contributed clean ups, they are processed sequentially.
+	 * </p>
+	 *
+	 * @param parallelism the maximal number of workers, <code>1</code> to process
+	 *            the units sequentially in the calling thread
+	 */
+	public void setParallelism(int parallelism) {
+		fParallelism= Math.max(1, parallelism);
+	}
+
+	public int getParallelism() {
+		return fParallelism;
+	}
+
 	public void addCompilationUnit(ICompilationUnit unit) {
 		addCleanUpTarget(new CleanUpTarget(unit));
 	}
@@ -672,7 +848,16 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 	}
 
 	private Change[] cleanUpProject(IJavaProject project, CleanUpTarget[] targets, ICleanUp[] cleanUps, IProgressMonitor monitor) throws CoreException {
-		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(targets, cleanUps);
+		ExecutorService executor= null;
+		if (fParallelism > 1 && targets.length > 1 && isThreadSafe(cleanUps)) {
+			AtomicInteger threadCount= new AtomicInteger();
+			executor= Executors.newFixedThreadPool(Math.min(fParallelism, targets.length), runnable -> {
+				Thread thread= new Thread(runnable, "Clean Up Worker-" + threadCount.incrementAndGet()); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		CleanUpFixpointIterator iter= new CleanUpFixpointIterator(targets, cleanUps, executor);
 
 		SubProgressMonitor subMonitor= new SubProgressMonitor(monitor, 2 * targets.length * cleanUps.length);
 		subMonitor.beginTask("", targets.length); //$NON-NLS-1$
@@ -684,11 +869,30 @@ public class CleanUpRefactoring extends Refactoring implements IScheduledRefacto
 
 			return iter.getResult();
 		} finally {
+			if (executor != null)
+				executor.shutdownNow();
 			iter.dispose();
 			subMonitor.done();
 		}
 	}
 
+	/*
+	 * Clean ups of this plug-in that have no enabled step only read their options, so they
+	 * do not prevent parallel processing. Contributed clean ups always do.
+	 */
+	private static boolean isThreadSafe(ICleanUp[] cleanUps) {
+		for (ICleanUp cleanUp : cleanUps) {
+			if (!(cleanUp instanceof AbstractCleanUp))
+				return false;
+			if (((AbstractCleanUp) cleanUp).isThreadSafe())
+				continue;
+			String[] steps= cleanUp.getStepDescriptions();
+			if (steps != null && steps.length > 0)
+				return false;
+		}
+		return true;
+	}
+
 	private RefactoringStatus setOptionsFromProfile(IJavaProject javaProject, ICleanUp[] cleanUps) {
 		Map<String, String> options= CleanUpPreferenceUtil.loadOptions(new ProjectScope(javaProject.getProject()));
 		if (options == null)
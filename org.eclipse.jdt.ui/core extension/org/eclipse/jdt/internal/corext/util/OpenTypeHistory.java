@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2015 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,7 +13,18 @@
  *******************************************************************************/
  package org.eclipse.jdt.internal.corext.util;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -54,8 +65,14 @@ import org.eclipse.jdt.core.search.TypeNameMatch;
 
 import org.eclipse.jdt.internal.corext.CorextMessages;
 
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
 /**
  * History for the open type dialog. Object and keys are both {@link TypeNameMatch}s.
+ * <p>
+ * The history is stored in a compact binary file and only read when it is first accessed. A
+ * history stored as XML by earlier versions is read if there is no binary file yet.
+ * </p>
  */
 public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 
@@ -174,6 +191,8 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 	private final UpdateJob fUpdateJob;
 
 	private static final String FILENAME= "OpenTypeHistory.xml"; //$NON-NLS-1$
+	private static final String BINARY_FILENAME= "OpenTypeHistory.bin"; //$NON-NLS-1$
+	private static final int BINARY_FORMAT_VERSION= 1;
 	private static final String NODE_ROOT= "typeInfoHistroy"; //$NON-NLS-1$
 	private static final String NODE_TYPE_INFO= "typeInfo"; //$NON-NLS-1$
 	private static final String NODE_HANDLE= "handle"; //$NON-NLS-1$
@@ -182,6 +201,9 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 
 	private static OpenTypeHistory fgInstance;
 
+	// Guarded by this. The history is loaded on first access.
+	private boolean fLoaded;
+
 	public static synchronized OpenTypeHistory getInstance() {
 		if (fgInstance == null)
 			fgInstance= new OpenTypeHistory();
@@ -198,7 +220,6 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		super(FILENAME, NODE_ROOT, NODE_TYPE_INFO);
 		fTimestampMapping= new HashMap<>();
 		fNeedsConsistencyCheck= true;
-		load();
 		fDeltaListener= new TypeHistoryDeltaListener();
 		JavaCore.addElementChangedListener(fDeltaListener);
 		fUpdateJob= new UpdateJob();
@@ -237,13 +258,56 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		internalCheckConsistency(monitor);
 	}
 
+	/**
+	 * Loads the history if that did not happen yet and then checks its consistency. Unlike
+	 * {@link #checkConsistency(IProgressMonitor)}, which leaves a history that was never accessed
+	 * alone, this is meant for clients that are about to show the history.
+	 *
+	 * @param monitor the progress monitor
+	 * @throws OperationCanceledException if the check is canceled
+	 * @since 3.26
+	 */
+	public void loadAndCheckConsistency(IProgressMonitor monitor) throws OperationCanceledException {
+		synchronized (this) {
+			ensureLoaded();
+		}
+		checkConsistency(monitor);
+	}
+
 	@Override
 	public synchronized boolean contains(TypeNameMatch type) {
+		ensureLoaded();
 		return super.contains(type);
 	}
 
+	@Override
+	public synchronized boolean containsKey(TypeNameMatch key) {
+		ensureLoaded();
+		return super.containsKey(key);
+	}
+
+	@Override
+	public synchronized boolean isEmpty() {
+		ensureLoaded();
+		return super.isEmpty();
+	}
+
+	@Override
+	public synchronized Object removeKey(Object key) {
+		ensureLoaded();
+		fTimestampMapping.remove(key);
+		return super.removeKey(key);
+	}
+
+	@Override
+	public synchronized int getPosition(TypeNameMatch key) {
+		ensureLoaded();
+		return super.getPosition(key);
+	}
+
 	@Override
 	public synchronized void accessed(TypeNameMatch info) {
+		ensureLoaded();
 		// Fetching the timestamp might not be cheap (remote file system
 		// external Jars. So check if we alreay have one.
 		if (!fTimestampMapping.containsKey(info)) {
@@ -254,11 +318,13 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 
 	@Override
 	public synchronized TypeNameMatch remove(TypeNameMatch info) {
+		ensureLoaded();
 		fTimestampMapping.remove(info);
 		return (TypeNameMatch)super.remove(info);
 	}
 
 	public synchronized void replace(TypeNameMatch old, TypeNameMatch newMatch) {
+		ensureLoaded();
 		fTimestampMapping.remove(old);
 		fTimestampMapping.put(newMatch, getContainerTimestamp(newMatch));
 		super.remove(old);
@@ -266,6 +332,7 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 	}
 
 	public synchronized TypeNameMatch[] getTypeInfos() {
+		ensureLoaded();
 		Collection<TypeNameMatch> values= getValues();
 		int size= values.size();
 		TypeNameMatch[] result= new TypeNameMatch[size];
@@ -278,6 +345,7 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 	}
 
 	public synchronized TypeNameMatch[] getFilteredTypeInfos(TypeInfoFilter filter) {
+		ensureLoaded();
 		List<TypeNameMatch> result= new ArrayList<>();
 		for (TypeNameMatch type : getValues()) {
 			if ((filter == null || filter.matchesHistoryElement(type)) && !TypeFilter.isFiltered(type.getFullyQualifiedName()))
@@ -297,6 +365,10 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		// Setting fNeedsConsistencyCheck is necessary here since
 		// markAsInconsistent isn't synchronized.
 		fNeedsConsistencyCheck= true;
+		if (!fLoaded) {
+			// nothing to check, see loadAndCheckConsistency(IProgressMonitor)
+			return;
+		}
 		List<TypeNameMatch> typesToCheck= new ArrayList<>(getKeys());
 		monitor.beginTask(CorextMessages.TypeInfoHistory_consistency_check, typesToCheck.size());
 		monitor.setTaskName(CorextMessages.TypeInfoHistory_consistency_check);
@@ -376,6 +448,87 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 	}
 
 
+	private synchronized void ensureLoaded() {
+		if (!fLoaded) {
+			load();
+		}
+	}
+
+	@Override
+	public synchronized void load() {
+		fLoaded= true;
+		File file= JavaPlugin.getDefault().getStateLocation().append(BINARY_FILENAME).toFile();
+		if (!file.exists()) {
+			// history written by an earlier version
+			super.load();
+			return;
+		}
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != BINARY_FORMAT_VERSION)
+				return;
+			int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				String handle= in.readUTF();
+				int modifiers= in.readInt();
+				long timestamp= in.readLong();
+				TypeNameMatch info= createTypeNameMatch(handle, modifiers, timestamp);
+				if (info != null) {
+					super.accessed(info);
+				}
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+		}
+	}
+
+	@Override
+	public synchronized void save() {
+		if (!fLoaded) {
+			// never accessed, the stored history is still up to date
+			return;
+		}
+		File file= JavaPlugin.getDefault().getStateLocation().append(BINARY_FILENAME).toFile();
+		// write a temporary file first so that a failed write does not truncate the stored history
+		File temporary= new File(file.getPath() + ".tmp"); //$NON-NLS-1$
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+			Collection<TypeNameMatch> values= getValues();
+			out.writeInt(BINARY_FORMAT_VERSION);
+			out.writeInt(values.size());
+			for (TypeNameMatch type : values) {
+				Long timestamp= fTimestampMapping.get(type);
+				out.writeUTF(type.getType().getHandleIdentifier());
+				out.writeInt(type.getModifiers());
+				out.writeLong(timestamp == null ? IResource.NULL_STAMP : timestamp.longValue());
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+			temporary.delete();
+			return;
+		}
+		try {
+			try {
+				Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			JavaPlugin.log(e);
+			temporary.delete();
+		}
+	}
+
+	private TypeNameMatch createTypeNameMatch(String handle, int modifiers, long timestamp) {
+		IJavaElement element= JavaCore.create(handle);
+		if (!(element instanceof IType))
+			return null;
+
+		TypeNameMatch info= SearchEngine.createTypeNameMatch((IType) element, modifiers);
+		if (timestamp != IResource.NULL_STAMP) {
+			fTimestampMapping.put(info, timestamp);
+		}
+		return info;
+	}
+
 	private void doShutdown() {
 		JavaCore.removeElementChangedListener(fDeltaListener);
 		save();
@@ -387,17 +540,12 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 		if (handle == null )
 			return null;
 
-		IJavaElement element= JavaCore.create(handle);
-		if (!(element instanceof IType))
-			return null;
-
 		int modifiers= 0;
 		try {
 			modifiers= Integer.parseInt(type.getAttribute(NODE_MODIFIERS));
 		} catch (NumberFormatException e) {
 			// take zero
 		}
-		TypeNameMatch info= SearchEngine.createTypeNameMatch((IType) element, modifiers);
 		long timestamp= IResource.NULL_STAMP;
 		String timestampValue= type.getAttribute(NODE_TIMESTAMP);
 		if (timestampValue != null && timestampValue.length() > 0) {
@@ -407,10 +555,7 @@ public class OpenTypeHistory extends History<TypeNameMatch, TypeNameMatch> {
 				// take null stamp
 			}
 		}
-		if (timestamp != IResource.NULL_STAMP) {
-			fTimestampMapping.put(info, timestamp);
-		}
-		return info;
+		return createTypeNameMatch(handle, modifiers, timestamp);
 	}
 
 	@Override
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.corext.util;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.search.IJavaSearchConstants;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
@@ -44,6 +47,19 @@ public class TypeInfoFilter {
 
 	private final PatternMatcher fNameMatcher;
 
+	/**
+	 * The first character of the name pattern, or <code>null</code> if names starting with any
+	 * character can match. Lets {@link #matchesName(TypeNameMatch)} reject most names without
+	 * running the pattern matcher.
+	 */
+	private final String fNameStart;
+
+	/**
+	 * Caches the result of the package matcher per type container name, since many types share
+	 * the same package.
+	 */
+	private final Map<String, Boolean> fPackageMatches= new ConcurrentHashMap<>();
+
 	private static final int TYPE_MODIFIERS= Flags.AccEnum | Flags.AccAnnotation | Flags.AccInterface;
 
 	/* reduces filenames and stack traces to class name */
@@ -157,6 +173,13 @@ public class TypeInfoFilter {
 				name= "*"; //$NON-NLS-1$
 			fNameMatcher= new PatternMatcher(name);
 		}
+		String namePattern= fNameMatcher.getPattern();
+		if (namePattern.length() > 0 && fNameMatcher.getMatchKind() != SearchPattern.R_PATTERN_MATCH) {
+			// exact, prefix and camel case matches all require the same first character
+			fNameStart= namePattern.substring(0, 1);
+		} else {
+			fNameStart= null;
+		}
 	}
 
 	/*
@@ -250,18 +273,18 @@ public class TypeInfoFilter {
 	}
 
 	public boolean matchesCachedResult(TypeNameMatch type) {
-		if (!matchesPackage(type) || !matchesFilterExtension(type))
+		if (!matchesName(type) || !matchesPackage(type))
 			return false;
-		return matchesName(type);
+		return matchesFilterExtension(type);
 	}
 
 	public boolean matchesHistoryElement(TypeNameMatch type) {
-		if (!matchesPackage(type)
+		if (!matchesName(type)
+				|| !matchesPackage(type)
 				|| !matchesModifiers(type)
-				|| !matchesScope(type)
-				|| !matchesFilterExtension(type))
+				|| !matchesScope(type))
 			return false;
-		return matchesName(type);
+		return matchesFilterExtension(type);
 	}
 
 	public boolean matchesFilterExtension(TypeNameMatch type) {
@@ -275,13 +298,23 @@ public class TypeInfoFilter {
 		if (fText.length() == 0) {
 			return true; //empty pattern matches all names
 		}
-		return fNameMatcher.matches(type.getSimpleTypeName());
+		String name= type.getSimpleTypeName();
+		if (fNameStart != null && !name.regionMatches(true, 0, fNameStart, 0, 1)) {
+			return false;
+		}
+		return fNameMatcher.matches(name);
 	}
 
 	private boolean matchesPackage(TypeNameMatch type) {
 		if (fPackageMatcher == null)
 			return true;
-		return fPackageMatcher.matches(type.getTypeContainerName());
+		String containerName= type.getTypeContainerName();
+		Boolean matches= fPackageMatches.get(containerName);
+		if (matches == null) {
+			matches= Boolean.valueOf(fPackageMatcher.matches(containerName));
+			fPackageMatches.put(containerName, matches);
+		}
+		return matches.booleanValue();
 	}
 
 	private boolean matchesScope(TypeNameMatch type) {
@@ -312,14 +312,14 @@ public class TypeSelectionDialog2 extends SelectionStatusDialog {
 					monitor.beginTask(JavaUIMessages.TypeSelectionDialog_progress_consistency, 100);
 					if (history.needConsistencyCheck()) {
 						refreshSearchIndices(new SubProgressMonitor(monitor, 90));
-						history.checkConsistency(new SubProgressMonitor(monitor, 10));
+						history.loadAndCheckConsistency(new SubProgressMonitor(monitor, 10));
 					} else {
 						refreshSearchIndices(monitor);
 					}
 					monitor.done();
 					fgFirstTime= false;
 				} else {
-					history.checkConsistency(monitor);
+					history.loadAndCheckConsistency(monitor);
 				}
 			}
 			public boolean needsExecution() {
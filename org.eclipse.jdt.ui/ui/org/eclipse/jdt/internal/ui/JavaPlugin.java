@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -167,6 +168,10 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 	public static boolean DEBUG_RESULT_COLLECTOR;
 
+	public static boolean DEBUG_AST_BATCH_PARSER;
+
+	public static boolean DEBUG_QUICK_ASSIST;
+
 	private static JavaPlugin fgJavaPlugin;
 
 	private static LinkedHashMap<String, Long> fgRepeatedMessages= new LinkedHashMap<String, Long>(20, 0.75f, true) {
@@ -212,6 +217,13 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 
 	private static final String TYPEFILTER_MIGRATED= "typefilter_migrated_2"; //$NON-NLS-1$
 
+	/**
+	 * The name of the file in the plug-in state location that stores the content assist history.
+	 *
+	 * @since 3.26
+	 */
+	private static final String CONTENT_ASSIST_HISTORY_FILE= "ContentAssistHistory.bin"; //$NON-NLS-1$
+
 	/**
 	 * @deprecated to avoid deprecation warning
 	 */
@@ -514,7 +526,7 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 			}
 
 			if (fContentAssistHistory != null) {
-				ContentAssistHistory.store(fContentAssistHistory, getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
+				fContentAssistHistory.dispose();
 				fContentAssistHistory= null;
 			}
 
@@ -1022,15 +1034,10 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 	 * @return the Java content assist history
 	 * @since 3.2
 	 */
-	public ContentAssistHistory getContentAssistHistory() {
+	public synchronized ContentAssistHistory getContentAssistHistory() {
 		if (fContentAssistHistory == null) {
-			try {
-				fContentAssistHistory= ContentAssistHistory.load(getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
-			} catch (CoreException x) {
-				log(x);
-			}
-			if (fContentAssistHistory == null)
-				fContentAssistHistory= new ContentAssistHistory();
+			File file= getStateLocation().append(CONTENT_ASSIST_HISTORY_FILE).toFile();
+			fContentAssistHistory= ContentAssistHistory.createPersistent(file, getPluginPreferences(), PreferenceConstants.CODEASSIST_LRU_HISTORY);
 		}
 
 		return fContentAssistHistory;
@@ -1135,6 +1142,8 @@ public class JavaPlugin extends AbstractUIPlugin implements DebugOptionsListener
 		DEBUG_BREADCRUMB_ITEM_DROP_DOWN= options.getBooleanOption("org.eclipse.jdt.ui/debug/BreadcrumbItemDropDown", false); //$NON-NLS-1$
 		DEBUG_TYPE_CONSTRAINTS= options.getBooleanOption("org.eclipse.jdt.ui/debug/TypeConstraints", false); //$NON-NLS-1$
 		DEBUG_RESULT_COLLECTOR= options.getBooleanOption("org.eclipse.jdt.ui/debug/ResultCollector", false); //$NON-NLS-1$
+		DEBUG_AST_BATCH_PARSER= options.getBooleanOption("org.eclipse.jdt.ui/debug/ASTBatchParser", false); //$NON-NLS-1$
+		DEBUG_QUICK_ASSIST= options.getBooleanOption("org.eclipse.jdt.ui/debug/QuickAssist", false); //$NON-NLS-1$
 	}
 
 	/**
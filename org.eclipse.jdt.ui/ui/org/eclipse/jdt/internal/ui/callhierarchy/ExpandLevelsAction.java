@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.callhierarchy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.swt.widgets.Display;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+
+import org.eclipse.jface.action.Action;
+import org.eclipse.jface.dialogs.InputDialog;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.jface.window.Window;
+
+import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
+import org.eclipse.jdt.internal.corext.callhierarchy.CallerMethodWrapper;
+import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+import org.eclipse.jdt.internal.corext.util.Messages;
+
+/**
+ * The action to expand the selected nodes of the call hierarchy by several levels. The calls of
+ * all nodes of one level are searched in parallel, and each level is shown as soon as it is
+ * complete. Nodes that are expanded with constructors are not expanded further.
+ *
+ * @since 3.26
+ */
+class ExpandLevelsAction extends Action {
+
+	private static final int DEFAULT_LEVELS= 3;
+
+	/**
+	 * The call hierarchy view part.
+	 */
+	private CallHierarchyViewPart fPart;
+
+	/**
+	 * The call hierarchy viewer.
+	 */
+	private CallHierarchyViewer fCallHierarchyViewer;
+
+	/**
+	 * Creates the action for expanding several levels of the hierarchy.
+	 *
+	 * @param part the call hierarchy view part
+	 * @param viewer the call hierarchy viewer
+	 */
+	public ExpandLevelsAction(CallHierarchyViewPart part, CallHierarchyViewer viewer) {
+		super(CallHierarchyMessages.ExpandLevelsAction_text);
+		fPart= part;
+		fCallHierarchyViewer= viewer;
+		setDescription(CallHierarchyMessages.ExpandLevelsAction_description);
+		setToolTipText(CallHierarchyMessages.ExpandLevelsAction_tooltip);
+	}
+
+	@Override
+	public void run() {
+		List<MethodWrapper> wrappers= getSelectedWrappers();
+		if (wrappers.isEmpty())
+			return;
+
+		int maxLevels= CallHierarchyUI.getDefault().getMaxCallDepth();
+		String max= String.valueOf(maxLevels);
+		InputDialog dialog= new InputDialog(fPart.getSite().getShell(), CallHierarchyMessages.ExpandLevelsAction_dialog_title,
+				Messages.format(CallHierarchyMessages.ExpandLevelsAction_dialog_message, max),
+				String.valueOf(Math.min(DEFAULT_LEVELS, maxLevels)), newText -> {
+					try {
+						int levels= Integer.parseInt(newText.trim());
+						if (levels >= 1 && levels <= maxLevels)
+							return null;
+					} catch (NumberFormatException e) {
+						// invalid
+					}
+					return Messages.format(CallHierarchyMessages.ExpandLevelsAction_invalid_levels, max);
+				});
+		if (dialog.open() != Window.OK)
+			return;
+
+		int levels= Integer.parseInt(dialog.getValue().trim());
+		Job job= new ExpandLevelsJob(wrappers, levels);
+		job.setUser(true);
+		job.schedule();
+	}
+
+	private List<MethodWrapper> getSelectedWrappers() {
+		List<MethodWrapper> wrappers= new ArrayList<>();
+		ISelection selection= fPart.getSelection();
+		if (selection instanceof IStructuredSelection) {
+			for (Object element : (IStructuredSelection) selection) {
+				if (!(element instanceof MethodWrapper))
+					return new ArrayList<>();
+				wrappers.add((MethodWrapper) element);
+			}
+		}
+		return wrappers;
+	}
+
+	/**
+	 * Checks whether this action can be added for the selected elements in the call hierarchy.
+	 *
+	 * @return <code>true</code> if the action can be added, <code>false</code> otherwise
+	 */
+	public boolean canActionBeAdded() {
+		return !getSelectedWrappers().isEmpty();
+	}
+
+	private final class ExpandLevelsJob extends Job {
+
+		private final Object fInput;
+		private List<MethodWrapper> fFrontier;
+		private final int fLevels;
+
+		ExpandLevelsJob(List<MethodWrapper> wrappers, int levels) {
+			super(CallHierarchyMessages.ExpandLevelsAction_job_name);
+			fInput= fCallHierarchyViewer.getInput();
+			fFrontier= wrappers;
+			fLevels= levels;
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			SubMonitor progress= SubMonitor.convert(monitor, fLevels);
+			try {
+				for (int level= 0; level < fLevels; level++) {
+					MethodWrapper[] frontier= getExpandable(fFrontier);
+					if (frontier.length == 0)
+						break;
+
+					MethodWrapper[][] calls= CallHierarchy.getDefault().getCalls(frontier, progress.split(1));
+
+					List<MethodWrapper> next= new ArrayList<>();
+					for (MethodWrapper[] children : calls) {
+						for (MethodWrapper child : children) {
+							next.add(child);
+						}
+					}
+					fFrontier= next;
+					// show the partial tree, the children are found in the cache of the hierarchy
+					Display.getDefault().asyncExec(() -> expand(frontier));
+				}
+			} catch (OperationCanceledException e) {
+				return Status.CANCEL_STATUS;
+			}
+			return Status.OK_STATUS;
+		}
+
+		private MethodWrapper[] getExpandable(List<MethodWrapper> wrappers) {
+			int maxCallDepth= CallHierarchyUI.getDefault().getMaxCallDepth();
+			List<MethodWrapper> result= new ArrayList<>(wrappers.size());
+			for (MethodWrapper wrapper : wrappers) {
+				if (wrapper.getLevel() > maxCallDepth || wrapper.isRecursive() || !wrapper.canHaveChildren())
+					continue;
+				if (wrapper instanceof CallerMethodWrapper) {
+					CallerMethodWrapper caller= (CallerMethodWrapper) wrapper;
+					CallHierarchyContentProvider.ensureDefaultExpandWithConstructors(caller);
+					if (caller.getExpandWithConstructors())
+						continue;
+				}
+				result.add(wrapper);
+			}
+			return result.toArray(new MethodWrapper[result.size()]);
+		}
+
+		private void expand(MethodWrapper[] wrappers) {
+			if (fCallHierarchyViewer.getControl().isDisposed() || fCallHierarchyViewer.getInput() != fInput) {
+				cancel();
+				return;
+			}
+			for (MethodWrapper wrapper : wrappers) {
+				fCallHierarchyViewer.setExpandedState(wrapper, true);
+			}
+		}
+	}
+}
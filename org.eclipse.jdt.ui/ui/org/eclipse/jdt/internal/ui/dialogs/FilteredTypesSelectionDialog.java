@@ -556,13 +556,13 @@ public class FilteredTypesSelectionDialog extends FilteredItemsSelectionDialog i
 				if (history.needConsistencyCheck()) {
 					SubMonitor subMonitor= SubMonitor.convert(monitor,JavaUIMessages.TypeSelectionDialog_progress_consistency, 10 );
 					refreshSearchIndices(subMonitor.split(9));
-					history.checkConsistency(subMonitor.split(1));
+					history.loadAndCheckConsistency(subMonitor.split(1));
 				} else {
 					refreshSearchIndices(monitor);
 				}
 				fgFirstTime= false;
 			} else {
-				history.checkConsistency(monitor);
+				history.loadAndCheckConsistency(monitor);
 			}
 		}
 		public static boolean needsExecution() {
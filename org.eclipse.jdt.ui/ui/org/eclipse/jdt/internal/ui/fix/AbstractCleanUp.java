@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -114,6 +114,19 @@ public abstract class AbstractCleanUp implements ICleanUp {
 		return new RefactoringStatus();
 	}
 
+	/**
+	 * Tells whether {@link #createFix(CleanUpContext)} can be called for several compilation
+	 * units at the same time. The clean up refactoring only processes compilation units in
+	 * parallel if all of its clean ups are thread safe.
+	 *
+	 * @return <code>true</code> if this clean up keeps no state besides its options, <code>false</code>
+	 *         by default
+	 * @since 3.26
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * @param key the name of the option
 	 * @return <code>true</code> if option with <code>key</code> is enabled
@@ -114,4 +114,9 @@ public class CodeFormatCleanUp extends AbstractCleanUp {
 
 		return buf.toString();
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
@@ -30,4 +30,9 @@ public class CodeStyleCleanUp extends AbstractMultiFixCoreWrapper<CodeStyleClean
 	public CodeStyleCleanUp() {
 		this(Collections.EMPTY_MAP);
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
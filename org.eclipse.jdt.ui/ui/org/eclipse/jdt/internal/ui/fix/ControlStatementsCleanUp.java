@@ -132,4 +132,8 @@ public class ControlStatementsCleanUp extends AbstractCleanUp {
 		return buf.toString();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
@@ -97,4 +97,9 @@ public class ConvertLoopCleanUp extends AbstractCleanUp {
 
 		return buf.toString();
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
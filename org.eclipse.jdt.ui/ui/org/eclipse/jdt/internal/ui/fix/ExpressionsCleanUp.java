@@ -94,4 +94,8 @@ public class ExpressionsCleanUp extends AbstractCleanUp {
 		return buf.toString();
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
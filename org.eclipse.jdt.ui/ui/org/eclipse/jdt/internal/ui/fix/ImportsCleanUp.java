@@ -59,8 +59,16 @@ public class ImportsCleanUp extends AbstractCleanUp {
     	if (compilationUnit == null)
     		return null;
 
-		return ImportsFix.createCleanUp(compilationUnit, fCodeGeneratorSettings,
-				isEnabled(CleanUpConstants.ORGANIZE_IMPORTS), fStatus);
+		// the status is shared by all compilation units, which may be fixed in parallel
+		RefactoringStatus status= new RefactoringStatus();
+		ICleanUpFix fix= ImportsFix.createCleanUp(compilationUnit, fCodeGeneratorSettings,
+				isEnabled(CleanUpConstants.ORGANIZE_IMPORTS), status);
+		if (fStatus != null && !status.isOK()) {
+			synchronized (fStatus) {
+				fStatus.merge(status);
+			}
+		}
+		return fix;
 	}
 
     @Override
@@ -109,4 +117,8 @@ public class ImportsCleanUp extends AbstractCleanUp {
 		return buf.toString();
     }
 
+    @Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
@@ -202,4 +202,8 @@ public class Java50CleanUp extends AbstractMultiFix {
 		return result;
 	}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
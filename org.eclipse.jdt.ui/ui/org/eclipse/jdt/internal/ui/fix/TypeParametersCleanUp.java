@@ -128,4 +128,9 @@ public class TypeParametersCleanUp extends AbstractMultiFix {
 
 		return "Map<Integer, String> map= new HashMap<Integer, String>();\n"; //$NON-NLS-1$
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
@@ -26,5 +26,9 @@ public class UnnecessaryCodeCleanUp extends AbstractMultiFixCoreWrapper<Unnecess
 	public UnnecessaryCodeCleanUp() {
 		this(Collections.EMPTY_MAP);
 	}
-}
 
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -104,4 +104,9 @@ public class UnusedCodeCleanUp extends AbstractMultiFix {
 	public int computeNumberOfFixes(CompilationUnit compilationUnit) {
 		return cleanUpCore.computeNumberOfFixes(compilationUnit);
 	}
+
+	@Override
+	public boolean isThreadSafe() {
+		return true;
+	}
 }
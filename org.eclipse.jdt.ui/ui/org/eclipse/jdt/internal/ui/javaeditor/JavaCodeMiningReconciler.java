@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Angelo ZERR.
+ * Copyright (c) 2018, 2022 Angelo ZERR and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,15 +14,22 @@
 package org.eclipse.jdt.internal.ui.javaeditor;
 
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.swt.custom.StyledText;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 
+import org.eclipse.jface.text.IViewportListener;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.text.source.ISourceViewerExtension5;
 
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
+import org.eclipse.jdt.internal.ui.javaeditor.codemining.CodeMiningResolver;
 import org.eclipse.jdt.internal.ui.text.java.IJavaReconcilingListener;
 
 /**
@@ -36,6 +43,15 @@ public class JavaCodeMiningReconciler implements IJavaReconcilingListener {
 	 */
 	private static final Set<ISourceViewerExtension5> reconciledViewers= new HashSet<>();
 
+	/**
+	 * Stores the resolvers of the viewers, which resolve the code minings in the visible region
+	 * first.
+	 */
+	private static final Map<ISourceViewerExtension5, CodeMiningResolver> resolvers= new ConcurrentHashMap<>();
+
+	/** Keeps the visible region of the source viewer up to date */
+	private final IViewportListener fViewportListener= verticalOffset -> updateVisibleRegion();
+
 	/** The Java editor this Java code mining reconciler is installed on */
 	private JavaEditor fEditor;
 
@@ -76,6 +92,9 @@ public class JavaCodeMiningReconciler implements IJavaReconcilingListener {
 		if (fEditor instanceof CompilationUnitEditor) {
 			((CompilationUnitEditor) fEditor).addReconcileListener(this);
 		}
+		resolvers.put(fSourceViewer, new CodeMiningResolver());
+		sourceViewer.addViewportListener(fViewportListener);
+		updateVisibleRegion();
 		fSourceViewer.updateCodeMinings();
 	}
 
@@ -84,6 +103,14 @@ public class JavaCodeMiningReconciler implements IJavaReconcilingListener {
 	 */
 	public void uninstall() {
 		reconciledViewers.remove(fSourceViewer);
+		if (fSourceViewer != null) {
+			CodeMiningResolver resolver= resolvers.remove(fSourceViewer);
+			if (resolver != null) {
+				// cancel the code minings still waiting to be resolved
+				resolver.dispose();
+			}
+			((ISourceViewer) fSourceViewer).removeViewportListener(fViewportListener);
+		}
 		if (fEditor instanceof CompilationUnitEditor) {
 			((CompilationUnitEditor) fEditor).removeReconcileListener(this);
 		}
@@ -95,4 +122,30 @@ public class JavaCodeMiningReconciler implements IJavaReconcilingListener {
 		return reconciledViewers.contains(viewer);
 	}
 
+	/**
+	 * Returns the resolver for the code minings of the given viewer.
+	 *
+	 * @param viewer the viewer
+	 * @return the resolver, or <code>null</code> if no reconciler is installed on the viewer
+	 * @since 3.26
+	 */
+	public static CodeMiningResolver getResolver(ISourceViewerExtension5 viewer) {
+		return viewer == null ? null : resolvers.get(viewer);
+	}
+
+	/**
+	 * Updates the visible region of the source viewer. Called from the UI thread.
+	 */
+	private void updateVisibleRegion() {
+		ISourceViewerExtension5 viewer= fSourceViewer;
+		CodeMiningResolver resolver= viewer == null ? null : resolvers.get(viewer);
+		if (resolver == null)
+			return;
+		ISourceViewer sourceViewer= (ISourceViewer) viewer;
+		StyledText textWidget= sourceViewer.getTextWidget();
+		int start= textWidget == null || textWidget.isDisposed() ? -1 : sourceViewer.getTopIndexStartOffset();
+		int end= start == -1 ? -1 : sourceViewer.getBottomIndexEndOffset();
+		resolver.setVisibleRegion(start >= 0 && end > start ? new Region(start, end - start) : null);
+	}
+
 }
@@ -25,9 +25,14 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.Job;
 
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITextInputListener;
+import org.eclipse.jface.text.IViewportListener;
 import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.Region;
 import org.eclipse.jface.text.TextPresentation;
 import org.eclipse.jface.text.source.ISourceViewer;
 
@@ -36,12 +41,18 @@ import org.eclipse.ui.IWorkbenchPartSite;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ConstructorInvocation;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.Modifier;
 import org.eclipse.jdt.core.dom.Modifier.ModifierKeyword;
+import org.eclipse.jdt.core.dom.NodeFinder;
 import org.eclipse.jdt.core.dom.RecordDeclaration;
 import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SimpleType;
@@ -299,9 +310,132 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		}
 	}
 
+	/**
+	 * Tracks the region of the document that changed since the last completed reconcile.
+	 *
+	 * @since 3.26
+	 */
+	private class ChangedRegionTracker implements IDocumentListener, ITextInputListener {
+
+		/** Start of the changed region in the current document, or <code>-1</code> if nothing changed */
+		private int fStart= -1;
+		/** End of the changed region in the current document */
+		private int fEnd;
+		/** Incremented on every document change */
+		private long fStamp;
+		/** <code>true</code> if the region is unknown, e.g. after the input changed */
+		private boolean fUnknown= true;
+
+		@Override
+		public synchronized void documentAboutToBeChanged(DocumentEvent event) {
+		}
+
+		@Override
+		public synchronized void documentChanged(DocumentEvent event) {
+			fStamp++;
+			String text= event.getText();
+			int start= event.getOffset();
+			int delta= (text == null ? 0 : text.length()) - event.getLength();
+			int end= start + (text == null ? 0 : text.length());
+			if (fStart == -1) {
+				fStart= start;
+				fEnd= end;
+			} else {
+				if (fEnd > start)
+					fEnd= Math.max(fEnd + delta, end);
+				fStart= Math.min(fStart, start);
+				fEnd= Math.max(fEnd, end);
+			}
+		}
+
+		@Override
+		public void inputDocumentAboutToBeChanged(IDocument oldInput, IDocument newInput) {
+			if (oldInput != null)
+				oldInput.removeDocumentListener(this);
+		}
+
+		@Override
+		public void inputDocumentChanged(IDocument oldInput, IDocument newInput) {
+			synchronized (this) {
+				fStart= -1;
+				fUnknown= true;
+				fStamp++;
+			}
+			if (newInput != null)
+				newInput.addDocumentListener(this);
+		}
+
+		/**
+		 * Returns the region that changed since the last completed reconcile. It covers all
+		 * document changes since then, not only the first one of a typing burst.
+		 *
+		 * @return the changed region, or <code>null</code> if unknown
+		 */
+		public synchronized IRegion getChangedRegion() {
+			return fUnknown || fStart == -1 ? null : new Region(fStart, fEnd - fStart);
+		}
+
+		public synchronized long getStamp() {
+			return fStamp;
+		}
+
+		/**
+		 * Forgets the changed region if the document did not change since the given stamp was
+		 * taken.
+		 *
+		 * @param stamp the stamp taken together with the changed region
+		 */
+		public synchronized void reconciled(long stamp) {
+			if (stamp == fStamp) {
+				fStart= -1;
+				fUnknown= false;
+			}
+		}
+
+		/**
+		 * Marks the changed region as unknown, so that the next reconcile covers the whole AST.
+		 */
+		public synchronized void reset() {
+			fStart= -1;
+			fUnknown= true;
+			fStamp++;
+		}
+	}
+
+	/**
+	 * <code>true</code> if a reconcile after a document change only revisits the subtrees that
+	 * overlap the changed region. Can be disabled with the system property
+	 * <code>org.eclipse.jdt.ui.semanticHighlighting.incremental</code>.
+	 *
+	 * @since 3.26
+	 */
+	private static final boolean INCREMENTAL= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.semanticHighlighting.incremental", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	/** Position collector */
 	private PositionCollector fCollector= new PositionCollector();
 
+	/**
+	 * Visible region of the source viewer, or <code>null</code> if unknown
+	 * @since 3.26
+	 */
+	private volatile IRegion fVisibleRegion;
+	/**
+	 * Keeps {@link #fVisibleRegion} up to date
+	 * @since 3.26
+	 */
+	private final IViewportListener fViewportListener= verticalOffset -> updateVisibleRegion();
+	/**
+	 * Job reconciling the whole AST after the visible region has been reconciled
+	 * @since 3.26
+	 */
+	private Job fBackgroundJob;
+
+	/**
+	 * Changed region tracker, <code>null</code> if not installed on a Java editor
+	 * @since 3.26
+	 */
+	private ChangedRegionTracker fChangedRegionTracker;
+
 	/** The Java editor this semantic highlighting reconciler is installed on */
 	private JavaEditor fEditor;
 	/** The source viewer this semantic highlighting reconciler is installed on */
@@ -335,6 +469,27 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @since 3.2
 	 */
 	private boolean fIsReconciling= false;
+	/**
+	 * <code>true</code> if the last completed reconcile only revisited parts of the AST
+	 * @since 3.26
+	 */
+	private volatile boolean fLastReconcileIncremental= false;
+	/**
+	 * <code>true</code> if the AST of the last completed reconcile contains recovered or
+	 * malformed nodes
+	 * @since 3.26
+	 */
+	private volatile boolean fLastASTRecovered= false;
+	/**
+	 * The AST last checked for recovered or malformed nodes, see {@link #isRecovered(CompilationUnit)}
+	 * @since 3.26
+	 */
+	private CompilationUnit fCheckedAST;
+	/**
+	 * <code>true</code> if {@link #fCheckedAST} contains recovered or malformed nodes
+	 * @since 3.26
+	 */
+	private boolean fCheckedASTRecovered;
 
 	/** The semantic highlighting presenter - cache for background thread, only valid during {@link #reconciled(CompilationUnit, boolean, IProgressMonitor)} */
 	private SemanticHighlightingPresenter fJobPresenter;
@@ -354,7 +509,7 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 */
 	@Override
 	public void aboutToBeReconciled() {
-		// Do nothing
+		cancelBackgroundJob();
 	}
 
 	/*
@@ -362,10 +517,76 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 */
 	@Override
 	public void reconciled(CompilationUnit ast, boolean forced, IProgressMonitor progressMonitor) {
+		cancelBackgroundJob();
+		joinBackgroundJob();
+
+		ChangedRegionTracker tracker= fChangedRegionTracker;
+		IRegion changedRegion= null;
+		long stamp= 0;
+		if (tracker != null) {
+			synchronized (tracker) {
+				changedRegion= forced ? null : tracker.getChangedRegion();
+				stamp= tracker.getStamp();
+			}
+		}
+
+		ASTNode[] subtrees= ast == null ? null : getAffectedSubtrees(ast, changedRegion);
+		ASTNode[] visibleSubtrees= tracker != null && subtrees != null && subtrees[0] == ast ? getVisibleSubtrees(ast) : null;
+		if (visibleSubtrees == null) {
+			if (reconcile(ast, subtrees, progressMonitor) && tracker != null)
+				tracker.reconciled(stamp);
+		} else if (reconcile(ast, visibleSubtrees, progressMonitor)) {
+			// the visible region is up to date, reconcile the rest with lower priority
+			scheduleBackgroundJob(ast, stamp);
+		}
+	}
+
+	/**
+	 * Reconciles the semantic highlighting positions with the given AST.
+	 * <p>
+	 * If a changed region is given and it lies within the body of a single method or initializer,
+	 * only that body is revisited and the positions outside of it are kept as they are. Otherwise
+	 * all positions are recomputed from the whole AST.
+	 * </p>
+	 *
+	 * @param ast the AST
+	 * @param changedRegion the region of the document that changed since the last reconcile, or
+	 *            <code>null</code> to reconcile the whole AST
+	 * @param progressMonitor the progress monitor
+	 * @return <code>true</code> if the positions have been reconciled, <code>false</code> if the
+	 *         reconcile was canceled or skipped
+	 * @since 3.26
+	 */
+	public boolean reconcile(CompilationUnit ast, IRegion changedRegion, IProgressMonitor progressMonitor) {
+		return reconcile(ast, ast == null ? null : getAffectedSubtrees(ast, changedRegion), progressMonitor);
+	}
+
+	/**
+	 * Tells whether the last completed reconcile only revisited parts of the AST and kept the
+	 * other positions, e.g. the body of the method in which the document changed.
+	 *
+	 * @return <code>true</code> if the last reconcile was incremental, <code>false</code> if it
+	 *         recomputed all positions
+	 * @since 3.26
+	 */
+	public boolean isLastReconcileIncremental() {
+		return fLastReconcileIncremental;
+	}
+
+	/**
+	 * Reconciles the semantic highlighting positions in the given subtrees of the AST.
+	 *
+	 * @param ast the AST
+	 * @param subtrees the subtrees to reconcile
+	 * @param progressMonitor the progress monitor
+	 * @return <code>true</code> if the positions have been reconciled, <code>false</code> if the
+	 *         reconcile was canceled or skipped
+	 */
+	private boolean reconcile(CompilationUnit ast, ASTNode[] subtrees, IProgressMonitor progressMonitor) {
 		// ensure at most one thread can be reconciling at any time
 		synchronized (fReconcileLock) {
 			if (fIsReconciling)
-				return;
+				return false;
 			else
 				fIsReconciling= true;
 		}
@@ -375,20 +596,19 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 
 		try {
 			if (fJobPresenter == null || fJobSemanticHighlightings == null || fJobHighlightings == null)
-				return;
+				return false;
 
 			fJobPresenter.setCanceled(progressMonitor.isCanceled());
 
-			if (ast == null || fJobPresenter.isCanceled())
-				return;
+			if (ast == null || isCanceled(progressMonitor))
+				return false;
 
-			ASTNode[] subtrees= getAffectedSubtrees(ast);
 			if (subtrees.length == 0)
-				return;
+				return false;
 
-			startReconcilingPositions();
+			startReconcilingPositions(ast, subtrees);
 
-			if (!fJobPresenter.isCanceled()) {
+			if (!isCanceled(progressMonitor)) {
 				fJobDeprecatedMemberHighlighting= null;
 				for (int i= 0, n= fJobSemanticHighlightings.length; i < n; i++) {
 					SemanticHighlighting semanticHighlighting= fJobSemanticHighlightings[i];
@@ -401,13 +621,18 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			}
 
 			TextPresentation textPresentation= null;
-			if (!fJobPresenter.isCanceled())
+			if (!isCanceled(progressMonitor))
 				textPresentation= fJobPresenter.createPresentation(fAddedPositions, fRemovedPositions);
 
-			if (!fJobPresenter.isCanceled())
+			boolean canceled= isCanceled(progressMonitor);
+			if (!canceled) {
 				updatePresentation(textPresentation, fAddedPositions, fRemovedPositions);
+				fLastReconcileIncremental= subtrees.length != 1 || subtrees[0] != ast;
+				fLastASTRecovered= isRecovered(ast);
+			}
 
 			stopReconcilingPositions();
+			return !canceled;
 		} finally {
 			fJobPresenter= null;
 			fJobSemanticHighlightings= null;
@@ -420,19 +645,216 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	}
 
 	/**
+	 * Tells whether the running reconcile is canceled, either by a document change or through its
+	 * own progress monitor.
+	 *
+	 * @param progressMonitor the progress monitor of the running reconcile
+	 * @return <code>true</code> if the reconcile is canceled
+	 */
+	private boolean isCanceled(IProgressMonitor progressMonitor) {
+		return fJobPresenter.isCanceled() || progressMonitor.isCanceled();
+	}
+
+	/**
+	 * Returns the subtrees that may be affected by the document changes in the given region.
+	 * <p>
+	 * A change inside the body of a method or initializer cannot change the highlighting of
+	 * names outside that body, since all declarations it may add or remove are local to the
+	 * body. Such a body is used as anchor for changes within it. Any other change may have
+	 * distant effects and affects the whole AST.
+	 * </p>
+	 * <p>
+	 * The bodies of an AST with syntax errors may not match the members in the source, e.g.
+	 * after a missing closing brace the following members are recovered as statements of the
+	 * body. The whole AST is affected if the AST or the one of the last reconcile has
+	 * recovered or malformed nodes.
+	 * </p>
+	 *
 	 * @param node Root node
+	 * @param changedRegion the changed region, or <code>null</code> if unknown
 	 * @return Array of subtrees that may be affected by past document changes
 	 */
-	private ASTNode[] getAffectedSubtrees(ASTNode node) {
-		// TODO: only return nodes which are affected by document changes - would require an 'anchor' concept for taking distant effects into account
-		return new ASTNode[] { node };
+	private ASTNode[] getAffectedSubtrees(CompilationUnit node, IRegion changedRegion) {
+		if (!INCREMENTAL || changedRegion == null)
+			return new ASTNode[] { node };
+		if (fLastASTRecovered || isRecovered(node))
+			return new ASTNode[] { node };
+
+		int start= changedRegion.getOffset();
+		int end= start + changedRegion.getLength();
+		ASTNode anchor= null;
+		for (ASTNode current= NodeFinder.perform(node, start, changedRegion.getLength()); current != null; current= current.getParent()) {
+			if (current instanceof Block && isMemberBody((Block) current)
+					&& current.getStartPosition() < start && end < current.getStartPosition() + current.getLength() - 1) {
+				anchor= current; // use the outermost body, e.g. the method containing a local class
+			}
+		}
+		if (anchor == null)
+			return new ASTNode[] { node };
+		return new ASTNode[] { anchor };
+	}
+
+	/**
+	 * Tells whether the given AST contains recovered or malformed nodes. The result for the
+	 * last checked AST is kept, since an AST is usually checked twice per reconcile.
+	 *
+	 * @param ast the AST
+	 * @return <code>true</code> if a node of the AST is recovered or malformed
+	 */
+	private synchronized boolean isRecovered(CompilationUnit ast) {
+		if (ast != fCheckedAST) {
+			final boolean[] recovered= { false };
+			ast.accept(new ASTVisitor(true) {
+				@Override
+				public boolean preVisit2(ASTNode node) {
+					if ((node.getFlags() & (ASTNode.RECOVERED | ASTNode.MALFORMED)) != 0)
+						recovered[0]= true;
+					return !recovered[0];
+				}
+			});
+			fCheckedAST= ast;
+			fCheckedASTRecovered= recovered[0];
+		}
+		return fCheckedASTRecovered;
+	}
+
+	/**
+	 * Returns the subtrees to reconcile first so that the visible part of a large file is
+	 * highlighted without waiting for the rest of it. These are the members of the types that
+	 * overlap the visible region.
+	 *
+	 * @param ast the AST
+	 * @return the visible subtrees, or <code>null</code> if the whole AST is to be reconciled at
+	 *         once, e.g. because most of it is visible
+	 */
+	private ASTNode[] getVisibleSubtrees(CompilationUnit ast) {
+		IRegion visible= fVisibleRegion;
+		if (visible == null || 2 * visible.getLength() > ast.getLength())
+			return null;
+
+		List<ASTNode> subtrees= new ArrayList<>();
+		collectVisibleSubtrees(ast.types(), visible.getOffset(), visible.getOffset() + visible.getLength(), subtrees);
+		if (subtrees.isEmpty())
+			return null;
+		return subtrees.toArray(new ASTNode[subtrees.size()]);
+	}
+
+	private static void collectVisibleSubtrees(List<?> declarations, int start, int end, List<ASTNode> subtrees) {
+		for (Object declaration : declarations) {
+			ASTNode node= (ASTNode) declaration;
+			if (node.getStartPosition() >= end || node.getStartPosition() + node.getLength() <= start)
+				continue;
+			if (node instanceof AbstractTypeDeclaration)
+				collectVisibleSubtrees(((AbstractTypeDeclaration) node).bodyDeclarations(), start, end, subtrees);
+			else
+				subtrees.add(node);
+		}
+	}
+
+	/**
+	 * Updates the visible region.
+	 * <p>
+	 * NOTE: Called from the UI thread.
+	 * </p>
+	 */
+	private void updateVisibleRegion() {
+		ISourceViewer sourceViewer= fSourceViewer;
+		if (sourceViewer == null || sourceViewer.getTextWidget() == null || sourceViewer.getTextWidget().isDisposed()) {
+			fVisibleRegion= null;
+			return;
+		}
+		int start= sourceViewer.getTopIndexStartOffset();
+		int end= sourceViewer.getBottomIndexEndOffset();
+		fVisibleRegion= start >= 0 && end > start ? new Region(start, end - start) : null;
+	}
+
+	/**
+	 * Schedules a background job that reconciles the whole AST.
+	 *
+	 * @param ast the AST
+	 * @param stamp the document stamp taken together with the changed region
+	 */
+	private void scheduleBackgroundJob(final CompilationUnit ast, final long stamp) {
+		synchronized (fJobLock) {
+			fBackgroundJob= new Job(JavaEditorMessages.SemanticHighlighting_job) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					try {
+						ChangedRegionTracker tracker= fChangedRegionTracker;
+						boolean reconciled= !monitor.isCanceled() && reconcile(ast, new ASTNode[] { ast }, monitor);
+						// if canceled, the tracker keeps the changed region, so that the next
+						// reconcile revisits the positions outside of the visible region
+						if (reconciled && tracker != null)
+							tracker.reconciled(stamp);
+						return reconciled ? Status.OK_STATUS : Status.CANCEL_STATUS;
+					} finally {
+						synchronized (fJobLock) {
+							// allow the job to be gc'ed
+							if (fBackgroundJob == this)
+								fBackgroundJob= null;
+						}
+					}
+				}
+			};
+			fBackgroundJob.setSystem(true);
+			fBackgroundJob.setPriority(Job.DECORATE);
+			fBackgroundJob.schedule();
+		}
+	}
+
+	/**
+	 * Cancels the background job, if any. The changed region is kept until a reconcile completes,
+	 * so the next reconcile covers all changes since then.
+	 */
+	private void cancelBackgroundJob() {
+		Job job;
+		synchronized (fJobLock) {
+			job= fBackgroundJob;
+		}
+		if (job == null)
+			return;
+		// the job checks its own monitor, the presenter is shared with the foreground reconcile
+		job.cancel();
+	}
+
+	/**
+	 * Waits for a canceled background job to finish, so that it does not skip the next reconcile.
+	 */
+	private void joinBackgroundJob() {
+		Job job;
+		synchronized (fJobLock) {
+			job= fBackgroundJob;
+		}
+		if (job == null)
+			return;
+		try {
+			job.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static boolean isMemberBody(Block block) {
+		ASTNode parent= block.getParent();
+		if (parent instanceof MethodDeclaration || parent instanceof Initializer)
+			return parent.getParent() instanceof AbstractTypeDeclaration;
+		return false;
 	}
 
 	/**
 	 * Start reconciling positions.
+	 *
+	 * @param root the root of the AST
+	 * @param subtrees the AST subtrees to be reconciled
 	 */
-	private void startReconcilingPositions() {
-		fJobPresenter.addAllPositions(fRemovedPositions);
+	private void startReconcilingPositions(CompilationUnit root, ASTNode[] subtrees) {
+		if (subtrees.length == 1 && subtrees[0] == root) {
+			fJobPresenter.addAllPositions(fRemovedPositions);
+		} else {
+			// only the positions of the revisited subtrees can become obsolete, the others are kept
+			for (ASTNode subtree : subtrees)
+				fJobPresenter.addAllPositions(fRemovedPositions, subtree.getStartPosition(), subtree.getLength());
+		}
 		fNOfRemovedPositions= fRemovedPositions.size();
 	}
 
@@ -442,10 +864,6 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @param subtrees the AST subtrees
 	 */
 	private void reconcilePositions(ASTNode[] subtrees) {
-		// FIXME: remove positions not covered by subtrees
-
-
-
 		for (ASTNode subtree : subtrees)
 			subtree.accept(fCollector);
 		List<Position> oldPositions= fRemovedPositions;
@@ -514,6 +932,13 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 		fSourceViewer= sourceViewer;
 
 		if (fEditor instanceof CompilationUnitEditor) {
+			fChangedRegionTracker= new ChangedRegionTracker();
+			fSourceViewer.addTextInputListener(fChangedRegionTracker);
+			IDocument document= fSourceViewer.getDocument();
+			if (document != null)
+				document.addDocumentListener(fChangedRegionTracker);
+			fSourceViewer.addViewportListener(fViewportListener);
+			updateVisibleRegion();
 			((CompilationUnitEditor)fEditor).addReconcileListener(this);
 		} else if (fEditor == null) {
 			fSourceViewer.addTextInputListener(this);
@@ -536,10 +961,24 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 			fEditor= null;
 		}
 
+		cancelBackgroundJob();
+
+		if (fChangedRegionTracker != null) {
+			fSourceViewer.removeViewportListener(fViewportListener);
+			fSourceViewer.removeTextInputListener(fChangedRegionTracker);
+			IDocument document= fSourceViewer.getDocument();
+			if (document != null)
+				document.removeDocumentListener(fChangedRegionTracker);
+			fChangedRegionTracker= null;
+		}
+
 		fSourceViewer= null;
 		fSemanticHighlightings= null;
 		fHighlightings= null;
 		fPresenter= null;
+		synchronized (this) {
+			fCheckedAST= null;
+		}
 	}
 
 	/**
@@ -614,6 +1053,8 @@ public class SemanticHighlightingReconciler implements IJavaReconcilingListener,
 	 * @since 3.2
 	 */
 	public void refresh() {
+		if (fChangedRegionTracker != null)
+			fChangedRegionTracker.reset();
 		scheduleJob();
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2018 Angelo Zerr and others.
+ * Copyright (c) 2018, 2022 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,20 +13,27 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.javaeditor.codemining;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.eclipse.swt.events.MouseEvent;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.ITextViewer;
 import org.eclipse.jface.text.codemining.ICodeMiningProvider;
 import org.eclipse.jface.text.codemining.LineHeaderCodeMining;
+import org.eclipse.jface.text.source.ISourceViewerExtension5;
 
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.ui.javaeditor.JavaCodeMiningReconciler;
+
 /**
  * Abstract class for Java code mining.
  *
@@ -58,4 +65,23 @@ public abstract class AbstractJavaElementLineHeaderCodeMining extends LineHeader
 		return element;
 	}
 
+	/**
+	 * Resolves this code mining asynchronously, after the code minings that are closer to the
+	 * visible region of the viewer.
+	 *
+	 * @param viewer the viewer
+	 * @param monitor the monitor of the code mining run
+	 * @param runnable resolves this code mining
+	 * @return the future completed when this code mining is resolved
+	 * @see CodeMiningResolver
+	 * @since 3.26
+	 */
+	protected CompletableFuture<Void> resolveAsync(ITextViewer viewer, IProgressMonitor monitor, Runnable runnable) {
+		CodeMiningResolver resolver= viewer instanceof ISourceViewerExtension5 ? JavaCodeMiningReconciler.getResolver((ISourceViewerExtension5) viewer) : null;
+		if (resolver == null) {
+			return CompletableFuture.runAsync(runnable);
+		}
+		return resolver.resolve(getPosition(), monitor, runnable);
+	}
+
 }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor.codemining;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Position;
+
+/**
+ * Resolves the code minings of one viewer, those in its visible region first.
+ * <p>
+ * Code minings in the visible region are resolved right away on the common pool. The others are
+ * queued per viewer and resolved one at a time on a low priority thread, the ones closest to the
+ * visible region first. When the viewer scrolls, queued code minings that become visible are
+ * resolved right away and the others are reordered. Queued code minings are dropped when the
+ * monitor of their code mining run is canceled, and all of them are canceled when the viewer is
+ * disposed.
+ * </p>
+ *
+ * @since 3.26
+ */
+public final class CodeMiningResolver {
+
+	/**
+	 * Runs the queued code minings of all viewers, one at a time and with low priority.
+	 */
+	private static final ThreadPoolExecutor DEFERRED_EXECUTOR= new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+		Thread thread= new Thread(r, "Java Code Mining Resolver"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	static {
+		DEFERRED_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * A queued code mining.
+	 */
+	private static final class Task {
+
+		final Position fPosition;
+
+		final IProgressMonitor fMonitor;
+
+		final Runnable fRunnable;
+
+		final CompletableFuture<Void> fFuture= new CompletableFuture<>();
+
+		Task(Position position, IProgressMonitor monitor, Runnable runnable) {
+			fPosition= position;
+			fMonitor= monitor;
+			fRunnable= runnable;
+		}
+
+		void run() {
+			try {
+				fRunnable.run();
+				fFuture.complete(null);
+			} catch (RuntimeException e) {
+				fFuture.completeExceptionally(e);
+			}
+		}
+	}
+
+	/** The queued code minings, guarded by this resolver */
+	private final List<Task> fQueue= new ArrayList<>();
+
+	/** The visible region, or <code>null</code> if unknown; guarded by this resolver */
+	private IRegion fVisibleRegion;
+
+	/** Guarded by this resolver */
+	private boolean fDisposed;
+
+	/**
+	 * Resolves a code mining.
+	 *
+	 * @param position the position of the code mining
+	 * @param monitor the monitor of the code mining run
+	 * @param runnable resolves the code mining
+	 * @return the future completed when the code mining is resolved, canceled if the viewer is
+	 *         disposed or the monitor canceled before
+	 */
+	public CompletableFuture<Void> resolve(Position position, IProgressMonitor monitor, Runnable runnable) {
+		Task task= new Task(position, monitor, runnable);
+		synchronized (this) {
+			if (fDisposed) {
+				task.fFuture.cancel(false);
+				return task.fFuture;
+			}
+			if (!isVisible(task)) {
+				fQueue.add(task);
+				DEFERRED_EXECUTOR.execute(this::runNext);
+				return task.fFuture;
+			}
+		}
+		ForkJoinPool.commonPool().execute(task::run);
+		return task.fFuture;
+	}
+
+	/**
+	 * Sets the visible region of the viewer. Queued code minings in it are resolved right away.
+	 *
+	 * @param visibleRegion the visible region, or <code>null</code> if unknown
+	 */
+	public void setVisibleRegion(IRegion visibleRegion) {
+		List<Task> visible= new ArrayList<>();
+		synchronized (this) {
+			fVisibleRegion= visibleRegion;
+			for (Iterator<Task> iter= fQueue.iterator(); iter.hasNext();) {
+				Task task= iter.next();
+				if (isVisible(task)) {
+					iter.remove();
+					visible.add(task);
+				}
+			}
+		}
+		for (Task task : visible) {
+			ForkJoinPool.commonPool().execute(task::run);
+		}
+	}
+
+	/**
+	 * Cancels the queued code minings and the ones resolved later. Called when the viewer is
+	 * disposed.
+	 */
+	public void dispose() {
+		List<Task> queued;
+		synchronized (this) {
+			fDisposed= true;
+			queued= new ArrayList<>(fQueue);
+			fQueue.clear();
+		}
+		for (Task task : queued) {
+			task.fFuture.cancel(false);
+		}
+	}
+
+	/**
+	 * Resolves the queued code mining closest to the visible region. Scheduled once per queued
+	 * code mining.
+	 */
+	private void runNext() {
+		Task next= null;
+		List<Task> canceled= new ArrayList<>();
+		synchronized (this) {
+			int nextDistance= Integer.MAX_VALUE;
+			for (Iterator<Task> iter= fQueue.iterator(); iter.hasNext();) {
+				Task task= iter.next();
+				if (task.fMonitor.isCanceled()) {
+					// a new code mining run has started
+					iter.remove();
+					canceled.add(task);
+				} else {
+					int distance= getDistance(task);
+					if (distance < nextDistance) {
+						next= task;
+						nextDistance= distance;
+					}
+				}
+			}
+			fQueue.remove(next);
+		}
+		for (Task task : canceled) {
+			task.fFuture.cancel(false);
+		}
+		if (next != null) {
+			next.run();
+		}
+	}
+
+	private boolean isVisible(Task task) {
+		return fVisibleRegion == null || getDistance(task) == 0;
+	}
+
+	/**
+	 * Returns the distance of a code mining from the visible region.
+	 *
+	 * @param task the queued code mining
+	 * @return the number of characters between the code mining and the visible region, 0 if
+	 *         visible
+	 */
+	private int getDistance(Task task) {
+		if (fVisibleRegion == null) {
+			return 0;
+		}
+		int start= fVisibleRegion.getOffset();
+		int end= start + fVisibleRegion.getLength();
+		int offset= task.fPosition.getOffset();
+		if (offset > end) {
+			return offset - end;
+		}
+		int positionEnd= offset + task.fPosition.getLength();
+		return positionEnd < start ? start - positionEnd : 0;
+	}
+}
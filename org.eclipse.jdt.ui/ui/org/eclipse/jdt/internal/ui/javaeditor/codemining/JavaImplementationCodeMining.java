@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2019 Angelo Zerr and others.
+ * Copyright (c) 2019, 2022 Angelo Zerr and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -27,6 +27,7 @@ import org.eclipse.swt.events.MouseEvent;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 
 import org.eclipse.jface.viewers.StructuredSelection;
 
@@ -75,8 +76,11 @@ public class JavaImplementationCodeMining extends AbstractJavaElementLineHeaderC
 	@SuppressWarnings("boxing")
 	@Override
 	protected CompletableFuture<Void> doResolve(ITextViewer viewer, IProgressMonitor monitor) {
-		return CompletableFuture.runAsync(() -> {
+		return resolveAsync(viewer, monitor, () -> {
 			try {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
 				IJavaElement element= super.getElement();
 				if (element instanceof IType) {
 					// for a type, count types implementing this type and show type hierarchy
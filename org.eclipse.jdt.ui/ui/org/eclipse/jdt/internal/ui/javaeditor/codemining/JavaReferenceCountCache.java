@@ -0,0 +1,469 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.javaeditor.codemining;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import org.eclipse.search.ui.NewSearchUI;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+import org.eclipse.jdt.internal.ui.search.JavaSearchScopeFactory;
+
+/**
+ * Caches the number of references to the Java elements shown by {@link JavaReferenceCodeMining}.
+ * <p>
+ * Concurrent requests for the same element share one search. The counts are kept per compilation
+ * unit. A change that is local to a compilation unit, e.g. an edit inside a method body, only
+ * marks that unit as stale, and the next request for a count searches again in the stale units
+ * only. Changes that may resolve references elsewhere differently, i.e. added, removed or
+ * renamed declarations, changed modifiers or super types, and classpath changes, clear the cache.
+ * Opening or closing a working copy does not change any count.
+ * </p>
+ * <p>
+ * When the cache grows beyond its maximum size, the least recently used counts are removed.
+ * </p>
+ *
+ * @since 3.26
+ */
+public final class JavaReferenceCountCache implements IElementChangedListener {
+
+	/** Default maximum number of cached counts */
+	private static final int MAX_SIZE= 10000;
+
+	/** Interval in which a request waiting for the search of another one checks for cancellation */
+	private static final long WAIT_MILLIS= 100;
+
+	/** Flags of a delta below a compilation unit that may change references in other units */
+	private static final int DECLARATION_FLAGS= IJavaElementDelta.F_MODIFIERS | IJavaElementDelta.F_SUPER_TYPES;
+
+	/** Flags of a delta above compilation units that may change any reference */
+	private static final int CLASSPATH_FLAGS= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+			| IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED
+			| IJavaElementDelta.F_CONTENT;
+
+	private static JavaReferenceCountCache fgDefault;
+
+	/**
+	 * The references to an element, counted per compilation unit or class file.
+	 */
+	private static final class Counts {
+
+		final Map<IJavaElement, Long> fUnitCounts;
+
+		final long fTotal;
+
+		Counts(Map<IJavaElement, Long> unitCounts) {
+			fUnitCounts= unitCounts;
+			long total= 0;
+			for (Long count : unitCounts.values()) {
+				total+= count.longValue();
+			}
+			fTotal= total;
+		}
+	}
+
+	/**
+	 * A cached or pending count.
+	 */
+	private static final class Entry {
+
+		final CompletableFuture<Counts> fCounts= new CompletableFuture<>();
+
+		/** Units changed since the search was started, guarded by the cache */
+		final Set<IJavaElement> fStaleUnits= new HashSet<>();
+
+		volatile long fLastUse;
+	}
+
+	private final Map<IJavaElement, Entry> fEntries= new ConcurrentHashMap<>();
+
+	private final AtomicLong fUseCount= new AtomicLong();
+
+	private final int fMaxSize;
+
+	private volatile boolean fIgnoreInaccurate= NewSearchUI.arePotentialMatchesIgnored();
+
+	/**
+	 * Creates a cache that is not registered as element changed listener. Clients are responsible
+	 * for registering it for {@link ElementChangedEvent#POST_CHANGE} and
+	 * {@link ElementChangedEvent#POST_RECONCILE} events.
+	 *
+	 * @param maxSize the maximum number of cached counts
+	 */
+	public JavaReferenceCountCache(int maxSize) {
+		fMaxSize= maxSize;
+	}
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the shared cache
+	 */
+	static synchronized JavaReferenceCountCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault= new JavaReferenceCountCache(MAX_SIZE);
+			JavaCore.addElementChangedListener(fgDefault, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Returns the number of references to the given element, searching for them if they are not
+	 * cached or have changed.
+	 *
+	 * @param element the Java element
+	 * @param monitor the progress monitor
+	 * @return the number of references
+	 * @throws CoreException if the search fails
+	 */
+	public long getReferenceCount(IJavaElement element, IProgressMonitor monitor) throws CoreException {
+		if (element == null) {
+			return 0;
+		}
+		boolean ignoreInaccurate= NewSearchUI.arePotentialMatchesIgnored();
+		if (ignoreInaccurate != fIgnoreInaccurate) {
+			fIgnoreInaccurate= ignoreInaccurate;
+			fEntries.clear();
+		}
+		while (true) {
+			if (fEntries.size() > fMaxSize) {
+				removeLeastRecentlyUsed();
+			}
+			Entry entry= new Entry();
+			entry.fLastUse= fUseCount.incrementAndGet();
+			Entry existing= fEntries.putIfAbsent(element, entry);
+			if (existing == null) {
+				return search(element, entry, null, null, ignoreInaccurate, monitor);
+			}
+			existing.fLastUse= fUseCount.incrementAndGet();
+			Counts counts= await(existing.fCounts, monitor);
+			if (counts == null) {
+				// the other search failed or was canceled, search again
+				continue;
+			}
+			List<IJavaElement> staleUnits;
+			synchronized (this) {
+				if (existing.fStaleUnits.isEmpty()) {
+					return counts.fTotal;
+				}
+				entry.fLastUse= existing.fLastUse;
+				if (!fEntries.replace(element, existing, entry)) {
+					// another request updates the count, or it was removed
+					continue;
+				}
+				staleUnits= new ArrayList<>(existing.fStaleUnits);
+			}
+			return search(element, entry, counts, staleUnits, ignoreInaccurate, monitor);
+		}
+	}
+
+	/**
+	 * Returns whether a count for the given element is cached or being computed.
+	 *
+	 * @param element the Java element
+	 * @return <code>true</code> if the count is cached
+	 */
+	public boolean isCached(IJavaElement element) {
+		return fEntries.containsKey(element);
+	}
+
+	/**
+	 * Returns whether the given element has a cached count that must be updated before it is
+	 * returned.
+	 *
+	 * @param element the Java element
+	 * @return <code>true</code> if references in some units must be counted again
+	 */
+	public synchronized boolean isStale(IJavaElement element) {
+		Entry entry= fEntries.get(element);
+		return entry != null && !entry.fStaleUnits.isEmpty();
+	}
+
+	/**
+	 * Counts the references of the given element and completes the entry with them.
+	 *
+	 * @param element the Java element
+	 * @param entry the entry to complete
+	 * @param counts the previous counts, or <code>null</code> to search the whole workspace
+	 * @param staleUnits the units to search again, or <code>null</code> to search the whole
+	 *            workspace
+	 * @param ignoreInaccurate <code>true</code> if potential matches are not counted
+	 * @param monitor the progress monitor
+	 * @return the number of references
+	 * @throws CoreException if the search fails
+	 */
+	private long search(IJavaElement element, Entry entry, Counts counts, List<IJavaElement> staleUnits, boolean ignoreInaccurate,
+			IProgressMonitor monitor) throws CoreException {
+		try {
+			Map<IJavaElement, Long> unitCounts;
+			if (counts == null) {
+				unitCounts= new HashMap<>();
+				countReferences(element, createSearchScope(element), ignoreInaccurate, unitCounts, monitor);
+			} else {
+				unitCounts= new HashMap<>(counts.fUnitCounts);
+				List<IJavaElement> existingUnits= new ArrayList<>();
+				for (IJavaElement unit : staleUnits) {
+					unitCounts.remove(unit);
+					if (unit.exists()) {
+						existingUnits.add(unit);
+					}
+				}
+				if (!existingUnits.isEmpty()) {
+					IJavaSearchScope scope= SearchEngine.createJavaSearchScope(existingUnits.toArray(new IJavaElement[existingUnits.size()]));
+					countReferences(element, scope, ignoreInaccurate, unitCounts, monitor);
+				}
+			}
+			Counts result= new Counts(Collections.unmodifiableMap(unitCounts));
+			entry.fCounts.complete(result);
+			return result.fTotal;
+		} catch (CoreException | RuntimeException e) {
+			fEntries.remove(element, entry);
+			entry.fCounts.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Removes the least recently used counts, so that a quarter of the cache is free again.
+	 */
+	private synchronized void removeLeastRecentlyUsed() {
+		if (fEntries.size() <= fMaxSize) {
+			return;
+		}
+		List<Map.Entry<IJavaElement, Entry>> entries= new ArrayList<>(fEntries.entrySet());
+		entries.sort(Comparator.comparingLong(e -> e.getValue().fLastUse));
+		int remove= entries.size() - fMaxSize * 3 / 4;
+		for (int i= 0; i < remove; i++) {
+			Map.Entry<IJavaElement, Entry> e= entries.get(i);
+			fEntries.remove(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Waits for the search of another request.
+	 *
+	 * @param counts the counts computed by the other request
+	 * @param monitor the progress monitor
+	 * @return the counts, or <code>null</code> if the other search failed
+	 */
+	private static Counts await(CompletableFuture<Counts> counts, IProgressMonitor monitor) {
+		while (true) {
+			try {
+				return counts.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				if (monitor.isCanceled()) {
+					throw new OperationCanceledException();
+				}
+			} catch (ExecutionException e) {
+				return null;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new OperationCanceledException();
+			}
+		}
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		if (fEntries.isEmpty()) {
+			return;
+		}
+		Set<IJavaElement> changedUnits= new HashSet<>();
+		if (collectChangedUnits(event.getDelta(), changedUnits)) {
+			fEntries.clear();
+		} else if (!changedUnits.isEmpty()) {
+			synchronized (this) {
+				for (Entry entry : fEntries.values()) {
+					entry.fStaleUnits.addAll(changedUnits);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the compilation units in which references may have changed.
+	 *
+	 * @param delta the delta
+	 * @param changedUnits the set to add the changed primary compilation units to
+	 * @return <code>true</code> if references outside of the collected units may have changed as
+	 *         well
+	 */
+	private static boolean collectChangedUnits(IJavaElementDelta delta, Set<IJavaElement> changedUnits) {
+		IJavaElement element= delta.getElement();
+		int type= element.getElementType();
+		if (type == IJavaElement.COMPILATION_UNIT) {
+			return collectChangedUnit((ICompilationUnit) element, delta, changedUnits);
+		}
+		if (type == IJavaElement.CLASS_FILE) {
+			// opening or closing an editor only toggles the working copy
+			return delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_PRIMARY_WORKING_COPY) != 0;
+		}
+		if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_FLAGS) != 0) {
+			return true;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (collectChangedUnits(child, changedUnits)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean collectChangedUnit(ICompilationUnit unit, IJavaElementDelta delta, Set<IJavaElement> changedUnits) {
+		if (delta.getKind() != IJavaElementDelta.CHANGED) {
+			// the declared types are new or gone
+			return true;
+		}
+		if (unit.getOwner() != null) {
+			// working copies of other owners are not searched
+			return false;
+		}
+		int flags= delta.getFlags();
+		if ((flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_PRIMARY_RESOURCE)) == 0) {
+			// e.g. opening or closing an editor
+			return false;
+		}
+		if ((flags & IJavaElementDelta.F_FINE_GRAINED) != 0) {
+			if (changesDeclarations(delta)) {
+				return true;
+			}
+		} else if (!unit.isWorkingCopy()) {
+			// changed outside of an editor, declarations may have changed without a reconcile delta
+			return true;
+		}
+		changedUnits.add(unit.getPrimary());
+		return false;
+	}
+
+	/**
+	 * Tells whether a fine grained delta changes declarations that may be referenced from other
+	 * compilation units.
+	 *
+	 * @param delta the delta of a compilation unit or of one of its elements
+	 * @return <code>true</code> if a member is added or removed or its modifiers or super types
+	 *         changed
+	 */
+	private static boolean changesDeclarations(IJavaElementDelta delta) {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			IJavaElement element= child.getElement();
+			int type= element.getElementType();
+			if (type == IJavaElement.IMPORT_CONTAINER || type == IJavaElement.IMPORT_DECLARATION || isLocal(element)) {
+				// only resolves names in this compilation unit
+				continue;
+			}
+			if (child.getKind() != IJavaElementDelta.CHANGED || (child.getFlags() & DECLARATION_FLAGS) != 0) {
+				return true;
+			}
+			if (changesDeclarations(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isLocal(IJavaElement element) {
+		IJavaElement parent= element.getParent();
+		return parent != null && (parent.getAncestor(IJavaElement.METHOD) != null || parent.getAncestor(IJavaElement.FIELD) != null
+				|| parent.getAncestor(IJavaElement.INITIALIZER) != null);
+	}
+
+	/**
+	 * Counts the references for the given java element per compilation unit or class file.
+	 *
+	 * @param element the java element.
+	 * @param scope the scope to search in
+	 * @param ignoreInaccurate <code>true</code> if potential matches are not counted
+	 * @param unitCounts the map to add the counts to
+	 * @param monitor the monitor
+	 * @throws CoreException throws when java error.
+	 */
+	private static void countReferences(IJavaElement element, IJavaSearchScope scope, boolean ignoreInaccurate,
+			Map<IJavaElement, Long> unitCounts, IProgressMonitor monitor) throws CoreException {
+		SearchPattern pattern= SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+		if (pattern == null) {
+			return;
+		}
+		SearchEngine engine= new SearchEngine();
+		engine.search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
+				scope, new SearchRequestor() {
+
+					@Override
+					public void acceptSearchMatch(SearchMatch match) throws CoreException {
+						if (match.getAccuracy() == SearchMatch.A_INACCURATE && ignoreInaccurate) {
+							return;
+						}
+						Object o= match.getElement();
+						if (o instanceof IJavaElement) {
+							IJavaElement e= (IJavaElement)o;
+							IJavaElement unit= e.getAncestor(IJavaElement.COMPILATION_UNIT);
+							if (unit != null) {
+								unit= ((ICompilationUnit) unit).getPrimary();
+							} else {
+								unit= e.getAncestor(IJavaElement.CLASS_FILE);
+							}
+							if (unit != null) {
+								unitCounts.merge(unit, Long.valueOf(1), Long::sum);
+							}
+						}
+					}
+				}, monitor);
+	}
+
+	/**
+	 * Create Java workspace scope.
+	 *
+	 * @param element IJavaElement to search references for
+	 *
+	 * @return the Java workspace scope.
+	 * @throws JavaModelException when java error.
+	 */
+	private static IJavaSearchScope createSearchScope(IJavaElement element) throws JavaModelException {
+		JavaSearchScopeFactory factory= JavaSearchScopeFactory.getInstance();
+		boolean isInsideJRE = factory.isInsideJRE(element);
+		IJavaSearchScope scope= factory.createWorkspaceScope(isInsideJRE);
+		return scope;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2017 Simeon Andreev and others.
+ * Copyright (c) 2017, 2022 Simeon Andreev and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,10 +16,14 @@ package org.eclipse.jdt.internal.ui.packageview;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaModelException;
@@ -35,12 +39,15 @@ import org.eclipse.jdt.core.JavaModelException;
  * </p>
  *
  * <p>
- * A single query runs in constant time. Preparing for queries runs in time linear to the number of
- * packages in the package root. The first query on this object will run the preparation step.
+ * The packages are kept in a prefix tree of their name segments. A single query runs in time linear
+ * to the depth of the package, independent of the number of packages in the package root. Preparing
+ * for queries runs in time linear to the number of packages in the package root. The first query on
+ * this object will run the preparation step. Afterwards, added and removed packages are reported
+ * with {@link #packageAdded(IPackageFragment)} and {@link #packageRemoved(IPackageFragment)}.
  * </p>
  *
  * <p>
- * Not thread safe.
+ * Thread safe.
  * </p>
  *
  * @see #getDirectChildren(IPackageFragment)
@@ -49,27 +56,32 @@ public class PackageCache {
 
 	/**
 	 * Caches the children of a package in a package root. The cache for a package root is built on the
-	 * first query.
+	 * first query, and is updated with the packages added and removed by Java element deltas.
 	 */
-	static class PerRootCache {
+	public static class PerRootCache {
 
 		private final Map<IPackageFragmentRoot, PackageCache> packageCaches= new HashMap<>();
 
-		boolean hasSingleChild(IPackageFragment packageFragment) throws JavaModelException {
+		public boolean hasSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
 			return packagesOfRoot.hasSingleChild(packageFragment);
 		}
 
-		IPackageFragment getSingleChild(IPackageFragment packageFragment) throws JavaModelException {
+		public IPackageFragment getSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
 			return packagesOfRoot.getSingleChild(packageFragment);
 		}
 
-		List<IPackageFragment> getDirectChildren(IPackageFragment packageFragment) throws JavaModelException {
+		public List<IPackageFragment> getDirectChildren(IPackageFragment packageFragment) throws JavaModelException {
 			PackageCache packagesOfRoot= getPackageCache(packageFragment);
 			return packagesOfRoot.getDirectChildren(packageFragment);
 		}
 
+		public List<IPackageFragment> getTopLevelPackages(IPackageFragmentRoot root) throws JavaModelException {
+			PackageCache packagesOfRoot= getPackageCache(root);
+			return packagesOfRoot.getTopLevelPackages();
+		}
+
 		private PackageCache getPackageCache(IPackageFragment packageFragment) {
 			IPackageFragmentRoot packageRoot= (IPackageFragmentRoot) packageFragment.getParent();
 			PackageCache packageCache= getPackageCache(packageRoot);
@@ -91,21 +103,114 @@ public class PackageCache {
 		/**
 		 * Can be called from a different (not only UI) thread.
 		 */
-		void clear() {
+		public void clear() {
 			synchronized (packageCaches) {
 				packageCaches.clear();
 			}
 		}
+
+		/**
+		 * Updates the caches with the packages added and removed by the given delta. The caches of
+		 * package roots that changed otherwise, for example by a change of the classpath or of the
+		 * content of an archive, are dropped.
+		 * <p>
+		 * Can be called from a different (not only UI) thread.
+		 * </p>
+		 *
+		 * @param delta the delta of the Java model
+		 */
+		public void processDelta(IJavaElementDelta delta) {
+			synchronized (packageCaches) {
+				if (!packageCaches.isEmpty()) {
+					processDeltaRecursively(delta);
+				}
+			}
+		}
+
+		private void processDeltaRecursively(IJavaElementDelta delta) {
+			IJavaElement element= delta.getElement();
+			switch (element.getElementType()) {
+				case IJavaElement.JAVA_MODEL:
+					if (!isChildrenChange(delta, 0)) {
+						packageCaches.clear();
+						return;
+					}
+					break;
+				case IJavaElement.JAVA_PROJECT:
+					if (!isChildrenChange(delta, 0)) {
+						removeProject((IJavaProject) element);
+						return;
+					}
+					break;
+				case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+					if (!isChildrenChange(delta, IJavaElementDelta.F_SOURCEATTACHED | IJavaElementDelta.F_SOURCEDETACHED)) {
+						packageCaches.remove(element);
+						return;
+					}
+					if (!packageCaches.containsKey(element)) {
+						return;
+					}
+					break;
+				case IJavaElement.PACKAGE_FRAGMENT:
+					PackageCache packageCache= packageCaches.get(element.getParent());
+					if (packageCache != null) {
+						if (delta.getKind() == IJavaElementDelta.ADDED) {
+							packageCache.packageAdded((IPackageFragment) element);
+						} else if (delta.getKind() == IJavaElementDelta.REMOVED) {
+							packageCache.packageRemoved((IPackageFragment) element);
+						}
+					}
+					return;
+				default:
+					return;
+			}
+			for (IJavaElementDelta child : delta.getAffectedChildren()) {
+				processDeltaRecursively(child);
+			}
+		}
+
+		private static boolean isChildrenChange(IJavaElementDelta delta, int ignoredFlags) {
+			int childrenFlags= IJavaElementDelta.F_CHILDREN | IJavaElementDelta.F_CONTENT | ignoredFlags;
+			return delta.getKind() == IJavaElementDelta.CHANGED && (delta.getFlags() & ~childrenFlags) == 0;
+		}
+
+		private void removeProject(IJavaProject project) {
+			for (Iterator<IPackageFragmentRoot> iterator= packageCaches.keySet().iterator(); iterator.hasNext();) {
+				if (project.equals(iterator.next().getJavaProject())) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * A node of the prefix tree, for one segment of a package name.
+	 */
+	private static final class PackageNode {
+
+		/** The package with the name of this node, or {@code null} if there is no such package */
+		IPackageFragment fragment;
+
+		/** The child nodes by their name segment, in the order of the packages in the package root */
+		final Map<String, PackageNode> children= new LinkedHashMap<>();
+
+		PackageNode getChild(String segment) {
+			return children.get(segment);
+		}
+
+		boolean isObsolete() {
+			return fragment == null && children.isEmpty();
+		}
 	}
 
 
 	private final IPackageFragmentRoot packageRoot;
 
 	/**
-	 * Key is {@link IPackageFragment#getElementName()}, value is the list of the direct children
-	 * packages.
+	 * The root of the prefix tree, its children are the first segments of the package names. The
+	 * default package is not in the tree.
 	 */
-	private final Map<String, List<IPackageFragment>> packagesCache;
+	private final PackageNode packagesTree;
 
 	private boolean initialized;
 
@@ -114,7 +219,7 @@ public class PackageCache {
 	 */
 	public PackageCache(IPackageFragmentRoot packageRoot) {
 		this.packageRoot= packageRoot;
-		packagesCache= new HashMap<>();
+		packagesTree= new PackageNode();
 		initialized= false;
 	}
 
@@ -126,7 +231,7 @@ public class PackageCache {
 	 *
 	 * @see #getSingleChild(IPackageFragment)
 	 */
-	public boolean hasSingleChild(IPackageFragment packageFragment) throws JavaModelException {
+	public synchronized boolean hasSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 		IPackageFragment singleChild= getSingleChild(packageFragment);
 		boolean hasSingleChild= singleChild != null;
 		return hasSingleChild;
@@ -141,7 +246,7 @@ public class PackageCache {
 	 *
 	 * @see #getDirectChildren(IPackageFragment)
 	 */
-	public IPackageFragment getSingleChild(IPackageFragment packageFragment) throws JavaModelException {
+	public synchronized IPackageFragment getSingleChild(IPackageFragment packageFragment) throws JavaModelException {
 		List<IPackageFragment> children= getDirectChildren(packageFragment);
 		boolean hasSingleChild= children.size() == 1;
 		if (hasSingleChild) {
@@ -187,14 +292,109 @@ public class PackageCache {
 	 * @param packageFragment The direct children of this fragment will be retrieved.
 	 * @throws JavaModelException If accessing the packages in the package root fails.
 	 */
-	public List<IPackageFragment> getDirectChildren(IPackageFragment packageFragment) throws JavaModelException {
+	public synchronized List<IPackageFragment> getDirectChildren(IPackageFragment packageFragment) throws JavaModelException {
+		initialize();
+		String packageName= packageFragment.getElementName();
+		if (packageName.isEmpty()) {
+			// the default package has no children
+			return Collections.emptyList();
+		}
+		PackageNode node= findNode(packageName);
+		if (node == null) {
+			return Collections.emptyList();
+		}
+		return getPackages(node);
+	}
+
+	/**
+	 * Returns the packages with a simple name, e.g. {@code a} and {@code f} in the example of
+	 * {@link #getDirectChildren(IPackageFragment)}. The default package is not returned.
+	 *
+	 * @return The top-level packages of the package root. Never {@code null}.
+	 * @throws JavaModelException If accessing the packages in the package root fails.
+	 */
+	public synchronized List<IPackageFragment> getTopLevelPackages() throws JavaModelException {
 		initialize();
+		return getPackages(packagesTree);
+	}
+
+	/**
+	 * Adds a package that was created after the cache was prepared. Does nothing if the cache is not
+	 * prepared yet.
+	 *
+	 * @param packageFragment The added package.
+	 */
+	public synchronized void packageAdded(IPackageFragment packageFragment) {
+		if (initialized) {
+			addPackage(packageFragment);
+		}
+	}
+
+	/**
+	 * Removes a package that was deleted after the cache was prepared. Does nothing if the cache is
+	 * not prepared yet.
+	 *
+	 * @param packageFragment The removed package.
+	 */
+	public synchronized void packageRemoved(IPackageFragment packageFragment) {
+		if (!initialized) {
+			return;
+		}
+		String packageName= packageFragment.getElementName();
+		if (packageName.isEmpty()) {
+			return;
+		}
+		String[] segments= getSegments(packageName);
+		PackageNode[] path= new PackageNode[segments.length + 1];
+		path[0]= packagesTree;
+		for (int i= 0; i < segments.length; i++) {
+			path[i + 1]= path[i].getChild(segments[i]);
+			if (path[i + 1] == null) {
+				return;
+			}
+		}
+		path[segments.length].fragment= null;
+		// remove the nodes that neither have a package nor children anymore
+		for (int i= segments.length; i > 0 && path[i].isObsolete(); i--) {
+			path[i - 1].children.remove(segments[i - 1]);
+		}
+	}
+
+	private static List<IPackageFragment> getPackages(PackageNode node) {
+		List<IPackageFragment> packages= new ArrayList<>(node.children.size());
+		for (PackageNode child : node.children.values()) {
+			if (child.fragment != null) {
+				packages.add(child.fragment);
+			}
+		}
+		return Collections.unmodifiableList(packages);
+	}
+
+	private PackageNode findNode(String packageName) {
+		PackageNode node= packagesTree;
+		for (String segment : getSegments(packageName)) {
+			node= node.getChild(segment);
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	private void addPackage(IPackageFragment packageFragment) {
 		String packageName= packageFragment.getElementName();
-		List<IPackageFragment> childrenOfPackage= packagesCache.get(packageName);
-		if (childrenOfPackage == null) {
-			return Collections.EMPTY_LIST;
+		if (packageName.isEmpty()) {
+			return;
+		}
+		PackageNode node= packagesTree;
+		for (String segment : getSegments(packageName)) {
+			node= node.children.computeIfAbsent(segment, k -> new PackageNode());
 		}
-		return Collections.unmodifiableList(childrenOfPackage);
+		node.fragment= packageFragment;
+	}
+
+	private static String[] getSegments(String packageName) {
+		return packageName.split("\\.", -1); //$NON-NLS-1$
 	}
 
 	private void initialize() throws JavaModelException {
@@ -210,27 +410,12 @@ public class PackageCache {
 	 * @throws JavaModelException If accessing the packages in the package root fails.
 	 */
 	private void collectChildrenOfPackages() throws JavaModelException {
-		packagesCache.clear();
+		packagesTree.children.clear();
 
 		IJavaElement[] allPackages= packageRoot.getChildren();
 
 		for (IJavaElement child : allPackages) {
-			IPackageFragment currentPackage= (IPackageFragment) child;
-
-			String packageName= currentPackage.getElementName();
-
-			int index= packageName.lastIndexOf('.');
-			boolean hasParentPackage= index != -1;
-			if (hasParentPackage) {
-				String parentName= packageName.substring(0, index);
-
-				List<IPackageFragment> siblingsOfCurrentPackage= packagesCache.get(parentName);
-				if (siblingsOfCurrentPackage == null) {
-					siblingsOfCurrentPackage= new ArrayList<>();
-					packagesCache.put(parentName, siblingsOfCurrentPackage);
-				}
-				siblingsOfCurrentPackage.add(currentPackage);
-			}
+			addPackage((IPackageFragment) child);
 		}
 	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2013 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,8 +16,13 @@ package org.eclipse.jdt.internal.ui.packageview;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
@@ -28,6 +33,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -41,6 +47,7 @@ import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
 
 import org.eclipse.ui.IWorkingSet;
+import org.eclipse.ui.progress.PendingUpdateAdapter;
 import org.eclipse.ui.progress.UIJob;
 
 import org.eclipse.jdt.core.ElementChangedEvent;
@@ -93,11 +100,49 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	private UIJob fUpdateJob;
 
+	/**
+	 * If set, the children of libraries are computed in the background, see
+	 * {@link #setDeferChildren(boolean)}.
+	 */
+	private boolean fDeferChildren;
+
+	/**
+	 * The parents whose children are computed in the background, with the placeholder that is shown
+	 * meanwhile. Guarded by <code>this</code>.
+	 */
+	private final Map<Object, PendingUpdateAdapter> fPendingParents;
+
+	/**
+	 * The children computed in the background that have not been fetched by the viewer yet. Guarded
+	 * by <code>this</code>.
+	 */
+	private final Map<Object, Object[]> fDeferredChildren;
+
+	/**
+	 * The containers whose children have been computed once. Their classpath entries are resolved, so
+	 * their children are computed in the UI thread from now on. Guarded by <code>this</code>.
+	 */
+	private final Set<Object> fLoadedContainers;
+
+	/**
+	 * Incremented when the children computed in the background become stale. Guarded by
+	 * <code>this</code>.
+	 */
+	private int fDeferredGeneration;
+
+	/**
+	 * Greater than zero while the viewer reveals elements, see
+	 * {@link #revealSynchronously(List, Runnable)}. Only accessed in the UI thread.
+	 */
+	private int fSynchronousReveals;
+
+	private Job fChildrenJob;
+
 	/**
 	 * We use a cache to know whether a package has a single child for the hierarchical representation.
 	 * This avoids looping over all packages for each call to
-	 * {@link #getHierarchicalPackageParent(IPackageFragment)}. The cache is cleared on any Java model
-	 * change, as we aim to improve operations which go over all packages on by one.
+	 * {@link #getHierarchicalPackageParent(IPackageFragment)}. The cache is updated with the packages
+	 * added and removed by the Java model deltas, so that it survives the changes of a build.
 	 */
 	private final PackageCache.PerRootCache packageCache;
 
@@ -115,6 +160,12 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 		fUpdateJob= null;
 		packageCache= new PackageCache.PerRootCache();
+
+		fDeferChildren= false;
+		fPendingParents= new LinkedHashMap<>();
+		fDeferredChildren= new HashMap<>();
+		fLoadedContainers= new HashSet<>();
+		fChildrenJob= null;
 	}
 
 	private boolean arePackagesFoldedInHierarchicalLayout(){
@@ -129,7 +180,8 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	public void elementChanged(final ElementChangedEvent event) {
 		final ArrayList<Runnable> runnables= new ArrayList<>();
 		try {
-			clearPackageCache();
+			packageCache.processDelta(event.getDelta());
+			clearDeferredChildren();
 
 			// 58952 delete project does not update Package Explorer [package explorer]
 			// if the input to the viewer is deleted then refresh to avoid the display of stale elements
@@ -205,12 +257,62 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	private void runUpdates(Collection<Runnable> runnables) {
+		if (runnables.size() > 1) {
+			runnables= coalesceRefreshes(runnables);
+		}
 		Iterator<Runnable> runnableIterator = runnables.iterator();
 		while (runnableIterator.hasNext()){
 			runnableIterator.next().run();
 		}
 	}
 
+	/*
+	 * Many deltas arriving while the viewer is busy refresh the same elements again and again. Each run
+	 * of consecutive refreshes is merged into one that refreshes each element once, as a refresh shows
+	 * the current state of the model anyway. Adds and removes keep their order relative to the
+	 * refreshes, they may depend on the items created by an earlier refresh.
+	 */
+	private Collection<Runnable> coalesceRefreshes(Collection<Runnable> runnables) {
+		List<Runnable> result= new ArrayList<>(runnables.size());
+		List<RefreshRunnable> refreshes= new ArrayList<>();
+		for (Runnable runnable : runnables) {
+			if (runnable instanceof RefreshRunnable) {
+				refreshes.add((RefreshRunnable) runnable);
+			} else {
+				addMergedRefresh(refreshes, result);
+				result.add(runnable);
+			}
+		}
+		addMergedRefresh(refreshes, result);
+		return result;
+	}
+
+	private void addMergedRefresh(List<RefreshRunnable> refreshes, List<Runnable> result) {
+		if (refreshes.size() == 1) {
+			result.add(refreshes.get(0));
+		} else if (refreshes.size() > 1) {
+			Map<Object, Boolean> toRefresh= new LinkedHashMap<>();
+			for (RefreshRunnable refresh : refreshes) {
+				for (Object element : refresh.fToRefresh) {
+					toRefresh.merge(element, Boolean.valueOf(refresh.fUpdateLabels), (a, b) -> Boolean.valueOf(a.booleanValue() || b.booleanValue()));
+				}
+			}
+			if (toRefresh.containsKey(null)) {
+				// the whole viewer is refreshed
+				result.add(new RefreshRunnable(Arrays.asList((Object) null), toRefresh.get(null).booleanValue()));
+			} else {
+				result.add(() -> {
+					for (Map.Entry<Object, Boolean> entry : toRefresh.entrySet()) {
+						if (fViewer.testFindItems(entry.getKey()).length > 0) {
+							fViewer.refresh(entry.getKey(), entry.getValue().booleanValue());
+						}
+					}
+				});
+			}
+		}
+		refreshes.clear();
+	}
+
 
 	private boolean inputDeleted(Collection<Runnable> runnables) {
 		if (fInput == null)
@@ -230,6 +332,13 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	@Override
 	public void dispose() {
 		clearPackageCache();
+		synchronized (this) {
+			fPendingParents.clear();
+			fDeferredChildren.clear();
+			if (fChildrenJob != null) {
+				fChildrenJob.cancel();
+			}
+		}
 		JavaCore.removeElementChangedListener(this);
 		JavaPlugin.getDefault().getPreferenceStore().removePropertyChangeListener(this);
 		super.dispose();
@@ -292,6 +401,26 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	@Override
 	public Object[] getChildren(Object parentElement) {
+		if (fDeferChildren && fSynchronousReveals > 0) {
+			return getChildrenSynchronously(parentElement);
+		}
+		if (fDeferChildren) {
+			Object[] deferred= getDeferredChildren(parentElement);
+			if (deferred != null)
+				return deferred;
+		}
+		return internalGetChildren(parentElement);
+	}
+
+	@Override
+	public boolean hasChildren(Object element) {
+		// don't compute the children of a deferred parent, an empty parent loses its expand button when expanded
+		if (isDeferredParent(element))
+			return true;
+		return super.hasChildren(element);
+	}
+
+	private Object[] internalGetChildren(Object parentElement) {
 		try {
 			if (parentElement instanceof IJavaModel)
 				return concatenate(getJavaProjects((IJavaModel)parentElement), getNonJavaProjects((IJavaModel)parentElement));
@@ -363,6 +492,172 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 		return container.getChildren();
 	}
 
+	/**
+	 * Sets whether the children of libraries are computed in the background. Expanding a classpath
+	 * container or the libraries node resolves all their entries, and expanding an archive that is
+	 * not open yet reads the archive. If set, the viewer shows a placeholder for such a parent and the
+	 * children are added with a refresh of the parent when they have been computed. Not set by
+	 * default, clients that fetch children directly expect them to be complete.
+	 *
+	 * @param defer if set, the children of libraries are computed in the background
+	 * @since 3.26
+	 */
+	public void setDeferChildren(boolean defer) {
+		fDeferChildren= defer;
+		if (!defer) {
+			clearDeferredChildren();
+		}
+	}
+
+	/*
+	 * Returns whether the children of the given element are expensive to compute: those of a container
+	 * that has not been expanded yet, and those of an archive that is not open.
+	 */
+	private boolean isDeferredParent(Object element) {
+		if (!fDeferChildren)
+			return false;
+		if (element instanceof PackageFragmentRootContainer) {
+			synchronized (this) {
+				return !fLoadedContainers.contains(element);
+			}
+		}
+		if (element instanceof IPackageFragmentRoot) {
+			IPackageFragmentRoot root= (IPackageFragmentRoot) element;
+			return root.isArchive() && !root.isOpen();
+		}
+		return false;
+	}
+
+	/*
+	 * Returns the children computed in the background, or a placeholder if they are being computed, or
+	 * null if the children are computed in the calling thread.
+	 */
+	private Object[] getDeferredChildren(Object parentElement) {
+		synchronized (this) {
+			Object[] children= fDeferredChildren.remove(parentElement);
+			if (children != null)
+				return children;
+			PendingUpdateAdapter placeholder= fPendingParents.get(parentElement);
+			if (placeholder != null)
+				return new Object[] { placeholder };
+		}
+		if (!isDeferredParent(parentElement))
+			return null;
+
+		PendingUpdateAdapter placeholder= new PendingUpdateAdapter();
+		synchronized (this) {
+			fPendingParents.put(parentElement, placeholder);
+			if (fChildrenJob == null) {
+				fChildrenJob= new Job(PackagesMessages.PackageExplorerContentProvider_children_job_description) {
+					@Override
+					protected IStatus run(IProgressMonitor monitor) {
+						return computeDeferredChildren(monitor);
+					}
+				};
+				fChildrenJob.setSystem(true);
+			}
+			fChildrenJob.schedule();
+		}
+		return new Object[] { placeholder };
+	}
+
+	/*
+	 * Computes the children of the pending parents, in the order in which they were expanded. Each
+	 * parent is refreshed when its children are known, the refreshes are collected by the update job
+	 * and run in one batch.
+	 */
+	private IStatus computeDeferredChildren(IProgressMonitor monitor) {
+		while (true) {
+			Object parent;
+			int generation;
+			synchronized (this) {
+				if (fPendingParents.isEmpty())
+					return Status.OK_STATUS;
+				parent= fPendingParents.keySet().iterator().next();
+				generation= fDeferredGeneration;
+			}
+			if (monitor.isCanceled())
+				return Status.CANCEL_STATUS;
+
+			Object[] children= internalGetChildren(parent);
+			synchronized (this) {
+				if (fPendingParents.remove(parent) == null)
+					continue; // the input changed or the children have been computed for a reveal
+				// if the model changed meanwhile, the viewer computes the children again, which is fast now
+				if (generation == fDeferredGeneration) {
+					fDeferredChildren.put(parent, children);
+				}
+				if (parent instanceof PackageFragmentRootContainer) {
+					fLoadedContainers.add(parent);
+				}
+			}
+			TreeViewer viewer= fViewer;
+			if (viewer != null) {
+				List<Runnable> runnables= new ArrayList<>(1);
+				postRefresh(new ArrayList<>(Arrays.asList(parent)), false, runnables);
+				executeRunnables(runnables);
+			}
+		}
+	}
+
+	/*
+	 * Computes the children in the calling thread and forgets the children that are computed in the
+	 * background.
+	 */
+	private Object[] getChildrenSynchronously(Object parentElement) {
+		Object[] children= internalGetChildren(parentElement);
+		synchronized (this) {
+			fPendingParents.remove(parentElement);
+			fDeferredChildren.remove(parentElement);
+			if (parentElement instanceof PackageFragmentRootContainer) {
+				fLoadedContainers.add(parentElement);
+			}
+		}
+		return children;
+	}
+
+	/**
+	 * Runs the given reveal with the children of all parents computed in the calling thread, as the
+	 * viewer cannot reveal an element below a placeholder. Parents of the elements that already show a
+	 * placeholder are refreshed first. Must be called in the UI thread while the viewer is not busy.
+	 *
+	 * @param elements the elements to reveal
+	 * @param reveal the runnable that reveals the elements
+	 */
+	void revealSynchronously(List<?> elements, Runnable reveal) {
+		if (!fDeferChildren) {
+			reveal.run();
+			return;
+		}
+		fSynchronousReveals++;
+		try {
+			for (Object element : elements) {
+				for (Object parent= getParent(element); parent != null; parent= getParent(parent)) {
+					boolean pending;
+					synchronized (this) {
+						pending= fPendingParents.containsKey(parent);
+					}
+					if (pending && fViewer.testFindItems(parent).length > 0) {
+						fViewer.refresh(parent);
+					}
+				}
+			}
+			reveal.run();
+		} finally {
+			fSynchronousReveals--;
+		}
+	}
+
+	/*
+	 * Forgets the children computed in the background. The parents that are still pending are refreshed
+	 * without their children when done, the viewer computes them again as the model may have changed
+	 * while they were computed.
+	 */
+	private synchronized void clearDeferredChildren() {
+		fDeferredChildren.clear();
+		fDeferredGeneration++;
+	}
+
 	private Object[] getNonJavaProjects(IJavaModel model) throws JavaModelException {
 		return model.getNonJavaResources();
 	}
@@ -398,6 +693,12 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
 		super.inputChanged(viewer, oldInput, newInput);
 		fViewer= (TreeViewer)viewer;
+		synchronized (this) {
+			fPendingParents.clear();
+			fDeferredChildren.clear();
+			fLoadedContainers.clear();
+			fDeferredGeneration++;
+		}
 		if (oldInput == null && newInput != null) {
 			JavaCore.addElementChangedListener(this);
 		} else if (oldInput != null && newInput == null) {
@@ -416,21 +717,19 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	 */
 	private void getHierarchicalPackageRootChildren(IPackageFragmentRoot parent, Collection<Object> result) throws JavaModelException {
 		boolean is9OrHigher= JavaModelUtil.is9OrHigher(parent.getJavaProject());
-		for (IJavaElement child : parent.getChildren()) {
-			IPackageFragment curr= (IPackageFragment) child;
-			String name= curr.getElementName();
-			if (!name.isEmpty() && name.indexOf('.') == -1) {
-				if (fFoldPackages) {
-					curr= getFolded(curr);
-				}
-				result.add(curr);
-			} else if (curr.isDefaultPackage()) {
-				if (isRelevantPackage(curr, is9OrHigher))
-					result.add(curr);
-				IJavaElement emptyModuleInfo= emptyModuleInfo(curr, is9OrHigher);
-				if (emptyModuleInfo != null)
-					result.add(emptyModuleInfo);
+		for (IPackageFragment curr : packageCache.getTopLevelPackages(parent)) {
+			if (fFoldPackages) {
+				curr= getFolded(curr);
 			}
+			result.add(curr);
+		}
+		IPackageFragment defaultPackage= parent.getPackageFragment(""); //$NON-NLS-1$
+		if (defaultPackage.exists()) {
+			if (isRelevantPackage(defaultPackage, is9OrHigher))
+				result.add(defaultPackage);
+			IJavaElement emptyModuleInfo= emptyModuleInfo(defaultPackage, is9OrHigher);
+			if (emptyModuleInfo != null)
+				result.add(emptyModuleInfo);
 		}
 
 		if (is9OrHigher) {
@@ -912,10 +1211,12 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 
 	public void setIsFlatLayout(boolean state) {
 		fIsFlatLayout= state;
+		clearDeferredChildren();
 	}
 
 	public void setShowLibrariesNode(boolean state) {
 		fShowLibrariesNode= state;
+		clearDeferredChildren();
 	}
 
 	private void postRefresh(Object root, int relation, Object affectedElement, Collection<Runnable> runnables) {
@@ -949,13 +1250,31 @@ public class PackageExplorerContentProvider extends StandardJavaElementContentPr
 	}
 
 	protected void postRefresh(final List<Object> toRefresh, final boolean updateLabels, Collection<Runnable> runnables) {
-		runnables.add(() -> {
-			for (Object element : toRefresh.toArray()) {
+		runnables.add(new RefreshRunnable(toRefresh, updateLabels));
+	}
+
+	/**
+	 * Refreshes elements of the viewer. The refreshes of a batch of updates are merged, see
+	 * {@link PackageExplorerContentProvider#coalesceRefreshes(Collection)}.
+	 */
+	private final class RefreshRunnable implements Runnable {
+
+		private final List<Object> fToRefresh;
+		private final boolean fUpdateLabels;
+
+		RefreshRunnable(List<Object> toRefresh, boolean updateLabels) {
+			fToRefresh= toRefresh;
+			fUpdateLabels= updateLabels;
+		}
+
+		@Override
+		public void run() {
+			for (Object element : fToRefresh.toArray()) {
 				if (element == null || fViewer.testFindItems(element).length > 0) {
-					fViewer.refresh(element, updateLabels);
+					fViewer.refresh(element, fUpdateLabels);
 				}
 			}
-		});
+		}
 	}
 
 	protected void postAdd(final Object parent, final Object element, Collection<Runnable> runnables) {
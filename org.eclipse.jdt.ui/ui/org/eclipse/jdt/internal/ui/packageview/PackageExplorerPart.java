@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2018 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -160,6 +160,12 @@ public class PackageExplorerPart extends ViewPart
 	private static final int HIERARCHICAL_LAYOUT= 0x1;
 	private static final int FLAT_LAYOUT= 0x2;
 
+	/**
+	 * If set to <code>false</code>, the children of libraries are computed in the UI thread, see
+	 * {@link PackageExplorerContentProvider#setDeferChildren(boolean)}.
+	 */
+	private static final boolean DEFER_CHILDREN= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.packageExplorer.deferChildren", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
 	public static final int PROJECTS_AS_ROOTS= 1;
 	public static final int WORKING_SETS_AS_ROOTS= 2;
 
@@ -264,6 +270,24 @@ public class PackageExplorerPart extends ViewPart
 			super.add(parentElement, childElements);
 		}
 
+		@Override
+		public void reveal(Object element) {
+			if (fContentProvider == null) {
+				super.reveal(element);
+				return;
+			}
+			fContentProvider.revealSynchronously(Collections.singletonList(element), () -> super.reveal(element));
+		}
+
+		@Override
+		public void setSelection(ISelection selection, boolean reveal) {
+			if (!reveal || fContentProvider == null || !(selection instanceof IStructuredSelection)) {
+				super.setSelection(selection, reveal);
+				return;
+			}
+			fContentProvider.revealSynchronously(((IStructuredSelection) selection).toList(), () -> super.setSelection(selection, reveal));
+		}
+
 	    @Override
 		protected void internalRefresh(Object element, boolean updateLabels) {
 			try {
@@ -594,6 +618,7 @@ public class PackageExplorerPart extends ViewPart
 		fContentProvider= createContentProvider();
 		fContentProvider.setIsFlatLayout(fIsCurrentLayoutFlat);
 		fContentProvider.setShowLibrariesNode(fShowLibrariesNode);
+		fContentProvider.setDeferChildren(DEFER_CHILDREN);
 		fViewer.setContentProvider(fContentProvider);
 
 		fViewer.setComparer(createElementComparer());
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2009 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -57,6 +57,7 @@ public final class PackagesMessages extends NLS {
 	public static String PackageExplorer_notFound;
 	public static String PackageExplorer_removeFilters;
 	public static String PackageExplorerContentProvider_update_job_description;
+	public static String PackageExplorerContentProvider_children_job_description;
 	public static String SelectionTransferDropAdapter_error_title;
 	public static String SelectionTransferDropAdapter_error_message;
 	public static String LayoutActionGroup_label;
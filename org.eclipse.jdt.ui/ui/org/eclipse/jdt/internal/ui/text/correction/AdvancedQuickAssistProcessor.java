@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -177,40 +177,44 @@ public class AdvancedQuickAssistProcessor implements IQuickAssistProcessor {
 		if (coveringNode != null) {
 			ArrayList<ASTNode> coveredNodes= getFullyCoveredNodes(context, coveringNode);
 			ArrayList<ICommandAccess> resultingCollections= new ArrayList<>();
+			ProposalProducerRunner runner= new ProposalProducerRunner(context, "AdvancedQuickAssistProcessor"); //$NON-NLS-1$
 
 			//quick assists that show up also if there is an error/warning
-			getReplaceConditionalWithIfElseProposals(context, coveringNode, resultingCollections);
+			runner.run("getReplaceConditionalWithIfElseProposals", () -> getReplaceConditionalWithIfElseProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
 
 			if (QuickAssistProcessor.noErrorsAtLocation(locations)) {
-				getConvertToIfReturnProposals(context, coveringNode, resultingCollections);
-				getInverseIfProposals(context, coveringNode, resultingCollections);
-				getIfReturnIntoIfElseAtEndOfVoidMethodProposals(context, coveringNode, resultingCollections);
-				getInverseIfContinueIntoIfThenInLoopsProposals(context, coveringNode, resultingCollections);
-				getInverseIfIntoContinueInLoopsProposals(context, coveringNode, resultingCollections);
-				getInverseConditionProposals(context, coveringNode, coveredNodes, resultingCollections);
-				getRemoveExtraParenthesesProposals(context, coveringNode, coveredNodes, resultingCollections);
-				getAddParanoidalParenthesesProposals(context, coveredNodes, resultingCollections);
-				getAddParenthesesForExpressionProposals(context, coveringNode, resultingCollections);
-				getJoinAndIfStatementsProposals(context, coveringNode, resultingCollections);
-				getSplitAndConditionProposals(context, coveringNode, resultingCollections);
-				getJoinOrIfStatementsProposals(context, coveringNode, coveredNodes, resultingCollections);
-				getSplitOrConditionProposals(context, coveringNode, resultingCollections);
-				getInverseConditionalExpressionProposals(context, coveringNode, resultingCollections);
-				getExchangeInnerAndOuterIfConditionsProposals(context, coveringNode, resultingCollections);
-				getExchangeOperandsProposals(context, coveringNode, resultingCollections);
-				getCastAndAssignIfStatementProposals(context, coveringNode, resultingCollections);
-				getCombineStringProposals(context, coveringNode, resultingCollections);
-				getPickOutStringProposals(context, coveringNode, resultingCollections);
-				getReplaceIfElseWithConditionalProposals(context, coveringNode, resultingCollections);
-				getInverseLocalVariableProposals(context, coveringNode, resultingCollections);
-				getPushNegationDownProposals(context, coveringNode, resultingCollections);
-				getPullNegationUpProposals(context, coveredNodes, resultingCollections);
-				getJoinIfListInIfElseIfProposals(context, coveringNode, coveredNodes, resultingCollections);
-				getConvertSwitchToIfProposals(context, coveringNode, resultingCollections);
-				getConvertIfElseToSwitchProposals(context, coveringNode, resultingCollections);
-				GetterSetterCorrectionSubProcessor.addGetterSetterProposal(context, coveringNode, locations, resultingCollections);
-
-				ExternalNullAnnotationQuickAssistProcessor.getAnnotateProposals(context, resultingCollections);
+				runner.run("getConvertToIfReturnProposals", () -> getConvertToIfReturnProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseIfProposals", () -> getInverseIfProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getIfReturnIntoIfElseAtEndOfVoidMethodProposals", () -> getIfReturnIntoIfElseAtEndOfVoidMethodProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseIfContinueIntoIfThenInLoopsProposals", () -> getInverseIfContinueIntoIfThenInLoopsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseIfIntoContinueInLoopsProposals", () -> getInverseIfIntoContinueInLoopsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseConditionProposals", () -> getInverseConditionProposals(context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getRemoveExtraParenthesesProposals", () -> getRemoveExtraParenthesesProposals(context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddParanoidalParenthesesProposals", () -> getAddParanoidalParenthesesProposals(context, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddParenthesesForExpressionProposals", () -> getAddParenthesesForExpressionProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getJoinAndIfStatementsProposals", () -> getJoinAndIfStatementsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getSplitAndConditionProposals", () -> getSplitAndConditionProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getJoinOrIfStatementsProposals", () -> getJoinOrIfStatementsProposals(context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getSplitOrConditionProposals", () -> getSplitOrConditionProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseConditionalExpressionProposals", () -> getInverseConditionalExpressionProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getExchangeInnerAndOuterIfConditionsProposals", () -> getExchangeInnerAndOuterIfConditionsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getExchangeOperandsProposals", () -> getExchangeOperandsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getCastAndAssignIfStatementProposals", () -> getCastAndAssignIfStatementProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getCombineStringProposals", () -> getCombineStringProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getPickOutStringProposals", () -> getPickOutStringProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getReplaceIfElseWithConditionalProposals", () -> getReplaceIfElseWithConditionalProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInverseLocalVariableProposals", () -> getInverseLocalVariableProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getPushNegationDownProposals", () -> getPushNegationDownProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getPullNegationUpProposals", () -> getPullNegationUpProposals(context, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getJoinIfListInIfElseIfProposals", () -> getJoinIfListInIfElseIfProposals(context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertSwitchToIfProposals", () -> getConvertSwitchToIfProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertIfElseToSwitchProposals", () -> getConvertIfElseToSwitchProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("addGetterSetterProposal", () -> GetterSetterCorrectionSubProcessor.addGetterSetterProposal(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+
+				runner.run("getAnnotateProposals", () -> { //$NON-NLS-1$
+					ExternalNullAnnotationQuickAssistProcessor.getAnnotateProposals(context, resultingCollections);
+					return true;
+				});
 			}
 
 			return resultingCollections.toArray(new IJavaCompletionProposal[resultingCollections.size()]);
@@ -845,6 +849,13 @@ public class AdvancedQuickAssistProcessor implements IQuickAssistProcessor {
 	}
 
 	static ArrayList<ASTNode> getFullyCoveredNodes(IInvocationContext context, ASTNode coveringNode) {
+		if (context instanceof AssistContext) {
+			return ((AssistContext) context).getFullyCoveredNodes(coveringNode);
+		}
+		return collectFullyCoveredNodes(context, coveringNode);
+	}
+
+	static ArrayList<ASTNode> collectFullyCoveredNodes(IInvocationContext context, ASTNode coveringNode) {
 		final ArrayList<ASTNode> coveredNodes= new ArrayList<>();
 		final int selectionBegin= context.getSelectionOffset();
 		final int selectionEnd= selectionBegin + context.getSelectionLength();
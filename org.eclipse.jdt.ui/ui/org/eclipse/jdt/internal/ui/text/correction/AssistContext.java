@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2016 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.correction;
 
+import java.util.ArrayList;
+
 import org.eclipse.core.runtime.Assert;
 
 import org.eclipse.jface.text.source.ISourceViewer;
@@ -44,6 +46,21 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 	 */
 	private NodeFinder fNodeFinder;
 
+	/**
+	 * The nodes fully covered by the selection below {@link #fCoveredNodesParent}, can be null.
+	 * @since 3.26
+	 */
+	private ArrayList<ASTNode> fCoveredNodes;
+	private ASTNode fCoveredNodesParent;
+
+	/**
+	 * The time budget in milliseconds, <code>0</code> for no limit, and the time in milliseconds
+	 * after which no more proposals are computed. The budget starts once the AST is available.
+	 * @since 3.26
+	 */
+	private long fTimeBudget;
+	private long fDeadline= Long.MAX_VALUE;
+
 
 	/*
 	 * @since 3.5
@@ -130,6 +147,7 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 				// see bug 63554
 				fASTRoot= ASTResolving.createQuickFixAST(fCompilationUnit, null);
 			}
+			startTimeBudget();
 		}
 		return fASTRoot;
 	}
@@ -140,6 +158,11 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 	 */
 	public void setASTRoot(CompilationUnit root) {
 		fASTRoot= root;
+		fCoveredNodes= null;
+		fCoveredNodesParent= null;
+		if (root != null) {
+			startTimeBudget();
+		}
 	}
 
 	@Override
@@ -158,4 +181,56 @@ public class AssistContext extends TextInvocationContext implements IInvocationC
 		return fNodeFinder.getCoveredNode();
 	}
 
+	/**
+	 * Returns the nodes below the given node that are fully covered by the selection. The nodes are
+	 * only collected once per context, so that all proposal producers share one traversal.
+	 *
+	 * @param coveringNode the node covering the selection
+	 * @return a new list of the fully covered nodes
+	 * @since 3.26
+	 */
+	ArrayList<ASTNode> getFullyCoveredNodes(ASTNode coveringNode) {
+		if (fCoveredNodes == null || fCoveredNodesParent != coveringNode) {
+			fCoveredNodes= AdvancedQuickAssistProcessor.collectFullyCoveredNodes(this, coveringNode);
+			fCoveredNodesParent= coveringNode;
+		}
+		return new ArrayList<>(fCoveredNodes);
+	}
+
+	/**
+	 * Limits the time spent to compute proposals for this context. Proposal producers that have
+	 * not been started when the time is up are skipped, and the proposals found so far are shown.
+	 * <p>
+	 * The time spent waiting for the AST is not counted: the budget starts once the AST is
+	 * available.
+	 * </p>
+	 *
+	 * @param millis the time budget in milliseconds, or <code>0</code> for no limit
+	 * @since 3.26
+	 */
+	public void setTimeBudget(long millis) {
+		fTimeBudget= Math.max(millis, 0);
+		fDeadline= Long.MAX_VALUE;
+		if (fASTRoot != null) {
+			startTimeBudget();
+		}
+	}
+
+	private void startTimeBudget() {
+		if (fTimeBudget > 0 && fDeadline == Long.MAX_VALUE) {
+			fDeadline= System.currentTimeMillis() + fTimeBudget;
+		}
+	}
+
+	/**
+	 * Returns the time in milliseconds after which no more proposals are computed.
+	 *
+	 * @return the deadline, or {@link Long#MAX_VALUE} if the time is not limited or the AST is not
+	 *         available yet
+	 * @since 3.26
+	 */
+	public long getDeadline() {
+		return fDeadline;
+	}
+
 }
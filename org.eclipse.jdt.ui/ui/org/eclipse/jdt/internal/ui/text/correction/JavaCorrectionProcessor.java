@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2012 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -72,6 +72,14 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 	private static final String QUICKFIX_PROCESSOR_CONTRIBUTION_ID= "quickFixProcessors"; //$NON-NLS-1$
 	private static final String QUICKASSIST_PROCESSOR_CONTRIBUTION_ID= "quickAssistProcessors"; //$NON-NLS-1$
 
+	/**
+	 * The time in milliseconds after which the quick assist processors invoked from the editor
+	 * stop computing proposals and the proposals found so far are shown, <code>0</code> for no
+	 * limit. The time starts once the AST is available. Quick fixes are not limited.
+	 * @since 3.26
+	 */
+	private static final long TIME_BUDGET= Long.getLong("org.eclipse.jdt.ui.quickAssist.timeBudget", 1000).longValue(); //$NON-NLS-1$
+
 	private static ContributedProcessorDescriptor[] fgContributedAssistProcessors= null;
 	private static ContributedProcessorDescriptor[] fgContributedCorrectionProcessors= null;
 
@@ -235,6 +243,7 @@ public class JavaCorrectionProcessor implements org.eclipse.jface.text.quickassi
 		if (cu != null) {
 			int length= viewer != null ? viewer.getSelectedRange().y : 0;
 			context= new AssistContext(cu, viewer, part, documentOffset, length);
+			context.setTimeBudget(TIME_BUDGET);
 		}
 
 		Annotation[] annotations= fAssistant.getAnnotationsAtOffset();
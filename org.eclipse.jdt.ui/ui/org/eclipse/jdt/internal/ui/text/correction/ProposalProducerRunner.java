@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.correction;
+
+import org.eclipse.core.runtime.CoreException;
+
+import org.eclipse.jdt.ui.text.java.IInvocationContext;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Runs the proposal producers of a quick assist processor within the time budget of the
+ * invocation context (see {@link AssistContext#setTimeBudget(long)}). Once the budget is used up,
+ * the remaining producers are skipped so that the proposals found so far can be shown. Quick fixes
+ * for the problems at the invocation location are not limited, they only use the runner for
+ * tracing.
+ * <p>
+ * The time spent in each producer is printed if the <code>org.eclipse.jdt.ui/debug/QuickAssist</code>
+ * debug option is set.
+ * </p>
+ *
+ * @since 3.26
+ */
+final class ProposalProducerRunner {
+
+	/**
+	 * Computes proposals and adds them to a collection known to the producer.
+	 */
+	@FunctionalInterface
+	interface IProposalProducer {
+
+		/**
+		 * Computes the proposals.
+		 *
+		 * @return <code>true</code> if the producer is applicable at the invocation location
+		 * @throws CoreException if computing the proposals fails
+		 */
+		boolean produce() throws CoreException;
+	}
+
+	private final String fProcessorName;
+	private final AssistContext fContext;
+	private int fSkipped;
+
+	/**
+	 * Creates a runner for the producers of one processor that is limited by the time budget of
+	 * the context.
+	 *
+	 * @param context the invocation context
+	 * @param processorName the name of the processor, used for tracing
+	 */
+	ProposalProducerRunner(IInvocationContext context, String processorName) {
+		fProcessorName= processorName;
+		fContext= context instanceof AssistContext ? (AssistContext) context : null;
+	}
+
+	/**
+	 * Creates a runner for the producers of one processor that is not limited in time.
+	 *
+	 * @param processorName the name of the processor, used for tracing
+	 */
+	ProposalProducerRunner(String processorName) {
+		fProcessorName= processorName;
+		fContext= null;
+	}
+
+	/**
+	 * Runs the given producer unless the time budget is used up.
+	 *
+	 * @param name the name of the producer, used for tracing
+	 * @param producer the producer
+	 * @return the result of the producer, or <code>false</code> if it has been skipped
+	 * @throws CoreException if the producer fails
+	 */
+	boolean run(String name, IProposalProducer producer) throws CoreException {
+		if (isExpired()) {
+			if (fSkipped++ == 0 && JavaPlugin.DEBUG_QUICK_ASSIST) {
+				System.out.println(fProcessorName + " - time budget used up, skipping " + name + " and following producers"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			return false;
+		}
+		if (!JavaPlugin.DEBUG_QUICK_ASSIST) {
+			return producer.produce();
+		}
+		long start= System.nanoTime();
+		try {
+			return producer.produce();
+		} finally {
+			System.out.println(fProcessorName + " - " + name + ": " + (System.nanoTime() - start) / 1000 + " us"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+	}
+
+	/**
+	 * Returns whether the time budget is used up.
+	 *
+	 * @return <code>true</code> if no more producers are run
+	 */
+	boolean isExpired() {
+		if (fSkipped > 0) {
+			return true;
+		}
+		if (fContext == null) {
+			return false;
+		}
+		long deadline= fContext.getDeadline();
+		return deadline != Long.MAX_VALUE && System.currentTimeMillis() >= deadline;
+	}
+}
@@ -347,68 +347,69 @@ public class QuickAssistProcessor implements IQuickAssistProcessor {
 			ArrayList<ASTNode> coveredNodes= AdvancedQuickAssistProcessor.getFullyCoveredNodes(context, coveringNode);
 			ArrayList<ICommandAccess> resultingCollections= new ArrayList<>();
 			boolean noErrorsAtLocation= noErrorsAtLocation(locations);
+			ProposalProducerRunner runner= new ProposalProducerRunner(context, "QuickAssistProcessor"); //$NON-NLS-1$
 
 			// quick assists that show up also if there is an error/warning
-			getRenameLocalProposals(context, coveringNode, locations, resultingCollections);
-			getRenameRefactoringProposal(context, coveringNode, locations, resultingCollections);
-			getAssignToVariableProposals(context, coveringNode, locations, resultingCollections);
-			getAssignParamToFieldProposals(context, coveringNode, resultingCollections);
-			getAssignAllParamsToFieldsProposals(context, coveringNode, resultingCollections);
-			getInferDiamondArgumentsProposal(context, coveringNode, locations, resultingCollections);
-			getGenerateForLoopProposals(context, coveringNode, locations, resultingCollections);
-			getJUnitTestCaseProposal(context, coveringNode, resultingCollections);
-			getNewImplementationProposal(context, coveringNode, resultingCollections);
-			getNewInterfaceImplementationProposal(context, coveringNode, resultingCollections);
-			getSplitSwitchLabelProposal(context, coveringNode, resultingCollections);
-			getAddMethodDeclaration(context, coveringNode, resultingCollections);
+			runner.run("getRenameLocalProposals", () -> getRenameLocalProposals(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+			runner.run("getRenameRefactoringProposal", () -> getRenameRefactoringProposal(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+			runner.run("getAssignToVariableProposals", () -> getAssignToVariableProposals(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+			runner.run("getAssignParamToFieldProposals", () -> getAssignParamToFieldProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getAssignAllParamsToFieldsProposals", () -> getAssignAllParamsToFieldsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getInferDiamondArgumentsProposal", () -> getInferDiamondArgumentsProposal(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+			runner.run("getGenerateForLoopProposals", () -> getGenerateForLoopProposals(context, coveringNode, locations, resultingCollections)); //$NON-NLS-1$
+			runner.run("getJUnitTestCaseProposal", () -> getJUnitTestCaseProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getNewImplementationProposal", () -> getNewImplementationProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getNewInterfaceImplementationProposal", () -> getNewInterfaceImplementationProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getSplitSwitchLabelProposal", () -> getSplitSwitchLabelProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+			runner.run("getAddMethodDeclaration", () -> getAddMethodDeclaration(context, coveringNode, resultingCollections)); //$NON-NLS-1$
 
 			if (noErrorsAtLocation) {
 				boolean problemsAtLocation= locations.length != 0;
-				getCatchClauseToThrowsProposals(context, coveringNode, resultingCollections);
-				getPickoutTypeFromMulticatchProposals(context, coveringNode, coveredNodes, resultingCollections);
-				getConvertToMultiCatchProposals(context, coveringNode, resultingCollections);
-				getUnrollMultiCatchProposals(context, coveringNode, resultingCollections);
-				getTryWithResourceAssistProposals(locations, context, coveringNode, coveredNodes, resultingCollections);
-				getUnWrapProposals(context, coveringNode, resultingCollections);
-				getJoinVariableProposals(context, coveringNode, resultingCollections);
-				getSplitVariableProposals(context, coveringNode, resultingCollections);
-				getAddFinallyProposals(context, coveringNode, resultingCollections);
-				getAddElseProposals(context, coveringNode, resultingCollections);
-				getAddBlockProposals(context, coveringNode, resultingCollections);
-				getInvertEqualsProposal(context, coveringNode, resultingCollections);
-				getArrayInitializerToArrayCreation(context, coveringNode, resultingCollections);
-				getCreateInSuperClassProposals(context, coveringNode, resultingCollections);
-				getExtractVariableProposal(context, problemsAtLocation, resultingCollections);
-				getExtractMethodProposal(context, coveringNode, problemsAtLocation, resultingCollections);
-				getExtractMethodFromLambdaProposal(context, coveringNode, problemsAtLocation, resultingCollections);
-				getInlineLocalProposal(context, coveringNode, resultingCollections);
-				getConvertLocalToFieldProposal(context, coveringNode, resultingCollections);
-				getConvertAnonymousToNestedProposal(context, coveringNode, resultingCollections);
-				getConvertAnonymousClassCreationsToLambdaProposals(context, coveringNode, resultingCollections);
-				getConvertLambdaToAnonymousClassCreationsProposals(context, coveringNode, resultingCollections);
-				getChangeLambdaBodyToBlockProposal(context, coveringNode, resultingCollections);
-				getChangeLambdaBodyToExpressionProposal(context, coveringNode, resultingCollections);
-				getAddInferredLambdaParameterTypes(context, coveringNode, resultingCollections);
-				getAddVarLambdaParameterTypes(context, coveringNode, resultingCollections);
-				getRemoveVarOrInferredLambdaParameterTypes(context, coveringNode, resultingCollections);
-				getConvertMethodReferenceToLambdaProposal(context, coveringNode, resultingCollections);
-				getConvertLambdaToMethodReferenceProposal(context, coveringNode, resultingCollections);
-				getFixParenthesesInLambdaExpression(context, coveringNode, resultingCollections);
-				if (!getConvertForLoopProposal(context, coveringNode, resultingCollections))
-					getConvertIterableLoopProposal(context, coveringNode, resultingCollections);
-				getUnnecessaryArrayCreationProposal(context, coveringNode, resultingCollections);
-				getConvertEnhancedForLoopProposal(context, coveringNode, resultingCollections);
-				getRemoveBlockProposals(context, coveringNode, resultingCollections);
-				getMakeVariableDeclarationFinalProposals(context, resultingCollections);
-				ConvertStringConcatenationProposals.getProposals(context, resultingCollections);
-				getMissingCaseStatementProposals(context, coveringNode, resultingCollections);
-				getConvertVarTypeToResolvedTypeProposal(context, coveringNode, resultingCollections);
-				getConvertResolvedTypeToVarTypeProposal(context, coveringNode, resultingCollections);
-				getAddStaticImportProposals(context, coveringNode, resultingCollections);
-				getAddStaticMemberFavoritesProposals(context, coveringNode, resultingCollections);
-				getConvertToSwitchExpressionProposals(context, coveringNode, resultingCollections);
-				getDoWhileRatherThanWhileProposal(context, coveringNode, resultingCollections);
-				getStringConcatToTextBlockProposal(context, coveringNode, resultingCollections);
+				runner.run("getCatchClauseToThrowsProposals", () -> getCatchClauseToThrowsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getPickoutTypeFromMulticatchProposals", () -> getPickoutTypeFromMulticatchProposals(context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertToMultiCatchProposals", () -> getConvertToMultiCatchProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getUnrollMultiCatchProposals", () -> getUnrollMultiCatchProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getTryWithResourceAssistProposals", () -> getTryWithResourceAssistProposals(locations, context, coveringNode, coveredNodes, resultingCollections)); //$NON-NLS-1$
+				runner.run("getUnWrapProposals", () -> getUnWrapProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getJoinVariableProposals", () -> getJoinVariableProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getSplitVariableProposals", () -> getSplitVariableProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddFinallyProposals", () -> getAddFinallyProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddElseProposals", () -> getAddElseProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddBlockProposals", () -> getAddBlockProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInvertEqualsProposal", () -> getInvertEqualsProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getArrayInitializerToArrayCreation", () -> getArrayInitializerToArrayCreation(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getCreateInSuperClassProposals", () -> getCreateInSuperClassProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getExtractVariableProposal", () -> getExtractVariableProposal(context, problemsAtLocation, resultingCollections)); //$NON-NLS-1$
+				runner.run("getExtractMethodProposal", () -> getExtractMethodProposal(context, coveringNode, problemsAtLocation, resultingCollections)); //$NON-NLS-1$
+				runner.run("getExtractMethodFromLambdaProposal", () -> getExtractMethodFromLambdaProposal(context, coveringNode, problemsAtLocation, resultingCollections)); //$NON-NLS-1$
+				runner.run("getInlineLocalProposal", () -> getInlineLocalProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertLocalToFieldProposal", () -> getConvertLocalToFieldProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertAnonymousToNestedProposal", () -> getConvertAnonymousToNestedProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertAnonymousClassCreationsToLambdaProposals", () -> getConvertAnonymousClassCreationsToLambdaProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertLambdaToAnonymousClassCreationsProposals", () -> getConvertLambdaToAnonymousClassCreationsProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getChangeLambdaBodyToBlockProposal", () -> getChangeLambdaBodyToBlockProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getChangeLambdaBodyToExpressionProposal", () -> getChangeLambdaBodyToExpressionProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddInferredLambdaParameterTypes", () -> getAddInferredLambdaParameterTypes(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddVarLambdaParameterTypes", () -> getAddVarLambdaParameterTypes(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getRemoveVarOrInferredLambdaParameterTypes", () -> getRemoveVarOrInferredLambdaParameterTypes(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertMethodReferenceToLambdaProposal", () -> getConvertMethodReferenceToLambdaProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertLambdaToMethodReferenceProposal", () -> getConvertLambdaToMethodReferenceProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getFixParenthesesInLambdaExpression", () -> getFixParenthesesInLambdaExpression(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				if (!runner.run("getConvertForLoopProposal", () -> getConvertForLoopProposal(context, coveringNode, resultingCollections))) //$NON-NLS-1$
+					runner.run("getConvertIterableLoopProposal", () -> getConvertIterableLoopProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getUnnecessaryArrayCreationProposal", () -> getUnnecessaryArrayCreationProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertEnhancedForLoopProposal", () -> getConvertEnhancedForLoopProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getRemoveBlockProposals", () -> getRemoveBlockProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getMakeVariableDeclarationFinalProposals", () -> getMakeVariableDeclarationFinalProposals(context, resultingCollections)); //$NON-NLS-1$
+				runner.run("getProposals", () -> ConvertStringConcatenationProposals.getProposals(context, resultingCollections)); //$NON-NLS-1$
+				runner.run("getMissingCaseStatementProposals", () -> getMissingCaseStatementProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertVarTypeToResolvedTypeProposal", () -> getConvertVarTypeToResolvedTypeProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertResolvedTypeToVarTypeProposal", () -> getConvertResolvedTypeToVarTypeProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddStaticImportProposals", () -> getAddStaticImportProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getAddStaticMemberFavoritesProposals", () -> getAddStaticMemberFavoritesProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getConvertToSwitchExpressionProposals", () -> getConvertToSwitchExpressionProposals(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getDoWhileRatherThanWhileProposal", () -> getDoWhileRatherThanWhileProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
+				runner.run("getStringConcatToTextBlockProposal", () -> getStringConcatToTextBlockProposal(context, coveringNode, resultingCollections)); //$NON-NLS-1$
 			}
 			return resultingCollections.toArray(new IJavaCompletionProposal[resultingCollections.size()]);
 		}
@@ -354,10 +354,15 @@ public class QuickFixProcessor implements IQuickFixProcessor {
 
 		HashSet<Integer> handledProblems= new HashSet<>(locations.length);
 		ArrayList<ICommandAccess> resultingCollections= new ArrayList<>();
+		// quick fixes for the problems at the location are not dropped for time
+		ProposalProducerRunner runner= new ProposalProducerRunner("QuickFixProcessor"); //$NON-NLS-1$
 		for (IProblemLocation curr : locations) {
 			Integer id= curr.getProblemId();
 			if (handledProblems.add(id)) {
-				process(context, curr, resultingCollections);
+				runner.run("problem " + id, () -> { //$NON-NLS-1$
+					process(context, curr, resultingCollections);
+					return true;
+				});
 			}
 		}
 		return resultingCollections.toArray(new IJavaCompletionProposal[resultingCollections.size()]);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2021 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -836,6 +836,7 @@ public class UnresolvedElementsSubProcessor {
 
 	private static void addSimilarTypeProposals(int kind, ICompilationUnit cu, Name node, int relevance, Collection<ICommandAccess> proposals) throws CoreException {
 		SimilarElement[] elements= SimilarElementsRequestor.findSimilarElement(cu, node, kind);
+		TypeRefContext typeRefContext= new TypeRefContext(cu, node);
 
 		// try to resolve type in context -> highest severity
 		String resolvedTypeName= null;
@@ -849,8 +850,8 @@ public class UnresolvedElementsSubProcessor {
 
 			if (!simpleBinding.isRecovered()) {
 				resolvedTypeName= simpleBinding.getQualifiedName();
-				CUCorrectionProposal proposal= createTypeRefChangeProposal(cu, resolvedTypeName, node, relevance + 2, elements.length);
-				ChangeCorrectionProposal compositeProposal= getCompositeChangeProposal(proposal);
+				CUCorrectionProposal proposal= createTypeRefChangeProposal(typeRefContext, resolvedTypeName, relevance + 2, elements.length);
+				ChangeCorrectionProposal compositeProposal= getCompositeChangeProposal(typeRefContext, proposal);
 				if (compositeProposal != null) {
 					proposals.add(compositeProposal);
 				} else {
@@ -885,8 +886,8 @@ public class UnresolvedElementsSubProcessor {
 			if ((elem.getKind() & TypeKinds.ALL_TYPES) != 0) {
 				String fullName= elem.getName();
 				if (!fullName.equals(resolvedTypeName)) {
-					CUCorrectionProposal cuProposal= createTypeRefChangeProposal(cu, fullName, node, relevance, elements.length);
-					ChangeCorrectionProposal compositeProposal= getCompositeChangeProposal(cuProposal);
+					CUCorrectionProposal cuProposal= createTypeRefChangeProposal(typeRefContext, fullName, relevance, elements.length);
+					ChangeCorrectionProposal compositeProposal= getCompositeChangeProposal(typeRefContext, cuProposal);
 					if (compositeProposal != null) {
 						proposals.add(compositeProposal);
 					} else {
@@ -900,32 +901,25 @@ public class UnresolvedElementsSubProcessor {
 		}
 	}
 
-	private static ChangeCorrectionProposal getCompositeChangeProposal(ChangeCorrectionProposal proposal) throws CoreException {
+	private static ChangeCorrectionProposal getCompositeChangeProposal(TypeRefContext typeRefContext, ChangeCorrectionProposal proposal) throws CoreException {
 		ChangeCorrectionProposal compositeProposal= null;
 		if (proposal instanceof AddImportCorrectionProposal) {
 			AddModuleRequiresCorrectionProposal cp= ((AddImportCorrectionProposal) proposal).getAdditionalProposal();
 			if (cp != null) {
-				Change importChange= proposal.getChange();
 				Change change= cp.getChange();
 				if (change != null) {
-					ImportRewrite importRewrite= ((AddImportCorrectionProposal) proposal).getImportRewrite();
-					boolean importNeedsToBeAdded= false;
-					if (importRewrite != null) {
-						String[] imports= importRewrite.getAddedImports();
-						if (imports != null && imports.length > 0) {
-							importNeedsToBeAdded= true;
-						}
-					}
+					// the import edit is only computed when the proposal is selected or previewed
+					boolean importNeedsToBeAdded= typeRefContext.needsImport(((AddImportCorrectionProposal) proposal).getQualifiedTypeName());
 					if (importNeedsToBeAdded) {
 						change.initializeValidationData(new NullProgressMonitor());
-						String importChangeName= importChange.getName();
+						String importChangeName= proposal.getName();
 						String moduleRequiresChangeName= change.getName();
 						moduleRequiresChangeName= moduleRequiresChangeName.substring(0, 1).toLowerCase() + moduleRequiresChangeName.substring(1);
 						String changeName= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_combine_two_proposals_info, new String[] { importChangeName, moduleRequiresChangeName });
 						compositeProposal= new ChangeCorrectionProposal(changeName, null, IProposalRelevance.IMPORT_NOT_FOUND_ADD_REQUIRES_MODULE) {
 							@Override
 							protected Change createChange() throws CoreException {
-								return new CompositeChange(changeName, new Change[] { change, importChange });
+								return new CompositeChange(changeName, new Change[] { change, proposal.getChange() });
 							}
 
 							@Override
@@ -952,15 +946,15 @@ public class UnresolvedElementsSubProcessor {
 		return compositeProposal;
 	}
 
-	private static CUCorrectionProposal createTypeRefChangeProposal(ICompilationUnit cu, String fullName, Name node, int relevance, int maxProposals) {
-		ImportRewrite importRewrite= null;
+	private static CUCorrectionProposal createTypeRefChangeProposal(TypeRefContext typeRefContext, String fullName, int relevance, int maxProposals) {
+		ICompilationUnit cu= typeRefContext.getCompilationUnit();
+		Name node= typeRefContext.getNode();
+		boolean addImport= false;
 		String simpleName= fullName;
 		String packName= Signature.getQualifier(fullName);
 		if (packName.length() > 0) { // no imports for primitive types, type variables
-			importRewrite= StubUtility.createImportRewrite((CompilationUnit) node.getRoot(), true);
-			BodyDeclaration scope= ASTResolving.findParentBodyDeclaration(node); // can be null in package-info.java
-			ImportRewriteContext context= new ContextSensitiveImportRewriteContext(scope != null ? scope : node, importRewrite);
-			simpleName= importRewrite.addImport(fullName, context);
+			addImport= true;
+			simpleName= typeRefContext.getImportedName(fullName);
 		}
 
 		if (!isLikelyTypeName(simpleName)) {
@@ -968,11 +962,11 @@ public class UnresolvedElementsSubProcessor {
 		}
 
 		ASTRewriteCorrectionProposal proposal;
-		if (importRewrite != null && node.isSimpleName() && simpleName.equals(((SimpleName) node).getIdentifier())) { // import only
+		if (addImport && node.isSimpleName() && simpleName.equals(((SimpleName) node).getIdentifier())) { // import only
 			// check first that we aren't doing an import of a nested class in this cu - bug 321464
 			// in which case we should just change the reference to a qualified name
 			try {
-				IType[] types= cu.getAllTypes();
+				IType[] types= typeRefContext.getAllTypes();
 				for (IType type : types) {
 					if (type.getFullyQualifiedName('.').equals(fullName)) {
 						String label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_change_to_qualified_description, fullName);
@@ -988,7 +982,13 @@ public class UnresolvedElementsSubProcessor {
 			String label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_importtype_description, arg);
 			Image image= JavaPluginImages.get(JavaPluginImages.IMG_OBJS_IMPDECL);
 			int boost= QualifiedTypeNameHistory.getBoost(fullName, 0, maxProposals);
-			proposal= new AddImportCorrectionProposal(label, cu, relevance + 100 + boost, image, packName, simpleName, (SimpleName)node);
+			proposal= new AddImportCorrectionProposal(label, cu, relevance + 100 + boost, image, packName, simpleName, (SimpleName)node) {
+				@Override
+				protected ASTRewrite getRewrite() throws CoreException {
+					typeRefContext.addImport(this, fullName);
+					return super.getRewrite();
+				}
+			};
 			proposal.setCommandId(ADD_IMPORT_ID);
 		} else {
 			String label;
@@ -998,17 +998,106 @@ public class UnresolvedElementsSubProcessor {
 				String[] arg= { BasicElementLabels.getJavaElementName(simpleName), BasicElementLabels.getJavaElementName(packName) };
 				label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_changetype_description, arg);
 			}
-			ASTRewrite rewrite= ASTRewrite.create(node.getAST());
-			rewrite.replace(node, rewrite.createStringPlaceholder(simpleName, ASTNode.SIMPLE_TYPE), null);
 			Image image= JavaPluginImages.get(JavaPluginImages.IMG_CORRECTION_CHANGE);
-			proposal= new ASTRewriteCorrectionProposal(label, cu, rewrite, relevance, image);
-		}
-		if (importRewrite != null) {
-			proposal.setImportRewrite(importRewrite);
+			String replacement= simpleName;
+			boolean importType= addImport;
+			proposal= new ASTRewriteCorrectionProposal(label, cu, null, relevance, image) {
+				@Override
+				protected ASTRewrite getRewrite() throws CoreException {
+					if (importType) {
+						typeRefContext.addImport(this, fullName);
+					}
+					ASTRewrite rewrite= ASTRewrite.create(node.getAST());
+					rewrite.replace(node, rewrite.createStringPlaceholder(replacement, ASTNode.SIMPLE_TYPE), null);
+					return rewrite;
+				}
+			};
 		}
 		return proposal;
 	}
 
+	/**
+	 * The information shared by the proposals that change an unresolved type reference to one of
+	 * the similar types found.
+	 * <p>
+	 * The proposals are listed using the names visible at the reference, which are computed only
+	 * once for all of them. The import rewrite and the text edits of a proposal are only created
+	 * when it is selected or previewed, and are then kept by the proposal's change.
+	 * </p>
+	 */
+	private static class TypeRefContext {
+
+		private final ICompilationUnit fCompilationUnit;
+		private final Name fNode;
+		private ContextSensitiveImportRewriteContext fImportContext;
+		private IType[] fAllTypes;
+
+		TypeRefContext(ICompilationUnit cu, Name node) {
+			fCompilationUnit= cu;
+			fNode= node;
+		}
+
+		ICompilationUnit getCompilationUnit() {
+			return fCompilationUnit;
+		}
+
+		Name getNode() {
+			return fNode;
+		}
+
+		IType[] getAllTypes() throws JavaModelException {
+			if (fAllTypes == null) {
+				fAllTypes= fCompilationUnit.getAllTypes();
+			}
+			return fAllTypes;
+		}
+
+		/**
+		 * Returns the import context at the reference. The context only refers to the imports
+		 * present in the compilation unit and can therefore be shared by all proposals.
+		 *
+		 * @return the import context
+		 */
+		private ContextSensitiveImportRewriteContext getImportContext() {
+			if (fImportContext == null) {
+				ImportRewrite importRewrite= StubUtility.createImportRewrite((CompilationUnit) fNode.getRoot(), true);
+				BodyDeclaration scope= ASTResolving.findParentBodyDeclaration(fNode); // can be null in package-info.java
+				fImportContext= new ContextSensitiveImportRewriteContext(scope != null ? scope : fNode, importRewrite);
+			}
+			return fImportContext;
+		}
+
+		private int findInContext(String fullName) {
+			return getImportContext().findInContext(Signature.getQualifier(fullName), Signature.getSimpleName(fullName), ImportRewriteContext.KIND_TYPE);
+		}
+
+		/**
+		 * Returns the name by which the given type can be referenced once it has been imported,
+		 * as {@link ImportRewrite#addImport(String, ImportRewriteContext)} would.
+		 *
+		 * @param fullName the fully qualified name of the type
+		 * @return the simple name, or the qualified name if the simple name conflicts
+		 */
+		String getImportedName(String fullName) {
+			if (findInContext(fullName) == ImportRewriteContext.RES_NAME_CONFLICT) {
+				return fullName;
+			}
+			return Signature.getSimpleName(fullName);
+		}
+
+		boolean needsImport(String fullName) {
+			int result= findInContext(fullName);
+			return result == ImportRewriteContext.RES_NAME_UNKNOWN || result == ImportRewriteContext.RES_NAME_UNKNOWN_NEEDS_EXPLICIT_IMPORT;
+		}
+
+		void addImport(ASTRewriteCorrectionProposal proposal, String fullName) {
+			if (proposal.getImportRewrite() == null) {
+				ImportRewrite importRewrite= proposal.createImportRewrite((CompilationUnit) fNode.getRoot());
+				importRewrite.addImport(fullName, getImportContext());
+			}
+		}
+	}
+
 	static CUCorrectionProposal createTypeRefChangeFullProposal(ICompilationUnit cu, ITypeBinding binding, ASTNode node, int relevance, TypeLocation typeLocation) {
 		ASTRewrite rewrite= ASTRewrite.create(node.getAST());
 		String label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_change_full_type_description, BindingLabelProvider.getBindingLabel(binding, JavaElementLabels.ALL_DEFAULT));
@@ -1331,30 +1420,46 @@ public class UnresolvedElementsSubProcessor {
 
 			CompilationUnit root= context.getASTRoot();
 			AST ast= root.getAST();
+			ImportRewriteContext importContext= null;
 
 			String name= node.getIdentifier();
 			for (String curr : JavaModelUtil.getStaticImportFavorites(context.getCompilationUnit(), name, isMethod, favourites)) {
-				ImportRewrite importRewrite= StubUtility.createImportRewrite(root, true);
-				ASTRewrite astRewrite= ASTRewrite.create(ast);
-
 				String label;
 				String qualifiedTypeName= Signature.getQualifier(curr);
 				String elementLabel= BasicElementLabels.getJavaElementName(JavaModelUtil.concatenateName(Signature.getSimpleName(qualifiedTypeName), name));
 
-				String res= importRewrite.addStaticImport(qualifiedTypeName, name, isMethod, new ContextSensitiveImportRewriteContext(root, node.getStartPosition(), importRewrite));
-				int dot= res.lastIndexOf('.');
-				if (dot != -1) {
-					String usedTypeName= importRewrite.addImport(qualifiedTypeName);
-					Name newName= ast.newQualifiedName(ast.newName(usedTypeName), ast.newSimpleName(name));
-					astRewrite.replace(node, newName, null);
+				// the context only refers to the imports present in the compilation unit and can therefore be shared by all proposals
+				if (importContext == null) {
+					importContext= new ContextSensitiveImportRewriteContext(root, node.getStartPosition(), StubUtility.createImportRewrite(root, true));
+				}
+				// same answer as ImportRewrite#addStaticImport(String, String, boolean, ImportRewriteContext) below
+				int kind= isMethod ? ImportRewriteContext.KIND_STATIC_FIELD : ImportRewriteContext.KIND_STATIC_METHOD;
+				boolean qualify= qualifiedTypeName.indexOf('.') == -1 || importContext.findInContext(qualifiedTypeName, name, kind) == ImportRewriteContext.RES_NAME_CONFLICT;
+				if (qualify) {
 					label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_change_to_static_import_description, elementLabel);
 				} else {
 					label= Messages.format(CorrectionMessages.UnresolvedElementsSubProcessor_add_static_import_description, elementLabel);
 				}
 
 				Image image= JavaPluginImages.get(JavaPluginImages.IMG_OBJS_IMPDECL);
-				ASTRewriteCorrectionProposal proposal= new ASTRewriteCorrectionProposal(label, context.getCompilationUnit(), astRewrite, IProposalRelevance.ADD_STATIC_IMPORT, image);
-				proposal.setImportRewrite(importRewrite);
+				ImportRewriteContext sharedContext= importContext;
+				ASTRewriteCorrectionProposal proposal= new ASTRewriteCorrectionProposal(label, context.getCompilationUnit(), null, IProposalRelevance.ADD_STATIC_IMPORT, image) {
+					@Override
+					protected ASTRewrite getRewrite() throws CoreException {
+						ASTRewrite astRewrite= ASTRewrite.create(ast);
+						ImportRewrite importRewrite= getImportRewrite();
+						if (importRewrite == null) {
+							importRewrite= createImportRewrite(root);
+							importRewrite.addStaticImport(qualifiedTypeName, name, isMethod, sharedContext);
+						}
+						if (qualify) {
+							String usedTypeName= importRewrite.addImport(qualifiedTypeName);
+							Name newName= ast.newQualifiedName(ast.newName(usedTypeName), ast.newSimpleName(name));
+							astRewrite.replace(node, newName, null);
+						}
+						return astRewrite;
+					}
+				};
 				proposals.add(proposal);
 			}
 		}
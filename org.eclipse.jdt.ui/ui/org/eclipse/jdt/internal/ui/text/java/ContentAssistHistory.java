@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2011 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,16 +13,24 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.text.java;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -53,6 +61,7 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Preferences;
+import org.eclipse.core.runtime.jobs.Job;
 
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IType;
@@ -65,6 +74,12 @@ import org.eclipse.jdt.internal.ui.JavaUIStatus;
 
 /**
  * An LRU cache for code assist.
+ * <p>
+ * Type names are interned, so a type that is remembered for several left hand sides is stored
+ * once. All methods may be called from any thread. A history created by
+ * {@link #createPersistent(File, Preferences, String)} is loaded from a compact binary file in the
+ * background and saved in the background after it changed.
+ * </p>
  *
  * @since 3.2
  */
@@ -94,15 +109,18 @@ public final class ContentAssistHistory {
 				rootElement.setAttribute(ATTRIBUTE_MAX_RHS, Integer.toString(history.fMaxRHS));
 				document.appendChild(rootElement);
 
-				for (Entry<String, MRUSet<String>> entry : history.fLHSCache.entrySet()) {
-					String lhs = entry.getKey();
-					Element lhsElement= document.createElement(NODE_LHS);
-					lhsElement.setAttribute(ATTRIBUTE_NAME, lhs);
-					rootElement.appendChild(lhsElement);
-					for (String rhs : entry.getValue()) {
-						Element rhsElement= document.createElement(NODE_RHS);
-						rhsElement.setAttribute(ATTRIBUTE_NAME, rhs);
-						lhsElement.appendChild(rhsElement);
+				synchronized (history) {
+					for (Entry<String, MRUList> entry : history.fLHSCache.entrySet()) {
+						String lhs = entry.getKey();
+						Element lhsElement= document.createElement(NODE_LHS);
+						lhsElement.setAttribute(ATTRIBUTE_NAME, lhs);
+						rootElement.appendChild(lhsElement);
+						MRUList rhsCache= entry.getValue();
+						for (int i= 0; i < rhsCache.fSize; i++) {
+							Element rhsElement= document.createElement(NODE_RHS);
+							rhsElement.setAttribute(ATTRIBUTE_NAME, rhsCache.fTypes[i]);
+							lhsElement.appendChild(rhsElement);
+						}
 					}
 				}
 
@@ -145,7 +163,7 @@ public final class ContentAssistHistory {
 					if (NODE_LHS.equalsIgnoreCase(lhsElement.getNodeName())) {
 						String lhs= lhsElement.getAttribute(ATTRIBUTE_NAME);
 						if (lhs != null) {
-							Set<String> cache= history.getCache(lhs);
+							MRUList cache= history.getCache(lhs);
 							NodeList children= lhsElement.getChildNodes();
 							int nRHS= children.getLength();
 							for (int j= 0; j < nRHS; j++) {
@@ -155,7 +173,7 @@ public final class ContentAssistHistory {
 									if (NODE_RHS.equalsIgnoreCase(rhsElement.getNodeName())) {
 										String rhs= rhsElement.getAttribute(ATTRIBUTE_NAME);
 										if (rhs != null) {
-											cache.add(rhs);
+											cache.add(history.intern(rhs));
 										}
 									}
 								}
@@ -225,40 +243,53 @@ public final class ContentAssistHistory {
 	}
 
 	/**
-	 * Most recently used variant with capped size that orders the elements by addition.
-	 * This is implemented by always removing an element before it gets added back.
+	 * Most recently used list with capped size that orders the elements by addition. The elements
+	 * are kept in an array, the least recently added one first.
 	 *
-	 * @since 3.2
+	 * @since 3.26
 	 */
-	private static final class MRUSet<E> extends LinkedHashSet<E> {
-		private static final long serialVersionUID= 1L;
-		private final int fMaxSize;
+	private static final class MRUList {
+		private final String[] fTypes;
+		private int fSize;
 
 		/**
-		 * Creates a new <code>MRUSet</code> with the given size.
+		 * Creates a new <code>MRUList</code> with the given size.
 		 *
-		 * @param maxSize the maximum size of the cache, must be &gt; 0
+		 * @param maxSize the maximum size of the list, must be &gt; 0
 		 */
-		public MRUSet(int maxSize) {
+		MRUList(int maxSize) {
 			Assert.isLegal(maxSize > 0);
-			fMaxSize= maxSize;
+			fTypes= new String[maxSize];
 		}
 
-		/*
-		 * @see java.util.HashSet#add(java.lang.Object)
+		/**
+		 * Adds an element as the most recent one, removing the least recent one if the list is full.
+		 *
+		 * @param type the element to add
 		 */
-		@Override
-		public boolean add(E o) {
-			if (remove(o)) {
-				super.add(o);
-				return false;
+		void add(String type) {
+			int index= indexOf(type);
+			if (index == -1 && fSize == fTypes.length) {
+				index= 0;
+			}
+			if (index != -1) {
+				System.arraycopy(fTypes, index + 1, fTypes, index, fSize - index - 1);
+				fSize--;
 			}
+			fTypes[fSize++]= type;
+		}
 
-			if (size() >= fMaxSize)
-				remove(this.iterator().next());
+		int indexOf(String type) {
+			for (int i= 0; i < fSize; i++) {
+				if (fTypes[i].equals(type)) {
+					return i;
+				}
+			}
+			return -1;
+		}
 
-			super.add(o);
-			return true;
+		String[] toArray() {
+			return Arrays.copyOf(fTypes, fSize);
 		}
 	}
 
@@ -268,10 +299,11 @@ public final class ContentAssistHistory {
 	 * @since 3.2
 	 */
 	public static final class RHSHistory {
-		private final LinkedHashMap<String, Integer> fHistory;
+		/** The remembered types, the least recent one first, or <code>null</code> */
+		private final String[] fHistory;
 		private List<String> fList;
 
-		RHSHistory(LinkedHashMap<String, Integer> history) {
+		RHSHistory(String[] history) {
 			fHistory= history;
 		}
 
@@ -285,8 +317,12 @@ public final class ContentAssistHistory {
 		public float getRank(String type) {
 			if (fHistory == null)
 				return 0.0F;
-			Integer integer= fHistory.get(type);
-			return integer == null ? 0.0F : integer.floatValue() / fHistory.size();
+			for (int i= 0; i < fHistory.length; i++) {
+				if (fHistory[i].equals(type)) {
+					return (float) (i + 1) / fHistory.length;
+				}
+			}
+			return 0.0F;
 		}
 
 		/**
@@ -295,7 +331,7 @@ public final class ContentAssistHistory {
 		 * @return the size of the history
 		 */
 		public int size() {
-			return fHistory == null ? 0 : fHistory.size();
+			return fHistory == null ? 0 : fHistory.length;
 		}
 
 		/**
@@ -308,7 +344,7 @@ public final class ContentAssistHistory {
 			if (fHistory == null)
 				return Collections.emptyList();
 			if (fList == null) {
-				fList= Collections.unmodifiableList(new ArrayList<>(fHistory.keySet()));
+				fList= Collections.unmodifiableList(Arrays.asList(fHistory));
 			}
 			return fList;
 		}
@@ -318,6 +354,12 @@ public final class ContentAssistHistory {
 	private static final int DEFAULT_TRACKED_LHS= 100;
 	private static final int DEFAULT_TRACKED_RHS= 10;
 
+	/** The version of the binary format written by {@link #store(ContentAssistHistory, File)} */
+	private static final int BINARY_FORMAT_VERSION= 1;
+
+	/** The delay in milliseconds after which a changed persistent history is saved */
+	private static final long SAVE_DELAY= 5000;
+
 	private static final Set<String> UNCACHEABLE;
 	static {
 		Set<String> uncacheable= new HashSet<>();
@@ -328,10 +370,22 @@ public final class ContentAssistHistory {
 		UNCACHEABLE= Collections.unmodifiableSet(uncacheable);
 	}
 
-	private final LinkedHashMap<String, MRUSet<String>> fLHSCache;
+	private final LinkedHashMap<String, MRUList> fLHSCache;
 	private final int fMaxLHS;
 	private final int fMaxRHS;
 
+	/** The interned type names, the key and the value of each entry are the same string */
+	private Map<String, String> fNames= new HashMap<>();
+
+	/** The file of a persistent history, <code>null</code> otherwise */
+	private File fFile;
+	private Job fLoadJob;
+	private Job fSaveJob;
+	private boolean fDirty;
+	/** The preferences a persistent history is migrated from, <code>null</code> otherwise */
+	private Preferences fPreferences;
+	private String fKey;
+
 	/**
 	 * Creates a new history.
 	 *
@@ -372,10 +426,16 @@ public final class ContentAssistHistory {
 			if (hierarchy.contains(lhs)) {
 				// TODO remember for every member of the LHS hierarchy or not? Yes for now.
 				String rhsQualifiedName= rhs.getFullyQualifiedName();
-				for (IType lhSide : hierarchy.getAllSupertypes(lhs)) {
-					rememberInternal(lhSide, rhsQualifiedName);
+				IType[] supertypes= hierarchy.getAllSupertypes(lhs);
+				synchronized (this) {
+					rhsQualifiedName= intern(rhsQualifiedName);
+					for (IType lhSide : supertypes) {
+						rememberInternal(lhSide, rhsQualifiedName);
+					}
+					rememberInternal(lhs, rhsQualifiedName);
+					fDirty= true;
 				}
-				rememberInternal(lhs, rhsQualifiedName);
+				scheduleSave();
 			}
 		} catch (JavaModelException x) {
 			JavaPlugin.log(x);
@@ -390,30 +450,42 @@ public final class ContentAssistHistory {
 	 *        requested, or <code>null</code>
 	 * @return the right hand side history for the given type
 	 */
-	public RHSHistory getHistory(String lhs) {
-		MRUSet<String> rhsCache= fLHSCache.get(lhs);
+	public synchronized RHSHistory getHistory(String lhs) {
+		MRUList rhsCache= fLHSCache.get(lhs);
 		if (rhsCache != null) {
-			int count= rhsCache.size();
-			LinkedHashMap<String, Integer> history= new LinkedHashMap<>((int) (count / 0.75));
-			int rank= 1;
-			for (Iterator<String> it= rhsCache.iterator(); it.hasNext(); rank++) {
-				String type= it.next();
-				history.put(type, rank);
-			}
-			return new RHSHistory(history);
+			return new RHSHistory(rhsCache.toArray());
 		}
 		return EMPTY_HISTORY;
 	}
 
+	/**
+	 * Returns the rank of a right hand side type in the history of the given left hand side type,
+	 * as {@link RHSHistory#getRank(String)} of {@link #getHistory(String)} does. Unlike the latter,
+	 * this method does not allocate and may be called for every proposal.
+	 *
+	 * @param lhs the fully qualified type name of the expected type, or <code>null</code>
+	 * @param rhs the fully qualified type name to get the rank for
+	 * @return the rank of <code>rhs</code> in [0.0,&nbsp;1.0]
+	 * @since 3.26
+	 */
+	public synchronized float getRank(String lhs, String rhs) {
+		MRUList rhsCache= fLHSCache.get(lhs);
+		if (rhsCache == null) {
+			return 0.0F;
+		}
+		int index= rhsCache.indexOf(rhs);
+		return index == -1 ? 0.0F : (float) (index + 1) / rhsCache.fSize;
+	}
+
 	/**
 	 * Returns a read-only map from {@link IType} to {@link RHSHistory}, where each value is the
 	 * history for the key type (see {@link #getHistory(String)}.
 	 *
 	 * @return the set of remembered right hand sides ordered by least recent selection
 	 */
-	public Map<String, RHSHistory> getEntireHistory() {
+	public synchronized Map<String, RHSHistory> getEntireHistory() {
 		HashMap<String, RHSHistory> map= new HashMap<>((int) (fLHSCache.size() / 0.75));
-		for (Entry<String, MRUSet<String>> entry : fLHSCache.entrySet()) {
+		for (Entry<String, MRUList> entry : fLHSCache.entrySet()) {
 			String lhs= entry.getKey();
 			map.put(lhs, getHistory(lhs));
 		}
@@ -423,7 +495,7 @@ public final class ContentAssistHistory {
 	private void rememberInternal(IType lhs, String rhsQualifiedName) throws JavaModelException {
 		String lhsQualifiedName= lhs.getFullyQualifiedName();
 		if (isCacheableLHS(lhs, lhsQualifiedName))
-			getCache(lhsQualifiedName).add(rhsQualifiedName);
+			getCache(intern(lhsQualifiedName)).add(rhsQualifiedName);
 	}
 
 	private boolean isCacheableLHS(IType type, String qualifiedName) throws JavaModelException {
@@ -434,16 +506,65 @@ public final class ContentAssistHistory {
 		return !type.isInterface() && !Flags.isAbstract(type.getFlags());
 	}
 
-	private Set<String> getCache(String lhs) {
-		MRUSet<String> rhsCache= fLHSCache.get(lhs);
+	private MRUList getCache(String lhs) {
+		MRUList rhsCache= fLHSCache.get(lhs);
 		if (rhsCache == null) {
-			rhsCache= new MRUSet<>(fMaxRHS);
+			rhsCache= new MRUList(fMaxRHS);
 			fLHSCache.put(lhs, rhsCache);
 		}
 
 		return rhsCache;
 	}
 
+	/**
+	 * Returns the shared instance of the given type name. Names of evicted entries are dropped
+	 * once the pool is twice as large as the history can be.
+	 *
+	 * @param name the type name
+	 * @return the interned type name
+	 */
+	private String intern(String name) {
+		if (fNames.size() > 2 * fMaxLHS * (fMaxRHS + 1)) {
+			Map<String, String> names= new HashMap<>();
+			for (Entry<String, MRUList> entry : fLHSCache.entrySet()) {
+				names.put(entry.getKey(), entry.getKey());
+				MRUList rhsCache= entry.getValue();
+				for (int i= 0; i < rhsCache.fSize; i++) {
+					names.put(rhsCache.fTypes[i], rhsCache.fTypes[i]);
+				}
+			}
+			fNames= names;
+		}
+		String interned= fNames.putIfAbsent(name, name);
+		return interned != null ? interned : name;
+	}
+
+	/**
+	 * Adds the entries of the given history as if they had been remembered before the entries of
+	 * this history.
+	 *
+	 * @param older the history to add
+	 */
+	private synchronized void addOlder(ContentAssistHistory older) {
+		List<Entry<String, MRUList>> newer= new ArrayList<>(fLHSCache.entrySet());
+		fLHSCache.clear();
+		synchronized (older) {
+			for (Entry<String, MRUList> entry : older.fLHSCache.entrySet()) {
+				addAll(entry.getKey(), entry.getValue());
+			}
+		}
+		for (Entry<String, MRUList> entry : newer) {
+			addAll(entry.getKey(), entry.getValue());
+		}
+	}
+
+	private void addAll(String lhs, MRUList types) {
+		MRUList rhsCache= getCache(intern(lhs));
+		for (int i= 0; i < types.fSize; i++) {
+			rhsCache.add(intern(types.fTypes[i]));
+		}
+	}
+
 	private IProgressMonitor getProgressMonitor() {
 		return new NullProgressMonitor();
 	}
@@ -481,4 +602,246 @@ public final class ContentAssistHistory {
 		}
 		return null;
 	}
+
+	/**
+	 * Stores the history in a compact binary format into the given file.
+	 *
+	 * @param history the history to store
+	 * @param file the file to store the history into
+	 * @throws CoreException if writing the file fails
+	 * @see #load(File) on how to restore a history stored by this method
+	 * @since 3.26
+	 */
+	public static void store(ContentAssistHistory history, File file) throws CoreException {
+		List<String> names= new ArrayList<>();
+		Map<String, Integer> indices= new HashMap<>();
+		List<int[]> entries= new ArrayList<>();
+		synchronized (history) {
+			for (Entry<String, MRUList> entry : history.fLHSCache.entrySet()) {
+				MRUList rhsCache= entry.getValue();
+				int[] indexes= new int[rhsCache.fSize + 1];
+				indexes[0]= indexOf(entry.getKey(), names, indices);
+				for (int i= 0; i < rhsCache.fSize; i++) {
+					indexes[i + 1]= indexOf(rhsCache.fTypes[i], names, indices);
+				}
+				entries.add(indexes);
+			}
+		}
+		// write a temporary file first so that a failed write does not truncate the stored history;
+		// it is unique because a save job interrupted in dispose() may still be writing its own
+		Path temporary;
+		try {
+			temporary= Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), file.getName(), ".tmp"); //$NON-NLS-1$
+		} catch (IOException e) {
+			throw new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, JavaTextMessages.ContentAssistHistory_serialize_error, e));
+		}
+		try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			out.writeInt(BINARY_FORMAT_VERSION);
+			out.writeInt(history.fMaxLHS);
+			out.writeInt(history.fMaxRHS);
+			out.writeInt(names.size());
+			for (String name : names) {
+				out.writeUTF(name);
+			}
+			out.writeInt(entries.size());
+			for (int[] indexes : entries) {
+				out.writeInt(indexes.length - 1);
+				for (int index : indexes) {
+					out.writeInt(index);
+				}
+			}
+		} catch (IOException e) {
+			deleteQuietly(temporary);
+			throw new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, JavaTextMessages.ContentAssistHistory_serialize_error, e));
+		}
+		try {
+			Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			deleteQuietly(temporary);
+			throw new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, JavaTextMessages.ContentAssistHistory_serialize_error, e));
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			// the stale temporary file is harmless
+		}
+	}
+
+	private static int indexOf(String name, List<String> names, Map<String, Integer> indices) {
+		Integer index= indices.get(name);
+		if (index == null) {
+			index= Integer.valueOf(names.size());
+			names.add(name);
+			indices.put(name, index);
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * Loads a history from a file written by {@link #store(ContentAssistHistory, File)}.
+	 *
+	 * @param file the file to load the history from
+	 * @return the loaded history, or <code>null</code> if the file does not exist or has an
+	 *         unknown format
+	 * @throws CoreException if reading the file fails
+	 * @since 3.26
+	 */
+	public static ContentAssistHistory load(File file) throws CoreException {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != BINARY_FORMAT_VERSION) {
+				return null;
+			}
+			int maxLHS= in.readInt();
+			int maxRHS= in.readInt();
+			ContentAssistHistory history= new ContentAssistHistory(maxLHS > 0 ? maxLHS : DEFAULT_TRACKED_LHS, maxRHS > 0 ? maxRHS : DEFAULT_TRACKED_RHS);
+			String[] names= new String[in.readInt()];
+			for (int i= 0; i < names.length; i++) {
+				names[i]= history.intern(in.readUTF());
+			}
+			int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				int rhsCount= in.readInt();
+				MRUList rhsCache= history.getCache(names[in.readInt()]);
+				for (int j= 0; j < rhsCount; j++) {
+					rhsCache.add(names[in.readInt()]);
+				}
+			}
+			return history;
+		} catch (IOException | RuntimeException e) {
+			throw new JavaUIException(JavaUIStatus.createError(IStatus.ERROR, JavaTextMessages.ContentAssistHistory_deserialize_error, e));
+		}
+	}
+
+	/**
+	 * Creates a history that is persisted in the given file. The history is returned empty and
+	 * loaded in the background, entries remembered in the meantime are kept as the most recent
+	 * ones. If the file does not exist yet, the history is migrated from the XML encoded
+	 * preference value, which is removed once the history has been saved to the file.
+	 * <p>
+	 * The history is saved in the background shortly after it changed, and by {@link #save()}.
+	 * {@link #dispose()} must be called when the history is no longer used.
+	 * </p>
+	 *
+	 * @param file the file to persist the history in
+	 * @param preferences the preferences to migrate the history from
+	 * @param key the key under which the history is stored in the preferences
+	 * @return the persistent history
+	 * @since 3.26
+	 */
+	public static ContentAssistHistory createPersistent(File file, Preferences preferences, String key) {
+		ContentAssistHistory history= new ContentAssistHistory();
+		history.fFile= file;
+		history.fPreferences= preferences;
+		history.fKey= key;
+		history.fLoadJob= Job.create(JavaTextMessages.ContentAssistHistory_load_job, monitor -> {
+			try {
+				ContentAssistHistory loaded= load(file);
+				if (loaded == null) {
+					loaded= load(preferences, key);
+					if (loaded != null) {
+						synchronized (history) {
+							history.fDirty= true;
+						}
+						history.scheduleSave();
+					}
+				}
+				if (loaded != null) {
+					history.addOlder(loaded);
+				}
+			} catch (CoreException e) {
+				JavaPlugin.log(e);
+			}
+		});
+		history.fSaveJob= Job.create(JavaTextMessages.ContentAssistHistory_save_job, monitor -> {
+			history.saveAndRemoveMigrated();
+		});
+		history.fLoadJob.setSystem(true);
+		history.fSaveJob.setSystem(true);
+		history.fLoadJob.schedule();
+		return history;
+	}
+
+	private synchronized void scheduleSave() {
+		if (fSaveJob != null) {
+			fSaveJob.schedule(SAVE_DELAY);
+		}
+	}
+
+	private void saveAndRemoveMigrated() {
+		save();
+		if (fFile.isFile() && !fPreferences.isDefault(fKey)) {
+			fPreferences.setToDefault(fKey);
+		}
+	}
+
+	/**
+	 * Cancels a pending background save and saves a persistent history. The history is no
+	 * longer saved in the background afterwards.
+	 *
+	 * @see #createPersistent(File, Preferences, String)
+	 * @since 3.26
+	 */
+	public void dispose() {
+		if (fFile == null) {
+			return;
+		}
+		Job saveJob;
+		synchronized (this) {
+			saveJob= fSaveJob;
+			fSaveJob= null;
+		}
+		boolean interrupted= false;
+		if (saveJob != null) {
+			saveJob.cancel();
+			try {
+				saveJob.join();
+			} catch (InterruptedException e) {
+				// save anyway, the changes would be lost otherwise
+				interrupted= true;
+			}
+		}
+		try {
+			saveAndRemoveMigrated();
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Saves a persistent history if it changed since it was last saved. Waits for the history to
+	 * be loaded first.
+	 *
+	 * @see #createPersistent(File, Preferences, String)
+	 * @since 3.26
+	 */
+	public void save() {
+		if (fFile == null) {
+			return;
+		}
+		try {
+			fLoadJob.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+		synchronized (this) {
+			if (!fDirty) {
+				return;
+			}
+			fDirty= false;
+		}
+		try {
+			store(this, fFile);
+		} catch (CoreException e) {
+			JavaPlugin.log(e);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -19,10 +19,20 @@ package org.eclipse.jdt.internal.ui.text.java;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -41,6 +51,7 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.InvalidRegistryObjectException;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.PerformanceStats;
 import org.eclipse.core.runtime.SubProgressMonitor;
 
 import org.eclipse.jface.action.LegacyActionTools;
@@ -73,10 +84,12 @@ import org.eclipse.jdt.internal.corext.util.Messages;
 
 import org.eclipse.jdt.ui.PreferenceConstants;
 import org.eclipse.jdt.ui.text.java.ContentAssistInvocationContext;
+import org.eclipse.jdt.ui.text.java.JavaContentAssistInvocationContext;
 
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.JavaUIMessages;
 import org.eclipse.jdt.internal.ui.dialogs.OptionalMessageDialog;
+import org.eclipse.jdt.internal.ui.javaeditor.JavaSourceViewer;
 
 
 /**
@@ -94,6 +107,11 @@ import org.eclipse.jdt.internal.ui.dialogs.OptionalMessageDialog;
  * <li><code>getErrorMessage</code> to change error reporting</li>
  * </ul>
  * </p>
+ * <p>
+ * If content assist is computed outside of the UI thread, the categories are computed in parallel.
+ * The proposals are returned once all categories have completed, or when the content assist
+ * session ends, which cancels the outstanding computations.
+ * </p>
  *
  * @since 3.2
  */
@@ -187,6 +205,7 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 
 			fSelectedProposal= null;
 			fCategoryIteration= null;
+			cancelComputations();
 			fRepetition= -1;
 			fIterationGesture= null;
 			if (event.assistant instanceof IContentAssistantExtension2) {
@@ -229,6 +248,28 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 
 	private static final Comparator<CompletionProposalCategory> ORDER_COMPARATOR= (d1, d2) -> d1.getSortOrder() - d2.getSortOrder();
 
+	/** The name of the performance event used to trace the computation of a category. */
+	private static final String PERFORMANCE_EVENT= JavaPlugin.getPluginId() + "/perf/content_assist/categories"; //$NON-NLS-1$
+
+	/**
+	 * If <code>true</code>, the time to compute each category is measured and the data forwarded to
+	 * core's {@link PerformanceStats} service.
+	 */
+	private static final boolean MEASURE_PERFORMANCE= PerformanceStats.isEnabled(PERFORMANCE_EVENT);
+
+	/** The executor shared by all processors to compute categories in parallel. */
+	private static final ExecutorService EXECUTOR;
+	static {
+		int threads= Math.max(2, Runtime.getRuntime().availableProcessors());
+		ThreadPoolExecutor executor= new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread= new Thread(runnable, "Content Assist Category Computer"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.allowCoreThreadTimeOut(true);
+		EXECUTOR= executor;
+	}
+
 	private final List<CompletionProposalCategory> fCategories;
 	private final String fPartition;
 	private final ContentAssistant fAssistant;
@@ -259,6 +300,46 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	 */
 	private boolean fNeedsSortingAfterFiltering;
 
+	/**
+	 * The latest computation of each category computed in parallel. A new computation of a
+	 * category starts only once the previous one has completed, so that a computer does not run
+	 * concurrently with itself.
+	 *
+	 * @since 3.26
+	 */
+	private final Map<CompletionProposalCategory, CategoryComputation> fComputations= new ConcurrentHashMap<>();
+
+	/**
+	 * The computation of a category on the shared executor.
+	 *
+	 * @since 3.26
+	 */
+	private static final class CategoryComputation {
+		/** Completes when the category has been computed */
+		final CompletableFuture<List<ICompletionProposal>> fTask;
+		/** The result of {@link #fTask}, canceled when it is no longer of interest */
+		final CompletableFuture<List<ICompletionProposal>> fResult= new CompletableFuture<>();
+		/** The monitor passed to the category, canceled together with {@link #fResult} */
+		final IProgressMonitor fMonitor;
+
+		CategoryComputation(CompletableFuture<List<ICompletionProposal>> task, IProgressMonitor monitor) {
+			fTask= task;
+			fMonitor= monitor;
+			task.whenComplete((result, exception) -> {
+				if (exception != null) {
+					fResult.completeExceptionally(exception);
+				} else {
+					fResult.complete(result);
+				}
+			});
+		}
+
+		void cancel() {
+			fMonitor.setCanceled(true);
+			fResult.cancel(false);
+		}
+	}
+
 
 	public ContentAssistProcessor(ContentAssistant assistant, String partition) {
 		Assert.isNotNull(partition);
@@ -275,19 +356,15 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 	 */
 	@Override
 	public final ICompletionProposal[] computeCompletionProposals(ITextViewer viewer, int offset) {
-		long start= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
-
 		clearState();
 
 		IProgressMonitor monitor= createProgressMonitor();
 		monitor.beginTask(JavaTextMessages.ContentAssistProcessor_computing_proposals, fCategories.size() + 1);
 
 		ContentAssistInvocationContext context= createContext(viewer, offset);
-		long setup= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		monitor.subTask(JavaTextMessages.ContentAssistProcessor_collecting_proposals);
 		List<ICompletionProposal> proposals= collectProposals(viewer, offset, monitor, context);
-		long collect= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		monitor.subTask(JavaTextMessages.ContentAssistProcessor_sorting_proposals);
 		if (fNeedsSortingAfterFiltering) {
@@ -296,18 +373,10 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 			proposals= sortProposals(proposals, monitor, context);
 		}
 		fNumberOfComputedResults= proposals.size();
-		long filter= JavaPlugin.DEBUG_RESULT_COLLECTOR ? System.currentTimeMillis() : 0;
 
 		ICompletionProposal[] result= proposals.toArray(new ICompletionProposal[proposals.size()]);
 		monitor.done();
 
-		if (JavaPlugin.DEBUG_RESULT_COLLECTOR) {
-			System.err.println("Code Assist Stats (" + result.length + " proposals)"); //$NON-NLS-1$ //$NON-NLS-2$
-			System.err.println("Code Assist (setup):\t" + (setup - start) ); //$NON-NLS-1$
-			System.err.println("Code Assist (collect):\t" + (collect - setup) ); //$NON-NLS-1$
-			System.err.println("Code Assist (sort):\t" + (filter - collect) ); //$NON-NLS-1$
-		}
-
 		return result;
 	}
 
@@ -329,8 +398,18 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		boolean needsSortingAfterFiltering= false;
 		List<ICompletionProposal> proposals= new ArrayList<>();
 		List<CompletionProposalCategory> providers= getCategories();
+		Map<CompletionProposalCategory, CategoryComputation> computations= null;
+		if (providers.size() > 1 && isComputingInParallel(context)) {
+			computations= startComputations(providers, context);
+		}
 		for (CompletionProposalCategory cat : providers) {
-			List<ICompletionProposal> computed= cat.computeCompletionProposals(context, fPartition, new SubProgressMonitor(monitor, 1));
+			List<ICompletionProposal> computed;
+			if (computations != null) {
+				computed= awaitComputation(computations.get(cat));
+				monitor.worked(1);
+			} else {
+				computed= computeCompletionProposals(cat, context, new SubProgressMonitor(monitor, 1));
+			}
 			proposals.addAll(computed);
 			needsSortingAfterFiltering= needsSortingAfterFiltering || (cat.isSortingAfterFilteringNeeded() && !computed.isEmpty());
 			if (fErrorMessage == null) {
@@ -344,6 +423,122 @@ public class ContentAssistProcessor implements IContentAssistProcessor {
 		return proposals;
 	}
 
+	/**
+	 * Tells whether the categories may be computed in parallel. This is the case if content assist
+	 * is computed outside of the UI thread.
+	 *
+	 * @param context the code assist invocation context
+	 * @return <code>true</code> if the categories may be computed in parallel
+	 * @since 3.26
+	 */
+	private boolean isComputingInParallel(ContentAssistInvocationContext context) {
+		ITextViewer viewer= context.getViewer();
+		return viewer instanceof JavaSourceViewer && ((JavaSourceViewer) viewer).isAsyncCompletionActive();
+	}
+
+	/**
+	 * Starts the computation of the given categories on the shared executor. A computation of a
+	 * category that is still running for an earlier invocation is canceled, and the new one starts
+	 * once it has completed.
+	 * <p>
+	 * The lazily computed state of a {@link JavaContentAssistInvocationContext} is shared by all
+	 * categories. It is computed here, before the categories are forked, so that the categories
+	 * reuse one core context instead of each running code completion to get their own.
+	 * </p>
+	 *
+	 * @param categories the categories to compute
+	 * @param context the code assist invocation context
+	 * @return the computation of each category
+	 * @since 3.26
+	 */
+	private Map<CompletionProposalCategory, CategoryComputation> startComputations(List<CompletionProposalCategory> categories, ContentAssistInvocationContext context) {
+		if (context instanceof JavaContentAssistInvocationContext) {
+			((JavaContentAssistInvocationContext) context).getCoreContext();
+		}
+		Map<CompletionProposalCategory, CategoryComputation> computations= new HashMap<>();
+		synchronized (fComputations) {
+			for (CompletionProposalCategory cat : categories) {
+				CategoryComputation previous= fComputations.get(cat);
+				CompletableFuture<List<ICompletionProposal>> previousTask;
+				if (previous != null) {
+					previous.cancel();
+					previousTask= previous.fTask;
+				} else {
+					previousTask= CompletableFuture.completedFuture(null);
+				}
+				IProgressMonitor monitor= new NullProgressMonitor();
+				CategoryComputation computation= new CategoryComputation(previousTask.handleAsync((result, exception) -> computeCompletionProposals(cat, context, new SubProgressMonitor(monitor, 1)), EXECUTOR), monitor);
+				fComputations.put(cat, computation);
+				computations.put(cat, computation);
+			}
+		}
+		return computations;
+	}
+
+	/**
+	 * Waits until the given computation has completed or has been canceled because the content
+	 * assist session ended.
+	 *
+	 * @param computation the computation of a category
+	 * @return the computed proposals, or an empty list if the computation failed or was canceled
+	 * @since 3.26
+	 */
+	private List<ICompletionProposal> awaitComputation(CategoryComputation computation) {
+		try {
+			return computation.fResult.get();
+		} catch (CancellationException e) {
+			// the session ended, the proposals are no longer of interest
+		} catch (ExecutionException e) {
+			JavaPlugin.log(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Cancels the outstanding computations. The ones that are still running are kept until they
+	 * have completed, so that the next computation of their category does not run concurrently
+	 * with them.
+	 *
+	 * @since 3.26
+	 */
+	private void cancelComputations() {
+		synchronized (fComputations) {
+			for (Iterator<CategoryComputation> iter= fComputations.values().iterator(); iter.hasNext();) {
+				CategoryComputation computation= iter.next();
+				computation.cancel();
+				if (computation.fTask.isDone()) {
+					iter.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the proposals of a category and reports the time spent to the
+	 * {@link PerformanceStats} service if the <code>org.eclipse.jdt.ui/perf/content_assist/categories</code>
+	 * option is set.
+	 *
+	 * @param category the category
+	 * @param context the code assist invocation context
+	 * @param monitor the progress monitor
+	 * @return the computed proposals
+	 * @since 3.26
+	 */
+	private List<ICompletionProposal> computeCompletionProposals(CompletionProposalCategory category, ContentAssistInvocationContext context, SubProgressMonitor monitor) {
+		if (!MEASURE_PERFORMANCE) {
+			return category.computeCompletionProposals(context, fPartition, monitor);
+		}
+		PerformanceStats stats= PerformanceStats.getStats(PERFORMANCE_EVENT, category.getId());
+		stats.startRun(fPartition);
+		try {
+			return category.computeCompletionProposals(context, fPartition, monitor);
+		} finally {
+			stats.endRun();
+		}
+	}
+
 	/**
 	 * Filters and sorts the proposals. The passed list may be modified
 	 * and returned, or a new list may be created and returned.
@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.text.javadoc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import org.eclipse.jdt.internal.corext.javadoc.JavaDocLocations;
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+import org.eclipse.jdt.internal.ui.JavaPlugin;
+
+/**
+ * Caches the HTML rendered by {@link JavadocContentAccess2#getHTMLContent(IJavaElement, boolean)}.
+ * <p>
+ * Entries are keyed by the handle of the element and a stamp of the resource or archive that
+ * contains it: the modification stamp of a compilation unit, or the time stamps of the library,
+ * its source attachment and its Javadoc location for binary elements. Compilation units with
+ * unsaved changes are not cached. Since inherited Javadoc is copied from other types, the entries
+ * of source elements are dropped whenever a compilation unit changes, and all entries are dropped
+ * when a classpath changes.
+ * </p>
+ * <p>
+ * The memory cache is bounded by the number of cached characters of the keys and the HTML, plus
+ * a fixed overhead per entry. The HTML of binary elements, i.e. of libraries with attached source
+ * or Javadoc, is also written to a bounded disk cache in the plug-in state location, so that it
+ * survives a restart. The disk cache can be switched off with the system property
+ * <code>org.eclipse.jdt.ui.javadoc.diskCache=false</code>.
+ * </p>
+ *
+ * @since 3.26
+ */
+final class JavadocHTMLCache implements IElementChangedListener {
+
+	/**
+	 * Computes the HTML of an element.
+	 */
+	@FunctionalInterface
+	interface IHTMLComputer {
+
+		/**
+		 * Computes the HTML.
+		 *
+		 * @return the HTML, or <code>null</code> if the element has no Javadoc
+		 * @throws CoreException if the Javadoc cannot be accessed
+		 */
+		String compute() throws CoreException;
+	}
+
+	private static final class Entry {
+		final String fHTML;
+		final boolean fBinary;
+		final int fSize;
+
+		Entry(String key, String html, boolean binary) {
+			fHTML= html;
+			fBinary= binary;
+			fSize= ENTRY_OVERHEAD + key.length() + (html != null ? html.length() : 0);
+		}
+	}
+
+	/**
+	 * Characters accounted for the map entry and the objects of each cached element in addition
+	 * to its key and HTML, so that elements without Javadoc are bounded as well
+	 */
+	private static final int ENTRY_OVERHEAD= 64;
+
+	/** Maximum number of characters held in memory, including keys and per entry overhead */
+	private static final long MAX_MEMORY_SIZE= Long.getLong("org.eclipse.jdt.ui.javadoc.cacheSize", 4000000).longValue(); //$NON-NLS-1$
+
+	private static final boolean DISK_CACHE_ENABLED= Boolean.parseBoolean(System.getProperty("org.eclipse.jdt.ui.javadoc.diskCache", "true")); //$NON-NLS-1$ //$NON-NLS-2$
+
+	/** Maximum number of files in the disk cache */
+	private static final int MAX_DISK_ENTRIES= 2000;
+
+	/** Number of writes after which the size of the disk cache is checked */
+	private static final int DISK_CHECK_INTERVAL= 100;
+
+	private static final String DISK_CACHE_DIR= "javadoc-cache"; //$NON-NLS-1$
+
+	private static final String DISK_CACHE_SUFFIX= ".bin"; //$NON-NLS-1$
+
+	private static final int DISK_VERSION= 1;
+
+	private static JavadocHTMLCache fgDefault;
+
+	private final LinkedHashMap<String, Entry> fEntries= new LinkedHashMap<>(64, 0.75f, true);
+	private long fSize;
+	private boolean fHasSourceEntries;
+
+	private File fDiskCacheDir;
+	private boolean fDiskCacheInitialized;
+	private int fDiskWrites;
+
+	private JavadocHTMLCache() {
+	}
+
+	/**
+	 * Returns the shared cache.
+	 *
+	 * @return the shared cache
+	 */
+	static synchronized JavadocHTMLCache getDefault() {
+		if (fgDefault == null) {
+			fgDefault= new JavadocHTMLCache();
+			JavaCore.addElementChangedListener(fgDefault, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+		}
+		return fgDefault;
+	}
+
+	/**
+	 * Returns the cached HTML of the given element, computing it if it is not cached.
+	 *
+	 * @param element the element
+	 * @param useAttachedJavadoc whether attached Javadoc is used if there's no source
+	 * @param computer computes the HTML
+	 * @return the HTML, or <code>null</code> if the element has no Javadoc
+	 * @throws CoreException if the Javadoc cannot be accessed
+	 */
+	String getHTMLContent(IJavaElement element, boolean useAttachedJavadoc, IHTMLComputer computer) throws CoreException {
+		IPackageFragmentRoot root= JavaModelUtil.getPackageFragmentRoot(element);
+		if (root == null) {
+			return computer.compute();
+		}
+		boolean binary= root.getKind() == IPackageFragmentRoot.K_BINARY;
+		String stamp= binary ? getBinaryStamp(element, root) : getSourceStamp(element);
+		if (stamp == null) {
+			return computer.compute();
+		}
+		String key= (useAttachedJavadoc ? '+' : '-') + element.getHandleIdentifier() + '|' + stamp;
+
+		synchronized (this) {
+			Entry entry= fEntries.get(key);
+			if (entry != null) {
+				return entry.fHTML;
+			}
+		}
+		if (binary) {
+			String html= readFromDisk(key);
+			if (html != null) {
+				put(key, new Entry(key, html, true));
+				return html;
+			}
+		}
+		String html= computer.compute();
+		put(key, new Entry(key, html, binary));
+		if (binary && html != null) {
+			writeToDisk(key, html);
+		}
+		return html;
+	}
+
+	private static String getSourceStamp(IJavaElement element) throws JavaModelException {
+		IOpenable openable= element.getOpenable();
+		if (!(openable instanceof ICompilationUnit)) {
+			return null;
+		}
+		ICompilationUnit cu= (ICompilationUnit) openable;
+		if (cu.getOwner() != null || cu.hasUnsavedChanges()) {
+			return null;
+		}
+		IResource resource= cu.getResource();
+		if (resource == null || !resource.exists()) {
+			return null;
+		}
+		return Long.toString(resource.getModificationStamp());
+	}
+
+	private static String getBinaryStamp(IJavaElement element, IPackageFragmentRoot root) throws JavaModelException {
+		StringBuilder stamp= new StringBuilder();
+		IResource resource= root.isArchive() ? root.getResource() : ((IJavaElement) element.getOpenable()).getResource();
+		if (resource != null) {
+			stamp.append(resource.getLocalTimeStamp());
+		} else {
+			stamp.append(root.getPath().toFile().lastModified());
+		}
+		IPath sourceAttachment= root.getSourceAttachmentPath();
+		if (sourceAttachment != null) {
+			IResource sourceResource= ResourcesPlugin.getWorkspace().getRoot().findMember(sourceAttachment);
+			long sourceStamp= sourceResource != null ? sourceResource.getLocalTimeStamp() : sourceAttachment.toFile().lastModified();
+			stamp.append('|').append(sourceAttachment).append('|').append(sourceStamp);
+		}
+		URL javadocLocation= JavaDocLocations.getJavadocBaseLocation(element);
+		if (javadocLocation != null) {
+			stamp.append('|').append(javadocLocation.toExternalForm());
+		}
+		return stamp.toString();
+	}
+
+	private synchronized void put(String key, Entry entry) {
+		Entry previous= fEntries.put(key, entry);
+		if (previous != null) {
+			fSize-= previous.fSize;
+		}
+		fSize+= entry.fSize;
+		fHasSourceEntries|= !entry.fBinary;
+		if (fSize > MAX_MEMORY_SIZE) {
+			for (Iterator<Entry> iter= fEntries.values().iterator(); iter.hasNext() && fSize > MAX_MEMORY_SIZE;) {
+				fSize-= iter.next().fSize;
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all entries from the memory cache.
+	 */
+	synchronized void clear() {
+		fEntries.clear();
+		fSize= 0;
+		fHasSourceEntries= false;
+	}
+
+	private synchronized void clearSourceEntries() {
+		if (!fHasSourceEntries) {
+			return;
+		}
+		for (Iterator<Entry> iter= fEntries.values().iterator(); iter.hasNext();) {
+			Entry entry= iter.next();
+			if (!entry.fBinary) {
+				fSize-= entry.fSize;
+				iter.remove();
+			}
+		}
+		fHasSourceEntries= false;
+	}
+
+	@Override
+	public void elementChanged(ElementChangedEvent event) {
+		synchronized (this) {
+			if (fEntries.isEmpty()) {
+				return;
+			}
+		}
+		processDelta(event.getDelta());
+	}
+
+	private void processDelta(IJavaElementDelta delta) {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				break;
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & ~IJavaElementDelta.F_CHILDREN) != 0) {
+					// classpath, source attachment or Javadoc location changes
+					clear();
+					return;
+				}
+				break;
+			default:
+				clearSourceEntries();
+				return;
+		}
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			processDelta(child);
+		}
+	}
+
+	private synchronized File getDiskCacheDir() {
+		if (!fDiskCacheInitialized) {
+			fDiskCacheInitialized= true;
+			if (DISK_CACHE_ENABLED) {
+				try {
+					File dir= JavaPlugin.getDefault().getStateLocation().append(DISK_CACHE_DIR).toFile();
+					if (dir.isDirectory() || dir.mkdirs()) {
+						fDiskCacheDir= dir;
+					}
+				} catch (IllegalStateException e) {
+					// no state location
+				}
+			}
+		}
+		return fDiskCacheDir;
+	}
+
+	private static File getDiskCacheFile(File dir, String key) {
+		return new File(dir, Integer.toHexString(key.hashCode()) + DISK_CACHE_SUFFIX);
+	}
+
+	/**
+	 * Reads the HTML of the given key from the disk cache.
+	 *
+	 * @param key the key
+	 * @return the HTML, or <code>null</code> if not cached
+	 */
+	private String readFromDisk(String key) {
+		File dir= getDiskCacheDir();
+		if (dir == null) {
+			return null;
+		}
+		File file= getDiskCacheFile(dir, key);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != DISK_VERSION || !key.equals(in.readUTF())) {
+				return null;
+			}
+			byte[] bytes= new byte[in.readInt()];
+			in.readFully(bytes);
+			file.setLastModified(System.currentTimeMillis());
+			return new String(bytes, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			// corrupt or concurrently written, compute the HTML again
+			file.delete();
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, String html) {
+		File dir= getDiskCacheDir();
+		if (dir == null) {
+			return;
+		}
+		File file= getDiskCacheFile(dir, key);
+		File tmpFile= new File(dir, file.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				byte[] bytes= html.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(DISK_VERSION);
+				out.writeUTF(key);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			file.delete();
+			if (!tmpFile.renameTo(file)) {
+				tmpFile.delete();
+			}
+		} catch (IOException e) {
+			tmpFile.delete();
+			JavaPlugin.log(e);
+			return;
+		}
+		boolean check;
+		synchronized (this) {
+			check= ++fDiskWrites % DISK_CHECK_INTERVAL == 1;
+		}
+		if (check) {
+			pruneDiskCache(dir);
+		}
+	}
+
+	private static void pruneDiskCache(File dir) {
+		File[] files= dir.listFiles((d, name) -> name.endsWith(DISK_CACHE_SUFFIX));
+		if (files == null || files.length <= MAX_DISK_ENTRIES) {
+			return;
+		}
+		Map<File, Long> lastModified= new HashMap<>();
+		for (File file : files) {
+			lastModified.put(file, Long.valueOf(file.lastModified()));
+		}
+		Arrays.sort(files, Comparator.comparing(lastModified::get));
+		// remove the least recently used quarter, so that pruning does not happen on every check
+		for (int i= 0; i < files.length - MAX_DISK_ENTRIES * 3 / 4; i++) {
+			files[i].delete();
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -37,6 +37,7 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 	private static final int CLASS= 2;
 	private static final int INTERFACE= 3;
 	private static final int ANONYM= 4;
+	private static final int MORE_CHILDREN= 5;
 
 	private JavaElementComparator fNormalSorter;
 	private SourcePositionComparator fSourcePositonSorter;
@@ -57,6 +58,9 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 
 	@Override
 	public int category(Object element) {
+		if (element instanceof MoreChildrenNode) {
+			return MORE_CHILDREN;
+		}
 		if (element instanceof IType) {
 			IType type= (IType) element;
 			try {
@@ -84,6 +88,9 @@ public abstract class AbstractHierarchyViewerSorter extends ViewerComparator {
 
 	@Override
 	public int compare(Viewer viewer, Object e1, Object e2) {
+		if (e1 instanceof MoreChildrenNode || e2 instanceof MoreChildrenNode) {
+			return category(e1) - category(e2);
+		}
 		if (!isSortAlphabetically() && !isSortByDefiningType()) {
 			return fSourcePositonSorter.compare(viewer, e1, e2);
 		}
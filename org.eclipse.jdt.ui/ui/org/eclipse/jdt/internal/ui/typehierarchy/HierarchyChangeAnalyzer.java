@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IOrdinaryClassFile;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.ITypeRoot;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.Signature;
+
+import org.eclipse.jdt.internal.corext.util.JavaModelUtil;
+
+/**
+ * Decides whether a Java element delta changes the structure of a type hierarchy, so that the
+ * hierarchy has to be computed again.
+ * <p>
+ * A type hierarchy reports a change for any delta that may affect it, for example for every
+ * compilation unit whose content changed during a build or a switch of branches. This analyzer
+ * looks at the changed types: the hierarchy is unchanged if the types in the hierarchy still exist
+ * and still declare the same supertypes and kinds, and if no other type now declares a supertype
+ * named like a type of the hierarchy. Changes of the classpath and of package fragment roots
+ * always change the hierarchy.
+ * </p>
+ * <p>
+ * The declared supertypes of a changed type of the hierarchy are resolved in the context of the
+ * type, so a change of the imports that makes an unchanged name refer to another type is detected.
+ * New types are only checked by the simple names of their supertypes, which may find a change where
+ * there is none, but never misses one.
+ * </p>
+ *
+ * @since 3.26
+ */
+final class HierarchyChangeAnalyzer {
+
+	private static final int CLASSPATH_FLAGS= IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+			| IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+			| IJavaElementDelta.F_REMOVED_FROM_CLASSPATH | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED | IJavaElementDelta.F_REORDER;
+
+	private static final int IGNORED_FLAGS= IJavaElementDelta.F_PRIMARY_WORKING_COPY | IJavaElementDelta.F_AST_AFFECTED;
+
+	private final ITypeHierarchy fHierarchy;
+	private final boolean fIsRegion;
+
+	/** The simple names of the types in the hierarchy, computed when first needed */
+	private Set<String> fTypeNames;
+	/** The types of the hierarchy by their compilation unit or class file, computed when first needed */
+	private Map<ITypeRoot, List<IType>> fTypeRoots;
+
+	/**
+	 * Creates an analyzer for the given hierarchy.
+	 *
+	 * @param hierarchy the hierarchy, as computed
+	 * @param isRegion <code>true</code> if the hierarchy contains all types of a region,
+	 *            <code>false</code> if it is the hierarchy of a single type
+	 */
+	HierarchyChangeAnalyzer(ITypeHierarchy hierarchy, boolean isRegion) {
+		fHierarchy= hierarchy;
+		fIsRegion= isRegion;
+	}
+
+	/**
+	 * Returns whether the given delta changes the structure of the hierarchy.
+	 *
+	 * @param delta the delta
+	 * @return <code>true</code> if the hierarchy has to be computed again
+	 */
+	boolean isStructuralChange(IJavaElementDelta delta) {
+		try {
+			return isStructuralDelta(delta);
+		} catch (JavaModelException e) {
+			return true;
+		}
+	}
+
+	private boolean isStructuralDelta(IJavaElementDelta delta) throws JavaModelException {
+		IJavaElement element= delta.getElement();
+		switch (element.getElementType()) {
+			case IJavaElement.JAVA_MODEL:
+				return isStructuralChildrenDelta(delta);
+			case IJavaElement.JAVA_PROJECT:
+			case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+				if (delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_FLAGS) != 0) {
+					return true;
+				}
+				return isStructuralChildrenDelta(delta);
+			case IJavaElement.PACKAGE_FRAGMENT:
+				if (delta.getKind() == IJavaElementDelta.ADDED) {
+					return declaresNewTypes((IPackageFragment) element);
+				} else if (delta.getKind() == IJavaElementDelta.REMOVED) {
+					return containsHierarchyTypes((IPackageFragment) element);
+				}
+				return isStructuralChildrenDelta(delta);
+			case IJavaElement.COMPILATION_UNIT:
+				if (!JavaModelUtil.isPrimary((ICompilationUnit) element)) {
+					return false;
+				}
+				return isStructuralTypeRootDelta(delta, (ITypeRoot) element);
+			case IJavaElement.CLASS_FILE:
+				return isStructuralTypeRootDelta(delta, (ITypeRoot) element);
+			default:
+				// changes inside a compilation unit are handled by the compilation unit
+				return false;
+		}
+	}
+
+	private boolean isStructuralChildrenDelta(IJavaElementDelta delta) throws JavaModelException {
+		for (IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (isStructuralDelta(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isStructuralTypeRootDelta(IJavaElementDelta delta, ITypeRoot typeRoot) throws JavaModelException {
+		switch (delta.getKind()) {
+			case IJavaElementDelta.REMOVED:
+				return getTypeRoots().containsKey(typeRoot);
+			case IJavaElementDelta.ADDED:
+				return !getTypeRoots().containsKey(typeRoot) ? declaresNewTypes(typeRoot) : hasChangedTypes(typeRoot);
+			default:
+				if ((delta.getFlags() & ~IGNORED_FLAGS) == 0) {
+					return false;
+				}
+				return hasChangedTypes(typeRoot);
+		}
+	}
+
+	private boolean containsHierarchyTypes(IPackageFragment pack) {
+		for (ITypeRoot typeRoot : getTypeRoots().keySet()) {
+			if (pack.equals(typeRoot.getParent())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean declaresNewTypes(IPackageFragment pack) throws JavaModelException {
+		for (ICompilationUnit cu : pack.getCompilationUnits()) {
+			if (declaresNewTypes(cu)) {
+				return true;
+			}
+		}
+		for (IOrdinaryClassFile classFile : pack.getOrdinaryClassFiles()) {
+			if (declaresNewTypes(classFile)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean declaresNewTypes(ITypeRoot typeRoot) throws JavaModelException {
+		for (IType type : getTypes(typeRoot)) {
+			if (!fHierarchy.contains(type) && isNewType(type)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Checks the types of a changed compilation unit or class file against the hierarchy.
+	 */
+	private boolean hasChangedTypes(ITypeRoot typeRoot) throws JavaModelException {
+		if (!typeRoot.exists()) {
+			return getTypeRoots().containsKey(typeRoot);
+		}
+		List<IType> types= getTypes(typeRoot);
+		for (IType type : types) {
+			if (fHierarchy.contains(type)) {
+				if (!hasSameSupertypes(type)) {
+					return true;
+				}
+			} else if (isNewType(type)) {
+				return true;
+			}
+		}
+		// types of the hierarchy that were removed from the compilation unit
+		List<IType> hierarchyTypes= getTypeRoots().getOrDefault(typeRoot, Collections.emptyList());
+		return !types.containsAll(hierarchyTypes);
+	}
+
+	/*
+	 * A type that is not in the hierarchy yet is added if the hierarchy is a region or if one of its
+	 * supertypes is named like a type of the hierarchy.
+	 */
+	private boolean isNewType(IType type) throws JavaModelException {
+		if (fIsRegion) {
+			return true;
+		}
+		Set<String> typeNames= getTypeNames();
+		String superclassName= type.getSuperclassName();
+		if (superclassName != null && typeNames.contains(getSimpleName(superclassName))) {
+			return true;
+		}
+		for (String interfaceName : type.getSuperInterfaceNames()) {
+			if (typeNames.contains(getSimpleName(interfaceName))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean hasSameSupertypes(IType type) throws JavaModelException {
+		int flags= type.getFlags();
+		int cachedFlags= fHierarchy.getCachedFlags(type);
+		if (cachedFlags != -1 && (Flags.isInterface(flags) != Flags.isInterface(cachedFlags) || Flags.isEnum(flags) != Flags.isEnum(cachedFlags))) {
+			return false;
+		}
+		Set<String> declared= new HashSet<>();
+		String superclassSignature= type.getSuperclassTypeSignature();
+		if (superclassSignature != null) {
+			declared.add(getResolvedName(superclassSignature, type));
+		}
+		for (String interfaceSignature : type.getSuperInterfaceTypeSignatures()) {
+			declared.add(getResolvedName(interfaceSignature, type));
+		}
+		Set<String> known= new HashSet<>();
+		IType superclass= fHierarchy.getSuperclass(type);
+		// an anonymous type implementing an interface has Object as superclass
+		if (superclass != null && !((superclassSignature == null || type.isAnonymous()) && isImplicitSuperclass(superclass))) {
+			known.add(superclass.getFullyQualifiedName('.'));
+		}
+		for (IType superInterface : fHierarchy.getSuperInterfaces(type)) {
+			known.add(superInterface.getFullyQualifiedName('.'));
+		}
+		return declared.equals(known);
+	}
+
+	/*
+	 * Returns the qualified name of a supertype with '.' as enclosing type separator, or null if the
+	 * type cannot be resolved. A type of the hierarchy is never null, so an unresolved supertype is a
+	 * change.
+	 */
+	private static String getResolvedName(String typeSignature, IType type) throws JavaModelException {
+		String name= JavaModelUtil.getResolvedTypeName(Signature.getTypeErasure(typeSignature), type);
+		return name != null ? name.replace('$', '.') : null;
+	}
+
+	private static boolean isImplicitSuperclass(IType superclass) {
+		String name= superclass.getFullyQualifiedName();
+		return "java.lang.Object".equals(name) || "java.lang.Enum".equals(name) || "java.lang.Record".equals(name); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private static String getSimpleName(String typeName) {
+		String name= Signature.getTypeErasure(typeName);
+		int index= Math.max(name.lastIndexOf('.'), name.lastIndexOf('$'));
+		return index != -1 ? name.substring(index + 1) : name;
+	}
+
+	/*
+	 * Returns all types declared in the compilation unit or class file, including local and anonymous types.
+	 */
+	private static List<IType> getTypes(ITypeRoot typeRoot) throws JavaModelException {
+		List<IType> types= new ArrayList<>();
+		if (typeRoot instanceof IOrdinaryClassFile) {
+			types.add(((IOrdinaryClassFile) typeRoot).getType());
+		} else if (typeRoot instanceof ICompilationUnit) {
+			collectTypes((IParent) typeRoot, types);
+		}
+		return types;
+	}
+
+	private static void collectTypes(IParent parent, List<IType> types) throws JavaModelException {
+		for (IJavaElement child : parent.getChildren()) {
+			switch (child.getElementType()) {
+				case IJavaElement.TYPE:
+					types.add((IType) child);
+					//$FALL-THROUGH$
+				case IJavaElement.METHOD:
+				case IJavaElement.INITIALIZER:
+				case IJavaElement.FIELD:
+					collectTypes((IParent) child, types);
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private Set<String> getTypeNames() {
+		if (fTypeNames == null) {
+			initialize();
+		}
+		return fTypeNames;
+	}
+
+	private Map<ITypeRoot, List<IType>> getTypeRoots() {
+		if (fTypeRoots == null) {
+			initialize();
+		}
+		return fTypeRoots;
+	}
+
+	private void initialize() {
+		Set<String> typeNames= new HashSet<>();
+		Map<ITypeRoot, List<IType>> typeRoots= new HashMap<>();
+		for (IType type : fHierarchy.getAllTypes()) {
+			typeNames.add(type.getElementName());
+			typeRoots.computeIfAbsent(type.getTypeRoot(), k -> new ArrayList<>(1)).add(type);
+		}
+		fTypeNames= typeNames;
+		fTypeRoots= typeRoots;
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -28,6 +28,8 @@ import org.eclipse.jface.bindings.keys.KeySequence;
 import org.eclipse.jface.bindings.keys.SWTKeySupport;
 import org.eclipse.jface.bindings.TriggerSequence;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.jface.viewers.ViewerFilter;
@@ -129,11 +131,34 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 		gd.heightHint= tree.getItemHeight() * 12;
 		tree.setLayoutData(gd);
 
-		TreeViewer treeViewer= new TreeViewer(tree);
+		TreeViewer treeViewer= new TreeViewer(tree) {
+			@Override
+			public void setSelection(ISelection selection, boolean reveal) {
+				// the selected types may be on pages that are not shown yet
+				if (getContentProvider() instanceof TypeHierarchyContentProvider) {
+					((TypeHierarchyContentProvider) getContentProvider()).showPagesOf(selection);
+				}
+				super.setSelection(selection, reveal);
+			}
+
+			@Override
+			public void reveal(Object element) {
+				if (getContentProvider() instanceof TypeHierarchyContentProvider) {
+					((TypeHierarchyContentProvider) getContentProvider()).showPagesOf(element);
+				}
+				super.reveal(element);
+			}
+		};
 		treeViewer.addFilter(new ViewerFilter() {
 			@Override
 			public boolean select(Viewer viewer, Object parentElement, Object element) {
-				return element instanceof IType;
+				return element instanceof IType || element instanceof MoreChildrenNode;
+			}
+		});
+		treeViewer.addOpenListener(event -> {
+			Object element= ((IStructuredSelection) event.getSelection()).getFirstElement();
+			if (element instanceof MoreChildrenNode) {
+				((TypeHierarchyContentProvider) treeViewer.getContentProvider()).showMoreChildren((MoreChildrenNode) element);
 			}
 		});
 
@@ -384,6 +409,10 @@ public class HierarchyInformationControl extends AbstractInformationControl {
 	@Override
 	protected Object getSelectedElement() {
 		Object selectedElement= super.getSelectedElement();
+		if (selectedElement instanceof MoreChildrenNode) {
+			// opening it shows more children
+			return null;
+		}
 		if (selectedElement instanceof IType && fFocus != null) {
 			IType type= (IType) selectedElement;
 			try {
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -23,6 +23,7 @@ import org.eclipse.swt.widgets.Display;
 import org.eclipse.jface.preference.JFacePreferences;
 import org.eclipse.jface.resource.ImageDescriptor;
 import org.eclipse.jface.resource.JFaceResources;
+import org.eclipse.jface.viewers.StyledString;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.jdt.core.Flags;
@@ -32,6 +33,8 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.ITypeHierarchy;
 import org.eclipse.jdt.core.JavaModelException;
 
+import org.eclipse.jdt.internal.corext.util.Messages;
+
 import org.eclipse.jdt.ui.JavaElementImageDescriptor;
 import org.eclipse.jdt.ui.JavaElementLabels;
 
@@ -97,8 +100,31 @@ public class HierarchyLabelProvider extends AppearanceAwareLabelProvider {
 		return true;
 	}
 
+	@Override
+	public String getText(Object element) {
+		if (element instanceof MoreChildrenNode) {
+			return getMoreChildrenLabel((MoreChildrenNode) element);
+		}
+		return super.getText(element);
+	}
+
+	@Override
+	public StyledString getStyledText(Object element) {
+		if (element instanceof MoreChildrenNode) {
+			return new StyledString(getMoreChildrenLabel((MoreChildrenNode) element), StyledString.QUALIFIER_STYLER);
+		}
+		return super.getStyledText(element);
+	}
+
+	private static String getMoreChildrenLabel(MoreChildrenNode node) {
+		return Messages.format(TypeHierarchyMessages.HierarchyLabelProvider_more_children, Integer.valueOf(node.getRemaining()));
+	}
+
 	@Override
 	public Image getImage(Object element) {
+		if (element instanceof MoreChildrenNode) {
+			return null;
+		}
 		Image result= null;
 		if (element instanceof IType) {
 			ImageDescriptor desc= getTypeImageDescriptor((IType) element);
@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.ui.typehierarchy;
+
+import org.eclipse.jdt.core.IType;
+
+/**
+ * The last child of a type whose children are shown page by page. It stands for the children that
+ * are not shown yet; opening it shows the next page.
+ *
+ * @see TypeHierarchyContentProvider#showMoreChildren(MoreChildrenNode)
+ * @since 3.26
+ */
+public final class MoreChildrenNode {
+
+	private final IType fParent;
+	private final int fRemaining;
+
+	MoreChildrenNode(IType parent, int remaining) {
+		fParent= parent;
+		fRemaining= remaining;
+	}
+
+	/**
+	 * @return the type whose children are not all shown
+	 */
+	public IType getParent() {
+		return fParent;
+	}
+
+	/**
+	 * @return the number of children that are not shown
+	 */
+	public int getRemaining() {
+		return fRemaining;
+	}
+
+	/*
+	 * There is at most one node per parent, so that the viewer keeps its item when the next page is shown.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof MoreChildrenNode && fParent.equals(((MoreChildrenNode) obj).fParent);
+	}
+
+	@Override
+	public int hashCode() {
+		return fParent.hashCode();
+	}
+}
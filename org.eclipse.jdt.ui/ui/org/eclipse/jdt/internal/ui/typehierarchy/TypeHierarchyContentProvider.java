@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2014 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -14,13 +14,23 @@
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
 
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.ITreeContentProvider;
 import org.eclipse.jface.viewers.TreeViewer;
 import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.jdt.core.Flags;
@@ -40,10 +50,19 @@ import org.eclipse.jdt.ui.IWorkingCopyProvider;
  * Base class for content providers for type hierarchy viewers.
  * Implementors must override 'getTypesInHierarchy'.
  * Java delta processing is also performed by the content provider
+ * <p>
+ * Types with very many children show them page by page: only the first children, in the order of
+ * the viewer's comparator, are returned followed by a {@link MoreChildrenNode}.
+ * </p>
  */
 public abstract class TypeHierarchyContentProvider implements ITreeContentProvider, IWorkingCopyProvider {
 	protected static final Object[] NO_ELEMENTS= new Object[0];
 
+	/**
+	 * The number of children shown per page.
+	 */
+	private static final int PAGE_SIZE= Math.max(1, Integer.getInteger("org.eclipse.jdt.ui.typeHierarchy.pageSize", 1000).intValue()); //$NON-NLS-1$
+
 	protected TypeHierarchyLifeCycle fTypeHierarchy;
 	protected IMember[] fMemberFilter;
 
@@ -53,6 +72,23 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	private MethodOverrideTester fMethodOverrideTester;
 	private ITypeHierarchyLifeCycleListener fTypeHierarchyLifeCycleListener;
 
+	/**
+	 * The types containing a member of the member filter, if precomputed, or <code>null</code>.
+	 */
+	private volatile Set<IType> fMemberFilterTypes;
+
+	/**
+	 * Caches {@link #isInTree(IType)}, which otherwise visits the whole subtree of a type.
+	 */
+	private volatile Map<IType, Boolean> fInTreeCache= new HashMap<>();
+
+	/**
+	 * The number of children shown of the types whose children are paged, if more than one page.
+	 */
+	private final Map<IType, Integer> fChildrenLimits= new HashMap<>();
+
+	private int fPageSize= PAGE_SIZE;
+
 
 	public TypeHierarchyContentProvider(TypeHierarchyLifeCycle lifecycle) {
 		fTypeHierarchy= lifecycle;
@@ -67,6 +103,8 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 						fMethodOverrideTester= null;
 					}
 				}
+				fMemberFilterTypes= null;
+				clearCaches();
 			}
 		};
 		lifecycle.addChangedListener(fTypeHierarchyLifeCycleListener);
@@ -80,7 +118,57 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	 * @param memberFilter the new member filter
 	 */
 	public final void setMemberFilter(IMember[] memberFilter) {
+		setMemberFilter(memberFilter, null);
+	}
+
+	/**
+	 * Sets members to filter the hierarchy for, together with the types that contain them.
+	 *
+	 * @param memberFilter the new member filter, or <code>null</code> to disable member filtering
+	 * @param memberFilterTypes the types containing a member of the filter, as computed by
+	 *            {@link #computeMemberFilterTypes(IMember[], IProgressMonitor)}, or
+	 *            <code>null</code> to find them when needed
+	 * @since 3.26
+	 */
+	public final void setMemberFilter(IMember[] memberFilter, Set<IType> memberFilterTypes) {
 		fMemberFilter= memberFilter;
+		fMemberFilterTypes= memberFilter != null ? memberFilterTypes : null;
+		clearCaches();
+	}
+
+	/**
+	 * Computes the types of the hierarchy that contain one of the given members or a method
+	 * compatible with one of them. This is the expensive part of member filtering and can be called
+	 * from a background thread.
+	 *
+	 * @param memberFilter the members to filter the hierarchy for
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @return the types containing one of the members
+	 * @throws JavaModelException if a type cannot be accessed
+	 * @since 3.26
+	 */
+	public Set<IType> computeMemberFilterTypes(IMember[] memberFilter, IProgressMonitor monitor) throws JavaModelException {
+		Set<IType> result= new HashSet<>();
+		ITypeHierarchy hierarchy= getHierarchy();
+		if (hierarchy == null) {
+			return result;
+		}
+		IType[] allTypes= hierarchy.getAllTypes();
+		SubMonitor progress= SubMonitor.convert(monitor, allTypes.length);
+		for (IType type : allTypes) {
+			if (hasMemberFilterChildren(memberFilter, type)) {
+				result.add(type);
+			}
+			progress.split(1);
+		}
+		return result;
+	}
+
+	/**
+	 * Clears the state computed from the hierarchy and the filters. Called before the viewer is refreshed.
+	 */
+	void clearCaches() {
+		fInTreeCache= new HashMap<>();
 	}
 
 	private boolean initializeMethodOverrideTester(IMethod filterMethod, IType typeToFindIn) {
@@ -153,6 +241,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	 */
 	public void setWorkingSetFilter(ViewerFilter filter) {
 		fWorkingSetFilter= filter;
+		clearCaches();
 	}
 
 
@@ -256,7 +345,7 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 
 				addTypeChildren(type, children);
 
-				return children.toArray();
+				return getPage(type, children);
 			} catch (JavaModelException e) {
 				// ignore
 			}
@@ -264,6 +353,116 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 		return NO_ELEMENTS;
 	}
 
+	private Object[] getPage(IType parent, List<IMember> children) {
+		int pageEnd= getChildrenLimit(parent);
+		if (children.size() <= pageEnd) {
+			return children.toArray();
+		}
+		Object[] sorted= sortChildren(children);
+		Object[] page= Arrays.copyOf(sorted, pageEnd + 1);
+		page[pageEnd]= new MoreChildrenNode(parent, sorted.length - pageEnd);
+		return page;
+	}
+
+	private Object[] sortChildren(List<IMember> children) {
+		Object[] sorted= children.toArray();
+		ViewerComparator comparator= fViewer != null ? fViewer.getComparator() : null;
+		if (comparator != null) {
+			comparator.sort(fViewer, sorted);
+		}
+		return sorted;
+	}
+
+	private int getChildrenLimit(IType parent) {
+		Integer limit= fChildrenLimits.get(parent);
+		return limit != null ? limit.intValue() : fPageSize;
+	}
+
+	/**
+	 * Sets the number of children shown per page.
+	 *
+	 * @param pageSize the number of children shown before a {@link MoreChildrenNode}
+	 * @since 3.26
+	 */
+	public void setPageSize(int pageSize) {
+		fPageSize= Math.max(1, pageSize);
+		fChildrenLimits.clear();
+	}
+
+	/**
+	 * Shows the next page of children of the node's parent.
+	 *
+	 * @param node the node standing for the children not shown yet
+	 */
+	public void showMoreChildren(MoreChildrenNode node) {
+		IType parent= node.getParent();
+		fChildrenLimits.put(parent, Integer.valueOf(getChildrenLimit(parent) + fPageSize));
+		if (fViewer != null) {
+			fViewer.refresh(parent);
+		}
+	}
+
+	/**
+	 * Shows the pages that contain the selected elements and their parents, so that the viewer
+	 * finds them when it selects or reveals them.
+	 *
+	 * @param selection the selection to be set in the viewer
+	 */
+	void showPagesOf(ISelection selection) {
+		if (selection instanceof IStructuredSelection) {
+			for (Object element : ((IStructuredSelection) selection).toList()) {
+				showPagesOf(element);
+			}
+		}
+	}
+
+	/**
+	 * Shows the pages that contain the given element and its parents.
+	 *
+	 * @param element the element to reveal
+	 */
+	void showPagesOf(Object element) {
+		IType topmostChanged= null;
+		Object child= element;
+		Object parent= getParent(child);
+		Set<Object> visited= new HashSet<>();
+		while (parent instanceof IType && visited.add(parent)) {
+			if (showPageOf((IType) parent, child)) {
+				topmostChanged= (IType) parent;
+			}
+			child= parent;
+			parent= getParent(child);
+		}
+		if (topmostChanged != null && fViewer != null) {
+			// also refreshes the expanded pages below
+			fViewer.refresh(topmostChanged);
+		}
+	}
+
+	private boolean showPageOf(IType parent, Object child) {
+		int limit= getChildrenLimit(parent);
+		List<IMember> children= new ArrayList<>();
+		try {
+			if (fMemberFilter != null) {
+				addFilteredMemberChildren(parent, children);
+			}
+			addTypeChildren(parent, children);
+		} catch (JavaModelException e) {
+			return false;
+		}
+		if (children.size() <= limit) {
+			return false;
+		}
+		Object[] sorted= sortChildren(children);
+		for (int i= limit; i < sorted.length; i++) {
+			if (sorted[i].equals(child)) {
+				fChildrenLimits.put(parent, Integer.valueOf((i / fPageSize + 1) * fPageSize));
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/*
 	 * @see ITreeContentProvider#hasChildren
 	 */
@@ -305,6 +504,16 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	}
 
 	protected final boolean isInTree(IType type) throws JavaModelException {
+		Map<IType, Boolean> cache= fInTreeCache;
+		Boolean inTree= cache.get(type);
+		if (inTree == null) {
+			inTree= Boolean.valueOf(computeIsInTree(type));
+			cache.put(type, inTree);
+		}
+		return inTree.booleanValue();
+	}
+
+	private boolean computeIsInTree(IType type) throws JavaModelException {
 		if (isInHierarchyOfInputElements(type)) {
 			if (fMemberFilter != null) {
 				return hasMemberFilterChildren(type) || hasTypeChildren(type);
@@ -316,7 +525,15 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	}
 
 	private boolean hasMemberFilterChildren(IType type) throws JavaModelException {
-		for (IMember member : fMemberFilter) {
+		Set<IType> memberFilterTypes= fMemberFilterTypes;
+		if (memberFilterTypes != null) {
+			return memberFilterTypes.contains(type);
+		}
+		return hasMemberFilterChildren(fMemberFilter, type);
+	}
+
+	private boolean hasMemberFilterChildren(IMember[] memberFilter, IType type) throws JavaModelException {
+		for (IMember member : memberFilter) {
 			if (type.equals(member.getDeclaringType())) {
 				return true;
 			} else if (member instanceof IMethod) {
@@ -348,6 +565,8 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	public void inputChanged(Viewer part, Object oldInput, Object newInput) {
 		Assert.isTrue(part instanceof TreeViewer);
 		fViewer= (TreeViewer)part;
+		fChildrenLimits.clear();
+		clearCaches();
 	}
 
 	/*
@@ -364,6 +583,9 @@ public abstract class TypeHierarchyContentProvider implements ITreeContentProvid
 	 */
 	@Override
 	public Object getParent(Object element) {
+		if (element instanceof MoreChildrenNode) {
+			return ((MoreChildrenNode) element).getParent();
+		}
 		if (element instanceof IMember) {
 			IMember member= (IMember) element;
 			if (member.getElementType() == IJavaElement.TYPE) {
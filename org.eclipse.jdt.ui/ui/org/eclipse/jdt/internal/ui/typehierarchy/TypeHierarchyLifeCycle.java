@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2017 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -16,7 +16,9 @@ package org.eclipse.jdt.internal.ui.typehierarchy;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.swt.widgets.Display;
 
@@ -53,10 +55,27 @@ import org.eclipse.jdt.internal.ui.JavaPlugin;
 
 /**
  * Manages a type hierarchy, to keep it refreshed, and to allow it to be shared.
+ * <p>
+ * Changes are reported to the listeners once no further delta arrived for a short quiet period, so
+ * that a build or a switch of branches causes one notification instead of one per delta. A change
+ * reported by the hierarchy only requires a new computation if a {@link HierarchyChangeAnalyzer}
+ * finds that the types of the hierarchy, their supertypes or the classpath changed; otherwise only
+ * the changed types are reported.
+ * </p>
+ * <p>
+ * The deltas are only queued while the Java model notifies its listeners. They are analyzed at the
+ * end of the quiet period, so that the model queries of the analysis do not delay the other
+ * listeners.
+ * </p>
  */
 public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IElementChangedListener {
 
-	private boolean fHierarchyRefreshNeeded;
+	/**
+	 * The time in milliseconds without deltas after which changes are reported.
+	 */
+	private static final long QUIET_PERIOD= Long.getLong("org.eclipse.jdt.ui.typeHierarchy.quietPeriod", 300).longValue(); //$NON-NLS-1$
+
+	private volatile boolean fHierarchyRefreshNeeded;
 	private ITypeHierarchy fHierarchy;
 	private IJavaElement[] fInputElements;
 	private boolean fIsSuperTypesOnly;
@@ -84,6 +103,77 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	private boolean fRefreshJobCanceledExplicitly= true;
 
+	/**
+	 * Set when the hierarchy reported that it may be affected by a delta. The hierarchy then stops
+	 * listening to deltas, so this and all following deltas are analyzed by {@link #fChangeAnalyzer}.
+	 *
+	 * @since 3.26
+	 */
+	private volatile boolean fHierarchyMayHaveChanged;
+
+	/**
+	 * The last delta that was not queued for analysis because the hierarchy had not reported a
+	 * change yet, or <code>null</code>. The hierarchy and this life cycle are both notified of a
+	 * delta, in the order in which they registered; if this life cycle is notified first, the delta
+	 * is queued for analysis when the hierarchy reports the change. Guarded by
+	 * {@link #fPendingChangedTypes}.
+	 *
+	 * @since 3.26
+	 */
+	private IJavaElementDelta fUnanalyzedDelta;
+
+	/**
+	 * The deltas to be analyzed by {@link #fChangeAnalyzer} at the end of the quiet period. Guarded
+	 * by {@link #fPendingChangedTypes}.
+	 *
+	 * @since 3.26
+	 */
+	private final List<IJavaElementDelta> fPendingAnalyzedDeltas= new ArrayList<>();
+
+	/**
+	 * The deltas to be searched for changed types at the end of the quiet period. Guarded by
+	 * {@link #fPendingChangedTypes}.
+	 *
+	 * @since 3.26
+	 */
+	private final List<IJavaElementDelta> fPendingDeltas= new ArrayList<>();
+
+	/**
+	 * Counts the restarts of the quiet period, so that the notify job can tell whether a delta
+	 * arrived while it analyzed the pending deltas. Guarded by {@link #fPendingChangedTypes}.
+	 *
+	 * @since 3.26
+	 */
+	private int fPendingStamp;
+
+	/**
+	 * Analyzes the deltas for the current hierarchy, or <code>null</code>.
+	 *
+	 * @since 3.26
+	 */
+	private volatile HierarchyChangeAnalyzer fChangeAnalyzer;
+
+	/**
+	 * The changed types to be reported at the end of the quiet period.
+	 *
+	 * @since 3.26
+	 */
+	private final Set<IType> fPendingChangedTypes= new LinkedHashSet<>();
+
+	/**
+	 * Whether a change of the hierarchy is to be reported at the end of the quiet period.
+	 *
+	 * @since 3.26
+	 */
+	private boolean fPendingHierarchyChange;
+
+	/**
+	 * The job reporting the pending changes, or <code>null</code>.
+	 *
+	 * @since 3.26
+	 */
+	private Job fNotifyJob;
+
 	/**
 	 * Creates the type hierarchy life cycle.
 	 *
@@ -123,6 +213,18 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 			JavaCore.removeElementChangedListener(this);
 			fHierarchy= null;
 			fInputElements= null;
+			fChangeAnalyzer= null;
+		}
+		synchronized (fPendingChangedTypes) {
+			if (fNotifyJob != null) {
+				fNotifyJob.cancel();
+				fNotifyJob= null;
+			}
+			fUnanalyzedDelta= null;
+			fPendingAnalyzedDeltas.clear();
+			fPendingDeltas.clear();
+			fPendingChangedTypes.clear();
+			fPendingHierarchyChange= false;
 		}
 		synchronized (this) {
 			if (fRefreshHierarchyJob != null) {
@@ -149,6 +251,111 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 	}
 
+	/*
+	 * Reports the change once no other change arrived for the quiet period. <code>null</code>
+	 * reports a change of the hierarchy, which includes all changed types.
+	 */
+	private void scheduleChange(IType[] changedTypes) {
+		synchronized (fPendingChangedTypes) {
+			if (changedTypes == null) {
+				fPendingHierarchyChange= true;
+			} else {
+				fPendingChangedTypes.addAll(Arrays.asList(changedTypes));
+			}
+			restartQuietPeriod();
+		}
+	}
+
+	/*
+	 * Must be called while holding the lock on fPendingChangedTypes.
+	 */
+	private void restartQuietPeriod() {
+		if (fNotifyJob == null) {
+			fNotifyJob= new Job(TypeHierarchyMessages.TypeHierarchyLifeCycle_notify_job) {
+				@Override
+				protected IStatus run(IProgressMonitor monitor) {
+					firePendingChanges(this);
+					return Status.OK_STATUS;
+				}
+			};
+			fNotifyJob.setSystem(true);
+		}
+		fPendingStamp++;
+		fNotifyJob.cancel();
+		fNotifyJob.schedule(QUIET_PERIOD);
+	}
+
+	private void firePendingChanges(Job job) {
+		IJavaElementDelta[] analyzedDeltas;
+		IJavaElementDelta[] deltas;
+		int stamp;
+		synchronized (fPendingChangedTypes) {
+			if (fNotifyJob != job) {
+				return;
+			}
+			analyzedDeltas= fPendingAnalyzedDeltas.toArray(new IJavaElementDelta[fPendingAnalyzedDeltas.size()]);
+			deltas= fPendingDeltas.toArray(new IJavaElementDelta[fPendingDeltas.size()]);
+			fPendingAnalyzedDeltas.clear();
+			fPendingDeltas.clear();
+			stamp= fPendingStamp;
+		}
+
+		boolean hierarchyChanged= analyzeDeltas(analyzedDeltas);
+		List<IType> types= new ArrayList<>();
+		if (!hierarchyChanged && !fHierarchyRefreshNeeded) {
+			for (IJavaElementDelta delta : deltas) {
+				processDelta(delta, types);
+			}
+		}
+
+		IType[] changedTypes;
+		synchronized (fPendingChangedTypes) {
+			if (fNotifyJob != job) {
+				return;
+			}
+			if (hierarchyChanged) {
+				fPendingHierarchyChange= true;
+			} else {
+				fPendingChangedTypes.addAll(types);
+			}
+			if (stamp != fPendingStamp) {
+				// a delta arrived in the meantime, report the changes together at the end of the new quiet period
+				return;
+			}
+			if (fPendingHierarchyChange) {
+				changedTypes= null;
+			} else if (!fPendingChangedTypes.isEmpty()) {
+				changedTypes= fPendingChangedTypes.toArray(new IType[fPendingChangedTypes.size()]);
+			} else {
+				return;
+			}
+			fPendingChangedTypes.clear();
+			fPendingHierarchyChange= false;
+		}
+		fireChange(changedTypes);
+	}
+
+	/*
+	 * Tells whether one of the deltas requires a new computation of the hierarchy and marks the
+	 * hierarchy as to be refreshed if so.
+	 */
+	private boolean analyzeDeltas(IJavaElementDelta[] deltas) {
+		HierarchyChangeAnalyzer analyzer= fChangeAnalyzer;
+		if (analyzer == null) {
+			return false;
+		}
+		for (IJavaElementDelta delta : deltas) {
+			if (fHierarchyRefreshNeeded) {
+				return false;
+			}
+			if (analyzer.isStructuralChange(delta)) {
+				fHierarchyRefreshNeeded= true;
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Refreshes the type hierarchy for the java element if it exists.
 	 *
@@ -221,8 +428,10 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 						@Override
 						public IStatus run(IProgressMonitor pm) {
 							pm.beginTask(label, LONG);
+							boolean refreshed= false;
 							try {
 								doHierarchyRefreshBackground(elements, pm);
+								refreshed= true;
 							} catch (OperationCanceledException e) {
 								if (fRefreshJobCanceledExplicitly) {
 									fTypeHierarchyViewPart.showEmptyViewer();
@@ -231,7 +440,10 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 							} catch (JavaModelException e) {
 								return e.getStatus();
 							} finally {
-								fHierarchyRefreshNeeded= true;
+								// a complete hierarchy keeps being updated from the deltas
+								if (!refreshed) {
+									fHierarchyRefreshNeeded= true;
+								}
 								pm.done();
 							}
 							return Status.OK_STATUS;
@@ -334,6 +546,12 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		}
 		fHierarchy.addTypeHierarchyChangedListener(this);
 		JavaCore.addElementChangedListener(this);
+		fChangeAnalyzer= new HierarchyChangeAnalyzer(fHierarchy, !(elements.length == 1 && elements[0].getElementType() == IJavaElement.TYPE));
+		synchronized (fPendingChangedTypes) {
+			fUnanalyzedDelta= null;
+			fPendingAnalyzedDeltas.clear();
+		}
+		fHierarchyMayHaveChanged= false;
 		fHierarchyRefreshNeeded= false;
 	}
 
@@ -342,8 +560,23 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void typeHierarchyChanged(ITypeHierarchy typeHierarchy) {
-	 	fHierarchyRefreshNeeded= true;
- 		fireChange(null);
+		HierarchyChangeAnalyzer analyzer= fChangeAnalyzer;
+		if (analyzer == null) {
+			fHierarchyRefreshNeeded= true;
+			scheduleChange(null);
+			return;
+		}
+		synchronized (fPendingChangedTypes) {
+			// this and all following deltas are queued for analysis by elementChanged
+			fHierarchyMayHaveChanged= true;
+			// queue the delta now if elementChanged was notified before the hierarchy; if it was
+			// notified after, this is an earlier delta and analyzing it again can only cause an extra refresh
+			if (fUnanalyzedDelta != null) {
+				fPendingAnalyzedDeltas.add(fUnanalyzedDelta);
+				fUnanalyzedDelta= null;
+				restartQuietPeriod();
+			}
+		}
 	}
 
 	/*
@@ -351,17 +584,22 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	 */
 	@Override
 	public void elementChanged(ElementChangedEvent event) {
-		if (fChangeListeners.isEmpty()) {
-			return;
-		}
-
 		if (fHierarchyRefreshNeeded) {
 			return;
-		} else {
-			ArrayList<IType> changedTypes= new ArrayList<>();
-			processDelta(event.getDelta(), changedTypes);
-			if (changedTypes.size() > 0) {
-				fireChange(changedTypes.toArray(new IType[changedTypes.size()]));
+		}
+		// only queue the delta, it is analyzed by the notify job
+		IJavaElementDelta delta= event.getDelta();
+		synchronized (fPendingChangedTypes) {
+			if (!fHierarchyMayHaveChanged) {
+				fUnanalyzedDelta= delta;
+			} else if (fChangeAnalyzer != null) {
+				fPendingAnalyzedDeltas.add(delta);
+			}
+			if (!fChangeListeners.isEmpty()) {
+				fPendingDeltas.add(delta);
+			}
+			if (!fPendingAnalyzedDeltas.isEmpty() || !fPendingDeltas.isEmpty()) {
+				restartQuietPeriod();
 			}
 		}
 	}
@@ -369,7 +607,7 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 	/*
 	 * Assume that the hierarchy is intact (no refresh needed)
 	 */
-	private void processDelta(IJavaElementDelta delta, ArrayList<IType> changedTypes) {
+	private void processDelta(IJavaElementDelta delta, List<IType> changedTypes) {
 		IJavaElement element= delta.getElement();
 		switch (element.getElementType()) {
 			case IJavaElement.TYPE:
@@ -418,13 +656,14 @@ public class TypeHierarchyLifeCycle implements ITypeHierarchyChangedListener, IE
 		return (flags & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_FINE_GRAINED)) == IJavaElementDelta.F_CONTENT;
 	}
 
-	private void processTypeDelta(IType type, ArrayList<IType> changedTypes) {
-		if (getHierarchy().contains(type)) {
+	private void processTypeDelta(IType type, List<IType> changedTypes) {
+		ITypeHierarchy hierarchy= getHierarchy();
+		if (hierarchy != null && hierarchy.contains(type)) {
 			changedTypes.add(type);
 		}
 	}
 
-	private void processChildrenDelta(IJavaElementDelta delta, ArrayList<IType> changedTypes) {
+	private void processChildrenDelta(IJavaElementDelta delta, List<IType> changedTypes) {
 		for (IJavaElementDelta child : delta.getAffectedChildren()) {
 			processDelta(child, changedTypes); // recursive
 		}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2010 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -98,6 +98,9 @@ public final class TypeHierarchyMessages extends NLS {
 	public static String HierarchyInformationControl_hierarchy_label;
 	public static String HierarchyInformationControl_toggle_traditionalhierarchy_label;
 	public static String HierarchyInformationControl_toggle_superhierarchy_label;
+	public static String HierarchyLabelProvider_more_children;
+	public static String TypeHierarchyViewPart_member_filter_job;
+	public static String TypeHierarchyLifeCycle_notify_job;
 
 	static {
 		NLS.initializeMessages(BUNDLE_NAME, TypeHierarchyMessages.class);
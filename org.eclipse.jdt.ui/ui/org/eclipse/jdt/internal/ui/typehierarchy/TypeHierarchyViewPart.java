@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2019 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.help.IContextProvider;
 
@@ -235,6 +236,13 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	private WorkingSetFilterActionGroup fWorkingSetActionGroup;
 	private Job fRestoreStateJob;
 
+	/**
+	 * The job computing the types shown for the selected members, or <code>null</code>.
+	 *
+	 * @since 3.26
+	 */
+	private Job fMemberFilterJob;
+
 	/**
 	 * Helper to open and activate editors.
 	 *
@@ -683,6 +691,7 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	 */
 	@Override
 	public void dispose() {
+		cancelMemberFilterJob();
 		if (fHierarchyLifeCycle != null) {
 			fHierarchyLifeCycle.freeHierarchy();
 			fHierarchyLifeCycle.removeChangedListener(fTypeHierarchyLifeCycleListener);
@@ -1179,12 +1188,69 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 	 * Sets the member filter. <code>null</code> disables member filtering.
 	 */
 	private void setMemberFilter(IMember[] memberFilter) {
+		setMemberFilter(memberFilter, null);
+	}
+
+	/*
+	 * Sets the member filter with the types containing the members, <code>null</code> if not computed.
+	 */
+	private void setMemberFilter(IMember[] memberFilter, Set<IType> memberFilterTypes) {
 		Assert.isNotNull(fAllViewers);
+		cancelMemberFilterJob();
 		for (TypeHierarchyViewer viewer : fAllViewers) {
-			viewer.setMemberFilter(memberFilter);
+			viewer.setMemberFilter(memberFilter, memberFilterTypes);
+		}
+	}
+
+	/*
+	 * Finds the types containing the members in the background, as this visits the whole
+	 * hierarchy, and then filters the hierarchy viewers.
+	 */
+	private void computeMemberFilter(final IMember[] memberFilter) {
+		cancelMemberFilterJob();
+		final TypeHierarchyContentProvider contentProvider= getCurrentViewer().getHierarchyContentProvider();
+		final Display display= getDisplay();
+		fMemberFilterJob= new Job(TypeHierarchyMessages.TypeHierarchyViewPart_member_filter_job) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				Set<IType> types;
+				try {
+					types= contentProvider.computeMemberFilterTypes(memberFilter, monitor);
+				} catch (JavaModelException e) {
+					// the viewers find the types when needed
+					types= null;
+				} catch (OperationCanceledException e) {
+					return Status.CANCEL_STATUS;
+				}
+				final Set<IType> memberFilterTypes= types;
+				final Job job= this;
+				display.asyncExec(() -> {
+					// running async: check first if view still exists and the filter is still wanted
+					if (fMemberFilterJob == job && fPagebook != null && !fPagebook.isDisposed() && fIsEnableMemberFilter) {
+						applyMemberFilter(memberFilter, memberFilterTypes);
+					}
+				});
+				return Status.OK_STATUS;
+			}
+		};
+		fMemberFilterJob.setSystem(true);
+		fMemberFilterJob.schedule();
+	}
+
+	private void cancelMemberFilterJob() {
+		if (fMemberFilterJob != null) {
+			fMemberFilterJob.cancel();
+			fMemberFilterJob= null;
 		}
 	}
 
+	private void applyMemberFilter(IMember[] memberFilter, Set<IType> memberFilterTypes) {
+		setMemberFilter(memberFilter, memberFilterTypes);
+		updateHierarchyViewer(true);
+		updateToolTipAndDescription();
+		internalSelectType(fSelectedType, true);
+	}
+
 	private IType getSelectableType(IJavaElement[] elem) {
 		if (elem[0].getElementType() != IJavaElement.TYPE) {
 			return getCurrentViewer().getTreeRootType();
@@ -1259,15 +1325,13 @@ public class TypeHierarchyViewPart extends ViewPart implements ITypeHierarchyVie
 			List<?> selected= ((IStructuredSelection)sel).toList();
 			int nSelected= selected.size();
 			if (fIsEnableMemberFilter) {
-				IMember[] memberFilter= null;
 				if (nSelected > 0) {
-					memberFilter= new IMember[nSelected];
+					IMember[] memberFilter= new IMember[nSelected];
 					selected.toArray(memberFilter);
+					computeMemberFilter(memberFilter);
+				} else {
+					applyMemberFilter(null, null);
 				}
-				setMemberFilter(memberFilter);
-				updateHierarchyViewer(true);
-				updateToolTipAndDescription();
-				internalSelectType(fSelectedType, true);
 			}
 			if (nSelected == 1 && fSelectInEditor) {
 				revealElementInEditor(selected.get(0), fMethodsViewer);
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.ui.typehierarchy;
 
+import java.util.Set;
+
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Menu;
@@ -24,6 +26,7 @@ import org.eclipse.jface.action.IMenuListener;
 import org.eclipse.jface.action.IMenuManager;
 import org.eclipse.jface.action.MenuManager;
 import org.eclipse.jface.viewers.IContentProvider;
+import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.jface.viewers.ViewerFilter;
 
 import org.eclipse.ui.IWorkbenchPartSite;
@@ -35,6 +38,7 @@ import org.eclipse.jdt.ui.JavaElementLabels;
 
 import org.eclipse.jdt.internal.ui.IJavaHelpContextIds;
 import org.eclipse.jdt.internal.ui.util.JavaUIHelp;
+import org.eclipse.jdt.internal.ui.util.SelectionUtil;
 import org.eclipse.jdt.internal.ui.viewsupport.DecoratingJavaLabelProvider;
 import org.eclipse.jdt.internal.ui.viewsupport.ProblemTreeViewer;
 
@@ -54,6 +58,13 @@ public abstract class TypeHierarchyViewer extends ProblemTreeViewer {
 		setContentProvider(contentProvider);
 		setComparator(new HierarchyViewerSorter(lifeCycle));
 
+		addOpenListener(event -> {
+			Object element= SelectionUtil.getSingleElement(event.getSelection());
+			if (element instanceof MoreChildrenNode) {
+				getHierarchyContentProvider().showMoreChildren((MoreChildrenNode) element);
+			}
+		});
+
 		JavaUIHelp.setHelp(this, IJavaHelpContextIds.TYPE_HIERARCHY_VIEW);
 	}
 
@@ -95,9 +106,20 @@ public abstract class TypeHierarchyViewer extends ProblemTreeViewer {
 	 * @param memberFilter the member filters to set
 	 */
 	public void setMemberFilter(IMember[] memberFilter) {
+		setMemberFilter(memberFilter, null);
+	}
+
+	/**
+	 * Set the member filter together with the types containing the members.
+	 * @param memberFilter the member filters to set
+	 * @param memberFilterTypes the types containing the members, or <code>null</code> to find them when needed
+	 * @see TypeHierarchyContentProvider#computeMemberFilterTypes(IMember[], org.eclipse.core.runtime.IProgressMonitor)
+	 * @since 3.26
+	 */
+	public void setMemberFilter(IMember[] memberFilter, Set<IType> memberFilterTypes) {
 		TypeHierarchyContentProvider contentProvider= getHierarchyContentProvider();
 		if (contentProvider != null) {
-			contentProvider.setMemberFilter(memberFilter);
+			contentProvider.setMemberFilter(memberFilter, memberFilterTypes);
 		}
 	}
 
@@ -178,6 +200,26 @@ public abstract class TypeHierarchyViewer extends ProblemTreeViewer {
 		super.setContentProvider(cp);
 	}
 
+	@Override
+	public void setSelection(ISelection selection, boolean reveal) {
+		// the selected types may be on pages that are not shown yet
+		getHierarchyContentProvider().showPagesOf(selection);
+		super.setSelection(selection, reveal);
+	}
+
+	@Override
+	public void reveal(Object element) {
+		getHierarchyContentProvider().showPagesOf(element);
+		super.reveal(element);
+	}
+
+	@Override
+	protected void internalRefresh(Object element, boolean updateLabels) {
+		// the hierarchy or the filters may have changed
+		getHierarchyContentProvider().clearCaches();
+		super.internalRefresh(element, updateLabels);
+	}
+
 	protected TypeHierarchyContentProvider getHierarchyContentProvider() {
 		return (TypeHierarchyContentProvider)getContentProvider();
 	}
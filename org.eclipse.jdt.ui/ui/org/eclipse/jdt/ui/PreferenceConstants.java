@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2020 IBM Corporation and others.
+ * Copyright (c) 2000, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -3747,7 +3747,9 @@ public class PreferenceConstants {
 	/**
 	 * A named preference that stores the content assist LRU history
 	 * <p>
-	 * Value is an XML encoded version of the history.
+	 * Value is an XML encoded version of the history. Since 3.26 the history is stored in a binary
+	 * file in the plug-in state location; the preference is only read to migrate an existing
+	 * history and removed afterwards.
 	 * </p>
 	 *
 	 * @see org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory#load(org.eclipse.core.runtime.Preferences, String)
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2020 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -33,11 +33,14 @@ import org.eclipse.jdt.internal.corext.template.java.SignatureUtil;
 import org.eclipse.jdt.internal.ui.JavaPlugin;
 import org.eclipse.jdt.internal.ui.javaeditor.EditorUtility;
 import org.eclipse.jdt.internal.ui.text.CompletionTimeoutProgressMonitor;
-import org.eclipse.jdt.internal.ui.text.java.ContentAssistHistory.RHSHistory;
 
 /**
  * Describes the context of a content assist invocation in a Java editor.
  * <p>
+ * The lazily computed values of a context are shared by all completion proposal computers of an
+ * invocation, which may run in parallel. Access to them is synchronized.
+ * </p>
+ * <p>
  * Clients may use but not subclass this class.
  * </p>
  *
@@ -54,7 +57,8 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 
 	private CompletionProposalLabelProvider fLabelProvider;
 	private CompletionProposalCollector fCollector;
-	private RHSHistory fRHSHistory;
+	private String fExpectedTypeName;
+	private boolean fExpectedTypeNameComputed;
 	private IType fType;
 
 	private IJavaCompletionProposal[] fKeywordProposals= null;
@@ -103,7 +107,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return the compilation unit that content assist is invoked in, possibly <code>null</code>
 	 */
-	public ICompilationUnit getCompilationUnit() {
+	public synchronized ICompilationUnit getCompilationUnit() {
 		if (!fCUComputed) {
 			fCUComputed= true;
 			if (fCollector != null) {
@@ -139,7 +143,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return the available keyword proposals
 	 */
-	public IJavaCompletionProposal[] getKeywordProposals() {
+	public synchronized IJavaCompletionProposal[] getKeywordProposals() {
 		if (fKeywordProposals == null) {
 			if (fCollector != null && !fCollector.isIgnored(CompletionProposal.KEYWORD) && fCollector.getContext() != null) {
 				// use the existing collector if it exists, collects keywords, and has already been invoked
@@ -164,21 +168,20 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return the core completion context if available, <code>null</code> otherwise
 	 */
-	public CompletionContext getCoreContext() {
+	public synchronized CompletionContext getCoreContext() {
+		if (fCoreContext != null) {
+			return fCoreContext;
+		}
+
 		if (fCollector != null) {
 			CompletionContext context= fCollector.getContext();
 			if (context != null) {
-				if (fCoreContext == null) {
-					fCoreContext= context;
-				}
+				fCoreContext= context;
 				return context;
 			}
 		}
 
-		if (fCoreContext == null) {
-			computeKeywordsAndContext(); // Retrieve the context ourselves
-		}
-
+		computeKeywordsAndContext(); // Retrieve the context ourselves
 		return fCoreContext;
 	}
 
@@ -197,29 +200,31 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 * @return a relevance in [0.0,&nbsp;1.0] based on previous content assist invocations
 	 */
 	public float getHistoryRelevance(String qualifiedTypeName) {
-		return getRHSHistory().getRank(qualifiedTypeName);
+		String expected= getExpectedTypeName();
+		if (expected == null) {
+			return 0.0F;
+		}
+		return JavaPlugin.getDefault().getContentAssistHistory().getRank(expected, qualifiedTypeName);
 	}
 
 	/**
-	 * Returns the content assist type history for the expected type.
+	 * Returns the fully qualified name of the expected type, which is the left hand side the
+	 * content assist history is queried for.
 	 *
-	 * @return the content assist type history for the expected type
+	 * @return the name of the expected type, or <code>null</code> if there is none
 	 */
-	private RHSHistory getRHSHistory() {
-		if (fRHSHistory == null) {
+	private synchronized String getExpectedTypeName() {
+		if (!fExpectedTypeNameComputed) {
 			CompletionContext context= getCoreContext();
 			if (context != null) {
 				char[][] expectedTypes= context.getExpectedTypesSignatures();
 				if (expectedTypes != null && expectedTypes.length > 0) {
-					String expected= SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0]));
-					fRHSHistory= JavaPlugin.getDefault().getContentAssistHistory().getHistory(expected);
+					fExpectedTypeName= SignatureUtil.stripSignatureToFQN(String.valueOf(expectedTypes[0]));
 				}
 			}
-			if (fRHSHistory == null) {
-				fRHSHistory= JavaPlugin.getDefault().getContentAssistHistory().getHistory(null);
-			}
+			fExpectedTypeNameComputed= true;
 		}
-		return fRHSHistory;
+		return fExpectedTypeName;
 	}
 
 	/**
@@ -232,7 +237,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return the expected type if any, <code>null</code> otherwise
 	 */
-	public IType getExpectedType() {
+	public synchronized IType getExpectedType() {
 		if (fType == null && getCompilationUnit() != null) {
 			CompletionContext context= getCoreContext();
 			if (context != null) {
@@ -257,7 +262,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @return a label provider that can be used to compute proposal labels
 	 */
-	public CompletionProposalLabelProvider getLabelProvider() {
+	public synchronized CompletionProposalLabelProvider getLabelProvider() {
 		if (fLabelProvider == null) {
 			if (fCollector != null) {
 				fLabelProvider= fCollector.getLabelProvider();
@@ -280,7 +285,7 @@ public class JavaContentAssistInvocationContext extends ContentAssistInvocationC
 	 *
 	 * @param collector the collector
 	 */
-	void setCollector(CompletionProposalCollector collector) {
+	synchronized void setCollector(CompletionProposalCollector collector) {
 		fCollector= collector;
 	}
 
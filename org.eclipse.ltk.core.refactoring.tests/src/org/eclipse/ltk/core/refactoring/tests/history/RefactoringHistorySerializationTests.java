@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2008 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -470,4 +470,33 @@ public class RefactoringHistorySerializationTests {
 		compareWrittenDescriptor(session, true, xml);
 	}
 
+	@Test
+	public void testWriteDescriptors0() throws Exception {
+		MockRefactoringDescriptor first= new MockRefactoringDescriptor(null, "A mock refactoring", "A mock comment", RefactoringDescriptor.NONE);
+		MockRefactoringDescriptor second= new MockRefactoringDescriptor(null, "Another mock refactoring", "No comment", RefactoringDescriptor.BREAKING_CHANGE);
+		MockRefactoringDescriptor third= new MockRefactoringDescriptor("test0", "Yet another mock refactoring", null, RefactoringDescriptor.BREAKING_CHANGE | RefactoringDescriptor.MULTI_CHANGE);
+		Map<String, String> arguments= first.getArguments();
+		arguments.put("arg0", "value 0");
+		arguments= second.getArguments();
+		arguments.put("arg1", "value <1>");
+		arguments.put("version", "1.0");
+		arguments= third.getArguments();
+		arguments.put("arg2", "value\n2");
+		arguments.put("version", "1.1");
+		RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[] { new RefactoringDescriptorProxyAdapter(first), new RefactoringDescriptorProxyAdapter(second), new RefactoringDescriptorProxyAdapter(third)};
+		String xml= "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<session version=\"1.0\">\n" + "<refactoring arg1=\"value &lt;1&gt;\" comment=\"No comment\" description=\"Another mock refactoring\" flags=\"1\" id=\"org.eclipse.ltk.core.mock\" version=\"1.0\"/>\n" + "<refactoring arg2=\"value&#x0A;2\" description=\"Yet another mock refactoring\" flags=\"5\" id=\"org.eclipse.ltk.core.mock\" project=\"test0\" version=\"1.1\"/>\n" + "</session>" + "";
+		ByteArrayOutputStream stream= new ByteArrayOutputStream();
+		RefactoringCore.getHistoryService().writeRefactoringDescriptors(proxies, stream, RefactoringDescriptor.BREAKING_CHANGE, true, null);
+		assertEquals("The refactoring descriptors have not been correctly serialized:", convertLineDelimiters(xml), stream.toString("utf-8"));
+	}
+
+	@Test
+	public void testWriteDescriptors1() throws Exception {
+		MockRefactoringDescriptor first= new MockRefactoringDescriptor(null, "A mock refactoring", "A mock comment", RefactoringDescriptor.NONE);
+		RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[] { new RefactoringDescriptorProxyAdapter(first)};
+		String xml= "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + "<session version=\"1.0\"/>";
+		ByteArrayOutputStream stream= new ByteArrayOutputStream();
+		RefactoringCore.getHistoryService().writeRefactoringDescriptors(proxies, stream, RefactoringDescriptor.BREAKING_CHANGE, true, null);
+		assertEquals("The refactoring descriptors have not been correctly serialized:", convertLineDelimiters(xml), stream.toString("utf-8"));
+	}
 }
\ No newline at end of file
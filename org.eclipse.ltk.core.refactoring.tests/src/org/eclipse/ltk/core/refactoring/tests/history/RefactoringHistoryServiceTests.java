@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2006, 2015 IBM Corporation and others.
+ * Copyright (c) 2006, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -21,8 +21,15 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.junit.After;
@@ -30,6 +37,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.osgi.service.prefs.BackingStoreException;
 
+import org.eclipse.core.filesystem.EFS;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.preferences.IEclipsePreferences;
 
@@ -157,6 +166,8 @@ public class RefactoringHistoryServiceTests {
 
 	private static final int CUSTOM_NUMBER= 5;
 
+	private static final int FOLDER_NUMBER= 500;
+
 	private static final int NONE_NUMBER= 10;
 
 	private static final int STAMP_FACTOR= 10000000;
@@ -174,6 +185,41 @@ public class RefactoringHistoryServiceTests {
 			assertTrue("", proxies[index].getTimeStamp() > proxies[index + 1].getTimeStamp());
 	}
 
+	private File getProjectIndexFile() throws CoreException {
+		return RefactoringHistoryService.getInstance().getIndexFile(EFS.getStore(fProject.getProject().getLocationURI()).getChild(RefactoringHistoryService.NAME_HISTORY_FOLDER));
+	}
+
+	private List<File> getTextIndexFiles() {
+		List<File> files= new ArrayList<>();
+		collectTextIndexFiles(fProject.getProject().getFolder(RefactoringHistoryService.NAME_HISTORY_FOLDER).getLocation().toFile(), files);
+		assertFalse("No text index files", files.isEmpty());
+		return files;
+	}
+
+	private static void collectTextIndexFiles(File folder, List<File> files) {
+		File[] children= folder.listFiles();
+		if (children == null)
+			return;
+		for (File child : children) {
+			if (child.isDirectory())
+				collectTextIndexFiles(child, files);
+			else if (RefactoringHistoryService.NAME_INDEX_FILE.equals(child.getName()))
+				files.add(child);
+		}
+	}
+
+	private static List<String> readLines(File file) throws IOException {
+		return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static void writeLines(File file, List<String> lines) throws IOException {
+		Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+	}
+
+	private int readProjectHistorySize() {
+		return RefactoringHistoryService.getInstance().getProjectHistory(fProject.getProject(), null).getDescriptors().length;
+	}
+
 	private RefactoringDescriptor executeRefactoring(String project, int index, int flags) throws CoreException {
 		RefactoringHistoryService service= RefactoringHistoryService.getInstance();
 		try {
@@ -304,6 +350,131 @@ public class RefactoringHistoryServiceTests {
 		assertEquals("", afterHistory.getDescriptors().length + BREAKING_NUMBER, workspaceHistory.getDescriptors().length);
 	}
 
+	@Test
+	public void testIndexCompaction() throws Exception {
+		assertEquals(TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		File index= getProjectIndexFile();
+		long length= index.length();
+		File file= getTextIndexFiles().get(0);
+		List<String> lines= readLines(file);
+		for (int count= 0; count < 100; count++) {
+			writeLines(file, count % 2 == 0 ? lines.subList(0, lines.size() - 1) : lines);
+			assertEquals("Refactoring history has wrong size", count % 2 == 0 ? TOTAL_PROJECT_NUMBER - 1 : TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		}
+		assertTrue("Index should be compacted: " + index.length(), index.length() < 2 * length + 8192);
+	}
+
+	@Test
+	public void testIndexCompactionWithManyFolders() throws Exception {
+		// one refactoring per week, so that the segment headers outweigh the refactorings
+		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		final String name= fProject.getProject().getName();
+		final long week= 7L * 24 * 60 * 60 * 1000;
+		for (int index= 0; index < FOLDER_NUMBER; index++) {
+			try {
+				service.setOverrideTimeStamp((index + 2) * week);
+				MockRefactoring refactoring= new MockRefactoring(name, "A mock description number " + index, "A mock comment number " + index, Collections.<String, String> emptyMap(), RefactoringDescriptor.NONE);
+				ResourcesPlugin.getWorkspace().run(new PerformRefactoringOperation(refactoring, CheckConditionsOperation.ALL_CONDITIONS), null);
+			} finally {
+				service.setOverrideTimeStamp(-1);
+			}
+		}
+		assertEquals(TOTAL_PROJECT_NUMBER + FOLDER_NUMBER, readProjectHistorySize());
+
+		File index= getProjectIndexFile();
+		File file= getTextIndexFiles().get(0);
+		List<String> lines= readLines(file);
+		writeLines(file, lines.subList(0, lines.size() - 1));
+		assertEquals(TOTAL_PROJECT_NUMBER + FOLDER_NUMBER - 1, readProjectHistorySize());
+		writeLines(file, lines);
+		assertEquals(TOTAL_PROJECT_NUMBER + FOLDER_NUMBER, readProjectHistorySize());
+		long length= index.length();
+		writeLines(file, lines.subList(0, lines.size() - 1));
+		assertEquals(TOTAL_PROJECT_NUMBER + FOLDER_NUMBER - 1, readProjectHistorySize());
+		// the changed segment is appended, the index is not rewritten on every update
+		assertTrue("Index should not be compacted: " + index.length(), index.length() > length);
+	}
+
+	@Test
+	public void testIndexInvalid() throws Exception {
+		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		assertEquals(TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		File index= getProjectIndexFile();
+		service.resetIndexes();
+		try (RandomAccessFile file= new RandomAccessFile(index, "rw")) {
+			file.setLength(file.length() / 2);
+		}
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+
+		service.resetIndexes();
+		Files.write(index.toPath(), "Not a refactoring history index".getBytes(StandardCharsets.UTF_8));
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+
+		// the index has been written again
+		service.resetIndexes();
+		long length= index.length();
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		assertEquals("Index should not change", length, index.length());
+	}
+
+	@Test
+	public void testIndexMigration() throws Exception {
+		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		service.resetIndexes();
+		File index= getProjectIndexFile();
+		if (index.exists())
+			assertTrue(index.delete());
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		assertTrue("Index should exist", index.isFile());
+
+		// the text indexes are not converted again
+		long length= index.length();
+		service.resetIndexes();
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		assertEquals("Index should not change", length, index.length());
+	}
+
+	@Test
+	public void testIndexRemovedFolder() throws Exception {
+		assertEquals(TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		File file= getTextIndexFiles().get(0);
+		int removed= readLines(file).size();
+		File folder= file.getParentFile();
+		for (File child : folder.listFiles())
+			assertTrue(child.delete());
+		assertTrue(folder.delete());
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER - removed, readProjectHistorySize());
+	}
+
+	@Test
+	public void testIndexTextIndexChanged() throws Exception {
+		assertEquals(TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+		File file= getTextIndexFiles().get(0);
+		List<String> lines= readLines(file);
+		writeLines(file, lines.subList(0, lines.size() - 1));
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER - 1, readProjectHistorySize());
+		writeLines(file, lines);
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+	}
+
+	@Test
+	public void testIndexTimeRange() throws Exception {
+		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
+		final long start= 5L * STAMP_FACTOR;
+		final long end= 20L * STAMP_FACTOR;
+		RefactoringDescriptorProxy[] proxies= service.getProjectHistory(fProject.getProject(), start, end, RefactoringDescriptor.NONE, null).getDescriptors();
+		assertEquals("Refactoring history has wrong size", 16, proxies.length);
+		for (RefactoringDescriptorProxy proxy : proxies)
+			assertTrue("Refactoring outside of the time range", proxy.getTimeStamp() >= start && proxy.getTimeStamp() <= end);
+
+		// the time folders outside of the range are neither read nor taken as removed
+		File index= getProjectIndexFile();
+		long length= index.length();
+		assertTrue("Refactoring history should be empty", service.getProjectHistory(fProject.getProject(), 946684800000L, 978307199999L, RefactoringDescriptor.NONE, null).isEmpty());
+		assertEquals("Index should not change", length, index.length());
+		assertEquals("Refactoring history has wrong size", TOTAL_PROJECT_NUMBER, readProjectHistorySize());
+	}
+
 	@Test
 	public void testPopDescriptor0() throws Exception {
 		final RefactoringHistoryService service= RefactoringHistoryService.getInstance();
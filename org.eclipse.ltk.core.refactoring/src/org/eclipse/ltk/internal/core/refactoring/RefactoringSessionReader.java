@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2008 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -68,6 +69,15 @@ public final class RefactoringSessionReader extends DefaultHandler {
 	 */
 	private List<RefactoringDescriptor> fRefactoringDescriptors= null;
 
+	/**
+	 * The consumer of the refactoring descriptors if reading in streaming
+	 * mode, or <code>null</code>
+	 */
+	private Consumer<RefactoringDescriptor> fConsumer= null;
+
+	/** The number of refactoring descriptors passed to the consumer */
+	private int fConsumed= 0;
+
 	/** Has a session been found during parsing? */
 	private boolean fSessionFound= false;
 
@@ -133,19 +143,46 @@ public final class RefactoringSessionReader extends DefaultHandler {
 	 *             if an error occurs while reading form the input source
 	 */
 	public RefactoringSessionDescriptor readSession(final InputSource source) throws CoreException {
+		return readSession(source, null);
+	}
+
+	/**
+	 * Reads a refactoring history descriptor from the specified input object
+	 * and passes the refactoring descriptors to the specified consumer as soon
+	 * as they have been read.
+	 * <p>
+	 * In contrast to {@link #readSession(InputSource)}, the descriptors are
+	 * not kept in memory, and the returned session descriptor does not contain
+	 * any refactoring descriptors. The version of the session is checked
+	 * before the first descriptor is passed to the consumer.
+	 * </p>
+	 *
+	 * @param source
+	 *            the input source
+	 * @param consumer
+	 *            the consumer of the refactoring descriptors, or
+	 *            <code>null</code> to collect them in the returned session
+	 *            descriptor
+	 * @return a corresponding refactoring history descriptor, or
+	 *         <code>null</code> if the session does not contain any
+	 *         refactorings
+	 * @throws CoreException
+	 *             if an error occurs while reading form the input source
+	 */
+	public RefactoringSessionDescriptor readSession(final InputSource source, final Consumer<RefactoringDescriptor> consumer) throws CoreException {
 		fSessionFound= false;
+		fConsumer= consumer;
+		fConsumed= 0;
 		try {
 			source.setSystemId("/"); //$NON-NLS-1$
 			createParser(SAXParserFactory.newInstance()).parse(source, this);
 			if (!fSessionFound)
 				throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.REFACTORING_HISTORY_FORMAT_ERROR, RefactoringCoreMessages.RefactoringSessionReader_no_session, null));
 			if (fRefactoringDescriptors != null) {
-				if (fVersion == null || "".equals(fVersion)) //$NON-NLS-1$
-					throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.MISSING_REFACTORING_HISTORY_VERSION, RefactoringCoreMessages.RefactoringSessionReader_missing_version_information, null));
-				if (!IRefactoringSerializationConstants.CURRENT_VERSION.equals(fVersion))
-					throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.UNSUPPORTED_REFACTORING_HISTORY_VERSION, RefactoringCoreMessages.RefactoringSessionReader_unsupported_version_information, null));
+				checkVersion();
 				return new RefactoringSessionDescriptor(fRefactoringDescriptors.toArray(new RefactoringDescriptor[fRefactoringDescriptors.size()]), fVersion, fComment);
-			}
+			} else if (fConsumed > 0)
+				return new RefactoringSessionDescriptor(new RefactoringDescriptor[0], fVersion, fComment);
 		} catch (SAXParseException exception) {
 			String message= Messages.format(RefactoringCoreMessages.RefactoringSessionReader_invalid_contents_at,
 					new Object[] {
@@ -153,10 +190,15 @@ public final class RefactoringSessionReader extends DefaultHandler {
 							Integer.toString(exception.getColumnNumber())
 			});
 			throwCoreException(exception, message);
-		} catch (IOException | ParserConfigurationException | SAXException exception) {
+		} catch (SAXException exception) {
+			if (exception.getException() instanceof CoreException)
+				throw (CoreException) exception.getException();
+			throwCoreException(exception, exception.getLocalizedMessage());
+		} catch (IOException | ParserConfigurationException exception) {
 			throwCoreException(exception, exception.getLocalizedMessage());
 		} finally {
 			fRefactoringDescriptors= null;
+			fConsumer= null;
 			fVersion= null;
 			fComment= null;
 			fLocator= null;
@@ -164,6 +206,19 @@ public final class RefactoringSessionReader extends DefaultHandler {
 		return null;
 	}
 
+	/**
+	 * Checks the version of the refactoring session being read.
+	 *
+	 * @throws CoreException
+	 *             if the version is missing or not supported
+	 */
+	private void checkVersion() throws CoreException {
+		if (fVersion == null || "".equals(fVersion)) //$NON-NLS-1$
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.MISSING_REFACTORING_HISTORY_VERSION, RefactoringCoreMessages.RefactoringSessionReader_missing_version_information, null));
+		if (!IRefactoringSerializationConstants.CURRENT_VERSION.equals(fVersion))
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.UNSUPPORTED_REFACTORING_HISTORY_VERSION, RefactoringCoreMessages.RefactoringSessionReader_unsupported_version_information, null));
+	}
+
 	private void throwCoreException(Exception exception, String message) throws CoreException {
 		throw new CoreException(new Status(IStatus.ERROR,
 				RefactoringCorePlugin.getPluginId(),
@@ -242,9 +297,21 @@ public final class RefactoringSessionReader extends DefaultHandler {
 			} catch (NumberFormatException exception) {
 				// Do nothing
 			}
-			if (fRefactoringDescriptors == null)
-				fRefactoringDescriptors= new ArrayList<>();
-			fRefactoringDescriptors.add(descriptor);
+			if (fConsumer != null) {
+				if (fConsumed == 0) {
+					try {
+						checkVersion();
+					} catch (CoreException exception) {
+						throw new SAXException(exception);
+					}
+				}
+				fConsumed++;
+				fConsumer.accept(descriptor);
+			} else {
+				if (fRefactoringDescriptors == null)
+					fRefactoringDescriptors= new ArrayList<>();
+				fRefactoringDescriptors.add(descriptor);
+			}
 
 		} else if (IRefactoringSerializationConstants.ELEMENT_SESSION.equals(qualifiedName)) {
 			fSessionFound= true;
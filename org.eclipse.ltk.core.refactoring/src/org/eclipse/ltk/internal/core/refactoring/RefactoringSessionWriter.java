@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+import org.eclipse.ltk.core.refactoring.IRefactoringCoreStatusCodes;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptor;
+
+/**
+ * Streaming writer for XML-based refactoring sessions.
+ * <p>
+ * In contrast to {@link RefactoringSessionTransformer}, which builds a
+ * document of the whole session, this writer writes each refactoring to the
+ * output stream as soon as it is complete, so that only the arguments of the
+ * current refactoring are kept in memory. The output is the same as the one
+ * of a transformed session written by the refactoring history manager.
+ * </p>
+ */
+public final class RefactoringSessionWriter {
+
+	/** The XML declaration */
+	private static final String XML_VERSION= "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"; //$NON-NLS-1$
+
+	/** The output writer */
+	private final PrintWriter fWriter;
+
+	/** Should project information be included? */
+	private final boolean fProjects;
+
+	/** The attributes of the current session, or <code>null</code> */
+	private Map<String, String> fSessionArguments= null;
+
+	/** Has the start tag of the session been written? */
+	private boolean fSessionStarted= false;
+
+	/** The attributes of the current refactoring, or <code>null</code> */
+	private Map<String, String> fRefactoringArguments= null;
+
+	/**
+	 * Creates a new refactoring session writer.
+	 *
+	 * @param stream
+	 *            the output stream where to write to
+	 * @param projects
+	 *            <code>true</code> to include project information,
+	 *            <code>false</code> otherwise
+	 */
+	public RefactoringSessionWriter(final OutputStream stream, final boolean projects) {
+		Assert.isNotNull(stream);
+		fWriter= new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)));
+		fProjects= projects;
+	}
+
+	/**
+	 * Begins a refactoring session.
+	 * <p>
+	 * Calls to {@link #beginSession(String, String)} must be balanced with
+	 * calls to {@link #endSession()}. If the writer is already writing a
+	 * session, nothing happens.
+	 * </p>
+	 *
+	 * @param comment
+	 *            the comment associated with the refactoring session, or
+	 *            <code>null</code>
+	 * @param version
+	 *            the non-empty version tag
+	 */
+	public void beginSession(final String comment, final String version) {
+		if (fSessionArguments == null) {
+			fSessionArguments= new TreeMap<>();
+			fSessionArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_VERSION, version);
+			if (comment != null && !"".equals(comment)) //$NON-NLS-1$
+				fSessionArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_COMMENT, comment);
+			fSessionStarted= false;
+			fWriter.println(XML_VERSION);
+		}
+	}
+
+	/**
+	 * Begins a refactoring specified by the given arguments.
+	 * <p>
+	 * Calls to
+	 * {@link #beginRefactoring(String, long, String, String, String, int)}
+	 * must be balanced with calls to {@link #endRefactoring()}. If the writer
+	 * is already writing a refactoring, nothing happens.
+	 * </p>
+	 *
+	 * @param id
+	 *            the unique identifier of the refactoring
+	 * @param stamp
+	 *            the time stamp of the refactoring, or <code>-1</code>
+	 * @param project
+	 *            the non-empty name of the project this refactoring is
+	 *            associated with, or <code>null</code>
+	 * @param description
+	 *            a human-readable description of the refactoring
+	 * @param comment
+	 *            the comment associated with the refactoring, or
+	 *            <code>null</code>
+	 * @param flags
+	 *            the flags associated with refactoring
+	 */
+	public void beginRefactoring(final String id, final long stamp, final String project, final String description, final String comment, final int flags) {
+		Assert.isNotNull(id);
+		Assert.isNotNull(description);
+		Assert.isTrue(flags >= RefactoringDescriptor.NONE);
+		Assert.isNotNull(fSessionArguments);
+		if (fRefactoringArguments == null) {
+			fRefactoringArguments= new TreeMap<>();
+			fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_ID, id);
+			if (stamp >= 0)
+				fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_STAMP, Long.toString(stamp));
+			if (flags != RefactoringDescriptor.NONE)
+				fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_FLAGS, String.valueOf(flags));
+			fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_DESCRIPTION, description);
+			if (comment != null && !"".equals(comment)) //$NON-NLS-1$
+				fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_COMMENT, comment);
+			if (project != null && fProjects)
+				fRefactoringArguments.put(IRefactoringSerializationConstants.ATTRIBUTE_PROJECT, project);
+		}
+	}
+
+	/**
+	 * Creates a refactoring argument with the specified name and value.
+	 * <p>
+	 * If no refactoring is currently written, this call has no effect.
+	 * </p>
+	 *
+	 * @param name
+	 *            the non-empty name of the argument
+	 * @param value
+	 *            the value of the argument
+	 */
+	public void createArgument(final String name, final String value) {
+		Assert.isNotNull(name);
+		Assert.isTrue(!"".equals(name)); //$NON-NLS-1$
+		Assert.isNotNull(value);
+		if (fRefactoringArguments != null)
+			fRefactoringArguments.put(name, value);
+	}
+
+	/**
+	 * Ends the current refactoring and writes it to the output stream.
+	 * <p>
+	 * If no refactoring is currently written, this call has no effect.
+	 * </p>
+	 */
+	public void endRefactoring() {
+		if (fRefactoringArguments != null) {
+			if (!fSessionStarted) {
+				writeStartTag(IRefactoringSerializationConstants.ELEMENT_SESSION, fSessionArguments, false);
+				fSessionStarted= true;
+			}
+			fWriter.println();
+			writeStartTag(IRefactoringSerializationConstants.ELEMENT_REFACTORING, fRefactoringArguments, true);
+			fRefactoringArguments= null;
+		}
+	}
+
+	/**
+	 * Ends the current refactoring session and flushes the output stream.
+	 * <p>
+	 * If no refactoring session is currently written, this call has no effect.
+	 * </p>
+	 *
+	 * @throws CoreException
+	 *             if an error occurred while writing to the output stream
+	 */
+	public void endSession() throws CoreException {
+		if (fSessionArguments != null) {
+			endRefactoring();
+			if (fSessionStarted) {
+				fWriter.println();
+				fWriter.print("</" + IRefactoringSerializationConstants.ELEMENT_SESSION + '>'); //$NON-NLS-1$
+			} else
+				writeStartTag(IRefactoringSerializationConstants.ELEMENT_SESSION, fSessionArguments, true);
+			fSessionArguments= null;
+			fSessionStarted= false;
+		}
+		fWriter.flush();
+		if (fWriter.checkError())
+			throw new CoreException(new Status(IStatus.ERROR, RefactoringCorePlugin.getPluginId(), IRefactoringCoreStatusCodes.REFACTORING_HISTORY_IO_ERROR, RefactoringCoreMessages.RefactoringSessionWriter_write_error, null));
+	}
+
+	private void writeStartTag(final String name, final Map<String, String> attributes, final boolean empty) {
+		final StringBuilder buffer= new StringBuilder(256);
+		buffer.append('<');
+		buffer.append(name);
+		for (Entry<String, String> entry : attributes.entrySet()) {
+			buffer.append(' ');
+			buffer.append(entry.getKey());
+			buffer.append("=\""); //$NON-NLS-1$
+			appendEscaped(buffer, entry.getValue());
+			buffer.append('"');
+		}
+		buffer.append(empty ? "/>" : ">"); //$NON-NLS-1$ //$NON-NLS-2$
+		fWriter.print(buffer);
+	}
+
+	private static void appendEscaped(final StringBuilder buffer, final String value) {
+		for (int index= 0, length= value.length(); index < length; index++) {
+			final char character= value.charAt(index);
+			switch (character) {
+				case '<':
+					buffer.append("&lt;"); //$NON-NLS-1$
+					break;
+				case '>':
+					buffer.append("&gt;"); //$NON-NLS-1$
+					break;
+				case '"':
+					buffer.append("&quot;"); //$NON-NLS-1$
+					break;
+				case '\'':
+					buffer.append("&apos;"); //$NON-NLS-1$
+					break;
+				case '&':
+					buffer.append("&amp;"); //$NON-NLS-1$
+					break;
+				// encoded to avoid them being converted to spaces on deserialization (bug 93720)
+				case '\r':
+					buffer.append("&#x0D;"); //$NON-NLS-1$
+					break;
+				case '\n':
+					buffer.append("&#x0A;"); //$NON-NLS-1$
+					break;
+				case '\u0009':
+					buffer.append("&#x09;"); //$NON-NLS-1$
+					break;
+				default:
+					buffer.append(character);
+			}
+		}
+	}
+}
@@ -0,0 +1,682 @@
+/*******************************************************************************
+ * Copyright (c) 2022 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.ltk.internal.core.refactoring.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+import org.eclipse.core.filesystem.IFileStore;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+
+import org.eclipse.ltk.core.refactoring.IRefactoringCoreStatusCodes;
+import org.eclipse.ltk.core.refactoring.RefactoringCore;
+import org.eclipse.ltk.core.refactoring.RefactoringDescriptorProxy;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
+
+/**
+ * Binary index of the refactoring descriptor proxies of a refactoring history.
+ * <p>
+ * The refactoring history stays stored in the XML history files and the text
+ * index files of its time folders, which are shared with other workspaces and
+ * merged by the team support. This index is derived from them and kept in the
+ * state location of the plug-in. It consists of one segment per time folder
+ * with the time stamps and descriptions of the refactorings of the folder and
+ * the size and modification time of the text index it was read from.
+ * </p>
+ * <p>
+ * The index file is only appended to: when the text index of a folder changed,
+ * a new segment for the folder is appended, which supersedes the previous one.
+ * The first read of a history converts all text indexes to segments, later
+ * reads only the indexes that changed. The file is compacted when it mostly
+ * consists of superseded segments. Queries read the segments whose time range
+ * overlaps the requested range.
+ * </p>
+ * <p>
+ * The time folders are named by year, month and week. A query only lists the
+ * year and month folders that may contain refactorings of the requested range,
+ * and checks the text indexes in them for changes.
+ * </p>
+ */
+final class RefactoringHistoryIndex {
+
+	/** A segment of the index, representing the text index of a time folder */
+	private static final class Segment {
+
+		/** The modification time of the text index */
+		final long fLastModified;
+
+		/** The length of the text index */
+		final long fLength;
+
+		/** The number of refactorings */
+		final int fCount;
+
+		/** The smallest time stamp of the refactorings */
+		final long fMinStamp;
+
+		/** The largest time stamp of the refactorings */
+		final long fMaxStamp;
+
+		/** The offset of the refactorings in the index file */
+		final long fOffset;
+
+		/** The number of bytes of the refactorings */
+		final int fByteLength;
+
+		Segment(final long lastModified, final long length, final int count, final long minStamp, final long maxStamp, final long offset, final int byteLength) {
+			fLastModified= lastModified;
+			fLength= length;
+			fCount= count;
+			fMinStamp= minStamp;
+			fMaxStamp= maxStamp;
+			fOffset= offset;
+			fByteLength= byteLength;
+		}
+
+		/**
+		 * Returns the number of bytes of this segment in the index file.
+		 *
+		 * @param path
+		 *            the path of the time folder
+		 * @return the number of bytes of the segment header and the
+		 *         refactorings
+		 */
+		long getFileLength(final String path) {
+			return 4 + path.getBytes(StandardCharsets.UTF_8).length + SEGMENT_HEADER_LENGTH + fByteLength;
+		}
+
+		boolean isCurrent(final IFileInfo info) {
+			return info.getLastModified() == fLastModified && info.getLength() == fLength;
+		}
+
+		boolean overlaps(final long start, final long end) {
+			return fCount > 0 && fMinStamp <= end && fMaxStamp >= start;
+		}
+	}
+
+	/** The years and months of a time range, in the time zone of the time folders */
+	private static final class TimeRange {
+
+		final int fStartYear;
+
+		final int fStartMonth;
+
+		final int fEndYear;
+
+		final int fEndMonth;
+
+		TimeRange(final long start, final long end) {
+			final Calendar calendar= Calendar.getInstance(TimeZone.getTimeZone("GMT+00:00")); //$NON-NLS-1$
+			calendar.setTimeInMillis(Math.max(0, start));
+			fStartYear= calendar.get(Calendar.YEAR);
+			fStartMonth= calendar.get(Calendar.MONTH) + 1;
+			calendar.setTimeInMillis(Math.max(0, end));
+			fEndYear= calendar.get(Calendar.YEAR);
+			fEndMonth= calendar.get(Calendar.MONTH) + 1;
+		}
+
+		/**
+		 * Returns whether the specified folder may contain refactorings of
+		 * this time range. Folders which are not named like time folders may.
+		 *
+		 * @param path
+		 *            the path of the folder, relative to the history store
+		 * @return <code>true</code> if the folder may contain refactorings
+		 */
+		boolean mayContain(final IPath path) {
+			if (path.segmentCount() == 0)
+				return true;
+			final int year= parse(path.segment(0));
+			if (year < 0)
+				return true;
+			if (year < fStartYear || year > fEndYear)
+				return false;
+			if (path.segmentCount() == 1)
+				return true;
+			final int month= parse(path.segment(1));
+			if (month < 0)
+				return true;
+			return !(year == fStartYear && month < fStartMonth || year == fEndYear && month > fEndMonth);
+		}
+
+		private static int parse(final String segment) {
+			try {
+				return Integer.parseInt(segment);
+			} catch (NumberFormatException exception) {
+				return -1;
+			}
+		}
+	}
+
+	/** The file header of index files */
+	private static final int MAGIC= 0x52484958;
+
+	/** The version of the index file format */
+	private static final int VERSION= 1;
+
+	/** The number of bytes of a segment header after the path */
+	private static final int SEGMENT_HEADER_LENGTH= 8 + 8 + 4 + 8 + 8 + 4;
+
+	/** The count of a segment denoting a removed time folder */
+	private static final int REMOVED= -1;
+
+	/** The name of the folder of the index files in the state location */
+	private static final String NAME_INDEX_FOLDER= ".indexes"; //$NON-NLS-1$
+
+	/** The file extension of index files */
+	private static final String EXTENSION_INDEX= ".index"; //$NON-NLS-1$
+
+	/** The indexes by history store */
+	private static final Map<IFileStore, RefactoringHistoryIndex> fgIndexes= new HashMap<>();
+
+	/**
+	 * Forgets the loaded indexes, so that their files are read again.
+	 */
+	static void reset() {
+		synchronized (fgIndexes) {
+			fgIndexes.clear();
+		}
+	}
+
+	/**
+	 * Returns the index of the specified refactoring history.
+	 *
+	 * @param store
+	 *            the history file store
+	 * @return the index of the history
+	 */
+	static RefactoringHistoryIndex getIndex(final IFileStore store) {
+		synchronized (fgIndexes) {
+			RefactoringHistoryIndex index= fgIndexes.get(store);
+			if (index == null) {
+				final IPath location= RefactoringCorePlugin.getDefault().getStateLocation().append(NAME_INDEX_FOLDER);
+				final String uri= store.toURI().toString();
+				// index files of earlier versions were named by the hash code of the URI, which may collide
+				location.append(Integer.toHexString(uri.hashCode()) + EXTENSION_INDEX).toFile().delete();
+				index= new RefactoringHistoryIndex(store, location.append(getFileName(uri) + EXTENSION_INDEX).toFile());
+				fgIndexes.put(store, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Returns the name of the index file of the specified history store.
+	 *
+	 * @param uri
+	 *            the URI of the history store
+	 * @return the SHA-1 digest of the URI in hexadecimal notation
+	 */
+	private static String getFileName(final String uri) {
+		try {
+			final byte[] digest= MessageDigest.getInstance("SHA-1").digest(uri.getBytes(StandardCharsets.UTF_8)); //$NON-NLS-1$
+			final StringBuilder builder= new StringBuilder(2 * digest.length);
+			for (byte value : digest)
+				builder.append(Character.forDigit((value >> 4) & 0xf, 16)).append(Character.forDigit(value & 0xf, 16));
+			return builder.toString();
+		} catch (NoSuchAlgorithmException exception) {
+			// every Java platform supports SHA-1
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	/** The history file store */
+	private final IFileStore fHistoryStore;
+
+	/** The index file */
+	private final File fFile;
+
+	/** The segments by the path of their time folder, or <code>null</code> if not loaded */
+	private Map<String, Segment> fSegments= null;
+
+	/** The number of bytes of the file header and the live segments */
+	private long fLiveBytes= 0;
+
+	/**
+	 * Creates a new refactoring history index.
+	 *
+	 * @param store
+	 *            the history file store
+	 * @param file
+	 *            the index file
+	 */
+	private RefactoringHistoryIndex(final IFileStore store, final File file) {
+		fHistoryStore= store;
+		fFile= file;
+	}
+
+	/**
+	 * Returns the index file.
+	 *
+	 * @return the index file, which may not exist
+	 */
+	File getFile() {
+		return fFile;
+	}
+
+	/**
+	 * Marks the segment of the specified time folder as outdated.
+	 *
+	 * @param path
+	 *            the path of the time folder, relative to the history store
+	 */
+	synchronized void invalidate(final IPath path) {
+		if (fSegments != null) {
+			final String key= path.toPortableString();
+			final Segment segment= fSegments.remove(key);
+			if (segment != null)
+				fLiveBytes-= segment.getFileLength(key);
+		}
+	}
+
+	/**
+	 * Reads refactoring descriptor proxies.
+	 *
+	 * @param project
+	 *            the name of the project, or <code>null</code> for the
+	 *            workspace
+	 * @param collection
+	 *            the collection of proxies to fill in
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	synchronized void readRefactoringDescriptorProxies(final String project, final Collection<RefactoringDescriptorProxy> collection, final long start, final long end, final IProgressMonitor monitor) throws CoreException {
+		final SubMonitor progress= SubMonitor.convert(monitor, RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 10);
+		final Map<String, IFileStore> stores= new LinkedHashMap<>();
+		final Map<String, IFileInfo> infos= new HashMap<>();
+		final TimeRange range= new TimeRange(start, end);
+		collectIndexFiles(fHistoryStore, Path.EMPTY, range, stores, infos, progress.split(4));
+		try {
+			update(range, stores, infos, progress.split(4));
+			readSegments(project, collection, start, end);
+		} catch (IOException exception) {
+			// the index is only a cache, read the text indexes
+			RefactoringCorePlugin.log(exception);
+			discard();
+			RefactoringHistoryManager.readRefactoringDescriptorProxies(fHistoryStore, project, collection, start, end, progress.split(2), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+		}
+	}
+
+	/**
+	 * Collects the text index files of the history in the folders which may
+	 * contain refactorings of the specified time range.
+	 *
+	 * @param store
+	 *            the file store to collect
+	 * @param path
+	 *            the path of the file store, relative to the history store
+	 * @param range
+	 *            the time range to collect
+	 * @param stores
+	 *            the index files by the path of their time folder
+	 * @param infos
+	 *            the file infos of the index files by the path of their time
+	 *            folder
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs
+	 */
+	private static void collectIndexFiles(final IFileStore store, final IPath path, final TimeRange range, final Map<String, IFileStore> stores, final Map<String, IFileInfo> infos, final IProgressMonitor monitor) throws CoreException {
+		final IFileStore[] children= store.childStores(EFS.NONE, null);
+		final SubMonitor progress= SubMonitor.convert(monitor, children.length);
+		for (IFileStore child : children) {
+			if (progress.isCanceled())
+				throw new OperationCanceledException();
+			final IFileInfo info= child.fetchInfo(EFS.NONE, null);
+			if (info.isDirectory()) {
+				final IPath childPath= path.append(child.getName());
+				if (range.mayContain(childPath))
+					collectIndexFiles(child, childPath, range, stores, infos, progress.split(1));
+				else
+					progress.worked(1);
+			} else {
+				if (info.exists() && RefactoringHistoryService.NAME_INDEX_FILE.equalsIgnoreCase(child.getName())) {
+					stores.put(path.toPortableString(), child);
+					infos.put(path.toPortableString(), info);
+				}
+				progress.worked(1);
+			}
+		}
+	}
+
+	/**
+	 * Brings the index up to date with the specified text index files. Segments
+	 * outside of the specified time range are kept as they are.
+	 *
+	 * @param range
+	 *            the time range the text index files have been collected for
+	 * @param stores
+	 *            the index files by the path of their time folder
+	 * @param infos
+	 *            the file infos of the index files by the path of their time
+	 *            folder
+	 * @param monitor
+	 *            the progress monitor to use
+	 * @throws CoreException
+	 *             if an error occurs while reading a text index
+	 * @throws IOException
+	 *             if an input/output error occurs in the index file
+	 */
+	private void update(final TimeRange range, final Map<String, IFileStore> stores, final Map<String, IFileInfo> infos, final IProgressMonitor monitor) throws CoreException, IOException {
+		load();
+		final ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		final DataOutputStream output= new DataOutputStream(bytes);
+		final List<String> paths= new ArrayList<>();
+		final List<Segment> segments= new ArrayList<>();
+		final SubMonitor progress= SubMonitor.convert(monitor, stores.size());
+		for (Map.Entry<String, IFileStore> entry : stores.entrySet()) {
+			final String path= entry.getKey();
+			final IFileInfo info= infos.get(path);
+			final Segment segment= fSegments.get(path);
+			if (segment == null || !segment.isCurrent(info)) {
+				final RefactoringDescriptorProxy[] proxies;
+				try (InputStream stream= entry.getValue().openInputStream(EFS.NONE, progress.split(1))) {
+					proxies= RefactoringHistoryManager.readRefactoringDescriptorProxies(stream, null, 0, Long.MAX_VALUE);
+				} catch (IOException exception) {
+					throw new CoreException(new Status(IStatus.ERROR, RefactoringCore.ID_PLUGIN, IRefactoringCoreStatusCodes.REFACTORING_HISTORY_IO_ERROR, exception.getLocalizedMessage(), exception));
+				}
+				paths.add(path);
+				segments.add(writeSegment(output, path, info.getLastModified(), info.getLength(), proxies));
+			} else
+				progress.worked(1);
+		}
+		for (String path : fSegments.keySet()) {
+			if (!stores.containsKey(path) && range.mayContain(new Path(path))) {
+				paths.add(path);
+				segments.add(writeSegment(output, path, 0, 0, null));
+			}
+		}
+		if (!paths.isEmpty()) {
+			output.flush();
+			final long offset= append(bytes.toByteArray());
+			for (int index= 0; index < paths.size(); index++) {
+				final String path= paths.get(index);
+				final Segment segment= segments.get(index);
+				final Segment previous= fSegments.remove(path);
+				if (previous != null)
+					fLiveBytes-= previous.getFileLength(path);
+				if (segment.fCount != REMOVED) {
+					fSegments.put(path, new Segment(segment.fLastModified, segment.fLength, segment.fCount, segment.fMinStamp, segment.fMaxStamp, offset + segment.fOffset, segment.fByteLength));
+					fLiveBytes+= segment.getFileLength(path);
+				}
+			}
+			if (fFile.length() > 2 * fLiveBytes + 4096)
+				compact();
+		}
+	}
+
+	/**
+	 * Writes a segment.
+	 *
+	 * @param output
+	 *            the output to write to
+	 * @param path
+	 *            the path of the time folder
+	 * @param lastModified
+	 *            the modification time of the text index
+	 * @param length
+	 *            the length of the text index
+	 * @param proxies
+	 *            the refactoring descriptor proxies, or <code>null</code> if
+	 *            the time folder has been removed
+	 * @return the written segment, with its offset relative to the output
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	private static Segment writeSegment(final DataOutputStream output, final String path, final long lastModified, final long length, final RefactoringDescriptorProxy[] proxies) throws IOException {
+		long minStamp= Long.MAX_VALUE;
+		long maxStamp= Long.MIN_VALUE;
+		final ByteArrayOutputStream bytes= new ByteArrayOutputStream();
+		if (proxies != null) {
+			final DataOutputStream entries= new DataOutputStream(bytes);
+			for (RefactoringDescriptorProxy proxy : proxies) {
+				final long stamp= proxy.getTimeStamp();
+				minStamp= Math.min(minStamp, stamp);
+				maxStamp= Math.max(maxStamp, stamp);
+				entries.writeLong(stamp);
+				writeString(entries, proxy.getDescription());
+			}
+			entries.flush();
+		}
+		final int count= proxies != null ? proxies.length : REMOVED;
+		writeString(output, path);
+		output.writeLong(lastModified);
+		output.writeLong(length);
+		output.writeInt(count);
+		output.writeLong(minStamp);
+		output.writeLong(maxStamp);
+		output.writeInt(bytes.size());
+		final long offset= output.size();
+		bytes.writeTo(output);
+		return new Segment(lastModified, length, count, minStamp, maxStamp, offset, bytes.size());
+	}
+
+	/**
+	 * Reads the refactoring descriptor proxies of the segments overlapping the
+	 * specified time range.
+	 *
+	 * @param project
+	 *            the name of the project, or <code>null</code> for the
+	 *            workspace
+	 * @param collection
+	 *            the collection of proxies to fill in
+	 * @param start
+	 *            the start time stamp, inclusive
+	 * @param end
+	 *            the end time stamp, inclusive
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	private void readSegments(final String project, final Collection<RefactoringDescriptorProxy> collection, final long start, final long end) throws IOException {
+		List<Segment> segments= null;
+		for (Segment segment : fSegments.values()) {
+			if (segment.overlaps(start, end)) {
+				if (segments == null)
+					segments= new ArrayList<>();
+				segments.add(segment);
+			}
+		}
+		if (segments == null)
+			return;
+		try (RandomAccessFile file= new RandomAccessFile(fFile, "r")) { //$NON-NLS-1$
+			for (Segment segment : segments) {
+				final byte[] bytes= new byte[segment.fByteLength];
+				file.seek(segment.fOffset);
+				file.readFully(bytes);
+				final DataInputStream input= new DataInputStream(new ByteArrayInputStream(bytes));
+				for (int index= 0; index < segment.fCount; index++) {
+					final long stamp= input.readLong();
+					final String description= readString(input);
+					if (stamp >= start && stamp <= end)
+						collection.add(new DefaultRefactoringDescriptorProxy(description, project, stamp));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Loads the segments of the index file, if not already loaded. An index
+	 * file which cannot be read is discarded.
+	 */
+	private void load() {
+		if (fSegments != null)
+			return;
+		fSegments= new LinkedHashMap<>();
+		fLiveBytes= 0;
+		if (!fFile.isFile())
+			return;
+		try (RandomAccessFile file= new RandomAccessFile(fFile, "r")) { //$NON-NLS-1$
+			if (file.readInt() != MAGIC || file.readInt() != VERSION || !fHistoryStore.toURI().toString().equals(readString(file)))
+				throw new EOFException();
+			fLiveBytes= file.getFilePointer();
+			final long length= file.length();
+			while (file.getFilePointer() < length) {
+				final String path= readString(file);
+				final long lastModified= file.readLong();
+				final long fileLength= file.readLong();
+				final int count= file.readInt();
+				final long minStamp= file.readLong();
+				final long maxStamp= file.readLong();
+				final int byteLength= file.readInt();
+				final long offset= file.getFilePointer();
+				if (byteLength < 0 || offset + byteLength > length)
+					throw new EOFException();
+				file.seek(offset + byteLength);
+				final Segment previous= fSegments.remove(path);
+				if (previous != null)
+					fLiveBytes-= previous.getFileLength(path);
+				if (count != REMOVED) {
+					final Segment segment= new Segment(lastModified, fileLength, count, minStamp, maxStamp, offset, byteLength);
+					fSegments.put(path, segment);
+					fLiveBytes+= segment.getFileLength(path);
+				}
+			}
+		} catch (IOException exception) {
+			// an incomplete or foreign index is read again from the text indexes
+			discard();
+			fSegments= new LinkedHashMap<>();
+		}
+	}
+
+	/**
+	 * Appends the specified segments to the index file, creating the file if
+	 * necessary.
+	 *
+	 * @param bytes
+	 *            the segments
+	 * @return the offset of the segments in the index file
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	private long append(final byte[] bytes) throws IOException {
+		fFile.getParentFile().mkdirs();
+		try (RandomAccessFile file= new RandomAccessFile(fFile, "rw")) { //$NON-NLS-1$
+			if (file.length() == 0) {
+				writeHeader(file);
+				fLiveBytes+= file.getFilePointer();
+			}
+			final long offset= file.length();
+			file.seek(offset);
+			file.write(bytes);
+			return offset;
+		}
+	}
+
+	/**
+	 * Rewrites the index file with the live segments only.
+	 *
+	 * @throws IOException
+	 *             if an input/output error occurs
+	 */
+	private void compact() throws IOException {
+		final File temporary= new File(fFile.getPath() + ".tmp"); //$NON-NLS-1$
+		final Map<String, Segment> segments= new LinkedHashMap<>();
+		long length;
+		try (RandomAccessFile source= new RandomAccessFile(fFile, "r"); RandomAccessFile target= new RandomAccessFile(temporary, "rw")) { //$NON-NLS-1$ //$NON-NLS-2$
+			target.setLength(0);
+			writeHeader(target);
+			for (Map.Entry<String, Segment> entry : fSegments.entrySet()) {
+				final Segment segment= entry.getValue();
+				final byte[] bytes= new byte[segment.fByteLength];
+				source.seek(segment.fOffset);
+				source.readFully(bytes);
+				writeString(target, entry.getKey());
+				target.writeLong(segment.fLastModified);
+				target.writeLong(segment.fLength);
+				target.writeInt(segment.fCount);
+				target.writeLong(segment.fMinStamp);
+				target.writeLong(segment.fMaxStamp);
+				target.writeInt(segment.fByteLength);
+				final long offset= target.getFilePointer();
+				target.write(bytes);
+				segments.put(entry.getKey(), new Segment(segment.fLastModified, segment.fLength, segment.fCount, segment.fMinStamp, segment.fMaxStamp, offset, segment.fByteLength));
+			}
+			length= target.length();
+		}
+		Files.move(temporary.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		fSegments= segments;
+		fLiveBytes= length;
+	}
+
+	/**
+	 * Deletes the index file and forgets the loaded segments.
+	 */
+	private void discard() {
+		fSegments= null;
+		fLiveBytes= 0;
+		if (fFile.exists() && !fFile.delete())
+			RefactoringCorePlugin.logErrorMessage("Could not delete refactoring history index " + fFile); //$NON-NLS-1$
+	}
+
+	private void writeHeader(final RandomAccessFile file) throws IOException {
+		file.writeInt(MAGIC);
+		file.writeInt(VERSION);
+		writeString(file, fHistoryStore.toURI().toString());
+	}
+
+	private static void writeString(final DataOutput output, final String string) throws IOException {
+		final byte[] bytes= string.getBytes(StandardCharsets.UTF_8);
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+	private static String readString(final DataInput input) throws IOException {
+		final int length= input.readInt();
+		if (length < 0 || length > (1 << 24))
+			throw new EOFException();
+		final byte[] bytes= new byte[length];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
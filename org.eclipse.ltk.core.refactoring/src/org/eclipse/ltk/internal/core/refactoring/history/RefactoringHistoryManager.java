@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2015 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -84,6 +84,7 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringSessionReader;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringSessionTransformer;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringSessionWriter;
 
 /**
  * Manager for persistable refactoring histories.
@@ -206,7 +207,7 @@ public final class RefactoringHistoryManager {
 	 * @throws CoreException
 	 *             if an error occurs
 	 */
-	private static void readRefactoringDescriptorProxies(final IFileStore store, final String project, final Collection<RefactoringDescriptorProxy> collection, final long start, final long end, final IProgressMonitor monitor, final String task) throws CoreException {
+	static void readRefactoringDescriptorProxies(final IFileStore store, final String project, final Collection<RefactoringDescriptorProxy> collection, final long start, final long end, final IProgressMonitor monitor, final String task) throws CoreException {
 		try {
 			monitor.beginTask(RefactoringCoreMessages.RefactoringHistoryService_retrieving_history, 22);
 			final IFileInfo info= store.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 2, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL));
@@ -682,33 +683,46 @@ public final class RefactoringHistoryManager {
 	 *             descriptor
 	 */
 	public static void writeRefactoringSession(final OutputStream stream, final RefactoringSessionDescriptor descriptor, final boolean stamps) throws CoreException {
-		final RefactoringSessionTransformer transformer= new RefactoringSessionTransformer(true);
-		final RefactoringDescriptor[] descriptors= descriptor.getRefactorings();
-		try {
-			transformer.beginSession(descriptor.getComment(), descriptor.getVersion());
-			for (RefactoringDescriptor current : descriptors) {
-				if (current != null) {
-					try {
-						long stamp= stamps ? current.getTimeStamp() : -1;
-						transformer.beginRefactoring(current.getID(), stamp, current.getProject(), current.getDescription(), current.getComment(), current.getFlags());
-						final Map<String, String> arguments= getArgumentMap(current);
-						if (arguments != null) {
-							checkArgumentMap(arguments);
-							for (Entry<String, String> entry : arguments.entrySet()) {
-								transformer.createArgument(entry.getKey(), entry.getValue());
-							}
-						}
-					} finally {
-						transformer.endRefactoring();
-					}
-				}
-			}
-		} finally {
-			transformer.endSession();
+		final RefactoringSessionWriter writer= new RefactoringSessionWriter(stream, true);
+		writer.beginSession(descriptor.getComment(), descriptor.getVersion());
+		for (RefactoringDescriptor current : descriptor.getRefactorings()) {
+			if (current != null)
+				writeRefactoringDescriptor(writer, current, stamps);
 		}
-		final Document result= transformer.getResult();
-		writeNode(stream, result);
+		writer.endSession();
+	}
+
+	/**
+	 * Writes the specified refactoring descriptor to the refactoring session
+	 * being written by the specified writer.
+	 * <p>
+	 * The refactoring is only written once its arguments have been checked,
+	 * so that no partial refactoring ends up in the output stream.
+	 * </p>
+	 *
+	 * @param writer
+	 *            the refactoring session writer
+	 * @param descriptor
+	 *            the refactoring descriptor to write
+	 * @param stamps
+	 *            <code>true</code> to write time stamps as well,
+	 *            <code>false</code> otherwise
+	 * @throws CoreException
+	 *             if the argument map of the descriptor is invalid
+	 */
+	static void writeRefactoringDescriptor(final RefactoringSessionWriter writer, final RefactoringDescriptor descriptor, final boolean stamps) throws CoreException {
+		final Map<String, String> arguments= getArgumentMap(descriptor);
+		if (arguments != null)
+			checkArgumentMap(arguments);
+		final long stamp= stamps ? descriptor.getTimeStamp() : -1;
+		writer.beginRefactoring(descriptor.getID(), stamp, descriptor.getProject(), descriptor.getDescription(), descriptor.getComment(), descriptor.getFlags());
+		if (arguments != null) {
+			for (Entry<String, String> entry : arguments.entrySet()) {
+				writer.createArgument(entry.getKey(), entry.getValue());
 			}
+		}
+		writer.endRefactoring();
+	}
 
 	private static void writeNode(final OutputStream stream, Document document) {
 		OutputStreamWriter outputStreamWriter= new OutputStreamWriter(stream, Charset.forName("UTF-8")); //$NON-NLS-1$
@@ -776,6 +790,7 @@ public final class RefactoringHistoryManager {
 			final long stamp= descriptor.getTimeStamp();
 			if (stamp >= 0) {
 				final IPath path= stampToPath(stamp);
+				RefactoringHistoryIndex.getIndex(fHistoryStore).invalidate(path);
 				final IFileStore folder= fHistoryStore.getFileStore(path);
 				final IFileStore history= folder.getChild(RefactoringHistoryService.NAME_HISTORY_FILE);
 				final IFileStore index= folder.getChild(RefactoringHistoryService.NAME_INDEX_FILE);
@@ -923,10 +938,10 @@ public final class RefactoringHistoryManager {
 			final Set<RefactoringDescriptorProxy> set= new HashSet<>();
 			try {
 				if (fHistoryStore.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(fHistoryStore, fProjectName, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					RefactoringHistoryIndex.getIndex(fHistoryStore).readRefactoringDescriptorProxies(fProjectName, set, start, end, new SubProgressMonitor(monitor, 80));
 				final IFileStore store= EFS.getLocalFileSystem().getStore(RefactoringCorePlugin.getDefault().getStateLocation()).getChild(RefactoringHistoryService.NAME_HISTORY_FOLDER).getChild(RefactoringHistoryService.NAME_WORKSPACE_PROJECT);
 				if (store.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 20, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists())
-					readRefactoringDescriptorProxies(store, null, set, start, end, new SubProgressMonitor(monitor, 80), RefactoringCoreMessages.RefactoringHistoryService_retrieving_history);
+					RefactoringHistoryIndex.getIndex(store).readRefactoringDescriptorProxies(null, set, start, end, new SubProgressMonitor(monitor, 80));
 			} catch (CoreException exception) {
 				RefactoringCorePlugin.log(exception);
 			}
@@ -959,6 +974,7 @@ public final class RefactoringHistoryManager {
 	private void removeRefactoringDescriptors(final RefactoringDescriptorProxy[] proxies, final IPath path, final IProgressMonitor monitor, final String task) throws CoreException {
 		try {
 			monitor.beginTask(task, 5);
+			RefactoringHistoryIndex.getIndex(fHistoryStore).invalidate(path);
 			final IFileStore folder= fHistoryStore.getFileStore(path);
 			final IFileStore index= folder.getChild(RefactoringHistoryService.NAME_INDEX_FILE);
 			if (index.fetchInfo(EFS.NONE, new SubProgressMonitor(monitor, 1, SubProgressMonitor.SUPPRESS_SUBTASK_LABEL)).exists()) {
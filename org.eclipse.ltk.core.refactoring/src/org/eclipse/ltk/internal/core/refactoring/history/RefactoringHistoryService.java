@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2005, 2016 IBM Corporation and others.
+ * Copyright (c) 2005, 2022 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.ltk.internal.core.refactoring.history;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -81,6 +82,7 @@ import org.eclipse.ltk.internal.core.refactoring.RefactoringCoreMessages;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringCorePlugin;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringPreferenceConstants;
 import org.eclipse.ltk.internal.core.refactoring.RefactoringSessionReader;
+import org.eclipse.ltk.internal.core.refactoring.RefactoringSessionWriter;
 import org.eclipse.ltk.internal.core.refactoring.UndoableOperation2ChangeAdapter;
 
 /**
@@ -727,24 +729,15 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 	public RefactoringHistory readRefactoringHistory(final InputStream stream, final int flags) throws CoreException {
 		Assert.isNotNull(stream);
 		Assert.isTrue(flags >= RefactoringDescriptor.NONE);
-		final List<RefactoringDescriptor> list= new ArrayList<>();
-		final RefactoringSessionDescriptor descriptor= new RefactoringSessionReader(false, null).readSession(new InputSource(stream));
-		if (descriptor != null) {
-			final RefactoringDescriptor[] descriptors= descriptor.getRefactorings();
-			if (flags > RefactoringDescriptor.NONE) {
-				for (RefactoringDescriptor d : descriptors) {
-					final int current= d.getFlags();
-					if ((current | flags) == current) {
-						list.add(d);
-					}
-				}
-			} else
-				list.addAll(Arrays.asList(descriptors));
-		}
-		final RefactoringDescriptorProxy[] proxies= new RefactoringDescriptorProxy[list.size()];
-		for (int index= 0; index < list.size(); index++)
-			proxies[index]= new RefactoringDescriptorProxyAdapter(list.get(index));
-		return new RefactoringHistoryImplementation(proxies);
+		// The stream cannot be read again to resolve a proxy later, so the history keeps all
+		// descriptors that match the flags. Only the ones that do not match are dropped while reading.
+		final List<RefactoringDescriptorProxy> list= new ArrayList<>();
+		new RefactoringSessionReader(false, null).readSession(new InputSource(stream), descriptor -> {
+			final int current= descriptor.getFlags();
+			if ((current | flags) == current)
+				list.add(new RefactoringDescriptorProxyAdapter(descriptor));
+		});
+		return new RefactoringHistoryImplementation(list.toArray(new RefactoringDescriptorProxy[list.size()]));
 	}
 
 	@Override
@@ -787,6 +780,31 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 		return null;
 	}
 
+	/**
+	 * Returns the binary index file of the specified refactoring history.
+	 * <p>
+	 * Note: this method is only used by tests.
+	 * </p>
+	 *
+	 * @param store
+	 *            the history file store
+	 * @return the index file, which may not exist
+	 */
+	public File getIndexFile(final IFileStore store) {
+		return RefactoringHistoryIndex.getIndex(store).getFile();
+	}
+
+	/**
+	 * Forgets the loaded binary indexes of the refactoring histories, so that
+	 * their files are read again as after a restart.
+	 * <p>
+	 * Note: this method is only used by tests.
+	 * </p>
+	 */
+	public void resetIndexes() {
+		RefactoringHistoryIndex.reset();
+	}
+
 	/**
 	 * Sets the override time stamp for the next refactoring performed.
 	 *
@@ -808,18 +826,17 @@ public final class RefactoringHistoryService implements IRefactoringHistoryServi
 		try {
 			monitor.beginTask("", 100 * proxies.length); //$NON-NLS-1$
 			connect();
-			final List<RefactoringDescriptor> list= new ArrayList<>(proxies.length);
+			final RefactoringSessionWriter writer= new RefactoringSessionWriter(stream, true);
+			writer.beginSession(null, IRefactoringSerializationConstants.CURRENT_VERSION);
 			for (RefactoringDescriptorProxy proxy : proxies) {
 				final RefactoringDescriptor descriptor= proxy.requestDescriptor(new SubProgressMonitor(monitor, 100));
 				if (descriptor != null) {
 					final int current= descriptor.getFlags();
 					if ((current | flags) == current)
-						list.add(descriptor);
+						RefactoringHistoryManager.writeRefactoringDescriptor(writer, descriptor, time);
 				}
 			}
-			final RefactoringDescriptor[] descriptors= new RefactoringDescriptor[list.size()];
-			list.toArray(descriptors);
-			RefactoringHistoryManager.writeRefactoringSession(stream, new RefactoringSessionDescriptor(descriptors, IRefactoringSerializationConstants.CURRENT_VERSION, null), time);
+			writer.endSession();
 		} finally {
 			disconnect();
 		}